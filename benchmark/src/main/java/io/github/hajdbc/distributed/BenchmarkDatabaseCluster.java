@@ -0,0 +1,128 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed;
+
+import java.lang.reflect.Proxy;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.balancer.simple.SimpleBalancer;
+import io.github.hajdbc.distributed.loopback.LoopbackCommandDispatcherFactory;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.lock.LockManager;
+import io.github.hajdbc.state.StateManager;
+
+/**
+ * Creates the members of a database cluster for benchmarking its distributed components within a single JVM.
+ * Only the facets of a database cluster used by the distributed lock and state managers are implemented.
+ * @author Paul Ferraro
+ */
+public class BenchmarkDatabaseCluster
+{
+	private static final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+	private static final ExecutorService executor = Executors.newCachedThreadPool(task ->
+	{
+		Thread thread = threadFactory.newThread(task);
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a command dispatcher factory for a member of a loopback channel.
+	 * @param name the member name
+	 * @param latency the one-way latency, in microseconds
+	 * @return a command dispatcher factory
+	 */
+	public static CommandDispatcherFactory createCommandDispatcherFactory(String name, long latency)
+	{
+		LoopbackCommandDispatcherFactory factory = new LoopbackCommandDispatcherFactory();
+		factory.setName(name);
+		factory.setLatency(latency);
+		return factory;
+	}
+
+	/**
+	 * Creates a cluster member with no databases.
+	 * @param id the cluster identifier
+	 * @param lockManager the local lock manager
+	 * @param stateManager the local state manager
+	 * @return a database cluster
+	 */
+	@SuppressWarnings("unchecked")
+	public static <Z, D extends Database<Z>> DatabaseCluster<Z, D> createDatabaseCluster(String id, LockManager lockManager, StateManager stateManager)
+	{
+		SimpleBalancer<Z, D> balancer = new SimpleBalancer<>(new TreeSet<D>());
+		Durability<Z, D> durability = (Durability<Z, D>) Proxy.newProxyInstance(Durability.class.getClassLoader(), new Class<?>[] { Durability.class }, (proxy, method, args) -> null);
+
+		return (DatabaseCluster<Z, D>) Proxy.newProxyInstance(DatabaseCluster.class.getClassLoader(), new Class<?>[] { DatabaseCluster.class }, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getId":
+				case "toString":
+				{
+					return id;
+				}
+				case "getLockManager":
+				{
+					return lockManager;
+				}
+				case "getStateManager":
+				{
+					return stateManager;
+				}
+				case "getBalancer":
+				{
+					return balancer;
+				}
+				case "getDurability":
+				{
+					return durability;
+				}
+				case "getExecutor":
+				{
+					return executor;
+				}
+				case "getThreadFactory":
+				{
+					return threadFactory;
+				}
+				case "hashCode":
+				{
+					return System.identityHashCode(proxy);
+				}
+				case "equals":
+				{
+					return proxy == args[0];
+				}
+				default:
+				{
+					return (method.getReturnType() == boolean.class) ? Boolean.FALSE : null;
+				}
+			}
+		});
+	}
+
+	private BenchmarkDatabaseCluster()
+	{
+	}
+}
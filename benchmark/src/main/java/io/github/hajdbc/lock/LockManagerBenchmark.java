@@ -0,0 +1,100 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hajdbc.IdentifiableMatcher;
+import io.github.hajdbc.util.ServiceLoaders;
+
+/**
+ * Compares the throughput of the available {@link LockManagerFactory}s, using one thread per processor.
+ * Simulates the global read lock obtained by every transaction, and the named write lock obtained for sequence/identity column access.
+ * @author Paul Ferraro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+public class LockManagerBenchmark
+{
+	@Param({ "stamped", "semaphore", "striped" })
+	private String factory;
+
+	// Number of distinct sequences/tables
+	@Param({ "64" })
+	private int objects;
+
+	private LockManager manager;
+	private String[] names;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException
+	{
+		this.manager = ServiceLoaders.findRequiredService(LockManagerFactory.class, new IdentifiableMatcher<LockManagerFactory>(this.factory)).createLockManager();
+		this.manager.start();
+		this.names = new String[this.objects];
+		for (int i = 0; i < this.objects; ++i)
+		{
+			this.names[i] = "sequence" + i;
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		this.manager.stop();
+	}
+
+	@Benchmark
+	public void globalReadLock()
+	{
+		Lock lock = this.manager.readLock(null);
+		lock.lock();
+		lock.unlock();
+	}
+
+	@Benchmark
+	public void namedWriteLock()
+	{
+		Lock lock = this.manager.writeLock(this.names[ThreadLocalRandom.current().nextInt(this.names.length)]);
+		lock.lock();
+		lock.unlock();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.distributed.BenchmarkDatabaseCluster;
+import io.github.hajdbc.lock.stamped.StampedLockManagerFactory;
+
+/**
+ * Measures the throughput and latency of named write locks, obtained for sequence/identity column access, across a multi-member cluster within a single JVM.
+ * Members communicate via the loopback transport, with a simulated network latency.
+ * Each benchmark thread is bound to a single member.
+ * @author Paul Ferraro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+public class DistributedLockManagerBenchmark
+{
+	@Param({ "2", "3" })
+	private int members;
+
+	// One-way network latency, in microseconds
+	@Param({ "0", "100" })
+	private long latency;
+
+	@Param({ "false", "true" })
+	private boolean leasing;
+
+	// Number of distinct sequences/tables
+	@Param({ "1", "64" })
+	private int objects;
+
+	private DistributedLockManager[] managers;
+	private String[] names;
+	private final AtomicInteger threads = new AtomicInteger();
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		this.managers = new DistributedLockManager[this.members];
+		for (int i = 0; i < this.members; ++i)
+		{
+			DatabaseCluster<Void, Database<Void>> cluster = BenchmarkDatabaseCluster.createDatabaseCluster("benchmark", new StampedLockManagerFactory().createLockManager(), null);
+			this.managers[i] = new DistributedLockManager(cluster, BenchmarkDatabaseCluster.createCommandDispatcherFactory("member" + i, this.latency), this.leasing);
+			this.managers[i].start();
+		}
+		this.names = new String[this.objects];
+		for (int i = 0; i < this.objects; ++i)
+		{
+			this.names[i] = "sequence" + i;
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		for (int i = this.members - 1; i >= 0; --i)
+		{
+			this.managers[i].stop();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Member
+	{
+		DistributedLockManager manager;
+
+		@Setup(Level.Trial)
+		public void setUp(DistributedLockManagerBenchmark benchmark)
+		{
+			this.manager = benchmark.managers[benchmark.threads.getAndIncrement() % benchmark.members];
+		}
+	}
+
+	@Benchmark
+	public void namedWriteLock(Member member)
+	{
+		Lock lock = member.manager.writeLock(this.names[ThreadLocalRandom.current().nextInt(this.names.length)]);
+		lock.lock();
+		lock.unlock();
+	}
+}
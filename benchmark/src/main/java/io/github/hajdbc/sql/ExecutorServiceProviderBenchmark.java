@@ -0,0 +1,122 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hajdbc.ExecutorServiceProvider;
+import io.github.hajdbc.IdentifiableMatcher;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+import io.github.hajdbc.util.ServiceLoaders;
+
+/**
+ * Compares the latency and platform thread count of the available {@link ExecutorServiceProvider}s,
+ * simulating concurrent writes that fan out to multiple databases via blocking I/O.
+ * Peak platform thread counts are logged at the end of each trial.
+ * @author Paul Ferraro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(512)
+@Fork(1)
+public class ExecutorServiceProviderBenchmark
+{
+	private static final Logger logger = LoggerFactory.getLogger(ExecutorServiceProviderBenchmark.class);
+
+	@Param({ "default", "virtual" })
+	private String provider;
+
+	@Param({ "2", "3" })
+	private int databases;
+
+	// Simulated round trip to each database
+	@Param({ "1000" })
+	private long latency;
+
+	private ExecutorServiceProvider executorProvider;
+	private ExecutorService executor;
+	private List<Callable<Integer>> invocations;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		this.executorProvider = ServiceLoaders.findRequiredService(ExecutorServiceProvider.class, new IdentifiableMatcher<ExecutorServiceProvider>(this.provider));
+		this.executor = this.executorProvider.getExecutor(Executors.defaultThreadFactory());
+		this.invocations = new ArrayList<>(this.databases);
+		for (int i = 0; i < this.databases; ++i)
+		{
+			final long latency = this.latency;
+			this.invocations.add(new Callable<Integer>()
+			{
+				@Override
+				public Integer call() throws InterruptedException
+				{
+					TimeUnit.MICROSECONDS.sleep(latency);
+					return 1;
+				}
+			});
+		}
+		ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		logger.log(io.github.hajdbc.logging.Level.INFO, "{0} executor: peak platform threads = {1}, live platform threads = {2}", this.provider, threads.getPeakThreadCount(), threads.getThreadCount());
+		this.executorProvider.release(this.executor);
+	}
+
+	@Benchmark
+	public int invokeAll() throws Exception
+	{
+		int result = 0;
+		for (Future<Integer> future: this.executor.invokeAll(this.invocations))
+		{
+			result += future.get();
+		}
+		return result;
+	}
+}
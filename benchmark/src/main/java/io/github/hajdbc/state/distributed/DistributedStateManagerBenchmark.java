@@ -0,0 +1,138 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.distributed;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.distributed.BenchmarkDatabaseCluster;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+import io.github.hajdbc.durability.InvokerResultImpl;
+import io.github.hajdbc.state.simple.SimpleStateManager;
+
+/**
+ * Measures the throughput and latency of the durability events of a transaction commit, replicated across a multi-member cluster within a single JVM.
+ * Members communicate via the loopback transport, with a simulated network latency.
+ * Each benchmark thread is bound to a single member.
+ * @author Paul Ferraro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+public class DistributedStateManagerBenchmark
+{
+	@Param({ "2", "3" })
+	private int members;
+
+	// One-way network latency, in microseconds
+	@Param({ "0", "100" })
+	private long latency;
+
+	@Param({ "false", "true" })
+	private boolean pipelined;
+
+	@Param({ "2" })
+	private int databases;
+
+	private DistributedStateManager<Void, Database<Void>>[] managers;
+	private String[] databaseIds;
+	private final AtomicInteger threads = new AtomicInteger();
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		this.managers = new DistributedStateManager[this.members];
+		for (int i = 0; i < this.members; ++i)
+		{
+			DatabaseCluster<Void, Database<Void>> cluster = BenchmarkDatabaseCluster.createDatabaseCluster("benchmark", null, new SimpleStateManager());
+			this.managers[i] = new DistributedStateManager<>(cluster, BenchmarkDatabaseCluster.createCommandDispatcherFactory("member" + i, this.latency), this.pipelined);
+			this.managers[i].start();
+		}
+		this.databaseIds = new String[this.databases];
+		for (int i = 0; i < this.databases; ++i)
+		{
+			this.databaseIds[i] = "db" + i;
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		for (int i = this.members - 1; i >= 0; --i)
+		{
+			this.managers[i].stop();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Member
+	{
+		DistributedStateManager<Void, Database<Void>> manager;
+
+		@Setup(Level.Trial)
+		public void setUp(DistributedStateManagerBenchmark benchmark)
+		{
+			this.manager = benchmark.managers[benchmark.threads.getAndIncrement() % benchmark.members];
+		}
+	}
+
+	@Benchmark
+	public void commit(Member member)
+	{
+		Object transactionId = UUID.randomUUID();
+		InvocationEvent invocation = new InvocationEventImpl(transactionId, Durability.Phase.COMMIT, ExceptionType.SQL);
+
+		member.manager.beforeInvocation(invocation);
+		for (String databaseId: this.databaseIds)
+		{
+			InvokerEvent invoker = new InvokerEventImpl(transactionId, Durability.Phase.COMMIT, databaseId);
+			member.manager.beforeInvoker(invoker);
+			invoker.setResult(new InvokerResultImpl(Integer.valueOf(1)));
+			member.manager.afterInvoker(invoker);
+		}
+		member.manager.afterInvocation(invocation);
+	}
+}
@@ -27,6 +27,7 @@ import io.github.hajdbc.dialect.Dialect;
 import io.github.hajdbc.durability.Durability;
 import io.github.hajdbc.io.InputSinkStrategy;
 import io.github.hajdbc.lock.LockManager;
+import io.github.hajdbc.sql.SQLAnalysisCache;
 import io.github.hajdbc.state.StateManager;
 import io.github.hajdbc.tx.TransactionIdentifierFactory;
 
@@ -101,6 +102,12 @@ public interface DatabaseCluster<Z, D extends Database<Z>> extends Lifecycle
 	 */
 	DatabaseMetaDataCache<Z, D> getDatabaseMetaDataCache();
 	
+	/**
+	 * Returns a cache of SQL analysis results.
+	 * @return a <code>SQLAnalysisCache</code>
+	 */
+	SQLAnalysisCache getSQLAnalysisCache();
+	
 	/**
 	 * Indicates whether or not sequence detection is enabled for this cluster.
 	 * @return true, if sequence detection is enabled, false otherwise.
@@ -131,5 +131,11 @@ public interface DatabaseClusterConfiguration<Z, D extends Database<Z>>
 	
 	boolean isEmptyClusterAllowed();
 
+	boolean isLockLeasingEnabled();
+
+	boolean isStatePipeliningEnabled();
+
+	boolean isLockInstrumentationEnabled();
+
 	InputSinkProvider getInputSinkProvider();
 }
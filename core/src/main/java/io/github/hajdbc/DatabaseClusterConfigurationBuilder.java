@@ -92,6 +92,9 @@ public class DatabaseClusterConfigurationBuilder<Z, D extends Database<Z>, B ext
 	private volatile boolean detectIdentityColumns = false;
 	private volatile boolean detectSequences = false;
 	private volatile boolean allowEmptyCluster = false;
+	private volatile boolean leaseLocks = false;
+	private volatile boolean pipelineState = false;
+	private volatile boolean instrumentLocks = false;
 	
 	protected DatabaseClusterConfigurationBuilder(DatabaseBuilderFactory<Z, D, B> factory)
 	{
@@ -213,6 +216,12 @@ public class DatabaseClusterConfigurationBuilder<Z, D extends Database<Z>, B ext
 		return builder;
 	}
 	
+	public DatabaseClusterConfigurationBuilder<Z, D, B> executor(String id)
+	{
+		this.executorProviderBuilder = new SimpleServiceBuilder<>(ExecutorServiceProvider.class, id);
+		return this;
+	}
+
 	public <T extends Builder<ExecutorServiceProvider>> T executor(Class<T> builderClass)
 	{
 		try
@@ -371,6 +380,24 @@ public class DatabaseClusterConfigurationBuilder<Z, D extends Database<Z>, B ext
 		return this;
 	}
 
+	public DatabaseClusterConfigurationBuilder<Z, D, B> leaseLocks(boolean enabled)
+	{
+		this.leaseLocks = enabled;
+		return this;
+	}
+
+	public DatabaseClusterConfigurationBuilder<Z, D, B> pipelineState(boolean enabled)
+	{
+		this.pipelineState = enabled;
+		return this;
+	}
+
+	public DatabaseClusterConfigurationBuilder<Z, D, B> instrumentLocks(boolean enabled)
+	{
+		this.instrumentLocks = enabled;
+		return this;
+	}
+
 	@Override
 	public DatabaseClusterConfigurationBuilder<Z, D, B> read(DatabaseClusterConfiguration<Z, D> configuration)
 	{
@@ -404,6 +431,9 @@ public class DatabaseClusterConfigurationBuilder<Z, D extends Database<Z>, B ext
 		final boolean detectIdentityColumns = this.detectIdentityColumns;
 		final boolean detectSequences = this.detectSequences;
 		final boolean allowEmptyCluster = this.allowEmptyCluster;
+		final boolean leaseLocks = this.leaseLocks;
+		final boolean pipelineState = this.pipelineState;
+		final boolean instrumentLocks = this.instrumentLocks;
 		
 		if (this.synchronizationStrategyBuilders.isEmpty())
 		{
@@ -580,6 +610,24 @@ public class DatabaseClusterConfigurationBuilder<Z, D extends Database<Z>, B ext
 				return allowEmptyCluster;
 			}
 
+			@Override
+			public boolean isLockLeasingEnabled()
+			{
+				return leaseLocks;
+			}
+
+			@Override
+			public boolean isStatePipeliningEnabled()
+			{
+				return pipelineState;
+			}
+
+			@Override
+			public boolean isLockInstrumentationEnabled()
+			{
+				return instrumentLocks;
+			}
+
 			@Override
 			public InputSinkProvider getInputSinkProvider()
 			{
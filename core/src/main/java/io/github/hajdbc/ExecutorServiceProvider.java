@@ -21,9 +21,10 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 
 /**
+ * Provides the executor used to invoke statements against multiple databases in parallel.
  * @author Paul Ferraro
  */
-public interface ExecutorServiceProvider
+public interface ExecutorServiceProvider extends Identifiable
 {
 	/**
 	 * Returns an executor to use for parallel statement execution
@@ -26,4 +26,14 @@ import java.util.concurrent.ExecutorService;
 public interface TransactionMode
 {
 	ExecutorService getTransactionExecutor(ExecutorService executor, boolean end);
+
+	/**
+	 * Returns the executor used to fan out non-transactional invocations across databases.
+	 * @param executor the cluster executor
+	 * @return an executor service
+	 */
+	default ExecutorService getExecutor(ExecutorService executor)
+	{
+		return executor;
+	}
 }
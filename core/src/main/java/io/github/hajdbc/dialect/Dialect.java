@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.transaction.xa.XAException;
 
@@ -156,7 +157,54 @@ public interface Dialect
 	 * @since 2.0.2
 	 */
 	String evaluateRand(String sql);
-	
+
+	/**
+	 * Scans the specified SQL statement via a single pass over its tokens, ignoring the content of string literals and comments.
+	 * By default, the statement is analyzed via {@link #isSelectForUpdate(String)}, {@link SequenceSupport#parseSequence(String)}, and {@link IdentityColumnSupport#parseInsertTable(String)},
+	 * and function invocations are not tracked, i.e. any non-deterministic function is assumed to be invoked.
+	 * @param sql an SQL statement
+	 * @return the result of the scan
+	 * @throws SQLException if the statement could not be analyzed
+	 */
+	default SQLScan scan(String sql) throws SQLException
+	{
+		SequenceSupport sequenceSupport = this.getSequenceSupport();
+		IdentityColumnSupport identityColumnSupport = this.getIdentityColumnSupport();
+		String sequence = (sequenceSupport != null) ? sequenceSupport.parseSequence(sql) : null;
+		String insertTable = (identityColumnSupport != null) ? identityColumnSupport.parseInsertTable(sql) : null;
+		return new SQLScan(sql, null, sequence, insertTable, this.isSelectForUpdate(sql));
+	}
+
+	/**
+	 * Replaces the specified non-deterministic functions of a scanned SQL statement with deterministic static values.
+	 * By default, delegates to the evaluation method of each specified function.
+	 * @param scan the result of {@link #scan(String)}
+	 * @param functions the functions to evaluate
+	 * @param time the replacement point in time, in milliseconds since the epoch
+	 * @return an equivalent deterministic SQL statement
+	 */
+	default String evaluate(SQLScan scan, Set<SQLFunction> functions, long time)
+	{
+		String sql = scan.getSQL();
+		if (functions.contains(SQLFunction.CURRENT_TIMESTAMP))
+		{
+			sql = this.evaluateCurrentTimestamp(sql, new java.sql.Timestamp(time));
+		}
+		if (functions.contains(SQLFunction.CURRENT_DATE))
+		{
+			sql = this.evaluateCurrentDate(sql, new java.sql.Date(time));
+		}
+		if (functions.contains(SQLFunction.CURRENT_TIME))
+		{
+			sql = this.evaluateCurrentTime(sql, new java.sql.Time(time));
+		}
+		if (functions.contains(SQLFunction.RAND))
+		{
+			sql = this.evaluateRand(sql);
+		}
+		return sql;
+	}
+
 	/**
 	 * Determines whether the specified exception indicates a catastrophic error.
 	 * @param e an exception
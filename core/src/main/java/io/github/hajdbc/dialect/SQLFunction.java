@@ -0,0 +1,28 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+/**
+ * Non-deterministic SQL functions that can be replaced by static values prior to statement execution.
+ * Constants are declared in order of precedence, should the rules of a dialect match more than one function at a given position.
+ * @author Paul Ferraro
+ */
+public enum SQLFunction
+{
+	CURRENT_TIMESTAMP, CURRENT_DATE, CURRENT_TIME, RAND
+}
@@ -0,0 +1,152 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a SQL statement into tokens via a single pass over its characters.
+ * Whitespace and comments are discarded, and string literals and quoted identifiers are each kept as a single token,
+ * so that their content is never mistaken for SQL syntax.
+ * @author Paul Ferraro
+ */
+final class SQLLexer
+{
+	static List<SQLToken> tokenize(String sql)
+	{
+		return tokenize(sql, false);
+	}
+	
+	/**
+	 * Tokenizes the specified SQL statement.
+	 * @param sql a SQL statement
+	 * @param backslashEscapes indicates whether a backslash escapes the following character within string literals, as in MySQL
+	 * @return a list of tokens
+	 */
+	static List<SQLToken> tokenize(String sql, boolean backslashEscapes)
+	{
+		int length = sql.length();
+		List<SQLToken> tokens = new ArrayList<>(length / 4);
+		int index = 0;
+		
+		while (index < length)
+		{
+			char c = sql.charAt(index);
+			int start = index;
+			
+			if (Character.isWhitespace(c))
+			{
+				index += 1;
+			}
+			else if ((c == '-') && (index + 1 < length) && (sql.charAt(index + 1) == '-'))
+			{
+				int end = sql.indexOf('\n', index + 2);
+				index = (end < 0) ? length : end + 1;
+			}
+			else if ((c == '/') && (index + 1 < length) && (sql.charAt(index + 1) == '*'))
+			{
+				int end = sql.indexOf("*/", index + 2);
+				index = (end < 0) ? length : end + 2;
+			}
+			else if (c == '\'')
+			{
+				index = skipQuoted(sql, index, c, backslashEscapes);
+				tokens.add(new SQLToken(sql, SQLToken.Type.LITERAL, start, index, backslashEscapes));
+			}
+			else if ((c == '"') || (c == '`'))
+			{
+				// Double quoted strings are literals in MySQL, unless ANSI_QUOTES mode is enabled
+				index = skipQuoted(sql, index, c, backslashEscapes && (c == '"'));
+				tokens.add(new SQLToken(sql, SQLToken.Type.QUOTED_IDENTIFIER, start, index));
+			}
+			else if (Character.isDigit(c))
+			{
+				index += 1;
+				while ((index < length) && (isWordPart(sql.charAt(index)) || (sql.charAt(index) == '.')))
+				{
+					index += 1;
+				}
+				tokens.add(new SQLToken(sql, SQLToken.Type.NUMBER, start, index));
+			}
+			else if (isWordPart(c))
+			{
+				index += 1;
+				while ((index < length) && isWordPart(sql.charAt(index)))
+				{
+					index += 1;
+				}
+				tokens.add(new SQLToken(sql, SQLToken.Type.WORD, start, index));
+			}
+			else
+			{
+				index += 1;
+				tokens.add(new SQLToken(sql, SQLToken.Type.SYMBOL, start, index));
+			}
+		}
+		
+		return tokens;
+	}
+	
+	private static boolean isWordPart(char c)
+	{
+		return Character.isLetterOrDigit(c) || (c == '_') || (c == '$');
+	}
+	
+	/**
+	 * Returns the offset following the closing quote of the quoted text starting at the specified offset.
+	 * A doubled quote character is treated as an escaped quote, as is a quote preceded by a backslash, if backslash escapes are enabled.
+	 */
+	private static int skipQuoted(String sql, int start, char quote, boolean backslashEscapes)
+	{
+		int length = sql.length();
+		int index = start + 1;
+		
+		while (index < length)
+		{
+			char c = sql.charAt(index);
+			
+			if (backslashEscapes && (c == '\\'))
+			{
+				index += 2;
+			}
+			else if (c == quote)
+			{
+				if ((index + 1 < length) && (sql.charAt(index + 1) == quote))
+				{
+					index += 2;
+				}
+				else
+				{
+					return index + 1;
+				}
+			}
+			else
+			{
+				index += 1;
+			}
+		}
+		
+		return length;
+	}
+	
+	private SQLLexer()
+	{
+		// Hide constructor
+	}
+}
@@ -0,0 +1,377 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+import java.util.List;
+
+/**
+ * A grammar rule matched against the tokens of a SQL statement.
+ * Dialects compose rules from the factory methods of this class, such that all rules of a dialect can be applied via a single pass over the tokens of a statement.
+ * Unlike regular expressions, rules never match within string literals, quoted identifiers, or comments.
+ * @author Paul Ferraro
+ */
+public abstract class SQLRule
+{
+	/**
+	 * Matches the remainder of an enclosing rule, beginning at a given token index.
+	 */
+	interface Continuation
+	{
+		/**
+		 * @param index the index of the next token to match
+		 * @return the index following the last token of the overall match, or -1 if there is no match
+		 */
+		int match(int index);
+	}
+	
+	/**
+	 * Holds the identifier captured by a rule.
+	 */
+	static class Capture
+	{
+		String value;
+	}
+	
+	private static final Continuation END = index -> index;
+	
+	/**
+	 * Attempts to match this rule, followed by the specified continuation, against the tokens starting at the specified index.
+	 * @param tokens the tokens of a SQL statement
+	 * @param index the index of the first token to match
+	 * @param capture the holder of any captured identifier
+	 * @param next matches the remainder of an enclosing rule
+	 * @return the index following the last token of the overall match, or -1 if there is no match
+	 */
+	abstract int match(List<SQLToken> tokens, int index, Capture capture, Continuation next);
+	
+	/**
+	 * Attempts to match this rule against the tokens starting at the specified index.
+	 * @param tokens the tokens of a SQL statement
+	 * @param index the index of the first token to match
+	 * @param capture the holder of any captured identifier
+	 * @return the index following the last matched token, or -1 if there is no match
+	 */
+	int match(List<SQLToken> tokens, int index, Capture capture)
+	{
+		return this.match(tokens, index, capture, END);
+	}
+	
+	/**
+	 * Returns a rule matching either this rule, or any of the specified rules, in order of preference.
+	 * @param rules alternative rules
+	 * @return a composite rule
+	 */
+	public SQLRule or(SQLRule... rules)
+	{
+		SQLRule[] alternatives = new SQLRule[rules.length + 1];
+		alternatives[0] = this;
+		System.arraycopy(rules, 0, alternatives, 1, rules.length);
+		return new AlternativeRule(alternatives);
+	}
+	
+	/**
+	 * Returns a rule matching any of the specified unquoted words, ignoring case.
+	 * @param words a set of alternative words
+	 * @return a single token rule
+	 */
+	public static SQLRule keyword(String... words)
+	{
+		return new TokenRule()
+		{
+			@Override
+			boolean matches(SQLToken token)
+			{
+				for (String word: words)
+				{
+					if (token.isWord(word)) return true;
+				}
+				return false;
+			}
+		};
+	}
+	
+	/**
+	 * Returns a rule matching the specified symbol.
+	 * @param symbol a symbol character
+	 * @return a single token rule
+	 */
+	public static SQLRule symbol(char symbol)
+	{
+		return new TokenRule()
+		{
+			@Override
+			boolean matches(SQLToken token)
+			{
+				return token.isSymbol(symbol);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a rule matching a numeric literal.
+	 * @return a single token rule
+	 */
+	public static SQLRule number()
+	{
+		return new TokenRule()
+		{
+			@Override
+			boolean matches(SQLToken token)
+			{
+				return token.getType() == SQLToken.Type.NUMBER;
+			}
+		};
+	}
+	
+	/**
+	 * Returns a rule matching a string literal with the specified value, ignoring case.
+	 * @param value the unquoted value of a string literal
+	 * @return a single token rule
+	 */
+	public static SQLRule literal(String value)
+	{
+		return new TokenRule()
+		{
+			@Override
+			boolean matches(SQLToken token)
+			{
+				return (token.getType() == SQLToken.Type.LITERAL) && token.getValue().equalsIgnoreCase(value);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a rule matching, and capturing, a possibly qualified identifier.
+	 * A string literal is also accepted, in which case its unquoted value is captured.
+	 * @return an identifier rule
+	 */
+	public static SQLRule identifier()
+	{
+		return new IdentifierRule();
+	}
+	
+	/**
+	 * Returns a rule matching the specified rules in succession.
+	 * @param rules a sequence of rules
+	 * @return a composite rule
+	 */
+	public static SQLRule sequence(SQLRule... rules)
+	{
+		return (rules.length == 1) ? rules[0] : new SequenceRule(rules);
+	}
+	
+	/**
+	 * Returns a rule optionally matching the specified rules in succession.
+	 * @param rules a sequence of rules
+	 * @return a composite rule
+	 */
+	public static SQLRule optional(SQLRule... rules)
+	{
+		return new OptionalRule(sequence(rules));
+	}
+	
+	/**
+	 * Returns a rule matching the specified rules in succession, enclosed by parentheses.
+	 * @param rules a sequence of rules
+	 * @return a composite rule
+	 */
+	public static SQLRule arguments(SQLRule... rules)
+	{
+		SQLRule[] sequence = new SQLRule[rules.length + 2];
+		sequence[0] = symbol('(');
+		System.arraycopy(rules, 0, sequence, 1, rules.length);
+		sequence[rules.length + 1] = symbol(')');
+		return new SequenceRule(sequence);
+	}
+	
+	/**
+	 * Returns a rule matching an invocation of any of the specified functions, without arguments.
+	 * @param names a set of alternative function names
+	 * @return a composite rule
+	 */
+	public static SQLRule function(String... names)
+	{
+		return sequence(keyword(names), arguments());
+	}
+	
+	/**
+	 * Returns a rule matching the fewest number of arbitrary tokens, such that the remainder of the enclosing rule matches.
+	 * @return a wildcard rule
+	 */
+	public static SQLRule any()
+	{
+		return new AnyRule();
+	}
+	
+	private abstract static class TokenRule extends SQLRule
+	{
+		abstract boolean matches(SQLToken token);
+		
+		@Override
+		int match(List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			return ((index < tokens.size()) && this.matches(tokens.get(index))) ? next.match(index + 1) : -1;
+		}
+	}
+	
+	private static class SequenceRule extends SQLRule
+	{
+		private final SQLRule[] rules;
+		
+		SequenceRule(SQLRule[] rules)
+		{
+			this.rules = rules;
+		}
+		
+		@Override
+		int match(List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			return this.match(0, tokens, index, capture, next);
+		}
+		
+		private int match(int element, List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			int current = element;
+			int position = index;
+			
+			// Match consecutive single token rules without creating continuations
+			while ((current < this.rules.length) && (this.rules[current] instanceof TokenRule))
+			{
+				if ((position >= tokens.size()) || !((TokenRule) this.rules[current]).matches(tokens.get(position))) return -1;
+				
+				current += 1;
+				position += 1;
+			}
+			
+			if (current == this.rules.length) return next.match(position);
+			
+			int following = current + 1;
+			
+			return this.rules[current].match(tokens, position, capture, i -> this.match(following, tokens, i, capture, next));
+		}
+	}
+	
+	private static class AlternativeRule extends SQLRule
+	{
+		private final SQLRule[] rules;
+		
+		AlternativeRule(SQLRule[] rules)
+		{
+			this.rules = rules;
+		}
+		
+		@Override
+		int match(List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			for (SQLRule rule: this.rules)
+			{
+				int end = rule.match(tokens, index, capture, next);
+				
+				if (end >= 0) return end;
+			}
+			return -1;
+		}
+	}
+	
+	private static class OptionalRule extends SQLRule
+	{
+		private final SQLRule rule;
+		
+		OptionalRule(SQLRule rule)
+		{
+			this.rule = rule;
+		}
+		
+		@Override
+		int match(List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			int end = this.rule.match(tokens, index, capture, next);
+			
+			return (end >= 0) ? end : next.match(index);
+		}
+	}
+	
+	private static class AnyRule extends SQLRule
+	{
+		@Override
+		int match(List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			for (int i = index; i <= tokens.size(); ++i)
+			{
+				int end = next.match(i);
+				
+				if (end >= 0) return end;
+			}
+			return -1;
+		}
+	}
+	
+	private static class IdentifierRule extends SQLRule
+	{
+		@Override
+		int match(List<SQLToken> tokens, int index, Capture capture, Continuation next)
+		{
+			int size = tokens.size();
+			if (index >= size) return -1;
+			
+			SQLToken first = tokens.get(index);
+			
+			if (first.getType() == SQLToken.Type.LITERAL)
+			{
+				return this.match(first.getValue(), index + 1, capture, next);
+			}
+			
+			// Find the last name of the longest qualified name
+			int last = -1;
+			for (int i = index; (i < size) && isName(tokens.get(i)); i += 2)
+			{
+				last = i;
+				
+				if ((i + 1 >= size) || !tokens.get(i + 1).isSymbol('.')) break;
+			}
+			
+			// Prefer the longest qualified name for which the remainder of the enclosing rule matches
+			for (int i = last; i >= index; i -= 2)
+			{
+				int end = this.match(SQLToken.getText(first, tokens.get(i)), i + 1, capture, next);
+				
+				if (end >= 0) return end;
+			}
+			return -1;
+		}
+		
+		private int match(String identifier, int index, Capture capture, Continuation next)
+		{
+			String previous = capture.value;
+			capture.value = identifier;
+			
+			int end = next.match(index);
+			
+			if (end < 0)
+			{
+				capture.value = previous;
+			}
+			return end;
+		}
+		
+		private static boolean isName(SQLToken token)
+		{
+			return (token.getType() == SQLToken.Type.WORD) || (token.getType() == SQLToken.Type.QUOTED_IDENTIFIER);
+		}
+	}
+}
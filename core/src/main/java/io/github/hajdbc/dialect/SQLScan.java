@@ -0,0 +1,134 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The result of scanning a SQL statement via {@link Dialect#scan(String)}.
+ * Records the positions of non-deterministic function invocations, so that they can be evaluated without rescanning the statement.
+ * @author Paul Ferraro
+ */
+public class SQLScan
+{
+	private final String sql;
+	private final List<Invocation> invocations;
+	private final String sequence;
+	private final String insertTable;
+	private final boolean selectForUpdate;
+	
+	SQLScan(String sql, List<Invocation> invocations, String sequence, String insertTable, boolean selectForUpdate)
+	{
+		this.sql = sql;
+		this.invocations = invocations;
+		this.sequence = sequence;
+		this.insertTable = insertTable;
+		this.selectForUpdate = selectForUpdate;
+	}
+	
+	/**
+	 * Returns the scanned SQL statement.
+	 * @return a SQL statement
+	 */
+	public String getSQL()
+	{
+		return this.sql;
+	}
+	
+	/**
+	 * Indicates whether the scanned statement invokes any of the specified functions.
+	 * If the scan did not track function invocations, any function is assumed to be invoked.
+	 * @param functions a set of non-deterministic functions
+	 * @return true, if any of the specified functions are invoked, false otherwise
+	 */
+	public boolean invokes(Set<SQLFunction> functions)
+	{
+		if (this.invocations == null) return !functions.isEmpty();
+		
+		for (Invocation invocation: this.invocations)
+		{
+			if (functions.contains(invocation.getFunction())) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the first sequence referenced by the scanned statement.
+	 * @return a sequence name, or null
+	 */
+	public String getSequence()
+	{
+		return this.sequence;
+	}
+	
+	/**
+	 * Returns the target table of the scanned insert statement.
+	 * @return a table name, or null
+	 */
+	public String getInsertTable()
+	{
+		return this.insertTable;
+	}
+	
+	/**
+	 * Indicates whether the scanned statement is a SELECT...FOR UPDATE statement.
+	 * @return true, if the statement selects for update, false otherwise
+	 */
+	public boolean isSelectForUpdate()
+	{
+		return this.selectForUpdate;
+	}
+	
+	List<Invocation> getInvocations()
+	{
+		return this.invocations;
+	}
+	
+	/**
+	 * The position of a non-deterministic function invocation within a SQL statement.
+	 */
+	static class Invocation
+	{
+		private final SQLFunction function;
+		private final int start;
+		private final int end;
+		
+		Invocation(SQLFunction function, int start, int end)
+		{
+			this.function = function;
+			this.start = start;
+			this.end = end;
+		}
+		
+		SQLFunction getFunction()
+		{
+			return this.function;
+		}
+		
+		int getStart()
+		{
+			return this.start;
+		}
+		
+		int getEnd()
+		{
+			return this.end;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+/**
+ * A token of a SQL statement, as produced by {@link SQLLexer}.
+ * @author Paul Ferraro
+ */
+class SQLToken
+{
+	enum Type
+	{
+		WORD, QUOTED_IDENTIFIER, LITERAL, NUMBER, SYMBOL
+	}
+	
+	private final String sql;
+	private final Type type;
+	private final int start;
+	private final int end;
+	private final boolean backslashEscapes;
+	
+	SQLToken(String sql, Type type, int start, int end)
+	{
+		this(sql, type, start, end, false);
+	}
+	
+	SQLToken(String sql, Type type, int start, int end, boolean backslashEscapes)
+	{
+		this.sql = sql;
+		this.type = type;
+		this.start = start;
+		this.end = end;
+		this.backslashEscapes = backslashEscapes;
+	}
+	
+	Type getType()
+	{
+		return this.type;
+	}
+	
+	/**
+	 * @return the offset of the first character of this token
+	 */
+	int getStart()
+	{
+		return this.start;
+	}
+	
+	/**
+	 * @return the offset following the last character of this token
+	 */
+	int getEnd()
+	{
+		return this.end;
+	}
+	
+	/**
+	 * Indicates whether this token is the specified word, ignoring case.
+	 */
+	boolean isWord(String word)
+	{
+		return (this.type == Type.WORD) && (this.end - this.start == word.length()) && this.sql.regionMatches(true, this.start, word, 0, word.length());
+	}
+	
+	/**
+	 * Indicates whether this token is the specified symbol.
+	 */
+	boolean isSymbol(char symbol)
+	{
+		return (this.type == Type.SYMBOL) && (this.sql.charAt(this.start) == symbol);
+	}
+	
+	/**
+	 * Returns the text of this token, as it appears in the SQL statement.
+	 */
+	String getText()
+	{
+		return this.sql.substring(this.start, this.end);
+	}
+	
+	/**
+	 * Returns the value of this token, i.e. the unquoted content of a literal, or the text of any other token.
+	 */
+	String getValue()
+	{
+		if (this.type != Type.LITERAL) return this.getText();
+		
+		int end = ((this.end - this.start > 1) && (this.sql.charAt(this.end - 1) == '\'')) ? this.end - 1 : this.end;
+		String value = this.sql.substring(this.start + 1, end);
+		
+		if (this.backslashEscapes && (value.indexOf('\\') >= 0))
+		{
+			StringBuilder builder = new StringBuilder(value.length());
+			for (int i = 0; i < value.length(); ++i)
+			{
+				char c = value.charAt(i);
+				if ((c == '\\') && (i + 1 < value.length()))
+				{
+					i += 1;
+					c = value.charAt(i);
+				}
+				else if ((c == '\'') && (i + 1 < value.length()) && (value.charAt(i + 1) == '\''))
+				{
+					i += 1;
+				}
+				builder.append(c);
+			}
+			return builder.toString();
+		}
+		
+		return value.replace("''", "'");
+	}
+	
+	/**
+	 * Returns the text of the SQL statement spanning the specified tokens.
+	 */
+	static String getText(SQLToken first, SQLToken last)
+	{
+		return first.sql.substring(first.start, last.end);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return this.getText();
+	}
+}
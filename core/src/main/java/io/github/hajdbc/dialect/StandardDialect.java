@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.Driver;
@@ -32,6 +34,8 @@ import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -100,13 +104,11 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 		"YEAR",
 	};
 	
-	private final Pattern selectForUpdatePattern = compile(this.selectForUpdatePattern());
-	private final Pattern insertIntoTablePattern = compile(this.insertIntoTablePattern());
-	private final Pattern sequencePattern = compile(this.sequencePattern());
-	private final Pattern currentTimestampPattern = compile(this.currentTimestampPattern());
-	private final Pattern currentDatePattern = compile(this.currentDatePattern());
-	private final Pattern currentTimePattern = compile(this.currentTimePattern());
-	private final Pattern randomPattern = compile(this.randomPattern());
+	private final SQLRule selectForUpdateRule = this.selectForUpdateRule();
+	private final SQLRule insertIntoTableRule = this.insertIntoTableRule();
+	private final SQLRule sequenceRule = this.sequenceRule();
+	private final Map<SQLFunction, SQLRule> functionRules = new EnumMap<>(SQLFunction.class);
+	private volatile SQLScan lastScan;
 	private final Pattern urlPattern = Pattern.compile(String.format("jdbc\\:%s\\:%s", this.vendorPattern(), this.locatorPattern()));
 	
 	protected String vendorPattern()
@@ -119,44 +121,56 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 		return "(?://(?<host>[^\\:/]+)(?:\\:(?<port>\\d+))?/)?(?<database>[^\\?]+)";
 	}
 	
-	private static Pattern compile(String pattern)
+	public StandardDialect()
 	{
-		return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+		this.functionRules.put(SQLFunction.CURRENT_TIMESTAMP, this.currentTimestampRule());
+		this.functionRules.put(SQLFunction.CURRENT_DATE, this.currentDateRule());
+		this.functionRules.put(SQLFunction.CURRENT_TIME, this.currentTimeRule());
+		this.functionRules.put(SQLFunction.RAND, this.randomRule());
 	}
 	
-	protected String selectForUpdatePattern()
+	/**
+	 * Indicates whether a backslash escapes the following character within string literals.
+	 * @return true, if backslash escapes are supported, false otherwise
+	 */
+	protected boolean supportsBackslashEscapes()
 	{
-		return "SELECT\\s+.+\\s+FOR\\s+UPDATE";
+		return false;
 	}
 
-	protected String insertIntoTablePattern()
+	protected SQLRule selectForUpdateRule()
 	{
-		return "INSERT\\s+(?:INTO\\s+)?'?([^'\\s\\(]+)";
+		return sequence(keyword("SELECT"), any(), keyword("FOR"), keyword("UPDATE"));
 	}
 
-	protected String sequencePattern()
+	protected SQLRule insertIntoTableRule()
 	{
-		return "NEXT\\s+VALUE\\s+FOR\\s+'?([^',\\s\\(\\)]+)";
+		return sequence(keyword("INSERT"), optional(keyword("INTO")), identifier());
+	}
+
+	protected SQLRule sequenceRule()
+	{
+		return sequence(keyword("NEXT"), keyword("VALUE"), keyword("FOR"), identifier());
 	}
 	
-	protected String currentDatePattern()
+	protected SQLRule currentDateRule()
 	{
-		return "(?<=\\W)CURRENT_DATE(?=\\W)";
+		return keyword("CURRENT_DATE");
 	}
 	
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return "(?<=\\W)CURRENT_TIME(?:\\s*\\(\\s*\\d+\\s*\\))?(?=\\W)|(?<=\\W)LOCALTIME(?:\\s*\\(\\s*\\d+\\s*\\))?(?=\\W)";
+		return sequence(keyword("CURRENT_TIME", "LOCALTIME"), optional(arguments(number())));
 	}
 
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return "(?<=\\W)CURRENT_TIMESTAMP(?:\\s*\\(\\s*\\d+\\s*\\))?(?=\\W)|(?<=\\W)LOCALTIMESTAMP(?:\\s*\\(\\s*\\d+\\s*\\))?(?=\\W)";
+		return sequence(keyword("CURRENT_TIMESTAMP", "LOCALTIMESTAMP"), optional(arguments(number())));
 	}
 	
-	protected String randomPattern()
+	protected SQLRule randomRule()
 	{
-		return "(?<=\\W)RAND\\s*\\(\\s*\\)";
+		return function("RAND");
 	}
 
 	@SuppressWarnings("unused")
@@ -252,7 +266,7 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 	@Override
 	public boolean isSelectForUpdate(String sql)
 	{
-		return this.selectForUpdatePattern.matcher(sql).find();
+		return this.scan(sql).isSelectForUpdate();
 	}
 
 	@Override
@@ -301,7 +315,7 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 	@Override
 	public String parseSequence(String sql)
 	{
-		return this.parse(this.sequencePattern, sql);
+		return this.scan(sql).getSequence();
 	}
 
 	@Override
@@ -362,7 +376,7 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 	@Override
 	public String parseInsertTable(String sql)
 	{
-		return this.parse(this.insertIntoTablePattern, sql);
+		return this.scan(sql).getInsertTable();
 	}
 
 	@Override
@@ -376,17 +390,10 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 		return "ALTER TABLE {0} ALTER COLUMN {1} RESTART WITH {2}";
 	}
 
-	protected String parse(Pattern pattern, String string)
-	{
-		Matcher matcher = pattern.matcher(string);
-		
-		return matcher.find() ? matcher.group(1) : null;
-	}
-
 	@Override
 	public String evaluateCurrentDate(String sql, java.sql.Date date)
 	{
-		return evaluateTemporal(sql, this.currentDatePattern, date, this.dateLiteralFormat());
+		return this.evaluate(this.scan(sql), EnumSet.of(SQLFunction.CURRENT_DATE), date.getTime());
 	}
 	
 	protected String dateLiteralFormat()
@@ -397,7 +404,7 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 	@Override
 	public String evaluateCurrentTime(String sql, java.sql.Time time)
 	{
-		return evaluateTemporal(sql, this.currentTimePattern, time, this.timeLiteralFormat());
+		return this.evaluate(this.scan(sql), EnumSet.of(SQLFunction.CURRENT_TIME), time.getTime());
 	}
 	
 	protected String timeLiteralFormat()
@@ -408,7 +415,7 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 	@Override
 	public String evaluateCurrentTimestamp(String sql, java.sql.Timestamp timestamp)
 	{
-		return evaluateTemporal(sql, this.currentTimestampPattern, timestamp, this.timestampLiteralFormat());
+		return this.evaluate(this.scan(sql), EnumSet.of(SQLFunction.CURRENT_TIMESTAMP), timestamp.getTime());
 	}
 	
 	protected String timestampLiteralFormat()
@@ -416,23 +423,134 @@ public class StandardDialect implements Dialect, SequenceSupport, IdentityColumn
 		return "TIMESTAMP ''{0}''";
 	}
 
-	private static String evaluateTemporal(String sql, Pattern pattern, java.util.Date date, String format)
+	@Override
+	public String evaluateRand(String sql)
 	{
-		return pattern.matcher(sql).replaceAll(MessageFormat.format(format, date.toString()));
+		return this.evaluate(this.scan(sql), EnumSet.of(SQLFunction.RAND), System.currentTimeMillis());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * The most recent scan is reused by subsequent scans of the same statement, e.g. by {@link #parseSequence(String)} and {@link #parseInsertTable(String)} following a scan by the caller.
+	 */
 	@Override
-	public String evaluateRand(String sql)
-	{	
-		StringBuffer buffer = new StringBuffer();
-		Matcher matcher = this.randomPattern.matcher(sql);
+	public SQLScan scan(String sql)
+	{
+		SQLScan scan = this.lastScan;
+		
+		if ((scan == null) || !scan.getSQL().equals(sql))
+		{
+			scan = this.createScan(sql);
+			this.lastScan = scan;
+		}
+		
+		return scan;
+	}
+
+	private SQLScan createScan(String sql)
+	{
+		List<SQLToken> tokens = SQLLexer.tokenize(sql, this.supportsBackslashEscapes());
+		List<SQLScan.Invocation> invocations = new LinkedList<>();
+		String sequence = null;
+		String insertTable = null;
+		boolean selectForUpdate = false;
+		SQLRule.Capture capture = new SQLRule.Capture();
+		
+		int index = 0;
+		while (index < tokens.size())
+		{
+			int next = index + 1;
+			
+			for (Map.Entry<SQLFunction, SQLRule> entry: this.functionRules.entrySet())
+			{
+				int end = entry.getValue().match(tokens, index, capture);
+				
+				if (end > index)
+				{
+					invocations.add(new SQLScan.Invocation(entry.getKey(), tokens.get(index).getStart(), tokens.get(end - 1).getEnd()));
+					next = end;
+					break;
+				}
+			}
+			
+			if (sequence == null)
+			{
+				sequence = capture(this.sequenceRule, tokens, index);
+			}
+			
+			if (insertTable == null)
+			{
+				insertTable = capture(this.insertIntoTableRule, tokens, index);
+			}
+			
+			if (!selectForUpdate)
+			{
+				selectForUpdate = this.selectForUpdateRule.match(tokens, index, capture) >= 0;
+			}
+			
+			index = next;
+		}
+		
+		return new SQLScan(sql, invocations, sequence, insertTable, selectForUpdate);
+	}
+
+	private static String capture(SQLRule rule, List<SQLToken> tokens, int index)
+	{
+		SQLRule.Capture capture = new SQLRule.Capture();
 		
-		while (matcher.find())
+		return (rule.match(tokens, index, capture) >= 0) ? capture.value : null;
+	}
+
+	@Override
+	public String evaluate(SQLScan scan, Set<SQLFunction> functions, long time)
+	{
+		String sql = scan.getSQL();
+		StringBuilder builder = null;
+		int offset = 0;
+		
+		for (SQLScan.Invocation invocation: scan.getInvocations())
 		{
-			matcher.appendReplacement(buffer, Double.toString(Math.random()));
+			SQLFunction function = invocation.getFunction();
+			
+			if (functions.contains(function))
+			{
+				if (builder == null)
+				{
+					builder = new StringBuilder(sql.length() + 32);
+				}
+				builder.append(sql, offset, invocation.getStart()).append(this.evaluate(function, time));
+				offset = invocation.getEnd();
+			}
 		}
 		
-		return matcher.appendTail(buffer).toString();
+		return (builder != null) ? builder.append(sql, offset, sql.length()).toString() : sql;
+	}
+
+	private String evaluate(SQLFunction function, long time)
+	{
+		switch (function)
+		{
+			case CURRENT_DATE:
+			{
+				return MessageFormat.format(this.dateLiteralFormat(), new java.sql.Date(time).toString());
+			}
+			case CURRENT_TIME:
+			{
+				return MessageFormat.format(this.timeLiteralFormat(), new java.sql.Time(time).toString());
+			}
+			case CURRENT_TIMESTAMP:
+			{
+				return MessageFormat.format(this.timestampLiteralFormat(), new java.sql.Timestamp(time).toString());
+			}
+			case RAND:
+			{
+				return Double.toString(Math.random());
+			}
+			default:
+			{
+				throw new IllegalArgumentException(function.name());
+			}
+		}
 	}
 
 	@Override
@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.db2;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -29,6 +31,7 @@ import io.github.hajdbc.IdentityColumnSupport;
 import io.github.hajdbc.SequenceProperties;
 import io.github.hajdbc.SequencePropertiesFactory;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -83,9 +86,9 @@ public class DB2Dialect extends StandardDialect
 	}
 
 	@Override
-	protected String sequencePattern()
+	protected SQLRule sequenceRule()
 	{
-		return "(?:NEXT|PREV)VAL\\s+FOR\\s+'?([^',\\s\\(\\)]+)";
+		return sequence(keyword("NEXTVAL", "PREVVAL"), keyword("FOR"), identifier());
 	}
 
 	@Override
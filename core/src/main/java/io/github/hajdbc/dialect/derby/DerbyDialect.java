@@ -17,8 +17,11 @@
  */
 package io.github.hajdbc.dialect.derby;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import io.github.hajdbc.IdentityColumnSupport;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -65,21 +68,21 @@ public class DerbyDialect extends StandardDialect
 	}
 
 	@Override
-	protected String currentDatePattern()
+	protected SQLRule currentDateRule()
 	{
-		return super.currentDatePattern() + "|(?<=\\W)CURRENT\\s+DATE(?=\\W)";
+		return super.currentDateRule().or(sequence(keyword("CURRENT"), keyword("DATE")));
 	}
 
 	@Override
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return super.currentTimePattern() + "|(?<=\\W)CURRENT\\s+TIME(?=\\W)";
+		return super.currentTimeRule().or(sequence(keyword("CURRENT"), keyword("TIME")));
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return super.currentTimestampPattern() + "|(?<=\\W)CURRENT\\s+TIMESTAMP(?=\\W)";
+		return super.currentTimestampRule().or(sequence(keyword("CURRENT"), keyword("TIMESTAMP")));
 	}
 
 	@Override
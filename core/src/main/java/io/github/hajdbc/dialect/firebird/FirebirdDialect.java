@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.firebird;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -28,6 +30,7 @@ import java.util.List;
 import io.github.hajdbc.SequenceProperties;
 import io.github.hajdbc.SequencePropertiesFactory;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -84,15 +87,15 @@ public class FirebirdDialect extends StandardDialect
 	 * Firebird 2.0 will support standard syntax.  Until then...
 	 */
 	@Override
-	protected String sequencePattern()
+	protected SQLRule sequenceRule()
 	{
-		return "GEN_ID\\s*\\(\\s*([^\\s,]+)\\s*,\\s*\\d+\\s*\\)";
+		return sequence(keyword("GEN_ID"), arguments(identifier(), symbol(','), number()));
 	}
 
 	@Override
-	protected String selectForUpdatePattern()
+	protected SQLRule selectForUpdateRule()
 	{
-		return "SELECT\\s+.+\\s+WITH\\s+LOCK";
+		return sequence(keyword("SELECT"), any(), keyword("WITH"), keyword("LOCK"));
 	}
 
 	@Override
@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.h2;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -32,6 +34,7 @@ import java.util.Set;
 import io.github.hajdbc.SequenceProperties;
 import io.github.hajdbc.SequencePropertiesFactory;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -89,27 +92,27 @@ public class H2Dialect extends StandardDialect
 	}
 
 	@Override
-	protected String currentDatePattern()
+	protected SQLRule currentDateRule()
 	{
-		return "(?<=\\W)CURRENT_DATE(?:\\s*\\(\\s*\\))?(?=\\W)|(?<=\\W)CURDATE\\s*\\(\\s*\\)|(?<=\\W)SYSDATE(?=\\W)|(?<=\\W)TODAY(?=\\W)";
+		return sequence(keyword("CURRENT_DATE"), optional(arguments())).or(function("CURDATE"), keyword("SYSDATE", "TODAY"));
 	}
 
 	@Override
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return "(?<=\\W)CURRENT_TIME(?:\\s*\\(\\s*\\))?(?=\\W)|(?<=\\W)CURTIME\\s*\\(\\s*\\)";
+		return sequence(keyword("CURRENT_TIME"), optional(arguments())).or(function("CURTIME"));
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return "(?<=\\W)CURRENT_TIMESTAMP(?:\\s*\\(\\s*\\d*\\s*\\))?(?=\\W)|(?<=\\W)NOW\\s*\\(\\s*\\d*\\s*\\)";
+		return sequence(keyword("CURRENT_TIMESTAMP"), optional(arguments(optional(number())))).or(sequence(keyword("NOW"), arguments(optional(number()))));
 	}
 
 	@Override
-	protected String randomPattern()
+	protected SQLRule randomRule()
 	{
-		return "(?<=\\W)RAND\\s*\\(\\s*\\d*\\s*\\)";
+		return sequence(keyword("RAND"), arguments(optional(number())));
 	}
 
 	@Override
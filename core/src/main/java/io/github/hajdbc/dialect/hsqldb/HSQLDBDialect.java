@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.hsqldb;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -32,6 +34,7 @@ import java.util.Set;
 import io.github.hajdbc.SequenceProperties;
 import io.github.hajdbc.SequencePropertiesFactory;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -97,21 +100,21 @@ public class HSQLDBDialect extends StandardDialect
 	}
 
 	@Override
-	protected String currentDatePattern()
+	protected SQLRule currentDateRule()
 	{
-		return "(?<=\\W)CURRENT_DATE(?=\\W)|(?<=\\W)CURDATE\\s*\\(\\s*\\)";
+		return keyword("CURRENT_DATE").or(function("CURDATE"));
 	}
 
 	@Override
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return "(?<=\\W)CURRENT_TIME(?=\\W)|(?<=\\W)CURTIME\\s*\\(\\s*\\)";
+		return keyword("CURRENT_TIME").or(function("CURTIME"));
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return "(?<=\\W)CURRENT_TIMESTAMP(?=\\W)|(?<=\\W)NOW\\s*\\(\\s*\\)";
+		return keyword("CURRENT_TIMESTAMP").or(function("NOW"));
 	}
 
 	@Override
@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.ingres;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -24,11 +26,11 @@ import java.sql.Statement;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import io.github.hajdbc.SequenceProperties;
 import io.github.hajdbc.SequencePropertiesFactory;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -38,8 +40,6 @@ import io.github.hajdbc.dialect.StandardDialect;
  */
 public class IngresDialect extends StandardDialect
 {
-	private final Pattern legacySequencePattern = Pattern.compile("'?(\\w+)'?\\.(?:(?:CURR)|(?:NEXT))VAL", Pattern.CASE_INSENSITIVE);
-	
 	@Override
 	protected String vendorPattern()
 	{
@@ -72,40 +72,32 @@ public class IngresDialect extends StandardDialect
 	}
 
 	@Override
-	public String parseSequence(String sql)
-	{
-		String sequence = super.parseSequence(sql);
-		
-		return (sequence != null) ? sequence : this.parse(this.legacySequencePattern, sql);
-	}
-
-	@Override
-	protected String sequencePattern()
+	protected SQLRule sequenceRule()
 	{
-		return "(?:NEXT|CURRENT)\\s+VALUE\\s+FOR\\s+'?([^',\\s\\(\\)]+)";
+		return sequence(keyword("NEXT", "CURRENT"), keyword("VALUE"), keyword("FOR"), identifier()).or(sequence(identifier(), symbol('.'), keyword("CURRVAL", "NEXTVAL")));
 	}
 
 	@Override
-	protected String currentDatePattern()
+	protected SQLRule currentDateRule()
 	{
-		return "(?<=\\W)CURRENT_DATE(?=\\W)|(?<=\\W)DATE\\s*\\(\\s*'TODAY'\\s*\\)";
+		return keyword("CURRENT_DATE").or(sequence(keyword("DATE"), arguments(literal("TODAY"))));
 	}
 
 	@Override
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return "(?<=\\W)CURRENT_TIME(?=\\W)|(?<=\\W)LOCAL_TIME(?=\\W)";
+		return keyword("CURRENT_TIME", "LOCAL_TIME");
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return "(?<=\\W)CURRENT_TIMESTAMP(?=\\W)|(?<=\\W)LOCAL_TIMESTAMP(?=\\W)|(?<=\\W)DATE\\s*\\(\\s*'NOW'\\s*\\)";
+		return keyword("CURRENT_TIMESTAMP", "LOCAL_TIMESTAMP").or(sequence(keyword("DATE"), arguments(literal("NOW"))));
 	}
 
 	@Override
-	protected String randomPattern()
+	protected SQLRule randomRule()
 	{
-		return "(?<=\\W)RANDOMF\\s*\\(\\s*\\)";
+		return function("RANDOMF");
 	}
 }
@@ -17,7 +17,10 @@
  */
 package io.github.hajdbc.dialect.mckoi;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -41,14 +44,14 @@ public class MckoiDialect extends StandardDialect
 	}
 
 	@Override
-	protected String sequencePattern()
+	protected SQLRule sequenceRule()
 	{
-		return "(?:CURR|NEXT)VAL\\s*\\(\\s*'([^']+)'\\s*\\)";
+		return sequence(keyword("CURRVAL", "NEXTVAL"), arguments(identifier()));
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return super.currentTimestampPattern() + "|(?<=\\W)DATEOB\\s*\\(\\s*\\)";
+		return super.currentTimestampRule().or(function("DATEOB"));
 	}
 }
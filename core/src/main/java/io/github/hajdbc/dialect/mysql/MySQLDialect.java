@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.mysql;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.io.File;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
@@ -30,6 +32,7 @@ import io.github.hajdbc.Database;
 import io.github.hajdbc.DumpRestoreSupport;
 import io.github.hajdbc.codec.Decoder;
 import io.github.hajdbc.dialect.ConnectionProperties;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 import io.github.hajdbc.util.Processes;
 import io.github.hajdbc.util.Strings;
@@ -123,21 +126,27 @@ public class MySQLDialect extends StandardDialect implements DumpRestoreSupport
 	}
 
 	@Override
-	protected String currentDatePattern()
+	protected boolean supportsBackslashEscapes()
+	{
+		return true;
+	}
+
+	@Override
+	protected SQLRule currentDateRule()
 	{
-		return super.currentDatePattern() + "|(?<=\\W)CURDATE\\s*\\(\\s*\\)";
+		return super.currentDateRule().or(function("CURDATE"));
 	}
 
 	@Override
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return super.currentTimePattern() + "|(?<=\\W)CURTIME\\s*\\(\\s*\\)";
+		return super.currentTimeRule().or(function("CURTIME"));
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return super.currentTimestampPattern() + "|(?<=\\W)NOW\\s*\\(\\s*\\)|(?<=\\W)SYSDATE\\s*\\(\\s*\\)";
+		return super.currentTimestampRule().or(function("NOW", "SYSDATE"));
 	}
 	
 	@Override
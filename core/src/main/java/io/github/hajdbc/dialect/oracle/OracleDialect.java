@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.oracle;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -28,6 +30,7 @@ import java.util.List;
 import io.github.hajdbc.SequenceProperties;
 import io.github.hajdbc.SequencePropertiesFactory;
 import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -96,9 +99,9 @@ public class OracleDialect extends StandardDialect
 	}
 
 	@Override
-	protected String sequencePattern()
+	protected SQLRule sequenceRule()
 	{
-		return "'?(\\w+)'?\\.(?:CURR|NEXT)VAL";
+		return sequence(identifier(), symbol('.'), keyword("CURRVAL", "NEXTVAL"));
 	}
 
 	@Override
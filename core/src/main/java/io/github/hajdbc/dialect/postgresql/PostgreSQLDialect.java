@@ -17,6 +17,8 @@
  */
 package io.github.hajdbc.dialect.postgresql;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.io.File;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
@@ -38,6 +40,7 @@ import io.github.hajdbc.SequenceSupport;
 import io.github.hajdbc.TriggerSupport;
 import io.github.hajdbc.codec.Decoder;
 import io.github.hajdbc.dialect.ConnectionProperties;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 import io.github.hajdbc.util.Processes;
 import io.github.hajdbc.util.Strings;
@@ -155,9 +158,9 @@ public class PostgreSQLDialect extends StandardDialect implements DumpRestoreSup
 	}
 
 	@Override
-	protected String sequencePattern()
+	protected SQLRule sequenceRule()
 	{
-		return "(?:CURR|NEXT)VAL\\s*\\(\\s*'([^']+)'\\s*\\)";
+		return sequence(keyword("CURRVAL", "NEXTVAL"), arguments(identifier()));
 	}
 
 	@Override
@@ -173,24 +176,24 @@ public class PostgreSQLDialect extends StandardDialect implements DumpRestoreSup
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return super.currentTimestampPattern() + "|(?<=\\W)NOW\\s*\\(\\s*\\)|(?<=\\W)TRANSACTION_TIMESTAMP\\s*\\(\\s*\\)|(?<=\\W)STATEMENT_TIMESTAMP\\s*\\(\\s*\\)|(?<=\\W)CLOCK_TIMESTAMP\\s*\\(\\s*\\)";
+		return super.currentTimestampRule().or(function("NOW", "TRANSACTION_TIMESTAMP", "STATEMENT_TIMESTAMP", "CLOCK_TIMESTAMP"));
 	}
 
 	@Override
-	protected String randomPattern()
+	protected SQLRule randomRule()
 	{
-		return "(?<=\\W)RANDOM\\s*\\(\\s*\\)";
+		return function("RANDOM");
 	}
 
 	/**
 	 * Recognizes FOR SHARE and FOR UPDATE.
 	 */
 	@Override
-	protected String selectForUpdatePattern()
+	protected SQLRule selectForUpdateRule()
 	{
-		return "SELECT\\s+.+\\s+FOR\\s+(SHARE|UPDATE)";
+		return sequence(keyword("SELECT"), any(), keyword("FOR"), keyword("SHARE", "UPDATE"));
 	}
 
 	@Override
@@ -17,11 +17,14 @@
  */
 package io.github.hajdbc.dialect.sybase;
 
+import static io.github.hajdbc.dialect.SQLRule.*;
+
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 import io.github.hajdbc.IdentityColumnSupport;
+import io.github.hajdbc.dialect.SQLRule;
 import io.github.hajdbc.dialect.StandardDialect;
 
 /**
@@ -59,21 +62,21 @@ public class SybaseDialect extends StandardDialect
 	}
 
 	@Override
-	protected String currentDatePattern()
+	protected SQLRule currentDateRule()
 	{
-		return "(?<=\\W)CURRENT\\s+DATE(?=\\W)|(?<=\\W)TODAY\\s*\\(\\s*\\*\\s*\\)";
+		return sequence(keyword("CURRENT"), keyword("DATE")).or(sequence(keyword("TODAY"), arguments(symbol('*'))));
 	}
 
 	@Override
-	protected String currentTimePattern()
+	protected SQLRule currentTimeRule()
 	{
-		return "(?<=\\W)CURRENT\\s+TIME(?=\\W)";
+		return sequence(keyword("CURRENT"), keyword("TIME"));
 	}
 
 	@Override
-	protected String currentTimestampPattern()
+	protected SQLRule currentTimestampRule()
 	{
-		return "(?<=\\W)CURRENT\\s+TIMESTAMP(?=\\W)|(?<=\\W)GETDATE\\s*\\(\\s*\\)|(?<=\\W)NOW\\s*\\(\\s*\\*\\s*\\)";
+		return sequence(keyword("CURRENT"), keyword("TIMESTAMP")).or(function("GETDATE"), sequence(keyword("NOW"), arguments(symbol('*'))));
 	}
 
 	@Override
@@ -95,9 +98,9 @@ public class SybaseDialect extends StandardDialect
 	}
 	
 	@Override
-	protected String randomPattern()
+	protected SQLRule randomRule()
 	{
-		return "(?<=\\W)RAND\\s*\\(\\s*\\d*\\s*\\)";
+		return sequence(keyword("RAND"), arguments(optional(number())));
 	}
 
 	/**
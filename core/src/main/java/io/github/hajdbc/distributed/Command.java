@@ -34,4 +34,13 @@ public interface Command<R, C> extends Serializable
 	 * @return the result of this command.
 	 */
 	R execute(C context);
+
+	/**
+	 * Returns the options with which this command is delivered.
+	 * @return delivery options
+	 */
+	default DeliveryOptions getDeliveryOptions()
+	{
+		return DeliveryOptions.DEFAULT;
+	}
 }
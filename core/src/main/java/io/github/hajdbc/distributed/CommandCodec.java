@@ -0,0 +1,42 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed;
+
+/**
+ * Encodes commands into, and decodes commands from, the payload of a message.
+ * @author Paul Ferraro
+ */
+public interface CommandCodec
+{
+	/**
+	 * Encodes the specified command.
+	 * @param command a command
+	 * @return an encoded command
+	 */
+	byte[] encode(Command<?, ?> command);
+
+	/**
+	 * Decodes a command from the specified buffer.
+	 * @param buffer a buffer containing an encoded command
+	 * @param offset the offset of the encoded command within the buffer
+	 * @param length the length of the encoded command
+	 * @param source the member that sent the command
+	 * @return a decoded command
+	 */
+	<R, C> Command<R, C> decode(byte[] buffer, int offset, int length, Member source);
+}
@@ -18,6 +18,7 @@
 package io.github.hajdbc.distributed;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import io.github.hajdbc.Lifecycle;
 
@@ -38,6 +39,28 @@ public interface CommandDispatcher<C> extends Lifecycle
 	 */
 	<R> Map<Member, CommandResponse<R>> executeAll(Command<R, C> command, Member... excludedMembers) throws Exception;
 
+	/**
+	 * Execute the specified command on all members, potentially excluding some, without waiting for the responses.
+	 * By default, the command is executed synchronously.
+	 * @param <R> the return value type
+	 * @param command the command to execute
+	 * @param excludedMembers list of members to optionally exclude
+	 * @return a future map of command execution results per member.
+	 */
+	default <R> CompletableFuture<Map<Member, CommandResponse<R>>> executeAllAsync(Command<R, C> command, Member... excludedMembers)
+	{
+		CompletableFuture<Map<Member, CommandResponse<R>>> future = new CompletableFuture<>();
+		try
+		{
+			future.complete(this.executeAll(command, excludedMembers));
+		}
+		catch (Exception e)
+		{
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
 	/**
 	 * Execute the specified command on the specified member.
 	 * @param <R> the return value type
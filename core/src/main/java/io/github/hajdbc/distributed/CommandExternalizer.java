@@ -0,0 +1,61 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads a specific command type, without the overhead of Java serialization.
+ * Implementations are discovered via {@link java.util.ServiceLoader}.
+ * Since a command is always executed on behalf of the member that sent it, its remote member is not written, but is provided by the transport on read.
+ * @author Paul Ferraro
+ * @param <T> the command type
+ */
+public interface CommandExternalizer<T extends Command<?, ?>>
+{
+	/**
+	 * Returns the identifier of this externalizer, which must be positive and unique among all externalizers.
+	 * @return a positive unique identifier
+	 */
+	byte getId();
+
+	/**
+	 * Returns the command type handled by this externalizer.
+	 * @return a command class
+	 */
+	Class<T> getTargetClass();
+
+	/**
+	 * Writes the specified command to the specified output.
+	 * @param output a data output
+	 * @param command a command
+	 * @throws IOException if the command could not be written
+	 */
+	void writeObject(DataOutput output, T command) throws IOException;
+
+	/**
+	 * Reads a command from the specified input.
+	 * @param input a data input
+	 * @param source the member that sent the command
+	 * @return a command
+	 * @throws IOException if the command could not be read
+	 */
+	T readObject(DataInput input, Member source) throws IOException;
+}
@@ -0,0 +1,73 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed;
+
+/**
+ * Describes how a command is delivered to the members of a group.
+ * @author Paul Ferraro
+ */
+public class DeliveryOptions
+{
+	/**
+	 * Unbundled, unordered and synchronous delivery, i.e. the lowest latency per command.
+	 */
+	public static final DeliveryOptions DEFAULT = new DeliveryOptions(false, false, true);
+
+	/**
+	 * Bundled, ordered and synchronous delivery, i.e. the highest throughput of commands from the same member.
+	 */
+	public static final DeliveryOptions BUNDLED = new DeliveryOptions(true, true, true);
+
+	private final boolean bundled;
+	private final boolean ordered;
+	private final boolean synchronous;
+
+	/**
+	 * Constructs new delivery options.
+	 * @param bundled indicates whether a command may be bundled with other commands into a single message
+	 * @param ordered indicates whether commands from the same member must be executed in the order they were sent
+	 * @param synchronous indicates whether the sender collects the responses of the command
+	 */
+	public DeliveryOptions(boolean bundled, boolean ordered, boolean synchronous)
+	{
+		this.bundled = bundled;
+		this.ordered = ordered;
+		this.synchronous = synchronous;
+	}
+
+	public boolean isBundled()
+	{
+		return this.bundled;
+	}
+
+	public boolean isOrdered()
+	{
+		return this.ordered;
+	}
+
+	public boolean isSynchronous()
+	{
+		return this.synchronous;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("bundled=%s, ordered=%s, synchronous=%s", this.bundled, this.ordered, this.synchronous);
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import io.github.hajdbc.util.ObjectInputStream;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * Command codec that writes commands having a registered {@link CommandExternalizer} as <code>[externalizer id][payload]</code>,
+ * and Java serializes all other commands.
+ * Since externalizer identifiers are positive, they never collide with the leading byte of a Java serialization stream,
+ * which remains readable by, and decodable from, members that predate this codec.
+ * Since members that predate this codec cannot decode externalized commands, a codec may be configured to decode, but not encode, externalized commands,
+ * until all members of the cluster are upgraded.
+ * @author Paul Ferraro
+ */
+public class ExternalizingCommandCodec implements CommandCodec
+{
+	private static final byte SERIALIZATION_MAGIC = (byte) 0xAC;
+
+	private final Map<Class<?>, CommandExternalizer<?>> externalizers = new IdentityHashMap<>();
+	private final CommandExternalizer<?>[] externalizersById = new CommandExternalizer<?>[Byte.MAX_VALUE + 1];
+	private final boolean externalize;
+
+	/**
+	 * Creates a codec using all externalizers available to the class loader of this class.
+	 */
+	public ExternalizingCommandCodec()
+	{
+		this(true);
+	}
+
+	/**
+	 * Creates a codec using all externalizers available to the class loader of this class.
+	 * @param externalize indicates whether commands should be encoded using their externalizer, or Java serialized
+	 */
+	@SuppressWarnings("rawtypes")
+	public ExternalizingCommandCodec(boolean externalize)
+	{
+		this(externalize, load(ServiceLoader.load(CommandExternalizer.class, CommandExternalizer.class.getClassLoader())));
+	}
+
+	/**
+	 * Creates a codec using the specified externalizers.
+	 * @param externalizers a collection of command externalizers
+	 */
+	public ExternalizingCommandCodec(Iterable<? extends CommandExternalizer<?>> externalizers)
+	{
+		this(true, externalizers);
+	}
+
+	/**
+	 * Creates a codec using the specified externalizers.
+	 * @param externalize indicates whether commands should be encoded using their externalizer, or Java serialized
+	 * @param externalizers a collection of command externalizers
+	 */
+	public ExternalizingCommandCodec(boolean externalize, Iterable<? extends CommandExternalizer<?>> externalizers)
+	{
+		this.externalize = externalize;
+		for (CommandExternalizer<?> externalizer: externalizers)
+		{
+			byte id = externalizer.getId();
+			if (id <= 0)
+			{
+				throw new IllegalArgumentException(String.format("%s has non-positive identifier %d", externalizer.getClass().getName(), id));
+			}
+			CommandExternalizer<?> existing = this.externalizersById[id];
+			if (existing != null)
+			{
+				throw new IllegalArgumentException(String.format("%s and %s share identifier %d", existing.getClass().getName(), externalizer.getClass().getName(), id));
+			}
+			this.externalizersById[id] = externalizer;
+			this.externalizers.put(externalizer.getTargetClass(), externalizer);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static Iterable<? extends CommandExternalizer<?>> load(ServiceLoader<CommandExternalizer> loader)
+	{
+		List<CommandExternalizer<?>> externalizers = new ArrayList<>();
+		for (CommandExternalizer<?> externalizer: loader)
+		{
+			externalizers.add(externalizer);
+		}
+		return externalizers;
+	}
+
+	@Override
+	public byte[] encode(Command<?, ?> command)
+	{
+		@SuppressWarnings("unchecked")
+		CommandExternalizer<Command<?, ?>> externalizer = this.externalize ? (CommandExternalizer<Command<?, ?>>) this.externalizers.get(command.getClass()) : null;
+
+		if (externalizer == null)
+		{
+			return Objects.serialize(command);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream output = new DataOutputStream(bytes))
+		{
+			output.writeByte(externalizer.getId());
+			externalizer.writeObject(output, command);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public <R, C> Command<R, C> decode(byte[] buffer, int offset, int length, Member source)
+	{
+		byte id = buffer[offset];
+
+		try
+		{
+			if (id == SERIALIZATION_MAGIC)
+			{
+				try (ObjectInput input = new ObjectInputStream(new ByteArrayInputStream(buffer, offset, length), Command.class.getClassLoader()))
+				{
+					return cast(Objects.readObject(input, Command.class));
+				}
+			}
+
+			CommandExternalizer<?> externalizer = (id > 0) ? this.externalizersById[id] : null;
+			if (externalizer == null)
+			{
+				throw new IllegalStateException(String.format("No command externalizer found with identifier %d", id));
+			}
+			try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer, offset + 1, length - 1)))
+			{
+				return cast(externalizer.readObject(input, source));
+			}
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <R, C> Command<R, C> cast(Command<?, ?> command)
+	{
+		return (Command<R, C>) command;
+	}
+}
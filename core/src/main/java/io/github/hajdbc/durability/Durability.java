@@ -21,13 +21,14 @@ import java.util.Map;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.ExceptionFactory;
+import io.github.hajdbc.Lifecycle;
 import io.github.hajdbc.invocation.InvocationStrategy;
 import io.github.hajdbc.invocation.Invoker;
 
 /**
  * @author Paul Ferraro
  */
-public interface Durability<Z, D extends Database<Z>> extends DurabilityEventFactory
+public interface Durability<Z, D extends Database<Z>> extends DurabilityEventFactory, Lifecycle
 {
 	enum Phase
 	{
@@ -39,4 +40,12 @@ public interface Durability<Z, D extends Database<Z>> extends DurabilityEventFac
 	<T, R, E extends Exception> Invoker<Z, D, T, R, E> getInvoker(Invoker<Z, D, T, R, E> invoker, Phase phase, Object transactionId, ExceptionFactory<E> exceptionFactory);
 	
 	void recover(Map<InvocationEvent, Map<String, InvokerEvent>> invokers);
+
+	/**
+	 * Recovers a single invocation, along with its per-database invokers.
+	 * Independent invocations may be recovered concurrently.
+	 * @param invocation an invocation event
+	 * @param invokers the invoker events of this invocation, mapped by database identifier
+	 */
+	void recover(InvocationEvent invocation, Map<String, InvokerEvent> invokers);
 }
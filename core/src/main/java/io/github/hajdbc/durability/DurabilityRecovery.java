@@ -0,0 +1,209 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+import io.github.hajdbc.management.Description;
+import io.github.hajdbc.management.MBean;
+import io.github.hajdbc.management.ManagedAttribute;
+import io.github.hajdbc.state.StateManager;
+
+/**
+ * Recovers the invocations streamed from a state manager, recovering independent invocations concurrently via the executor of the cluster.
+ * The number of invocations in flight is bounded, so that recovery never holds more than a bounded number of invocations in memory.
+ * Progress is logged periodically and is exposed as managed attributes.
+ * @author Paul Ferraro
+ */
+@MBean
+public class DurabilityRecovery<Z, D extends Database<Z>> implements BiConsumer<InvocationEvent, Map<String, InvokerEvent>>
+{
+	public static final int DEFAULT_CONCURRENCY = 16;
+	private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+	private static final Logger logger = LoggerFactory.getLogger(DurabilityRecovery.class);
+
+	private final DatabaseCluster<Z, D> cluster;
+	private final Executor executor;
+	private final int concurrency;
+	private final Semaphore permits;
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong recovered = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong lastProgress = new AtomicLong();
+	private volatile long startTime = 0;
+	private volatile long endTime = 0;
+
+	public DurabilityRecovery(DatabaseCluster<Z, D> cluster)
+	{
+		this(cluster, cluster.getExecutor(), DEFAULT_CONCURRENCY);
+	}
+
+	public DurabilityRecovery(DatabaseCluster<Z, D> cluster, Executor executor, int concurrency)
+	{
+		this.cluster = cluster;
+		this.executor = executor;
+		this.concurrency = concurrency;
+		this.permits = new Semaphore(concurrency);
+	}
+
+	/**
+	 * Recovers all invocations of the specified state manager, returning once every invocation was processed.
+	 * @param stateManager a state manager
+	 */
+	public void recover(StateManager stateManager)
+	{
+		this.startTime = System.nanoTime();
+		this.lastProgress.set(this.startTime);
+		try
+		{
+			stateManager.recover(this);
+		}
+		finally
+		{
+			// Wait for in flight invocations
+			this.permits.acquireUninterruptibly(this.concurrency);
+			this.permits.release(this.concurrency);
+			this.endTime = System.nanoTime();
+		}
+		long total = this.submitted.get();
+		if (total > 0)
+		{
+			logger.log(Level.INFO, "Recovered {0} invocations of cluster {1} in {2} ms, of which {3} failed", total, this.cluster, TimeUnit.NANOSECONDS.toMillis(this.endTime - this.startTime), this.failed.get());
+		}
+	}
+
+	@Override
+	public void accept(final InvocationEvent invocation, final Map<String, InvokerEvent> invokers)
+	{
+		this.submitted.incrementAndGet();
+		this.permits.acquireUninterruptibly();
+		Runnable task = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					DurabilityRecovery.this.recover(invocation, invokers);
+				}
+				finally
+				{
+					DurabilityRecovery.this.permits.release();
+				}
+			}
+		};
+		try
+		{
+			this.executor.execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			task.run();
+		}
+	}
+
+	void recover(InvocationEvent invocation, Map<String, InvokerEvent> invokers)
+	{
+		try
+		{
+			this.cluster.getDurability().recover(invocation, invokers);
+		}
+		catch (RuntimeException e)
+		{
+			this.failed.incrementAndGet();
+			logger.log(Level.ERROR, e, "Failed to recover {0}", invocation);
+		}
+		long count = this.recovered.incrementAndGet();
+		long now = System.nanoTime();
+		long last = this.lastProgress.get();
+		if ((now - last >= PROGRESS_INTERVAL) && this.lastProgress.compareAndSet(last, now))
+		{
+			logger.log(Level.INFO, "Recovered {0} invocations of cluster {1} so far", count, this.cluster);
+		}
+	}
+
+	/**
+	 * Returns the number of invocations processed so far, including failures.
+	 * @return a number of invocations
+	 */
+	@ManagedAttribute
+	@Description("Number of invocations processed so far")
+	public long getRecoveredCount()
+	{
+		return this.recovered.get();
+	}
+
+	/**
+	 * Returns the number of invocations whose recovery failed.
+	 * @return a number of invocations
+	 */
+	@ManagedAttribute
+	@Description("Number of invocations whose recovery failed")
+	public long getFailedCount()
+	{
+		return this.failed.get();
+	}
+
+	/**
+	 * Returns the number of invocations read from the state manager that are not yet processed.
+	 * @return a number of invocations
+	 */
+	@ManagedAttribute
+	@Description("Number of invocations read, but not yet processed")
+	public long getPendingCount()
+	{
+		return this.submitted.get() - this.recovered.get();
+	}
+
+	/**
+	 * Returns the time spent recovering, so far.
+	 * @return a duration in milliseconds
+	 */
+	@ManagedAttribute
+	@Description("Time spent recovering, in milliseconds")
+	public long getElapsedTime()
+	{
+		long start = this.startTime;
+		if (start == 0) return 0;
+		long end = this.endTime;
+		return TimeUnit.NANOSECONDS.toMillis(((end != 0) ? end : System.nanoTime()) - start);
+	}
+
+	/**
+	 * Indicates whether recovery has completed.
+	 * @return true, if recovery has completed, false otherwise
+	 */
+	@ManagedAttribute
+	@Description("Indicates whether recovery has completed")
+	public boolean isComplete()
+	{
+		return this.endTime != 0;
+	}
+}
@@ -0,0 +1,364 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import io.github.hajdbc.util.Objects;
+
+/**
+ * Compact binary encoding of {@link InvokerResult}s, as persisted by state managers.
+ * Results of the types commonly returned by durable invocations (i.e. null, booleans, update counts, batch update counts,
+ * and {@link SQLException}/{@link BatchUpdateException} chains) are encoded into a versioned binary format.
+ * Any other result falls back to Java serialization, which is also how results were encoded prior to this format.
+ * @author Paul Ferraro
+ */
+public class InvokerResults
+{
+	// Never conflicts with the first byte of a Java serialization stream (i.e. 0xAC)
+	static final byte VERSION = 1;
+
+	enum Type
+	{
+		NULL, TRUE, FALSE, INTEGER, LONG, INTEGER_ARRAY, LONG_ARRAY, SQL_EXCEPTION;
+	}
+
+	// Element types of an exception chain
+	private static final byte SQL_EXCEPTION = 0;
+	private static final byte BATCH_UPDATE_EXCEPTION = 1;
+
+	/**
+	 * Serializes the specified invoker result.
+	 * @param result an invoker result
+	 * @return a serialized result, or null if the result was null
+	 */
+	public static byte[] serialize(InvokerResult result)
+	{
+		if (result == null) return null;
+
+		Exception exception = result.getException();
+		Object value = result.getValue();
+
+		if (exception != null)
+		{
+			return isEncodable(exception) ? encode((SQLException) exception) : Objects.serialize(result);
+		}
+		if (value == null)
+		{
+			return new byte[] { VERSION, (byte) Type.NULL.ordinal() };
+		}
+		if (value instanceof Boolean)
+		{
+			return new byte[] { VERSION, (byte) (((Boolean) value).booleanValue() ? Type.TRUE : Type.FALSE).ordinal() };
+		}
+		if (value instanceof Integer)
+		{
+			return new Writer(Type.INTEGER, 5).putInt(((Integer) value).intValue()).toByteArray();
+		}
+		if (value instanceof Long)
+		{
+			return new Writer(Type.LONG, 10).putLong(((Long) value).longValue()).toByteArray();
+		}
+		if (value instanceof int[])
+		{
+			int[] values = (int[]) value;
+			Writer writer = new Writer(Type.INTEGER_ARRAY, 5 + values.length).putInt(values.length);
+			for (int count: values)
+			{
+				writer.putInt(count);
+			}
+			return writer.toByteArray();
+		}
+		if (value instanceof long[])
+		{
+			long[] values = (long[]) value;
+			Writer writer = new Writer(Type.LONG_ARRAY, 5 + values.length).putInt(values.length);
+			for (long count: values)
+			{
+				writer.putLong(count);
+			}
+			return writer.toByteArray();
+		}
+		return Objects.serialize(result);
+	}
+
+	/**
+	 * Deserializes the specified invoker result.
+	 * @param bytes a result serialized via {@link #serialize(InvokerResult)}, or via Java serialization
+	 * @return an invoker result, or null if the bytes were null
+	 */
+	public static InvokerResult deserialize(byte[] bytes)
+	{
+		if (bytes == null) return null;
+
+		if (bytes[0] != VERSION)
+		{
+			return Objects.deserialize(bytes, InvokerResult.class);
+		}
+
+		Reader reader = new Reader(bytes);
+		Type type = Type.values()[reader.get()];
+		switch (type)
+		{
+			case NULL:
+			{
+				return new InvokerResultImpl((Object) null);
+			}
+			case TRUE:
+			{
+				return new InvokerResultImpl(Boolean.TRUE);
+			}
+			case FALSE:
+			{
+				return new InvokerResultImpl(Boolean.FALSE);
+			}
+			case INTEGER:
+			{
+				return new InvokerResultImpl(Integer.valueOf(reader.getInt()));
+			}
+			case LONG:
+			{
+				return new InvokerResultImpl(Long.valueOf(reader.getLong()));
+			}
+			case INTEGER_ARRAY:
+			{
+				return new InvokerResultImpl(reader.getInts());
+			}
+			case LONG_ARRAY:
+			{
+				long[] values = new long[reader.getInt()];
+				for (int i = 0; i < values.length; ++i)
+				{
+					values[i] = reader.getLong();
+				}
+				return new InvokerResultImpl(values);
+			}
+			case SQL_EXCEPTION:
+			{
+				return new InvokerResultImpl(decode(reader));
+			}
+			default:
+			{
+				throw new IllegalStateException(type.name());
+			}
+		}
+	}
+
+	/**
+	 * Indicates whether the specified exception chain consists solely of exceptions whose state is fully captured by the binary format.
+	 * Exact classes are required, since exception equivalence is class sensitive.
+	 */
+	private static boolean isEncodable(Exception exception)
+	{
+		if (!(exception instanceof SQLException)) return false;
+
+		for (SQLException e = (SQLException) exception; e != null; e = e.getNextException())
+		{
+			Class<?> exceptionClass = e.getClass();
+			if ((exceptionClass != SQLException.class) && (exceptionClass != BatchUpdateException.class)) return false;
+		}
+		return true;
+	}
+
+	private static byte[] encode(SQLException exception)
+	{
+		Writer writer = new Writer(Type.SQL_EXCEPTION, 64);
+		for (SQLException e = exception; e != null; e = e.getNextException())
+		{
+			boolean batch = e instanceof BatchUpdateException;
+			writer.put(batch ? BATCH_UPDATE_EXCEPTION : SQL_EXCEPTION).putString(e.getMessage()).putString(e.getSQLState()).putInt(e.getErrorCode());
+			if (batch)
+			{
+				int[] counts = ((BatchUpdateException) e).getUpdateCounts();
+				if (counts != null)
+				{
+					writer.putInt(counts.length);
+					for (int count: counts)
+					{
+						writer.putInt(count);
+					}
+				}
+				else
+				{
+					writer.putInt(-1);
+				}
+			}
+			writer.put((byte) ((e.getNextException() != null) ? 1 : 0));
+		}
+		return writer.toByteArray();
+	}
+
+	private static SQLException decode(Reader reader)
+	{
+		SQLException first = null;
+		SQLException last = null;
+		boolean next = true;
+		while (next)
+		{
+			byte type = reader.get();
+			String message = reader.getString();
+			String state = reader.getString();
+			int code = reader.getInt();
+			SQLException exception = (type == BATCH_UPDATE_EXCEPTION) ? new BatchUpdateException(message, state, code, reader.getInts()) : new SQLException(message, state, code);
+			if (last == null)
+			{
+				first = exception;
+			}
+			else
+			{
+				last.setNextException(exception);
+			}
+			last = exception;
+			next = reader.get() != 0;
+		}
+		return first;
+	}
+
+	/**
+	 * Writes variable length, zig-zag encoded integers, such that small magnitudes (including -1 and -2, i.e. SUCCESS_NO_INFO and EXECUTE_FAILED) occupy a single byte.
+	 */
+	private static class Writer
+	{
+		private byte[] bytes;
+		private int position = 0;
+
+		Writer(Type type, int capacity)
+		{
+			this.bytes = new byte[capacity + 2];
+			this.put(VERSION).put((byte) type.ordinal());
+		}
+
+		Writer put(byte value)
+		{
+			this.reserve(1);
+			this.bytes[this.position++] = value;
+			return this;
+		}
+
+		Writer putInt(int value)
+		{
+			return this.putLong(value);
+		}
+
+		Writer putLong(long value)
+		{
+			this.reserve(10);
+			long encoded = (value << 1) ^ (value >> 63);
+			while ((encoded & ~0x7FL) != 0)
+			{
+				this.bytes[this.position++] = (byte) ((encoded & 0x7F) | 0x80);
+				encoded >>>= 7;
+			}
+			this.bytes[this.position++] = (byte) encoded;
+			return this;
+		}
+
+		Writer putString(String value)
+		{
+			if (value == null)
+			{
+				return this.putInt(-1);
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			this.putInt(bytes.length);
+			this.reserve(bytes.length);
+			System.arraycopy(bytes, 0, this.bytes, this.position, bytes.length);
+			this.position += bytes.length;
+			return this;
+		}
+
+		byte[] toByteArray()
+		{
+			return (this.position == this.bytes.length) ? this.bytes : Arrays.copyOf(this.bytes, this.position);
+		}
+
+		private void reserve(int size)
+		{
+			if (this.bytes.length - this.position < size)
+			{
+				this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.position + size));
+			}
+		}
+	}
+
+	private static class Reader
+	{
+		private final byte[] bytes;
+		// Skip version
+		private int position = 1;
+
+		Reader(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		byte get()
+		{
+			return this.bytes[this.position++];
+		}
+
+		int getInt()
+		{
+			return (int) this.getLong();
+		}
+
+		long getLong()
+		{
+			long encoded = 0;
+			int shift = 0;
+			byte b;
+			do
+			{
+				b = this.bytes[this.position++];
+				encoded |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			}
+			while ((b & 0x80) != 0);
+			return (encoded >>> 1) ^ -(encoded & 1);
+		}
+
+		int[] getInts()
+		{
+			int length = this.getInt();
+			if (length < 0) return null;
+			int[] values = new int[length];
+			for (int i = 0; i < length; ++i)
+			{
+				values[i] = this.getInt();
+			}
+			return values;
+		}
+
+		String getString()
+		{
+			int length = this.getInt();
+			if (length < 0) return null;
+			String value = new String(this.bytes, this.position, length, StandardCharsets.UTF_8);
+			this.position += length;
+			return value;
+		}
+	}
+
+	private InvokerResults()
+	{
+		// Hide
+	}
+}
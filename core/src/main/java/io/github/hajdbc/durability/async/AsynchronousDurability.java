@@ -0,0 +1,60 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability.async;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.durability.DurabilityListener;
+import io.github.hajdbc.durability.fine.FineDurability;
+
+/**
+ * {@link io.github.hajdbc.durability.Durability} implementation that tracks invocations as well as per-database invokers, like {@link FineDurability},
+ * but persists them asynchronously, so that state manager latency is not incurred by the commit path.
+ * This durability level can detect and recover from mid-commit crashes, except for those invocations that were not yet persisted.
+ * @author Paul Ferraro
+ */
+public class AsynchronousDurability<Z, D extends Database<Z>> extends FineDurability<Z, D>
+{
+	private final AsynchronousDurabilityListener listener;
+
+	public AsynchronousDurability(DatabaseCluster<Z, D> cluster, int capacity, long maxLag, TimeUnit unit)
+	{
+		super(cluster);
+		this.listener = new AsynchronousDurabilityListener(cluster.getStateManager(), cluster.getThreadFactory(), capacity, maxLag, unit);
+	}
+
+	@Override
+	protected DurabilityListener getListener()
+	{
+		return this.listener;
+	}
+
+	@Override
+	public void start()
+	{
+		this.listener.start();
+	}
+
+	@Override
+	public void stop()
+	{
+		this.listener.stop();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability.async;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.DurabilityFactory;
+
+/**
+ * Factory for creating an {@link AsynchronousDurability}.
+ * @author Paul Ferraro
+ */
+public class AsynchronousDurabilityFactory implements DurabilityFactory
+{
+	private static final long serialVersionUID = -2935384728614406416L;
+
+	public static final int DEFAULT_CAPACITY = 1024;
+	public static final long DEFAULT_MAX_LAG = 1000;
+
+	private volatile int capacity = DEFAULT_CAPACITY;
+	private volatile long maxLag = DEFAULT_MAX_LAG;
+
+	@Override
+	public String getId()
+	{
+		return "async";
+	}
+
+	@Override
+	public <Z, D extends Database<Z>> Durability<Z, D> createDurability(DatabaseCluster<Z, D> cluster)
+	{
+		return new AsynchronousDurability<>(cluster, this.capacity, this.maxLag, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the maximum number of unpersisted durability events.
+	 * @return a number of events
+	 */
+	public int getCapacity()
+	{
+		return this.capacity;
+	}
+
+	public void setCapacity(int capacity)
+	{
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the maximum age, in milliseconds, of an unpersisted durability event, beyond which transactions block until it is persisted.
+	 * @return a duration in milliseconds
+	 */
+	public long getMaxLag()
+	{
+		return this.maxLag;
+	}
+
+	public void setMaxLag(long maxLag)
+	{
+		this.maxLag = maxLag;
+	}
+}
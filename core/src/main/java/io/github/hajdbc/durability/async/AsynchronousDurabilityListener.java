@@ -0,0 +1,344 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability.async;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import io.github.hajdbc.Lifecycle;
+import io.github.hajdbc.durability.DurabilityEvent;
+import io.github.hajdbc.durability.DurabilityEventImpl;
+import io.github.hajdbc.durability.DurabilityListener;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+
+/**
+ * {@link DurabilityListener} decorator that records events in a bounded ring buffer, from which a background thread drains them to the decorated listener.
+ * Callers block while the buffer is full, or while the oldest unpersisted event is older than the maximum lag.
+ * Invocations that both begin and complete within the same drained batch are never persisted.
+ * @author Paul Ferraro
+ */
+public class AsynchronousDurabilityListener implements DurabilityListener, Lifecycle, Runnable
+{
+	private static final Logger logger = LoggerFactory.getLogger(AsynchronousDurabilityListener.class);
+
+	enum Operation
+	{
+		BEFORE_INVOCATION
+		{
+			@Override
+			void persist(DurabilityListener listener, DurabilityEvent event)
+			{
+				listener.beforeInvocation((InvocationEvent) event);
+			}
+		},
+		AFTER_INVOCATION
+		{
+			@Override
+			void persist(DurabilityListener listener, DurabilityEvent event)
+			{
+				listener.afterInvocation((InvocationEvent) event);
+			}
+		},
+		BEFORE_INVOKER
+		{
+			@Override
+			void persist(DurabilityListener listener, DurabilityEvent event)
+			{
+				listener.beforeInvoker((InvokerEvent) event);
+			}
+		},
+		AFTER_INVOKER
+		{
+			@Override
+			void persist(DurabilityListener listener, DurabilityEvent event)
+			{
+				listener.afterInvoker((InvokerEvent) event);
+			}
+		},
+		;
+		abstract void persist(DurabilityListener listener, DurabilityEvent event);
+	}
+
+	private final DurabilityListener listener;
+	private final ThreadFactory threadFactory;
+	private final long maxLag;
+
+	// The following are guarded by entries
+	private final Entry[] entries;
+	private int head = 0;
+	private int size = 0;
+	private boolean draining = false;
+	private long drainTimestamp;
+	private boolean running = false;
+
+	private Thread writer;
+
+	/**
+	 * Creates a new asynchronous durability listener.
+	 * @param listener the listener to which events are persisted
+	 * @param threadFactory the factory for the background writer thread
+	 * @param capacity the maximum number of unpersisted events
+	 * @param maxLag the maximum age of an unpersisted event, beyond which callers block
+	 * @param unit the unit of the maximum lag
+	 */
+	public AsynchronousDurabilityListener(DurabilityListener listener, ThreadFactory threadFactory, int capacity, long maxLag, TimeUnit unit)
+	{
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException(Integer.toString(capacity));
+		}
+		this.listener = listener;
+		this.threadFactory = threadFactory;
+		this.entries = new Entry[capacity];
+		this.maxLag = unit.toNanos(maxLag);
+	}
+
+	@Override
+	public void start()
+	{
+		synchronized (this.entries)
+		{
+			if (this.running) return;
+			this.running = true;
+		}
+		this.writer = this.threadFactory.newThread(this);
+		this.writer.start();
+	}
+
+	/**
+	 * Stops the background writer, once all buffered events were persisted.
+	 * Subsequent events are persisted synchronously.
+	 */
+	@Override
+	public void stop()
+	{
+		synchronized (this.entries)
+		{
+			if (!this.running) return;
+			this.running = false;
+			this.entries.notifyAll();
+		}
+		try
+		{
+			this.writer.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		this.writer = null;
+	}
+
+	@Override
+	public void beforeInvocation(InvocationEvent event)
+	{
+		this.record(Operation.BEFORE_INVOCATION, event);
+	}
+
+	@Override
+	public void afterInvocation(InvocationEvent event)
+	{
+		this.record(Operation.AFTER_INVOCATION, event);
+	}
+
+	@Override
+	public void beforeInvoker(InvokerEvent event)
+	{
+		this.record(Operation.BEFORE_INVOKER, event);
+	}
+
+	@Override
+	public void afterInvoker(InvokerEvent event)
+	{
+		this.record(Operation.AFTER_INVOKER, event);
+	}
+
+	private void record(Operation operation, DurabilityEvent event)
+	{
+		synchronized (this.entries)
+		{
+			boolean interrupted = false;
+			try
+			{
+				while (this.running && ((this.size == this.entries.length) || this.isLagging(System.nanoTime())))
+				{
+					try
+					{
+						this.entries.wait();
+					}
+					catch (InterruptedException e)
+					{
+						interrupted = true;
+					}
+				}
+			}
+			finally
+			{
+				if (interrupted)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			if (this.running)
+			{
+				this.entries[(this.head + this.size) % this.entries.length] = new Entry(operation, event, System.nanoTime());
+				this.size += 1;
+				if (this.size == 1)
+				{
+					// Wake the writer
+					this.entries.notifyAll();
+				}
+				return;
+			}
+		}
+		operation.persist(this.listener, event);
+	}
+
+	/**
+	 * Indicates whether the oldest unpersisted event is older than the maximum lag.
+	 * Must be called while holding the monitor of {@link #entries}.
+	 */
+	private boolean isLagging(long now)
+	{
+		if (this.draining)
+		{
+			return (now - this.drainTimestamp) > this.maxLag;
+		}
+		if (this.size > 0)
+		{
+			return (now - this.entries[this.head].timestamp) > this.maxLag;
+		}
+		return false;
+	}
+
+	@Override
+	public void run()
+	{
+		List<Entry> batch = new ArrayList<>(this.entries.length);
+		while (true)
+		{
+			synchronized (this.entries)
+			{
+				while (this.running && (this.size == 0))
+				{
+					try
+					{
+						this.entries.wait();
+					}
+					catch (InterruptedException e)
+					{
+						// Only stop() terminates the writer, so that buffered events are never abandoned
+					}
+				}
+				if (this.size == 0) return;
+
+				for (int i = 0; i < this.size; ++i)
+				{
+					int index = (this.head + i) % this.entries.length;
+					batch.add(this.entries[index]);
+					this.entries[index] = null;
+				}
+				this.head = (this.head + this.size) % this.entries.length;
+				this.size = 0;
+				this.draining = true;
+				this.drainTimestamp = batch.get(0).timestamp;
+				// Wake any callers waiting for capacity
+				this.entries.notifyAll();
+			}
+
+			try
+			{
+				this.persist(batch);
+			}
+			finally
+			{
+				batch.clear();
+				synchronized (this.entries)
+				{
+					this.draining = false;
+					// Wake any callers waiting for the lag to subside
+					this.entries.notifyAll();
+				}
+			}
+		}
+	}
+
+	private void persist(List<Entry> batch)
+	{
+		// Identify invocations that began and completed within this batch
+		Set<DurabilityEvent> begun = new HashSet<>();
+		Set<DurabilityEvent> completed = new HashSet<>();
+		for (Entry entry: batch)
+		{
+			if (entry.operation == Operation.BEFORE_INVOCATION)
+			{
+				begun.add(entry.key());
+			}
+			else if ((entry.operation == Operation.AFTER_INVOCATION) && begun.contains(entry.key()))
+			{
+				completed.add(entry.key());
+			}
+		}
+
+		for (Entry entry: batch)
+		{
+			if (completed.isEmpty() || !completed.contains(entry.key()))
+			{
+				try
+				{
+					entry.operation.persist(this.listener, entry.event);
+				}
+				catch (RuntimeException e)
+				{
+					logger.log(Level.WARN, e);
+				}
+			}
+		}
+	}
+
+	private static class Entry
+	{
+		final Operation operation;
+		final DurabilityEvent event;
+		final long timestamp;
+
+		Entry(Operation operation, DurabilityEvent event, long timestamp)
+		{
+			this.operation = operation;
+			this.event = event;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * Returns the invocation to which this event applies, independent of any database.
+		 */
+		DurabilityEvent key()
+		{
+			return new DurabilityEventImpl(this.event.getTransactionId(), this.event.getPhase());
+		}
+	}
+}
@@ -52,6 +52,15 @@ public class CoarseDurability<Z, D extends Database<Z>> extends NoDurability<Z,
 		this.cluster = cluster;
 	}
 
+	/**
+	 * Returns the listener to which this durability reports its events.
+	 * @return a durability listener
+	 */
+	protected DurabilityListener getListener()
+	{
+		return this.cluster.getStateManager();
+	}
+
 	@Override
 	public InvocationEvent createInvocationEvent(Object transactionId, Phase phase, ExceptionType exceptionType)
 	{
@@ -61,7 +70,7 @@ public class CoarseDurability<Z, D extends Database<Z>> extends NoDurability<Z,
 	@Override
 	public InvocationStrategy getInvocationStrategy(final InvocationStrategy strategy, final Phase phase, final Object transactionId)
 	{
-		final DurabilityListener listener = this.cluster.getStateManager();
+		final DurabilityListener listener = this.getListener();
 
 		return new InvocationStrategy()
 		{
@@ -90,6 +99,15 @@ public class CoarseDurability<Z, D extends Database<Z>> extends NoDurability<Z,
 
 	@Override
 	public void recover(Map<InvocationEvent, Map<String, InvokerEvent>> invokers)
+	{
+		for (Map.Entry<InvocationEvent, Map<String, InvokerEvent>> entry: invokers.entrySet())
+		{
+			this.recover(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void recover(InvocationEvent invocation, Map<String, InvokerEvent> invokers)
 	{
 		StateManager stateManager = this.cluster.getStateManager();
 
@@ -98,9 +116,6 @@ public class CoarseDurability<Z, D extends Database<Z>> extends NoDurability<Z,
 			this.cluster.deactivate(database, stateManager);
 		}
 
-		for (InvocationEvent event: invokers.keySet())
-		{
-			stateManager.afterInvocation(event);
-		}
+		stateManager.afterInvocation(invocation);
 	}
 }
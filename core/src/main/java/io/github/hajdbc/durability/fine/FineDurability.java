@@ -55,7 +55,7 @@ public class FineDurability<Z, D extends Database<Z>> extends CoarseDurability<Z
 	@Override
 	public <T, R, E extends Exception> Invoker<Z, D, T, R, E> getInvoker(final Invoker<Z, D, T, R, E> invoker, final Phase phase, final Object transactionId, final ExceptionFactory<E> exceptionFactory)
 	{
-		final DurabilityListener listener = this.cluster.getStateManager();
+		final DurabilityListener listener = this.getListener();
 		
 		return new Invoker<Z, D, T, R, E>()
 		{
@@ -89,30 +89,25 @@ public class FineDurability<Z, D extends Database<Z>> extends CoarseDurability<Z
 	}
 
 	@Override
-	public void recover(Map<InvocationEvent, Map<String, InvokerEvent>> map)
+	public void recover(InvocationEvent invocation, Map<String, InvokerEvent> invokers)
 	{
 		StateManager stateManager = this.cluster.getStateManager();
 		Balancer<Z, D> balancer = this.cluster.getBalancer();
-		D primary = balancer.primary();
 
-		for (Map.Entry<InvocationEvent, Map<String, InvokerEvent>> entry: map.entrySet())
+		if (!invokers.isEmpty())
 		{
-			InvocationEvent invocation = entry.getKey();
-			Map<String, InvokerEvent> invokers = entry.getValue();
+			D primary = balancer.primary();
 
-			if (!invokers.isEmpty())
+			for (D backup: balancer.backups())
 			{
-				for (D backup: balancer.backups())
+				if (this.deactivateSlave(primary, backup, invocation, invokers))
 				{
-					if (this.deactivateSlave(primary, backup, invocation, invokers))
-					{
-						this.cluster.deactivate(backup, stateManager);
-					}
+					this.cluster.deactivate(backup, stateManager);
 				}
 			}
-			
-			stateManager.afterInvocation(invocation);
 		}
+		
+		stateManager.afterInvocation(invocation);
 	}
 	
 	private boolean deactivateSlave(D primary, D backup, InvocationEvent invocation, Map<String, InvokerEvent> invokers)
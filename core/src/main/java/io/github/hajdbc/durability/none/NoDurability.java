@@ -41,6 +41,16 @@ import io.github.hajdbc.logging.LoggerFactory;
 public class NoDurability<Z, D extends Database<Z>> implements Durability<Z, D>
 {
 	private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	@Override
+	public void start()
+	{
+	}
+
+	@Override
+	public void stop()
+	{
+	}
 	
 	@Override
 	public InvocationStrategy getInvocationStrategy(InvocationStrategy strategy, Phase phase, Object transactionId)
@@ -60,6 +70,12 @@ public class NoDurability<Z, D extends Database<Z>> implements Durability<Z, D>
 		this.logger.log(Level.WARN, invokers.toString());
 	}
 
+	@Override
+	public void recover(InvocationEvent invocation, Map<String, InvokerEvent> invokers)
+	{
+		this.logger.log(Level.WARN, "{0}={1}", invocation, invokers);
+	}
+
 	@Override
 	public DurabilityEvent createEvent(Object transactionId, Phase phase)
 	{
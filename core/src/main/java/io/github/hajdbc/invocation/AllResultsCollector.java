@@ -19,11 +19,7 @@ package io.github.hajdbc.invocation;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.AbstractMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -56,7 +52,7 @@ public class AllResultsCollector implements InvokeOnManyInvocationStrategy.Resul
 	}
 	
 	@Override
-	public <Z, D extends Database<Z>, T, R, E extends Exception> Map.Entry<SortedMap<D, R>, SortedMap<D, E>> collectResults(ProxyFactory<Z, D, T, E> factory, final Invoker<Z, D, T, R, E> invoker)
+	public <Z, D extends Database<Z>, T, R, E extends Exception> InvocationResults<D, R, E> collectResults(ProxyFactory<Z, D, T, E> factory, final Invoker<Z, D, T, R, E> invoker)
 	{
 		DatabaseCluster<Z, D> cluster = factory.getDatabaseCluster();
 		ExceptionFactory<E> exceptionFactory = factory.getExceptionFactory();
@@ -67,12 +63,19 @@ public class AllResultsCollector implements InvokeOnManyInvocationStrategy.Resul
 			exceptionFactory.createException(messages.noActiveDatabases(cluster));
 		}
 
-		int size = databaseSet.size();
+		InvocationResults<D, R, E> results = new InvocationResults<>(databaseSet.size());
 		
+		for (D database: databaseSet)
+		{
+			results.add(database);
+		}
+		
+		int size = results.size();
 		List<Invocation<Z, D, T, R, E>> invocationList = new ArrayList<>(size);
 		
-		for (D database: databaseSet)
+		for (int i = 0; i < size; ++i)
 		{
+			D database = results.getDatabase(i);
 			invocationList.add(new Invocation<>(invoker, database, factory.get(database)));
 		}
 		
@@ -80,34 +83,29 @@ public class AllResultsCollector implements InvokeOnManyInvocationStrategy.Resul
 		{
 			List<Future<R>> futureList = this.provider.getExecutor(cluster).invokeAll(invocationList);
 			
-			final SortedMap<D, R> resultMap = new TreeMap<>();
-			final SortedMap<D, E> exceptionMap = new TreeMap<>();
-			
-			for (int i = 0; i < invocationList.size(); ++i)
+			for (int i = 0; i < size; ++i)
 			{
-				D database = invocationList.get(i).getDatabase();
-				
 				try
 				{
-					resultMap.put(database, futureList.get(i).get());
+					results.setResult(i, futureList.get(i).get());
 				}
 				catch (ExecutionException e)
 				{
 					// If this database was concurrently deactivated, just ignore the failure
-					if (databaseSet.contains(database))
+					if (databaseSet.contains(results.getDatabase(i)))
 					{
-						exceptionMap.put(database, exceptionFactory.createException(e.getCause()));
+						results.setException(i, exceptionFactory.createException(e.getCause()));
 					}
 				}
 				catch (InterruptedException e)
 				{
 					Thread.currentThread().interrupt();
 					
-					exceptionMap.put(database, exceptionFactory.createException(e));
+					results.setException(i, exceptionFactory.createException(e));
 				}
 			}
 		
-			return new AbstractMap.SimpleImmutableEntry<>(resultMap, exceptionMap);
+			return results;
 		}
 		catch (InterruptedException e)
 		{
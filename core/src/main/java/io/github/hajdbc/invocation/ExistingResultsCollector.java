@@ -18,15 +18,11 @@
 package io.github.hajdbc.invocation;
 
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.sql.ProxyFactory;
 
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.AbstractMap;
-
 /**
  * @author Paul Ferraro
  *
@@ -34,29 +30,30 @@ import java.util.AbstractMap;
 public class ExistingResultsCollector implements InvokeOnManyInvocationStrategy.ResultsCollector
 {
 	@Override
-	public <Z, D extends Database<Z>, T, R, E extends Exception> Entry<SortedMap<D, R>, SortedMap<D, E>> collectResults(ProxyFactory<Z, D, T, E> factory, Invoker<Z, D, T, R, E> invoker)
+	public <Z, D extends Database<Z>, T, R, E extends Exception> InvocationResults<D, R, E> collectResults(ProxyFactory<Z, D, T, E> factory, Invoker<Z, D, T, R, E> invoker)
 	{
-		SortedMap<D, R> resultMap = new TreeMap<>();
-		SortedMap<D, E> exceptionMap = new TreeMap<>();
+		Set<Map.Entry<D, T>> entries = factory.entries();
+		InvocationResults<D, R, E> results = new InvocationResults<>(entries.size());
 
-		for (Map.Entry<D, T> entry: factory.entries())
+		for (Map.Entry<D, T> entry: entries)
 		{
 			D database = entry.getKey();
+			int ordinal = results.add(database);
 			
 			try
 			{
-				resultMap.put(database, invoker.invoke(database, entry.getValue()));
+				results.setResult(ordinal, invoker.invoke(database, entry.getValue()));
 			}
 			catch (Exception e)
 			{
 				// If this database was concurrently deactivated, just ignore the failure
 				if (factory.getDatabaseCluster().getBalancer().contains(database))
 				{
-					exceptionMap.put(database, factory.getExceptionFactory().createException(e));
+					results.setException(ordinal, factory.getExceptionFactory().createException(e));
 				}
 			}
 		}
 		
-		return new AbstractMap.SimpleImmutableEntry<>(resultMap, exceptionMap);
+		return results;
 	}
 }
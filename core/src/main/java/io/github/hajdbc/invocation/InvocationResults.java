@@ -0,0 +1,412 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.invocation;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Array-backed results of an invocation against multiple databases.
+ * Each database is assigned a dense ordinal, i.e. its position within the sorted set of databases against which the invocation was made.
+ * Results and exceptions are stored by ordinal, and are exposed as {@link SortedMap} views ordered by database.
+ * @author Paul Ferraro
+ * @param <D> the database descriptor type
+ * @param <R> the invocation return type
+ * @param <E> the invocation exception type
+ */
+public class InvocationResults<D, R, E extends Exception>
+{
+	private enum Outcome
+	{
+		RESULT, EXCEPTION;
+	}
+	
+	private Object[] databases;
+	private Object[] values;
+	private Outcome[] outcomes;
+	private int size = 0;
+	private int results = 0;
+	private int exceptions = 0;
+	
+	public InvocationResults(int capacity)
+	{
+		this.databases = new Object[capacity];
+		this.values = new Object[capacity];
+		this.outcomes = new Outcome[capacity];
+	}
+	
+	/**
+	 * Adds the specified database to this set of results, preserving database order.
+	 * Databases are typically added in ascending order, in which case the returned ordinal is the previous size.
+	 * @param database a database descriptor
+	 * @return the ordinal of the specified database
+	 */
+	public int add(D database)
+	{
+		if (this.size == this.databases.length)
+		{
+			int capacity = Math.max(this.size * 2, 1);
+			this.databases = Arrays.copyOf(this.databases, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+			this.outcomes = Arrays.copyOf(this.outcomes, capacity);
+		}
+		int ordinal = this.size;
+		// Shift any greater databases
+		while ((ordinal > 0) && (compare(this.databases[ordinal - 1], database) > 0))
+		{
+			this.databases[ordinal] = this.databases[ordinal - 1];
+			this.values[ordinal] = this.values[ordinal - 1];
+			this.outcomes[ordinal] = this.outcomes[ordinal - 1];
+			ordinal -= 1;
+		}
+		this.databases[ordinal] = database;
+		this.values[ordinal] = null;
+		this.outcomes[ordinal] = null;
+		this.size += 1;
+		return ordinal;
+	}
+	
+	/**
+	 * Returns the number of databases in this set of results.
+	 * @return the number of databases
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * Returns the database with the specified ordinal.
+	 * @param ordinal a database ordinal
+	 * @return a database descriptor
+	 */
+	@SuppressWarnings("unchecked")
+	public D getDatabase(int ordinal)
+	{
+		return (D) this.databases[this.checkOrdinal(ordinal)];
+	}
+	
+	/**
+	 * Records the result of the invocation against the database with the specified ordinal.
+	 * @param ordinal a database ordinal
+	 * @param result an invocation result
+	 */
+	public void setResult(int ordinal, R result)
+	{
+		this.set(ordinal, Outcome.RESULT, result);
+	}
+	
+	/**
+	 * Records the exception thrown by the invocation against the database with the specified ordinal.
+	 * @param ordinal a database ordinal
+	 * @param exception an invocation exception
+	 */
+	public void setException(int ordinal, E exception)
+	{
+		this.set(ordinal, Outcome.EXCEPTION, exception);
+	}
+	
+	/**
+	 * Returns a view of the successful invocation results, keyed by database.
+	 * @return a sorted map of database to result
+	 */
+	public SortedMap<D, R> getResults()
+	{
+		return new OutcomeMap<>(Outcome.RESULT, 0, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Returns a view of the invocation exceptions, keyed by database.
+	 * @return a sorted map of database to exception
+	 */
+	public SortedMap<D, E> getExceptions()
+	{
+		return new OutcomeMap<>(Outcome.EXCEPTION, 0, Integer.MAX_VALUE);
+	}
+	
+	private void set(int ordinal, Outcome outcome, Object value)
+	{
+		this.clear(this.checkOrdinal(ordinal));
+		this.values[ordinal] = value;
+		this.outcomes[ordinal] = outcome;
+		this.adjustCount(outcome, 1);
+	}
+	
+	private Object clear(int ordinal)
+	{
+		Outcome outcome = this.outcomes[ordinal];
+		Object value = this.values[ordinal];
+		if (outcome != null)
+		{
+			this.adjustCount(outcome, -1);
+			this.values[ordinal] = null;
+			this.outcomes[ordinal] = null;
+		}
+		return value;
+	}
+	
+	private void adjustCount(Outcome outcome, int delta)
+	{
+		switch (outcome)
+		{
+			case RESULT:
+			{
+				this.results += delta;
+				break;
+			}
+			case EXCEPTION:
+			{
+				this.exceptions += delta;
+				break;
+			}
+		}
+	}
+	
+	private int count(Outcome outcome)
+	{
+		return (outcome == Outcome.RESULT) ? this.results : this.exceptions;
+	}
+	
+	private int checkOrdinal(int ordinal)
+	{
+		if ((ordinal < 0) || (ordinal >= this.size))
+		{
+			throw new IndexOutOfBoundsException(Integer.toString(ordinal));
+		}
+		return ordinal;
+	}
+	
+	/**
+	 * Returns the ordinal of the specified database, or the ordinal at which it would be inserted.
+	 */
+	private int indexOf(Object database)
+	{
+		int index = Arrays.binarySearch(this.databases, 0, this.size, database);
+		return (index >= 0) ? index : -(index + 1);
+	}
+	
+	private int find(Object database, int from, int to)
+	{
+		int index = Arrays.binarySearch(this.databases, 0, this.size, database);
+		return ((index >= from) && (index < to)) ? index : -1;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static int compare(Object database1, Object database2)
+	{
+		return ((Comparable<Object>) database1).compareTo(database2);
+	}
+	
+	/**
+	 * Sorted map view of the values of a given outcome, within a range of ordinals.
+	 */
+	private class OutcomeMap<V> extends AbstractMap<D, V> implements SortedMap<D, V>
+	{
+		private final Outcome outcome;
+		private final int from;
+		private final int to;
+		
+		OutcomeMap(Outcome outcome, int from, int to)
+		{
+			this.outcome = outcome;
+			this.from = from;
+			this.to = to;
+		}
+		
+		private int end()
+		{
+			return Math.min(this.to, InvocationResults.this.size);
+		}
+		
+		private boolean matches(int ordinal)
+		{
+			return InvocationResults.this.outcomes[ordinal] == this.outcome;
+		}
+		
+		private int next(int ordinal)
+		{
+			int end = this.end();
+			for (int i = ordinal; i < end; ++i)
+			{
+				if (this.matches(i)) return i;
+			}
+			return -1;
+		}
+		
+		private int previous(int ordinal)
+		{
+			for (int i = ordinal; i >= this.from; --i)
+			{
+				if (this.matches(i)) return i;
+			}
+			return -1;
+		}
+		
+		@Override
+		public int size()
+		{
+			if ((this.from == 0) && (this.end() == InvocationResults.this.size))
+			{
+				return InvocationResults.this.count(this.outcome);
+			}
+			int size = 0;
+			for (int i = this.from; i < this.end(); ++i)
+			{
+				if (this.matches(i)) size += 1;
+			}
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			return this.size() == 0;
+		}
+
+		@Override
+		public boolean containsKey(Object key)
+		{
+			int ordinal = InvocationResults.this.find(key, this.from, this.end());
+			return (ordinal >= 0) && this.matches(ordinal);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V get(Object key)
+		{
+			int ordinal = InvocationResults.this.find(key, this.from, this.end());
+			return ((ordinal >= 0) && this.matches(ordinal)) ? (V) InvocationResults.this.values[ordinal] : null;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V remove(Object key)
+		{
+			int ordinal = InvocationResults.this.find(key, this.from, this.end());
+			return ((ordinal >= 0) && this.matches(ordinal)) ? (V) InvocationResults.this.clear(ordinal) : null;
+		}
+
+		@Override
+		public Comparator<? super D> comparator()
+		{
+			return null;
+		}
+
+		@Override
+		public D firstKey()
+		{
+			int ordinal = this.next(this.from);
+			if (ordinal < 0) throw new NoSuchElementException();
+			return InvocationResults.this.getDatabase(ordinal);
+		}
+
+		@Override
+		public D lastKey()
+		{
+			int ordinal = this.previous(this.end() - 1);
+			if (ordinal < 0) throw new NoSuchElementException();
+			return InvocationResults.this.getDatabase(ordinal);
+		}
+
+		@Override
+		public SortedMap<D, V> subMap(D fromKey, D toKey)
+		{
+			int from = InvocationResults.this.indexOf(fromKey);
+			int to = InvocationResults.this.indexOf(toKey);
+			if (from > to) throw new IllegalArgumentException();
+			return new OutcomeMap<>(this.outcome, Math.max(this.from, from), Math.min(this.to, to));
+		}
+
+		@Override
+		public SortedMap<D, V> headMap(D toKey)
+		{
+			return new OutcomeMap<>(this.outcome, this.from, Math.min(this.to, InvocationResults.this.indexOf(toKey)));
+		}
+
+		@Override
+		public SortedMap<D, V> tailMap(D fromKey)
+		{
+			return new OutcomeMap<>(this.outcome, Math.max(this.from, InvocationResults.this.indexOf(fromKey)), this.to);
+		}
+
+		@Override
+		public Set<Map.Entry<D, V>> entrySet()
+		{
+			return new AbstractSet<Map.Entry<D, V>>()
+			{
+				@Override
+				public Iterator<Map.Entry<D, V>> iterator()
+				{
+					return new OutcomeIterator<>(OutcomeMap.this);
+				}
+
+				@Override
+				public int size()
+				{
+					return OutcomeMap.this.size();
+				}
+			};
+		}
+	}
+	
+	private class OutcomeIterator<V> implements Iterator<Map.Entry<D, V>>
+	{
+		private final OutcomeMap<V> map;
+		private int next;
+		private int current = -1;
+		
+		OutcomeIterator(OutcomeMap<V> map)
+		{
+			this.map = map;
+			this.next = map.next(map.from);
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return this.next >= 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Map.Entry<D, V> next()
+		{
+			if (this.next < 0) throw new NoSuchElementException();
+			this.current = this.next;
+			this.next = this.map.next(this.current + 1);
+			return new AbstractMap.SimpleImmutableEntry<>(InvocationResults.this.getDatabase(this.current), (V) InvocationResults.this.values[this.current]);
+		}
+
+		@Override
+		public void remove()
+		{
+			if (this.current < 0) throw new IllegalStateException();
+			if (!this.map.matches(this.current)) throw new ConcurrentModificationException();
+			InvocationResults.this.clear(this.current);
+			this.current = -1;
+		}
+	}
+}
@@ -19,7 +19,6 @@ package io.github.hajdbc.invocation;
 
 import java.util.Map;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
@@ -33,6 +32,7 @@ import io.github.hajdbc.messages.Messages;
 import io.github.hajdbc.messages.MessagesFactory;
 import io.github.hajdbc.sql.ProxyFactory;
 import io.github.hajdbc.state.StateManager;
+import io.github.hajdbc.util.Collections;
 
 /**
  * @author Paul Ferraro
@@ -68,9 +68,7 @@ public class InvokeOnAnyInvocationStrategy implements InvocationStrategy
 				{
 					R result = invoker.invoke(database, entry.getValue());
 					
-					SortedMap<D, R> resultMap = new TreeMap<>();
-					resultMap.put(database, result);
-					return resultMap;
+					return Collections.singletonSortedMap(database, result);
 				}
 				catch (Exception e)
 				{
@@ -45,7 +45,7 @@ public class InvokeOnManyInvocationStrategy implements InvocationStrategy
 	
 	public static interface ResultsCollector
 	{
-		<Z, D extends Database<Z>, T, R, E extends Exception> Map.Entry<SortedMap<D, R>, SortedMap<D, E>> collectResults(ProxyFactory<Z, D, T, E> map, Invoker<Z, D, T, R, E> invoker);
+		<Z, D extends Database<Z>, T, R, E extends Exception> InvocationResults<D, R, E> collectResults(ProxyFactory<Z, D, T, E> map, Invoker<Z, D, T, R, E> invoker);
 	}
 
 	private final ResultsCollector collector;
@@ -58,13 +58,13 @@ public class InvokeOnManyInvocationStrategy implements InvocationStrategy
 	@Override
 	public <Z, D extends Database<Z>, T, R, E extends Exception> SortedMap<D, R> invoke(ProxyFactory<Z, D, T, E> factory, Invoker<Z, D, T, R, E> invoker) throws E
 	{
-		Map.Entry<SortedMap<D, R>, SortedMap<D, E>> results = this.collector.collectResults(factory, invoker);
-		ExceptionFactory<E> exceptionFactory = factory.getExceptionFactory();
-		SortedMap<D, R> resultMap = results.getKey();
-		SortedMap<D, E> exceptionMap = results.getValue();
+		InvocationResults<D, R, E> results = this.collector.collectResults(factory, invoker);
+		SortedMap<D, R> resultMap = results.getResults();
+		SortedMap<D, E> exceptionMap = results.getExceptions();
 		
 		if (!exceptionMap.isEmpty())
 		{
+			ExceptionFactory<E> exceptionFactory = factory.getExceptionFactory();
 			DatabaseCluster<Z, D> cluster = factory.getDatabaseCluster();
 			Dialect dialect = cluster.getDialect();
 			
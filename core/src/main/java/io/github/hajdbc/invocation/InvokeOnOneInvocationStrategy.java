@@ -18,7 +18,6 @@
 package io.github.hajdbc.invocation;
 
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
@@ -32,6 +31,7 @@ import io.github.hajdbc.messages.Messages;
 import io.github.hajdbc.messages.MessagesFactory;
 import io.github.hajdbc.sql.ProxyFactory;
 import io.github.hajdbc.state.StateManager;
+import io.github.hajdbc.util.Collections;
 
 /**
  * @author paul
@@ -78,9 +78,7 @@ public class InvokeOnOneInvocationStrategy implements InvocationStrategy
 			{
 				R result = balancer.invoke(invoker, database, object);
 				
-				SortedMap<D, R> resultMap = new TreeMap<>();
-				resultMap.put(database, result);
-				return resultMap;
+				return Collections.singletonSortedMap(database, result);
 			}
 			catch (Exception e)
 			{
@@ -7,13 +7,14 @@ import io.github.hajdbc.ExceptionFactory;
 import io.github.hajdbc.logging.Level;
 import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
-import io.github.hajdbc.util.reflect.Methods;
+import io.github.hajdbc.util.reflect.MethodDispatcher;
 
 public class SimpleInvoker<Z, D extends Database<Z>, T, R, E extends Exception> implements Invoker<Z, D, T, R, E>
 {
 	private static final Logger logger = LoggerFactory.getLogger(SimpleInvoker.class);
 	
 	private final Method method;
+	private final MethodDispatcher dispatcher;
 	private final Object[] parameters;
 	private final ExceptionFactory<E> exceptionFactory;
 	
@@ -24,6 +25,7 @@ public class SimpleInvoker<Z, D extends Database<Z>, T, R, E extends Exception>
 	public SimpleInvoker(Method method, Object[] parameters, ExceptionFactory<E> exceptionFactory)
 	{
 		this.method = method;
+		this.dispatcher = MethodDispatcher.forMethod(method);
 		this.parameters = parameters;
 		this.exceptionFactory = exceptionFactory;
 	}
@@ -47,7 +49,7 @@ public class SimpleInvoker<Z, D extends Database<Z>, T, R, E extends Exception>
 	public R invoke(D database, T object) throws E
 	{
 		logger.log(Level.TRACE, "Invoking {0} against {1}", this.method, database);
-		return Methods.<R, E>invoke(this.method, this.exceptionFactory, object, this.parameters);
+		return this.dispatcher.<R, E>invoke(this.exceptionFactory, object, this.parameters);
 	}
 
 	@Override
@@ -11,6 +11,6 @@ public class StandardExecutorProvider implements ExecutorProvider
 	@Override
 	public <Z, D extends Database<Z>> ExecutorService getExecutor(DatabaseCluster<Z, D> cluster)
 	{
-		return cluster.getExecutor();
+		return cluster.getTransactionMode().getExecutor(cluster.getExecutor());
 	}
 }
\ No newline at end of file
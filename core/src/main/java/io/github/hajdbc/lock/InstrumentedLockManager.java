@@ -0,0 +1,271 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+import io.github.hajdbc.util.Histogram;
+
+/**
+ * Lock manager decorator that records the wait and hold durations of each lock.
+ * Statistics are tracked for a bounded number of lock identifiers, beyond which they are aggregated.
+ * @author Paul Ferraro
+ */
+public class InstrumentedLockManager implements LockManager
+{
+	public static final int DEFAULT_CAPACITY = 256;
+	public static final int DEFAULT_TOP = 10;
+	private static final String OVERFLOW = "*";
+
+	private final LockManager manager;
+	private final int capacity;
+	private final int top;
+	private final LockStatistics globalReadStatistics = new LockStatistics("readLock()");
+	private final LockStatistics globalWriteStatistics = new LockStatistics("writeLock()");
+	private final LockStatistics overflowReadStatistics = new LockStatistics(String.format("readLock(%s)", OVERFLOW));
+	private final LockStatistics overflowWriteStatistics = new LockStatistics(String.format("writeLock(%s)", OVERFLOW));
+	private final ConcurrentMap<String, LockStatistics> readStatistics = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LockStatistics> writeStatistics = new ConcurrentHashMap<>();
+
+	public InstrumentedLockManager(LockManager manager)
+	{
+		this(manager, DEFAULT_CAPACITY, DEFAULT_TOP);
+	}
+
+	/**
+	 * Creates a new instrumented lock manager
+	 * @param manager the decorated lock manager
+	 * @param capacity the maximum number of lock identifiers for which to track statistics
+	 * @param top the number of locks to report
+	 */
+	public InstrumentedLockManager(LockManager manager, int capacity, int top)
+	{
+		this.manager = manager;
+		this.capacity = capacity;
+		this.top = top;
+	}
+
+	@Override
+	public Lock readLock(String id)
+	{
+		LockStatistics statistics = (id != null) ? this.getStatistics(this.readStatistics, id, key -> String.format("readLock(%s)", key), this.overflowReadStatistics) : this.globalReadStatistics;
+		return new InstrumentedLock(this.manager.readLock(id), statistics);
+	}
+
+	@Override
+	public Lock writeLock(String id)
+	{
+		LockStatistics statistics = (id != null) ? this.getStatistics(this.writeStatistics, id, key -> String.format("writeLock(%s)", key), this.overflowWriteStatistics) : this.globalWriteStatistics;
+		return new InstrumentedLock(this.manager.writeLock(id), statistics);
+	}
+
+	private LockStatistics getStatistics(ConcurrentMap<String, LockStatistics> map, String id, Function<String, String> name, LockStatistics overflow)
+	{
+		LockStatistics statistics = map.get(id);
+		if (statistics != null) return statistics;
+		// Size check is racy, so capacity is only approximate
+		if (this.readStatistics.size() + this.writeStatistics.size() >= this.capacity) return overflow;
+		return map.computeIfAbsent(id, key -> new LockStatistics(name.apply(key)));
+	}
+
+	@Override
+	public int getLockCount()
+	{
+		return this.manager.getLockCount();
+	}
+
+	@Override
+	public void start() throws SQLException
+	{
+		this.manager.start();
+	}
+
+	@Override
+	public void stop()
+	{
+		this.manager.stop();
+	}
+
+	/**
+	 * Returns the wait time statistics of the locks with the greatest total wait time.
+	 * @return a list of descriptions, in descending order of total wait time
+	 */
+	public List<String> getWaitTimes()
+	{
+		return this.report(LockStatistics::getWaitTimes);
+	}
+
+	/**
+	 * Returns the hold time statistics of the locks with the greatest total hold time.
+	 * @return a list of descriptions, in descending order of total hold time
+	 */
+	public List<String> getHoldTimes()
+	{
+		return this.report(LockStatistics::getHoldTimes);
+	}
+
+	private List<String> report(Function<LockStatistics, Histogram> histogram)
+	{
+		List<LockStatistics> list = new ArrayList<>(this.readStatistics.size() + this.writeStatistics.size() + 4);
+		list.addAll(this.readStatistics.values());
+		list.addAll(this.writeStatistics.values());
+		Collections.addAll(list, this.globalReadStatistics, this.globalWriteStatistics, this.overflowReadStatistics, this.overflowWriteStatistics);
+		
+		Comparator<LockStatistics> comparator = Comparator.comparingLong(statistics -> histogram.apply(statistics).getTotal());
+		Collections.sort(list, comparator.reversed());
+		
+		List<String> result = new ArrayList<>(this.top);
+		for (LockStatistics statistics: list)
+		{
+			if (result.size() == this.top) break;
+			
+			Histogram times = histogram.apply(statistics);
+			if (times.getCount() > 0)
+			{
+				result.add(String.format("%s: %s", statistics.getName(), times));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Discards all recorded statistics.
+	 */
+	public void reset()
+	{
+		this.readStatistics.clear();
+		this.writeStatistics.clear();
+		for (LockStatistics statistics: new LockStatistics[] { this.globalReadStatistics, this.globalWriteStatistics, this.overflowReadStatistics, this.overflowWriteStatistics })
+		{
+			statistics.getWaitTimes().reset();
+			statistics.getHoldTimes().reset();
+		}
+	}
+
+	private static class LockStatistics
+	{
+		private final String name;
+		private final Histogram waitTimes = new Histogram();
+		private final Histogram holdTimes = new Histogram();
+
+		LockStatistics(String name)
+		{
+			this.name = name;
+		}
+
+		String getName()
+		{
+			return this.name;
+		}
+
+		Histogram getWaitTimes()
+		{
+			return this.waitTimes;
+		}
+
+		Histogram getHoldTimes()
+		{
+			return this.holdTimes;
+		}
+	}
+
+	private static class InstrumentedLock implements Lock
+	{
+		private final Lock lock;
+		private final LockStatistics statistics;
+		// Distributed locks may be released by a different thread than the one that acquired them
+		private volatile long acquired;
+
+		InstrumentedLock(Lock lock, LockStatistics statistics)
+		{
+			this.lock = lock;
+			this.statistics = statistics;
+		}
+
+		private void acquired(long start)
+		{
+			long acquired = System.nanoTime();
+			this.acquired = acquired;
+			this.statistics.getWaitTimes().record(acquired - start);
+		}
+
+		@Override
+		public void lock()
+		{
+			long start = System.nanoTime();
+			this.lock.lock();
+			this.acquired(start);
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException
+		{
+			long start = System.nanoTime();
+			this.lock.lockInterruptibly();
+			this.acquired(start);
+		}
+
+		@Override
+		public boolean tryLock()
+		{
+			long start = System.nanoTime();
+			boolean locked = this.lock.tryLock();
+			if (locked)
+			{
+				this.acquired(start);
+			}
+			return locked;
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException
+		{
+			long start = System.nanoTime();
+			boolean locked = this.lock.tryLock(time, unit);
+			if (locked)
+			{
+				this.acquired(start);
+			}
+			return locked;
+		}
+
+		@Override
+		public void unlock()
+		{
+			long acquired = this.acquired;
+			this.lock.unlock();
+			this.statistics.getHoldTimes().record(System.nanoTime() - acquired);
+		}
+
+		@Override
+		public Condition newCondition()
+		{
+			return this.lock.newCondition();
+		}
+	}
+}
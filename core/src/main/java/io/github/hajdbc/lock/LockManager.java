@@ -42,4 +42,10 @@ public interface LockManager extends Lifecycle
 	 * @return a write lock
 	 */
 	Lock writeLock(String object);
+	
+	/**
+	 * Returns the number of named locks that are currently held or awaited.
+	 * @return a number of locks
+	 */
+	int getLockCount();
 }
@@ -23,45 +23,211 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
+ * Lock manager based on a global read/write lock, and a read/write lock per named object.
+ * Named locks are reference counted by their holders and waiters, and are discarded once unreferenced.
  * @author Paul Ferraro
- *
  */
 public class ReadWriteLockManager implements LockManager
 {
-	private final ConcurrentMap<String, ReadWriteLock> lockMap = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, ReferenceCountedLock> lockMap = new ConcurrentHashMap<>();
 
+	private final ReadWriteLock globalLock;
 	private final Supplier<ReadWriteLock> factory;
 	
 	public ReadWriteLockManager(Supplier<ReadWriteLock> factory)
 	{
+		this(factory.get(), factory);
+	}
+	
+	/**
+	 * @param globalLock the global lock, represented by a null object
+	 * @param factory creates the lock of each named object
+	 */
+	public ReadWriteLockManager(ReadWriteLock globalLock, Supplier<ReadWriteLock> factory)
+	{
+		this.globalLock = globalLock;
 		this.factory = factory;
 	}
 	
 	@Override
 	public Lock readLock(String object)
 	{
-		Lock lock = this.getReadWriteLock(null).readLock();
+		Lock lock = this.globalLock.readLock();
 		
-		return (object == null) ? lock : new GlobalLock(lock, this.getReadWriteLock(object).readLock());
+		return (object == null) ? lock : new GlobalLock(lock, new NamedLock(object, ReadWriteLock::readLock));
 	}
 	
 	@Override
 	public Lock writeLock(String object)
 	{
-		ReadWriteLock readWriteLock = this.getReadWriteLock(null);
+		return (object == null) ? this.globalLock.writeLock() : new GlobalLock(this.globalLock.readLock(), new NamedLock(object, ReadWriteLock::writeLock));
+	}
+	
+	@Override
+	public int getLockCount()
+	{
+		return this.lockMap.size();
+	}
+	
+	/**
+	 * References the lock of the specified object, creating it if necessary.
+	 */
+	ReadWriteLock reference(String object)
+	{
+		return this.lockMap.compute(object, (String id, ReferenceCountedLock lock) -> ((lock != null) ? lock : new ReferenceCountedLock(this.factory.get())).reference()).getLock();
+	}
+	
+	/**
+	 * Dereferences the lock of the specified object, removing it if no longer referenced.
+	 */
+	void dereference(String object)
+	{
+		this.lockMap.computeIfPresent(object, (String id, ReferenceCountedLock lock) -> lock.dereference());
+	}
+	
+	/**
+	 * A read/write lock whose reference count is guarded by the atomicity of {@link ConcurrentMap#compute(Object, java.util.function.BiFunction)}.
+	 */
+	private static class ReferenceCountedLock
+	{
+		private final ReadWriteLock lock;
+		private int references = 0;
+		
+		ReferenceCountedLock(ReadWriteLock lock)
+		{
+			this.lock = lock;
+		}
+		
+		ReadWriteLock getLock()
+		{
+			return this.lock;
+		}
 		
-		return (object == null) ? readWriteLock.writeLock() : new GlobalLock(readWriteLock.readLock(), this.getReadWriteLock(object).writeLock());
+		ReferenceCountedLock reference()
+		{
+			this.references += 1;
+			return this;
+		}
+		
+		ReferenceCountedLock dereference()
+		{
+			this.references -= 1;
+			return (this.references > 0) ? this : null;
+		}
 	}
 	
-	private ReadWriteLock getReadWriteLock(String object)
+	/**
+	 * The lock of a named object, referenced while held or awaited.
+	 */
+	private class NamedLock implements Lock
 	{
-		// CHM cannot use a null key
-		String key = (object != null) ? object : "";
+		private final String object;
+		private final Function<ReadWriteLock, Lock> type;
+		
+		NamedLock(String object, Function<ReadWriteLock, Lock> type)
+		{
+			this.object = object;
+			this.type = type;
+		}
 		
-		return this.lockMap.computeIfAbsent(key, (String id) -> this.factory.get());
+		@Override
+		public void lock()
+		{
+			Lock lock = this.type.apply(ReadWriteLockManager.this.reference(this.object));
+			boolean locked = false;
+			
+			try
+			{
+				lock.lock();
+				locked = true;
+			}
+			finally
+			{
+				if (!locked)
+				{
+					ReadWriteLockManager.this.dereference(this.object);
+				}
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException
+		{
+			Lock lock = this.type.apply(ReadWriteLockManager.this.reference(this.object));
+			boolean locked = false;
+			
+			try
+			{
+				lock.lockInterruptibly();
+				locked = true;
+			}
+			finally
+			{
+				if (!locked)
+				{
+					ReadWriteLockManager.this.dereference(this.object);
+				}
+			}
+		}
+
+		@Override
+		public boolean tryLock()
+		{
+			Lock lock = this.type.apply(ReadWriteLockManager.this.reference(this.object));
+			boolean locked = false;
+			
+			try
+			{
+				locked = lock.tryLock();
+				return locked;
+			}
+			finally
+			{
+				if (!locked)
+				{
+					ReadWriteLockManager.this.dereference(this.object);
+				}
+			}
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException
+		{
+			Lock lock = this.type.apply(ReadWriteLockManager.this.reference(this.object));
+			boolean locked = false;
+			
+			try
+			{
+				locked = lock.tryLock(time, unit);
+				return locked;
+			}
+			finally
+			{
+				if (!locked)
+				{
+					ReadWriteLockManager.this.dereference(this.object);
+				}
+			}
+		}
+
+		@Override
+		public void unlock()
+		{
+			// Lock is referenced by this holder, so cannot have been removed
+			this.type.apply(ReadWriteLockManager.this.lockMap.get(this.object).getLock()).unlock();
+			
+			ReadWriteLockManager.this.dereference(this.object);
+		}
+
+		@Override
+		public Condition newCondition()
+		{
+			throw new UnsupportedOperationException();
+		}
 	}
 	
 	private static class GlobalLock implements Lock
@@ -0,0 +1,48 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import io.github.hajdbc.distributed.Command;
+
+/**
+ * Requests the lease of a lock from the group coordinator.
+ * @author Paul Ferraro
+ */
+public class AcquireLeaseCommand implements Command<Boolean, LockCommandContext>
+{
+	private static final long serialVersionUID = -2313402372637581474L;
+
+	private final RemoteLockDescriptor descriptor;
+
+	public AcquireLeaseCommand(RemoteLockDescriptor descriptor)
+	{
+		this.descriptor = descriptor;
+	}
+
+	@Override
+	public Boolean execute(LockCommandContext context)
+	{
+		return context.acquireLease(this.descriptor);
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s(%s)", this.getClass().getSimpleName(), this.descriptor);
+	}
+}
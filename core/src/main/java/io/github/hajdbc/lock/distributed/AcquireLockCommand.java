@@ -68,6 +68,16 @@ public class AcquireLockCommand implements Command<Boolean, LockCommandContext>
 		}
 	}
 
+	RemoteLockDescriptor getDescriptor()
+	{
+		return this.descriptor;
+	}
+
+	long getTimeout()
+	{
+		return this.timeout;
+	}
+
 	@Override
 	public String toString()
 	{
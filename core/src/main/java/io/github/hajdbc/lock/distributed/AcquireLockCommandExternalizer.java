@@ -0,0 +1,50 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import io.github.hajdbc.distributed.Member;
+
+/**
+ * Externalizer for {@link AcquireLockCommand}, written as <code>[lock descriptor][timeout]</code>.
+ * @author Paul Ferraro
+ */
+public class AcquireLockCommandExternalizer extends LockCommandExternalizer<AcquireLockCommand>
+{
+	public AcquireLockCommandExternalizer()
+	{
+		super((byte) 4, AcquireLockCommand.class);
+	}
+
+	@Override
+	public void writeObject(DataOutput output, AcquireLockCommand command) throws IOException
+	{
+		writeDescriptor(output, command.getDescriptor());
+		output.writeLong(command.getTimeout());
+	}
+
+	@Override
+	public AcquireLockCommand readObject(DataInput input, Member source) throws IOException
+	{
+		RemoteLockDescriptor descriptor = readDescriptor(input, source);
+		return new AcquireLockCommand(descriptor, input.readLong());
+	}
+}
@@ -25,12 +25,23 @@ import java.io.ObjectOutputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
@@ -60,14 +71,47 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 	static final Logger logger = LoggerFactory.getLogger(DistributedLockManager.class);
 	static final Messages messages = MessagesFactory.getMessages();
 
+	// Version of the format of the state transferred to joining members, which earlier versions, lacking a version, cannot read
+	private static final byte STATE_VERSION = 1;
+	// Maximum number of lock descriptors per chunk of transferred state
+	private static final int STATE_CHUNK_SIZE = 256;
+
 	final CommandDispatcher<LockCommandContext> dispatcher;
 	
 	private final LockManager lockManager;
 	private final ConcurrentMap<Member, Map<LockDescriptor, Lock>> remoteLockDescriptorMap = new ConcurrentHashMap<>();
+	private final boolean leasing;
+	// Leases of this member, by lock identifier
+	private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+	// Lease owners, by lock identifier - only maintained by the coordinator
+	private final ConcurrentMap<String, AtomicReference<Member>> leaseOwners = new ConcurrentHashMap<>();
+	// Queued lock requests of other members, by lock identifier - only maintained by the coordinator
+	private final Map<String, Queue<LockRequest>> lockRequests = new HashMap<>();
+	// Pending grants of lock requests queued by the coordinator on behalf of this member, by token
+	private final ConcurrentMap<Long, LockGrant> lockGrants = new ConcurrentHashMap<>();
+	private final AtomicLong lockGrantTokens = new AtomicLong();
+	private final ThreadFactory threadFactory;
+	private volatile ExecutorService executor;
+	// Tracks the application of transferred state while this member joins the group, null otherwise
+	private volatile StateTransfer transfer;
 	
 	public <Z, D extends Database<Z>> DistributedLockManager(DatabaseCluster<Z, D> cluster, CommandDispatcherFactory dispatcherFactory) throws Exception
+	{
+		this(cluster, dispatcherFactory, false);
+	}
+	
+	/**
+	 * Creates a distributed lock manager.
+	 * @param cluster a database cluster
+	 * @param dispatcherFactory a factory for creating the command dispatcher
+	 * @param leasing indicates whether a member retains ownership of a named write lock between acquisitions, until another member requests it
+	 * @throws Exception if the command dispatcher could not be created
+	 */
+	public <Z, D extends Database<Z>> DistributedLockManager(DatabaseCluster<Z, D> cluster, CommandDispatcherFactory dispatcherFactory, boolean leasing) throws Exception
 	{
 		this.lockManager = cluster.getLockManager();
+		this.threadFactory = cluster.getThreadFactory();
+		this.leasing = leasing;
 		LockCommandContext context = this;
 		this.dispatcher = dispatcherFactory.createCommandDispatcher(cluster.getId() + ".lock", context, this, this);
 	}
@@ -82,7 +126,20 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 	public Lock writeLock(String id)
 	{
 		RemoteLockDescriptor descriptor = new RemoteLockDescriptorImpl(id, LockType.WRITE, this.dispatcher.getLocal());
-		return new DistributedLock(descriptor, this.getLock(descriptor), this.dispatcher);
+		Lock lock = this.getLock(descriptor);
+		// The global lock is never leased
+		if (this.leasing && (id != null))
+		{
+			Lease lease = this.leases.computeIfAbsent(id, key -> new Lease());
+			return new LeasedLock(descriptor, lock, lease, this, this.dispatcher);
+		}
+		return new DistributedLock(descriptor, lock, this);
+	}
+
+	@Override
+	public int getLockCount()
+	{
+		return this.lockManager.getLockCount();
 	}
 
 	@Override
@@ -107,18 +164,282 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 		}
 	}
 
+	@Override
+	public boolean requestLock(RemoteLockDescriptor descriptor, long token)
+	{
+		if (!this.remoteLockDescriptorMap.containsKey(descriptor.getMember()))
+		{
+			throw new IllegalStateException(descriptor.getMember().toString());
+		}
+		
+		String id = descriptor.getId();
+		Lock lock = this.getLock(descriptor);
+		
+		synchronized (this.lockRequests)
+		{
+			Queue<LockRequest> requests = this.lockRequests.get(id);
+			
+			if (requests == null)
+			{
+				if (lock.tryLock())
+				{
+					this.addRemoteLock(descriptor, lock);
+					return true;
+				}
+				
+				requests = new LinkedList<>();
+				this.lockRequests.put(id, requests);
+				this.executor.execute(() -> this.grantLocks(id));
+			}
+			
+			requests.add(new LockRequest(descriptor, token));
+			return false;
+		}
+	}
+
+	/**
+	 * Acquires the specified lock on behalf of each queued request, in order, and sends a grant to the requesting member.
+	 */
+	private void grantLocks(String id)
+	{
+		LockRequest request = this.nextLockRequest(id, false);
+		
+		while (request != null)
+		{
+			RemoteLockDescriptor descriptor = request.getDescriptor();
+			Lock lock = this.getLock(descriptor);
+			
+			try
+			{
+				lock.lockInterruptibly();
+			}
+			catch (InterruptedException e)
+			{
+				// We are stopping
+				Thread.currentThread().interrupt();
+				return;
+			}
+			
+			if (this.addRemoteLock(descriptor, lock))
+			{
+				Member member = descriptor.getMember();
+				Command<Boolean, LockCommandContext> command = new GrantLockCommand(descriptor, request.getToken());
+				boolean granted = false;
+				try
+				{
+					granted = this.dispatcher.execute(command, member).get().booleanValue();
+				}
+				catch (Exception e)
+				{
+					logger.log(Level.WARN, e, messages.sendCommandToMemberFailed(command, member));
+				}
+				
+				// If the requester abandoned its request, release the lock on its behalf
+				if (!granted && this.removeRemoteLock(descriptor))
+				{
+					lock.unlock();
+				}
+			}
+			else
+			{
+				lock.unlock();
+			}
+			
+			request = this.nextLockRequest(id, true);
+		}
+	}
+
+	private LockRequest nextLockRequest(String id, boolean remove)
+	{
+		synchronized (this.lockRequests)
+		{
+			Queue<LockRequest> requests = this.lockRequests.get(id);
+			
+			if (requests == null) return null;
+			
+			if (remove)
+			{
+				requests.remove();
+			}
+			
+			LockRequest request = requests.peek();
+			
+			if (request == null)
+			{
+				this.lockRequests.remove(id);
+			}
+			
+			return request;
+		}
+	}
+
+	private boolean addRemoteLock(RemoteLockDescriptor descriptor, Lock lock)
+	{
+		Map<LockDescriptor, Lock> locks = this.remoteLockDescriptorMap.get(descriptor.getMember());
+		
+		if (locks == null) return false;
+		
+		synchronized (locks)
+		{
+			locks.put(descriptor, lock);
+		}
+		return true;
+	}
+
+	private boolean removeRemoteLock(RemoteLockDescriptor descriptor)
+	{
+		Map<LockDescriptor, Lock> locks = this.remoteLockDescriptorMap.get(descriptor.getMember());
+		
+		if (locks == null) return false;
+		
+		synchronized (locks)
+		{
+			return locks.remove(descriptor) != null;
+		}
+	}
+
+	@Override
+	public boolean grantLock(long token)
+	{
+		LockGrant grant = this.lockGrants.get(token);
+		
+		return (grant != null) && grant.complete(Boolean.TRUE);
+	}
+
+	LockGrant createLockGrant(Member coordinator)
+	{
+		LockGrant grant = new LockGrant(this.lockGrantTokens.incrementAndGet(), coordinator);
+		this.lockGrants.put(grant.getToken(), grant);
+		return grant;
+	}
+
+	void removeLockGrant(LockGrant grant)
+	{
+		this.lockGrants.remove(grant.getToken());
+	}
+
+	@Override
+	public boolean acquireLease(RemoteLockDescriptor descriptor)
+	{
+		AtomicReference<Member> owner = this.leaseOwners.computeIfAbsent(descriptor.getId(), key -> new AtomicReference<Member>());
+		Member member = descriptor.getMember();
+		
+		// Serialize grants per lock
+		synchronized (owner)
+		{
+			Member currentOwner = owner.get();
+			
+			if (!member.equals(currentOwner))
+			{
+				// If the owner is unknown, e.g. after a change of coordinator, revoke the lease from all other members
+				boolean revoked = (currentOwner != null) ? this.revokeLease(descriptor, currentOwner) : this.revokeLeases(descriptor, member);
+				
+				if (!revoked) return false;
+				
+				owner.set(member);
+			}
+			return true;
+		}
+	}
+
+	private boolean revokeLease(RemoteLockDescriptor descriptor, Member member)
+	{
+		if (this.dispatcher.getLocal().equals(member))
+		{
+			this.revokeLease(descriptor);
+			return true;
+		}
+		
+		Command<Void, LockCommandContext> command = new RevokeLeaseCommand(descriptor);
+		try
+		{
+			this.dispatcher.execute(command, member).get();
+			return true;
+		}
+		catch (Exception e)
+		{
+			logger.log(Level.WARN, e, messages.sendCommandToMemberFailed(command, member));
+			return false;
+		}
+	}
+
+	private boolean revokeLeases(RemoteLockDescriptor descriptor, Member excluded)
+	{
+		Command<Void, LockCommandContext> command = new RevokeLeaseCommand(descriptor);
+		try
+		{
+			Map<Member, CommandResponse<Void>> responses = this.dispatcher.executeAll(command, excluded);
+			boolean revoked = true;
+			for (Map.Entry<Member, CommandResponse<Void>> entry: responses.entrySet())
+			{
+				try
+				{
+					entry.getValue().get();
+				}
+				catch (Exception e)
+				{
+					logger.log(Level.WARN, e, messages.executeCommandFailed(command, entry.getKey()));
+					revoked = false;
+				}
+			}
+			return revoked;
+		}
+		catch (Exception e)
+		{
+			logger.log(Level.WARN, e, messages.sendCommandToClusterFailed(command));
+			return false;
+		}
+	}
+
+	@Override
+	public void revokeLease(LockDescriptor descriptor)
+	{
+		String id = descriptor.getId();
+		Lease lease = this.leases.get(id);
+		
+		if ((lease != null) && lease.revoke())
+		{
+			// Wait for any local holder of the lease to release its lock
+			Lock lock = this.lockManager.writeLock(id);
+			lock.lock();
+			lock.unlock();
+		}
+	}
+
 	@Override
 	public void start() throws SQLException
 	{
 		this.lockManager.start();
-		this.dispatcher.start();
+		this.executor = Executors.newCachedThreadPool(this.threadFactory);
+		StateTransfer transfer = new StateTransfer();
+		this.transfer = transfer;
+		try
+		{
+			this.dispatcher.start();
+		}
+		finally
+		{
+			transfer.end();
+		}
 	}
 
 	@Override
 	public void stop()
 	{
 		this.dispatcher.stop();
+		this.executor.shutdownNow();
+		synchronized (this.lockRequests)
+		{
+			this.lockRequests.clear();
+		}
+		for (LockGrant grant: this.lockGrants.values())
+		{
+			grant.complete(Boolean.FALSE);
+		}
 		this.lockManager.stop();
+		this.remoteLockDescriptorMap.clear();
+		this.leases.clear();
+		this.leaseOwners.clear();
 	}
 
 	@Override
@@ -127,64 +448,148 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 		return this.remoteLockDescriptorMap.get(remote.getMember());
 	}
 
+	@Override
+	public void releasingRemoteLock(RemoteLockDescriptor descriptor)
+	{
+		StateTransfer transfer = this.transfer;
+		
+		if (transfer != null)
+		{
+			// Any snapshot entry for this lock is stale, whether the lock was acquired before or after the snapshot was taken
+			transfer.released(descriptor);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the remote locks of each member, in chunks of bounded size.
+	 * Only the lock descriptors of a given member are copied while holding its monitor - the stream itself is written without blocking any lock commands.
+	 */
 	@Override
 	public void writeState(ObjectOutput output) throws IOException
 	{
-		output.writeInt(this.remoteLockDescriptorMap.size());
+		output.writeByte(STATE_VERSION);
 		
 		for (Map.Entry<Member, Map<LockDescriptor, Lock>> entry: this.remoteLockDescriptorMap.entrySet())
 		{
-			output.writeObject(entry.getKey());
-			
 			Map<LockDescriptor, Lock> locks = entry.getValue();
+			List<LockDescriptor> descriptors = null;
+			
 			synchronized (locks)
 			{
-				Set<LockDescriptor> descriptors = locks.keySet();
+				descriptors = new ArrayList<>(locks.keySet());
+			}
+			
+			output.writeObject(entry.getKey());
+			
+			int size = descriptors.size();
+			for (int i = 0; i < size; i += STATE_CHUNK_SIZE)
+			{
+				List<LockDescriptor> chunk = descriptors.subList(i, Math.min(i + STATE_CHUNK_SIZE, size));
 				
-				output.writeInt(descriptors.size());
+				output.writeInt(chunk.size());
 				
-				for (LockDescriptor descriptor: descriptors)
+				for (LockDescriptor descriptor: chunk)
 				{
-					output.writeUTF(descriptor.getId());
-					output.writeByte(descriptor.getType().ordinal());
+					LockCommandExternalizer.writeDescriptor(output, descriptor);
 				}
 			}
+			output.writeInt(0);
 		}
+		output.writeObject(null);
 	}
 
+	/**
+	 * Applies the snapshot of remote locks written by {@link #writeState(ObjectOutput)}.
+	 * Lock commands received since this member joined the group are executed concurrently, thus form the delta to this snapshot.
+	 * Locks released since this member joined the group are recorded by {@link #releasingRemoteLock(RemoteLockDescriptor)}, and are not restored.
+	 * Locks contended by a local holder are restored asynchronously, so as not to stall the transfer.
+	 */
 	@Override
 	public void readState(ObjectInput input) throws IOException
 	{
-		// Discard any previous state
-		this.remoteLockDescriptorMap.clear();
+		byte version = input.readByte();
 		
-		int size = input.readInt();
+		if (version != STATE_VERSION)
+		{
+			throw new IOException(String.format("Unsupported lock state version: %d", version));
+		}
 		
-		LockType[] types = LockType.values();
+		StateTransfer transfer = this.transfer;
+		Member member = Objects.readObject(input, Member.class);
 		
-		for (int i = 0; i < size; ++i)
+		while (member != null)
 		{
-			Member member = Objects.readObject(input, Member.class);
-			
-			Map<LockDescriptor, Lock> map = new HashMap<>();
+			// Skip the locks of any member that has since left the group
+			Map<LockDescriptor, Lock> locks = this.remoteLockDescriptorMap.get(member);
 			
-			int locks = input.readInt();
+			int size = input.readInt();
 			
-			for (int j = 0; j < locks; ++j)
+			while (size > 0)
 			{
-				String id = input.readUTF();
-				LockType type = types[input.readByte()];
-				
-				LockDescriptor descriptor = new RemoteLockDescriptorImpl(id, type, member);
-				
-				Lock lock = this.getLock(descriptor);
-				
-				lock.lock();
+				for (int i = 0; i < size; ++i)
+				{
+					RemoteLockDescriptor descriptor = LockCommandExternalizer.readDescriptor(input, member);
+					
+					if (locks != null)
+					{
+						this.restoreRemoteLock(descriptor, locks, transfer);
+					}
+				}
 				
-				map.put(descriptor, lock);
+				size = input.readInt();
 			}
 			
-			this.remoteLockDescriptorMap.put(member, map);
+			member = Objects.readObject(input, Member.class);
+		}
+	}
+
+	private void restoreRemoteLock(RemoteLockDescriptor descriptor, Map<LockDescriptor, Lock> locks, StateTransfer transfer)
+	{
+		Lock lock = this.getLock(descriptor);
+		
+		if (lock.tryLock())
+		{
+			restoreRemoteLock(descriptor, lock, locks, transfer);
+		}
+		else
+		{
+			transfer.begin();
+			this.executor.execute(() ->
+			{
+				try
+				{
+					lock.lockInterruptibly();
+					restoreRemoteLock(descriptor, lock, locks, transfer);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				finally
+				{
+					transfer.end();
+				}
+			});
+		}
+	}
+
+	private static void restoreRemoteLock(RemoteLockDescriptor descriptor, Lock lock, Map<LockDescriptor, Lock> locks, StateTransfer transfer)
+	{
+		boolean restored = false;
+		
+		synchronized (locks)
+		{
+			// Discard if released, or already acquired via a lock command, since this member joined the group
+			if (!transfer.isReleased(descriptor) && !locks.containsKey(descriptor))
+			{
+				locks.put(descriptor, lock);
+				restored = true;
+			}
+		}
+		
+		if (!restored)
+		{
+			lock.unlock();
 		}
 	}
 
@@ -206,6 +611,377 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 				lock.unlock();
 			}
 		}
+		
+		for (AtomicReference<Member> owner: this.leaseOwners.values())
+		{
+			owner.compareAndSet(member, null);
+		}
+		
+		// Abandon any requests queued by a departed coordinator
+		for (LockGrant grant: this.lockGrants.values())
+		{
+			if (grant.getCoordinator().equals(member))
+			{
+				grant.complete(Boolean.FALSE);
+			}
+		}
+	}
+	
+	/**
+	 * Tracks the application of transferred state, including any asynchronous lock restoration.
+	 */
+	private class StateTransfer
+	{
+		private final Set<LockDescriptor> releases = ConcurrentHashMap.newKeySet();
+		// Initially pending the completion of the transfer itself
+		private final AtomicInteger pending = new AtomicInteger(1);
+		
+		void begin()
+		{
+			this.pending.incrementAndGet();
+		}
+		
+		void end()
+		{
+			if (this.pending.decrementAndGet() == 0)
+			{
+				DistributedLockManager.this.transfer = null;
+			}
+		}
+		
+		void released(LockDescriptor descriptor)
+		{
+			this.releases.add(descriptor);
+		}
+		
+		boolean isReleased(LockDescriptor descriptor)
+		{
+			return this.releases.contains(descriptor);
+		}
+	}
+	
+	/**
+	 * A lock request queued by the coordinator.
+	 */
+	private static class LockRequest
+	{
+		private final RemoteLockDescriptor descriptor;
+		private final long token;
+		
+		LockRequest(RemoteLockDescriptor descriptor, long token)
+		{
+			this.descriptor = descriptor;
+			this.token = token;
+		}
+		
+		RemoteLockDescriptor getDescriptor()
+		{
+			return this.descriptor;
+		}
+		
+		long getToken()
+		{
+			return this.token;
+		}
+	}
+	
+	/**
+	 * A pending grant of a lock request queued by the coordinator.
+	 * Completes with true if granted, or false if the coordinator departed.
+	 */
+	static class LockGrant extends CompletableFuture<Boolean>
+	{
+		private final long token;
+		private final Member coordinator;
+		
+		LockGrant(long token, Member coordinator)
+		{
+			this.token = token;
+			this.coordinator = coordinator;
+		}
+		
+		long getToken()
+		{
+			return this.token;
+		}
+		
+		Member getCoordinator()
+		{
+			return this.coordinator;
+		}
+		
+		/**
+		 * Waits for this grant.  A grant that arrives after this request was abandoned will be refused.
+		 * @param timeout the maximum number of milliseconds to wait, or Long.MAX_VALUE to wait indefinitely
+		 * @param interruptible indicates whether the wait should be abandoned upon interruption
+		 * @return true, if the lock was granted, false otherwise
+		 */
+		boolean await(long timeout, boolean interruptible)
+		{
+			boolean interrupted = false;
+			try
+			{
+				while (true)
+				{
+					try
+					{
+						return (timeout == Long.MAX_VALUE) ? this.get() : this.get(timeout, TimeUnit.MILLISECONDS);
+					}
+					catch (InterruptedException e)
+					{
+						interrupted = true;
+						if (interruptible)
+						{
+							return this.abandon();
+						}
+					}
+					catch (TimeoutException e)
+					{
+						return this.abandon();
+					}
+					catch (ExecutionException e)
+					{
+						return false;
+					}
+				}
+			}
+			finally
+			{
+				if (interrupted)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		
+		private boolean abandon()
+		{
+			// If we lose the race with the grant, we own the lock
+			return !this.complete(Boolean.FALSE) && this.join();
+		}
+	}
+	
+	/**
+	 * Ownership state of a leased lock on the local member.
+	 * The revocation count allows a requester to detect revocations that raced with the grant of its lease.
+	 */
+	private static class Lease
+	{
+		private volatile boolean owned = false;
+		private long revocations = 0;
+		
+		boolean isOwned()
+		{
+			return this.owned;
+		}
+		
+		synchronized long getRevocations()
+		{
+			return this.revocations;
+		}
+		
+		synchronized boolean own(long revocations)
+		{
+			if (this.revocations != revocations) return false;
+			
+			this.owned = true;
+			return true;
+		}
+		
+		synchronized boolean revoke()
+		{
+			this.revocations += 1;
+			boolean owned = this.owned;
+			this.owned = false;
+			return owned;
+		}
+	}
+	
+	/**
+	 * Write lock whose cluster-wide ownership is retained by the local member until revoked by the coordinator on behalf of another member.
+	 * Acquisitions of an owned lease only acquire the local lock.
+	 */
+	private static class LeasedLock implements Lock
+	{
+		private final RemoteLockDescriptor descriptor;
+		private final Lock lock;
+		private final Lease lease;
+		private final LockCommandContext context;
+		private final CommandDispatcher<LockCommandContext> dispatcher;
+		
+		LeasedLock(RemoteLockDescriptor descriptor, Lock lock, Lease lease, LockCommandContext context, CommandDispatcher<LockCommandContext> dispatcher)
+		{
+			this.descriptor = descriptor;
+			this.lock = lock;
+			this.lease = lease;
+			this.context = context;
+			this.dispatcher = dispatcher;
+		}
+		
+		@Override
+		public void lock()
+		{
+			boolean locked = false;
+			int retry = 0;
+			
+			while (!locked)
+			{
+				try
+				{
+					DistributedLock.sleep(retry);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				
+				if (this.acquireLease())
+				{
+					this.lock.lock();
+					// Lease may have been revoked while we waited for the local lock
+					locked = this.verifyLease();
+				}
+				
+				retry += 1;
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException
+		{
+			boolean locked = false;
+			int retry = 0;
+			
+			while (!locked)
+			{
+				DistributedLock.sleep(retry);
+				
+				if (this.acquireLease())
+				{
+					this.lock.lockInterruptibly();
+					locked = this.verifyLease();
+				}
+				
+				if (Thread.currentThread().isInterrupted())
+				{
+					if (locked)
+					{
+						this.lock.unlock();
+					}
+					throw new InterruptedException();
+				}
+				
+				retry += 1;
+			}
+		}
+
+		@Override
+		public boolean tryLock()
+		{
+			boolean locked = false;
+			int retry = 0;
+			
+			try
+			{
+				while (!locked && (retry <= DistributedLock.BACKOFF_INTERVALS.length))
+				{
+					DistributedLock.sleep(retry);
+					
+					if (this.acquireLease() && this.lock.tryLock())
+					{
+						locked = this.verifyLease();
+					}
+					
+					retry += 1;
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			
+			return locked;
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException
+		{
+			boolean locked = false;
+			long start = System.currentTimeMillis();
+			long stop = start + TimeUnit.MILLISECONDS.convert(time, unit);
+			long now = start;
+			int retry = 0;
+			
+			try
+			{
+				while (!locked && (now <= stop))
+				{
+					DistributedLock.sleep(retry);
+					
+					if (this.acquireLease() && this.lock.tryLock(stop - System.currentTimeMillis(), TimeUnit.MILLISECONDS))
+					{
+						locked = this.verifyLease();
+					}
+					
+					now = System.currentTimeMillis();
+					retry += 1;
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			return locked;
+		}
+		
+		private boolean verifyLease()
+		{
+			boolean owned = this.lease.isOwned();
+			if (!owned)
+			{
+				this.lock.unlock();
+			}
+			return owned;
+		}
+		
+		private boolean acquireLease()
+		{
+			if (this.lease.isOwned()) return true;
+			
+			long revocations = this.lease.getRevocations();
+			Member coordinator = this.dispatcher.getCoordinator();
+			boolean granted = this.dispatcher.getLocal().equals(coordinator) ? this.context.acquireLease(this.descriptor) : this.acquireLease(coordinator);
+			
+			return granted && this.lease.own(revocations);
+		}
+		
+		private boolean acquireLease(Member coordinator)
+		{
+			Command<Boolean, LockCommandContext> command = new AcquireLeaseCommand(this.descriptor);
+			try
+			{
+				CommandResponse<Boolean> response = this.dispatcher.execute(command, coordinator);
+				return DistributedLock.readResponse(command, coordinator, response, Boolean.FALSE).booleanValue();
+			}
+			catch (Exception e)
+			{
+				logger.log(Level.WARN, e, messages.sendCommandToMemberFailed(command, coordinator));
+				return false;
+			}
+		}
+		
+		@Override
+		public void unlock()
+		{
+			// Retain the lease
+			this.lock.unlock();
+		}
+		
+		@Override
+		public Condition newCondition()
+		{
+			throw new UnsupportedOperationException();
+		}
 	}
 	
 	private static class DistributedLock implements Lock
@@ -213,13 +989,15 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 		private static final int[] BACKOFF_INTERVALS = new int[] { 1, 10, 100 };
 		private final RemoteLockDescriptor descriptor;
 		private final Lock lock;
+		private final DistributedLockManager manager;
 		private final CommandDispatcher<LockCommandContext> dispatcher;
 		
-		DistributedLock(RemoteLockDescriptor descriptor, Lock lock, CommandDispatcher<LockCommandContext> dispatcher)
+		DistributedLock(RemoteLockDescriptor descriptor, Lock lock, DistributedLockManager manager)
 		{
 			this.descriptor = descriptor;
 			this.lock = lock;
-			this.dispatcher = dispatcher;
+			this.manager = manager;
+			this.dispatcher = manager.dispatcher;
 		}
 		
 		private static void sleep(int retry) throws InterruptedException
@@ -267,7 +1045,7 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 				}
 				else
 				{
-					locked = this.lockFromNonCoordinator(coordinator, Long.MAX_VALUE);
+					locked = this.lockFromNonCoordinator(coordinator, Long.MAX_VALUE, false);
 				}
 				
 				retry += 1;
@@ -304,11 +1082,15 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 				}
 				else
 				{
-					this.lockFromNonCoordinator(coordinator, Long.MAX_VALUE);
+					locked = this.lockFromNonCoordinator(coordinator, Long.MAX_VALUE, true);
 				}
 				
 				if (Thread.currentThread().isInterrupted())
 				{
+					if (locked)
+					{
+						this.unlock();
+					}
 					throw new InterruptedException();
 				}
 				
@@ -349,7 +1131,7 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 					}
 					else
 					{
-						locked = this.lockFromNonCoordinator(coordinator, 0);
+						locked = this.lockFromNonCoordinator(coordinator, 0, false);
 					}
 					
 					retry += 1;
@@ -399,7 +1181,7 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 					}
 					else
 					{
-						locked = this.lockFromNonCoordinator(coordinator, timeout);
+						locked = this.lockFromNonCoordinator(coordinator, timeout, true);
 					}
 					
 					now = System.currentTimeMillis();
@@ -413,10 +1195,10 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 			return locked;
 		}
 		
-		private boolean lockFromNonCoordinator(Member coordinator, long timeout)
+		private boolean lockFromNonCoordinator(Member coordinator, long timeout, boolean interruptible)
 		{
 			boolean locked = false;
-			if (this.lockCoordinator(coordinator, timeout))
+			if (this.lockCoordinator(coordinator, timeout, interruptible))
 			{
 				try
 				{
@@ -469,18 +1251,42 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 			}
 		}
 		
-		private boolean lockCoordinator(Member coordinator, long timeout)
+		private boolean lockCoordinator(Member coordinator, long timeout, boolean interruptible)
 		{
-			Command<Boolean, LockCommandContext> command = new AcquireLockCommand(this.descriptor, timeout);
+			if (timeout == 0)
+			{
+				Command<Boolean, LockCommandContext> command = new AcquireLockCommand(this.descriptor, timeout);
+				try
+				{
+					CommandResponse<Boolean> response = this.dispatcher.execute(command, coordinator);
+					return readAcquireResponse(command, coordinator, response);
+				}
+				catch (Exception e)
+				{
+					logger.log(Level.WARN, e, messages.sendCommandToMemberFailed(command, coordinator));
+					return false;
+				}
+			}
+			
+			// If the lock is not immediately available, the coordinator queues our request, and sends a grant when it is our turn
+			LockGrant grant = this.manager.createLockGrant(coordinator);
 			try
 			{
-				CommandResponse<Boolean> response = this.dispatcher.execute(new AcquireLockCommand(this.descriptor, timeout), coordinator);
-				return readAcquireResponse(command, coordinator, response);
+				Command<Boolean, LockCommandContext> command = new RequestLockCommand(this.descriptor, grant.getToken());
+				try
+				{
+					if (this.dispatcher.execute(command, coordinator).get().booleanValue()) return true;
+				}
+				catch (Exception e)
+				{
+					logger.log(Level.WARN, e, messages.sendCommandToMemberFailed(command, coordinator));
+					return false;
+				}
+				return grant.await(timeout, interruptible);
 			}
-			catch (Exception e)
+			finally
 			{
-				logger.log(Level.WARN, e, messages.sendCommandToMemberFailed(command, coordinator));
-				return false;
+				this.manager.removeLockGrant(grant);
 			}
 		}
 		
@@ -562,7 +1368,7 @@ public class DistributedLockManager implements LockManager, LockCommandContext,
 		}
 	}
 	
-	private static class RemoteLockDescriptorImpl implements RemoteLockDescriptor
+	static class RemoteLockDescriptorImpl implements RemoteLockDescriptor
 	{
 		private static final long serialVersionUID = 1950781245453120790L;
 		
@@ -0,0 +1,50 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import io.github.hajdbc.distributed.Command;
+
+/**
+ * Grants a queued lock request to the requesting group member.
+ * @author Paul Ferraro
+ */
+public class GrantLockCommand implements Command<Boolean, LockCommandContext>
+{
+	private static final long serialVersionUID = -6170284337150385307L;
+
+	private final RemoteLockDescriptor descriptor;
+	private final long token;
+
+	public GrantLockCommand(RemoteLockDescriptor descriptor, long token)
+	{
+		this.descriptor = descriptor;
+		this.token = token;
+	}
+
+	@Override
+	public Boolean execute(LockCommandContext context)
+	{
+		return context.grantLock(this.token);
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s(%s)", this.getClass().getSimpleName(), this.descriptor);
+	}
+}
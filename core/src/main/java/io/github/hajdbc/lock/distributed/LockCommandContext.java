@@ -31,4 +31,43 @@ public interface LockCommandContext
 	Lock getLock(LockDescriptor descriptor);
 	
 	Map<LockDescriptor, Lock> getRemoteLocks(Remote remote);
+
+	/**
+	 * Notifies this context of the release of a remote lock, whether or not it is held on behalf of the member of the specified descriptor.
+	 * While this member applies transferred state, the snapshot may still contain the released lock.
+	 * Invoked while holding the monitor of the remote locks of the releasing member.
+	 * @param descriptor a lock descriptor of the releasing member
+	 */
+	void releasingRemoteLock(RemoteLockDescriptor descriptor);
+
+	/**
+	 * Acquires the specified lock on behalf of the member of the specified descriptor, if immediately available, otherwise queues the request.
+	 * A queued request is subsequently granted via {@link #grantLock(long)} on the requesting member.
+	 * Only executed by the group coordinator.
+	 * @param descriptor a lock descriptor of the requesting member
+	 * @param token identifies the request on the requesting member
+	 * @return true, if the lock was acquired, false if the request was queued
+	 */
+	boolean requestLock(RemoteLockDescriptor descriptor, long token);
+
+	/**
+	 * Completes a lock request that was queued by the coordinator.
+	 * @param token identifies the request
+	 * @return true, if the grant was accepted, false if the request was abandoned
+	 */
+	boolean grantLock(long token);
+
+	/**
+	 * Grants the lease of the specified lock to the member of the specified descriptor, revoking it from its current owner, if necessary.
+	 * Only executed by the group coordinator.
+	 * @param descriptor a lock descriptor of the requesting member
+	 * @return true, if the lease was granted, false otherwise
+	 */
+	boolean acquireLease(RemoteLockDescriptor descriptor);
+
+	/**
+	 * Relinquishes any local lease of the specified lock, waiting for any local lock holder to complete.
+	 * @param descriptor a lock descriptor
+	 */
+	void revokeLease(LockDescriptor descriptor);
 }
@@ -0,0 +1,73 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandExternalizer;
+import io.github.hajdbc.distributed.Member;
+
+/**
+ * Base externalizer for lock commands, whose lock descriptor is written as <code>[has id][id][lock type]</code>.
+ * @author Paul Ferraro
+ * @param <C> the command type
+ */
+public abstract class LockCommandExternalizer<C extends Command<?, LockCommandContext>> implements CommandExternalizer<C>
+{
+	private final byte id;
+	private final Class<C> targetClass;
+
+	protected LockCommandExternalizer(byte id, Class<C> targetClass)
+	{
+		this.id = id;
+		this.targetClass = targetClass;
+	}
+
+	@Override
+	public byte getId()
+	{
+		return this.id;
+	}
+
+	@Override
+	public Class<C> getTargetClass()
+	{
+		return this.targetClass;
+	}
+
+	protected static void writeDescriptor(DataOutput output, LockDescriptor descriptor) throws IOException
+	{
+		String id = descriptor.getId();
+		output.writeBoolean(id != null);
+		if (id != null)
+		{
+			output.writeUTF(id);
+		}
+		output.writeByte(descriptor.getType().ordinal());
+	}
+
+	protected static RemoteLockDescriptor readDescriptor(DataInput input, Member source) throws IOException
+	{
+		String id = input.readBoolean() ? input.readUTF() : null;
+		LockType type = LockType.values()[input.readByte()];
+		return new DistributedLockManager.RemoteLockDescriptorImpl(id, type, source);
+	}
+}
@@ -48,6 +48,7 @@ public class ReleaseLockCommand implements Command<Void, LockCommandContext>
 			
 			synchronized (locks)
 			{
+				context.releasingRemoteLock(this.descriptor);
 				lock = locks.remove(this.descriptor);
 			}
 			
@@ -60,6 +61,11 @@ public class ReleaseLockCommand implements Command<Void, LockCommandContext>
 		return null;
 	}
 
+	RemoteLockDescriptor getDescriptor()
+	{
+		return this.descriptor;
+	}
+
 	@Override
 	public String toString()
 	{
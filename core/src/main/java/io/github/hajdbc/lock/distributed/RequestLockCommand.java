@@ -0,0 +1,50 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import io.github.hajdbc.distributed.Command;
+
+/**
+ * Requests a lock from the group coordinator, which queues the request if the lock is not immediately available.
+ * @author Paul Ferraro
+ */
+public class RequestLockCommand implements Command<Boolean, LockCommandContext>
+{
+	private static final long serialVersionUID = 8417405389185526071L;
+
+	private final RemoteLockDescriptor descriptor;
+	private final long token;
+
+	public RequestLockCommand(RemoteLockDescriptor descriptor, long token)
+	{
+		this.descriptor = descriptor;
+		this.token = token;
+	}
+
+	@Override
+	public Boolean execute(LockCommandContext context)
+	{
+		return context.requestLock(this.descriptor, this.token);
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s(%s)", this.getClass().getSimpleName(), this.descriptor);
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import io.github.hajdbc.distributed.Command;
+
+/**
+ * Revokes the lease of a lock from a group member.
+ * @author Paul Ferraro
+ */
+public class RevokeLeaseCommand implements Command<Void, LockCommandContext>
+{
+	private static final long serialVersionUID = 5527958640722862309L;
+
+	private final RemoteLockDescriptor descriptor;
+
+	public RevokeLeaseCommand(RemoteLockDescriptor descriptor)
+	{
+		this.descriptor = descriptor;
+	}
+
+	@Override
+	public Void execute(LockCommandContext context)
+	{
+		context.revokeLease(this.descriptor);
+		return null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s(%s)", this.getClass().getSimpleName(), this.descriptor);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.striped;
+
+import java.util.concurrent.locks.StampedLock;
+
+import io.github.hajdbc.lock.LockManager;
+import io.github.hajdbc.lock.LockManagerFactory;
+import io.github.hajdbc.lock.ReadWriteLockManager;
+
+/**
+ * Creates a lock manager whose global lock is a {@link StripedReadWriteLock}, and whose named locks are {@link StampedLock}s.
+ * Since every transaction obtains the global read lock, while the global write lock is only obtained during activation or synchronization,
+ * striping the global lock avoids contention on a single reader count on hosts with many processors.
+ * @author Paul Ferraro
+ */
+public class StripedLockManagerFactory implements LockManagerFactory
+{
+	private static final long serialVersionUID = 2404541036573316093L;
+
+	private int stripes = 0;
+	
+	/**
+	 * Sets the number of stripes of the global lock.
+	 * @param stripes a number of stripes, or 0 to use the number of available processors
+	 */
+	public void setStripes(int stripes)
+	{
+		this.stripes = stripes;
+	}
+	
+	public int getStripes()
+	{
+		return this.stripes;
+	}
+
+	@Override
+	public String getId()
+	{
+		return "striped";
+	}
+
+	@Override
+	public LockManager createLockManager()
+	{
+		int stripes = (this.stripes > 0) ? this.stripes : Runtime.getRuntime().availableProcessors();
+		
+		return new ReadWriteLockManager(new StripedReadWriteLock(stripes), () -> new StampedLock().asReadWriteLock());
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.striped;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@link ReadWriteLock} implementation that distributes readers across a number of independent stripes,
+ * so that concurrent readers do not contend on a single reader count.
+ * Each read lock instance is bound to a randomly selected stripe, while the write lock acquires every stripe, in order.
+ * Consequently, read locks are cheap and write locks are expensive.
+ * Like {@link StampedLock#asReadWriteLock()}, locks are not reentrant, may be released by any thread, and do not support conditions.
+ * @author Paul Ferraro
+ */
+public class StripedReadWriteLock implements ReadWriteLock
+{
+	private final Stripe[] stripes;
+	private final int mask;
+	private final Lock writeLock = new WriteLock();
+	
+	/**
+	 * Creates a new striped lock
+	 * @param stripes the minimum number of stripes, rounded up to the nearest power of 2
+	 */
+	public StripedReadWriteLock(int stripes)
+	{
+		this.stripes = new Stripe[(stripes > 1) ? Integer.highestOneBit(stripes - 1) << 1 : 1];
+		for (int i = 0; i < this.stripes.length; ++i)
+		{
+			this.stripes[i] = new Stripe();
+		}
+		this.mask = this.stripes.length - 1;
+	}
+	
+	/**
+	 * Returns the number of stripes of this lock.
+	 * @return the stripe count
+	 */
+	public int getStripes()
+	{
+		return this.stripes.length;
+	}
+	
+	@Override
+	public Lock readLock()
+	{
+		return this.stripes[ThreadLocalRandom.current().nextInt() & this.mask].readLock;
+	}
+
+	@Override
+	public Lock writeLock()
+	{
+		return this.writeLock;
+	}
+	
+	/**
+	 * A lock stripe, padded such that the lock state of adjacent stripes do not share a cache line.
+	 */
+	private static class Stripe extends StampedLock
+	{
+		private static final long serialVersionUID = -4473829402834781234L;
+		
+		final Lock readLock = this.asReadLock();
+		final Lock writeLock = this.asWriteLock();
+		
+		@SuppressWarnings("unused")
+		private long p1, p2, p3, p4, p5, p6, p7;
+	}
+	
+	private class WriteLock implements Lock
+	{
+		@Override
+		public void lock()
+		{
+			for (Stripe stripe: StripedReadWriteLock.this.stripes)
+			{
+				stripe.writeLock.lock();
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException
+		{
+			Stripe[] stripes = StripedReadWriteLock.this.stripes;
+			int locked = 0;
+			try
+			{
+				while (locked < stripes.length)
+				{
+					stripes[locked].writeLock.lockInterruptibly();
+					locked += 1;
+				}
+			}
+			catch (InterruptedException e)
+			{
+				this.unlock(locked);
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean tryLock()
+		{
+			Stripe[] stripes = StripedReadWriteLock.this.stripes;
+			for (int i = 0; i < stripes.length; ++i)
+			{
+				if (!stripes[i].writeLock.tryLock())
+				{
+					this.unlock(i);
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException
+		{
+			Stripe[] stripes = StripedReadWriteLock.this.stripes;
+			long deadline = System.nanoTime() + unit.toNanos(time);
+			int locked = 0;
+			try
+			{
+				while (locked < stripes.length)
+				{
+					if (!stripes[locked].writeLock.tryLock(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS))
+					{
+						this.unlock(locked);
+						return false;
+					}
+					locked += 1;
+				}
+				return true;
+			}
+			catch (InterruptedException e)
+			{
+				this.unlock(locked);
+				throw e;
+			}
+		}
+
+		@Override
+		public void unlock()
+		{
+			this.unlock(StripedReadWriteLock.this.stripes.length);
+		}
+		
+		/**
+		 * Releases the specified number of stripes, in reverse order.
+		 */
+		private void unlock(int count)
+		{
+			Stripe[] stripes = StripedReadWriteLock.this.stripes;
+			for (int i = count - 1; i >= 0; --i)
+			{
+				stripes[i].writeLock.unlock();
+			}
+		}
+
+		@Override
+		public Condition newCondition()
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
+}
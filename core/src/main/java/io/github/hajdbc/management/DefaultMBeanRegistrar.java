@@ -26,6 +26,7 @@ import javax.management.ObjectName;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.durability.DurabilityRecovery;
 import io.github.hajdbc.logging.Level;
 import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
@@ -41,6 +42,7 @@ public class DefaultMBeanRegistrar<Z, D extends Database<Z>> implements MBeanReg
 	
 	private static final String CLUSTER_TYPE = "DatabaseCluster";
 	private static final String DATABASE_TYPE = "Database";
+	private static final String RECOVERY_TYPE = "Recovery";
 	
 	private static final Logger logger = LoggerFactory.getLogger(DefaultMBeanRegistrar.class);
 	
@@ -69,6 +71,12 @@ public class DefaultMBeanRegistrar<Z, D extends Database<Z>> implements MBeanReg
 		this.register(database, this.createAttributes(cluster, database));
 	}
 
+	@Override
+	public void register(DatabaseCluster<Z, D> cluster, DurabilityRecovery<Z, D> recovery) throws JMException
+	{
+		this.register(recovery, this.createAttributes(cluster, RECOVERY_TYPE));
+	}
+
 	private void register(Object object, Hashtable<String, String> attributes) throws JMException
 	{
 		ObjectName name = this.createObjectName(attributes);
@@ -88,6 +96,12 @@ public class DefaultMBeanRegistrar<Z, D extends Database<Z>> implements MBeanReg
 		this.unregister(this.createAttributes(cluster, database));
 	}
 
+	@Override
+	public void unregister(DatabaseCluster<Z, D> cluster, DurabilityRecovery<Z, D> recovery)
+	{
+		this.unregister(this.createAttributes(cluster, RECOVERY_TYPE));
+	}
+
 	private void unregister(Hashtable<String, String> attributes)
 	{
 		try
@@ -106,9 +120,14 @@ public class DefaultMBeanRegistrar<Z, D extends Database<Z>> implements MBeanReg
 	}
 
 	private Hashtable<String, String> createAttributes(DatabaseCluster<Z, D> cluster)
+	{
+		return this.createAttributes(cluster, CLUSTER_TYPE);
+	}
+
+	private Hashtable<String, String> createAttributes(DatabaseCluster<Z, D> cluster, String type)
 	{
 		Hashtable<String, String> attributes = new Hashtable<>();
-		attributes.put(TYPE_ATTRIBUTE, CLUSTER_TYPE);
+		attributes.put(TYPE_ATTRIBUTE, type);
 		attributes.put(CLUSTER_ATTRIBUTE, cluster.getId());
 		return attributes;
 	}
@@ -21,6 +21,7 @@ import javax.management.JMException;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.durability.DurabilityRecovery;
 
 /**
  * @author Paul Ferraro
@@ -29,7 +30,9 @@ public interface MBeanRegistrar<Z, D extends Database<Z>>
 {
 	void register(DatabaseCluster<Z, D> cluster) throws JMException;
 	void register(DatabaseCluster<Z, D> cluster, D database) throws JMException;
+	void register(DatabaseCluster<Z, D> cluster, DurabilityRecovery<Z, D> recovery) throws JMException;
 	
 	void unregister(DatabaseCluster<Z, D> cluster);
 	void unregister(DatabaseCluster<Z, D> cluster, D database);
+	void unregister(DatabaseCluster<Z, D> cluster, DurabilityRecovery<Z, D> recovery);
 }
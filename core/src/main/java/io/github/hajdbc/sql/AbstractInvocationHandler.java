@@ -21,10 +21,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.SQLException;
 import java.sql.Wrapper;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
@@ -44,6 +41,9 @@ import io.github.hajdbc.messages.Messages;
 import io.github.hajdbc.messages.MessagesFactory;
 import io.github.hajdbc.sql.serial.SerialLocatorFactories;
 import io.github.hajdbc.sql.serial.SerialLocatorFactory;
+import io.github.hajdbc.util.StaticRegistry;
+import io.github.hajdbc.util.reflect.MethodDispatcher;
+import io.github.hajdbc.util.reflect.MethodRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -58,6 +58,7 @@ public class AbstractInvocationHandler<Z, D extends Database<Z>, T, E extends Ex
 	private static final Method hashCodeMethod = Methods.getMethod(Object.class, "hashCode");
 	private static final Method toStringMethod = Methods.getMethod(Object.class, "toString");
 	private static final Set<Method> wrapperMethods = Methods.findMethods(Wrapper.class, "isWrapperFor", "unwrap");
+	private static final StaticRegistry<Method, InvocationStrategy> strategies = new MethodRegistry<>(AbstractInvocationHandler::strategy);
 	
 	protected final Logger logger = LoggerFactory.getLogger(this.getClass());
 	private final Class<T> proxyClass;
@@ -125,6 +126,11 @@ public class AbstractInvocationHandler<Z, D extends Database<Z>, T, E extends Ex
 	 * @throws E
 	 */
 	protected InvocationStrategy getInvocationStrategy(T object, Method method, Object... parameters) throws E
+	{
+		return strategies.get(method);
+	}
+
+	private static InvocationStrategy strategy(Method method)
 	{
 		if (equalsMethod.equals(method) || hashCodeMethod.equals(method) || toStringMethod.equals(method) || wrapperMethods.contains(method))
 		{
@@ -170,17 +176,18 @@ public class AbstractInvocationHandler<Z, D extends Database<Z>, T, E extends Ex
 				if (Proxy.isProxyClass(parameter.getClass()) && (Proxy.getInvocationHandler(parameter) instanceof InvocationHandler))
 				{
 					final InvocationHandler<Z, D, X, E, ProxyFactory<Z, D, X, E>> handler = (InvocationHandler<Z, D, X, E, ProxyFactory<Z, D, X, E>>) Proxy.getInvocationHandler(parameter);
+					final MethodDispatcher dispatcher = MethodDispatcher.forMethod(method);
 					
 					return new Invoker<Z, D, T, R, E>()
 					{
 						@Override
 						public R invoke(D database, T object) throws E
 						{
-							List<Object> parameterList = new ArrayList<>(Arrays.asList(parameters));
+							Object[] databaseParameters = parameters.clone();
 							
-							parameterList.set(parameterIndex, handler.getProxyFactory().get(database));
+							databaseParameters[parameterIndex] = handler.getProxyFactory().get(database);
 							
-							return Methods.<R, E>invoke(method, exceptionFactory, object, parameterList.toArray());
+							return dispatcher.<R, E>invoke(exceptionFactory, object, databaseParameters);
 						}
 					};
 				}
@@ -22,6 +22,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -31,6 +32,8 @@ import io.github.hajdbc.invocation.InvocationStrategies;
 import io.github.hajdbc.invocation.InvocationStrategy;
 import io.github.hajdbc.invocation.Invoker;
 import io.github.hajdbc.invocation.LockingInvocationStrategy;
+import io.github.hajdbc.util.StaticRegistry;
+import io.github.hajdbc.util.reflect.MethodRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -47,18 +50,60 @@ public abstract class AbstractPreparedStatementInvocationHandler<Z, D extends Da
 	private static final Method clearParametersMethod = Methods.getMethod(PreparedStatement.class, "clearParameters");
 	private static final Method addBatchMethod = Methods.getMethod(PreparedStatement.class, "addBatch");
 	
-	private final Set<Method> setMethods;
+	/**
+	 * Creates a registry of prepared statement method types.
+	 * @param setMethods the methods that set statement parameters
+	 * @param indexTypes the types of the first argument of a set method that identify a parameter
+	 * @return a method type registry
+	 */
+	protected static StaticRegistry<Method, PreparedStatementMethodType> createMethodTypeRegistry(final Set<Method> setMethods, final Class<?>... indexTypes)
+	{
+		final List<Class<?>> indexTypeList = Arrays.asList(indexTypes);
+		
+		return new MethodRegistry<>(method ->
+		{
+			if (databaseReadMethodSet.contains(method))
+			{
+				return PreparedStatementMethodType.DATABASE_READ;
+			}
+			if (setMethods.contains(method))
+			{
+				Class<?>[] types = method.getParameterTypes();
+				
+				return ((types.length > 0) && indexTypeList.contains(types[0])) ? PreparedStatementMethodType.SET_PARAMETER : PreparedStatementMethodType.SET;
+			}
+			if (method.equals(clearParametersMethod))
+			{
+				return PreparedStatementMethodType.CLEAR_PARAMETERS;
+			}
+			if (method.equals(addBatchMethod))
+			{
+				return PreparedStatementMethodType.ADD_BATCH;
+			}
+			if (method.equals(executeMethod) || method.equals(executeUpdateMethod))
+			{
+				return PreparedStatementMethodType.EXECUTE;
+			}
+			if (method.equals(executeQueryMethod))
+			{
+				return PreparedStatementMethodType.EXECUTE_QUERY;
+			}
+			return PreparedStatementMethodType.OTHER;
+		});
+	}
+	
+	private final StaticRegistry<Method, PreparedStatementMethodType> methodTypes;
 	
-	public AbstractPreparedStatementInvocationHandler(Class<S> statementClass, F proxyFactory, Set<Method> setMethods)
+	public AbstractPreparedStatementInvocationHandler(Class<S> statementClass, F proxyFactory, StaticRegistry<Method, PreparedStatementMethodType> methodTypes)
 	{
 		super(statementClass, proxyFactory);
-		this.setMethods = setMethods;
+		this.methodTypes = methodTypes;
 	}
 	
 	@Override
 	protected ProxyFactoryFactory<Z, D, S, SQLException, ?, ? extends Exception> getProxyFactoryFactory(S object, Method method, Object... parameters) throws SQLException
 	{
-		if (method.equals(executeQueryMethod))
+		if (this.methodTypes.get(method) == PreparedStatementMethodType.EXECUTE_QUERY)
 		{
 			return new ResultSetProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().getInputSinkRegistry());
 		}
@@ -69,50 +114,55 @@ public abstract class AbstractPreparedStatementInvocationHandler<Z, D extends Da
 	@Override
 	protected InvocationStrategy getInvocationStrategy(S statement, Method method, Object... parameters) throws SQLException
 	{
-		if (databaseReadMethodSet.contains(method))
-		{
-			return InvocationStrategies.INVOKE_ON_NEXT;
-		}
-		
-		if (this.setMethods.contains(method) || method.equals(clearParametersMethod) || method.equals(addBatchMethod))
-		{
-			return InvocationStrategies.INVOKE_ON_EXISTING;
-		}
-		
-		if (method.equals(executeMethod) || method.equals(executeUpdateMethod))
-		{
-			return this.getProxyFactory().getTransactionContext().start(new LockingInvocationStrategy(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, this.getProxyFactory().getLocks()), this.getProxyFactory().getParentProxy());
-		}
-		
-		if (method.equals(executeQueryMethod))
+		switch (this.methodTypes.get(method))
 		{
-			List<Lock> locks = this.getProxyFactory().getLocks();
-			int concurrency = statement.getResultSetConcurrency();
-			boolean selectForUpdate = this.getProxyFactory().isSelectForUpdate();
-			
-			if (locks.isEmpty() && (concurrency == ResultSet.CONCUR_READ_ONLY) && !selectForUpdate)
+			case DATABASE_READ:
+			{
+				return InvocationStrategies.INVOKE_ON_NEXT;
+			}
+			case SET:
+			case SET_PARAMETER:
+			case CLEAR_PARAMETERS:
+			case ADD_BATCH:
 			{
-				boolean repeatableReadSelect = (statement.getConnection().getTransactionIsolation() >= Connection.TRANSACTION_REPEATABLE_READ);
+				return InvocationStrategies.INVOKE_ON_EXISTING;
+			}
+			case EXECUTE:
+			{
+				return this.getProxyFactory().getTransactionContext().start(new LockingInvocationStrategy(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, this.getProxyFactory().getLocks()), this.getProxyFactory().getParentProxy());
+			}
+			case EXECUTE_QUERY:
+			{
+				List<Lock> locks = this.getProxyFactory().getLocks();
+				int concurrency = statement.getResultSetConcurrency();
+				boolean selectForUpdate = this.getProxyFactory().isSelectForUpdate();
+				
+				if (locks.isEmpty() && (concurrency == ResultSet.CONCUR_READ_ONLY) && !selectForUpdate)
+				{
+					boolean repeatableReadSelect = (statement.getConnection().getTransactionIsolation() >= Connection.TRANSACTION_REPEATABLE_READ);
+					
+					return repeatableReadSelect ? InvocationStrategies.INVOKE_ON_PRIMARY : InvocationStrategies.INVOKE_ON_NEXT;
+				}
+				
+				InvocationStrategy strategy = InvocationStrategies.TRANSACTION_INVOKE_ON_ALL;
+				if (!locks.isEmpty())
+				{
+					strategy = new LockingInvocationStrategy(strategy, locks);
+				}
 				
-				return repeatableReadSelect ? InvocationStrategies.INVOKE_ON_PRIMARY : InvocationStrategies.INVOKE_ON_NEXT;
+				return selectForUpdate ? this.getProxyFactory().getTransactionContext().start(strategy, this.getProxyFactory().getParentProxy()) : strategy;
 			}
-			
-			InvocationStrategy strategy = InvocationStrategies.TRANSACTION_INVOKE_ON_ALL;
-			if (!locks.isEmpty())
+			default:
 			{
-				strategy = new LockingInvocationStrategy(strategy, locks);
+				return super.getInvocationStrategy(statement, method, parameters);
 			}
-			
-			return selectForUpdate ? this.getProxyFactory().getTransactionContext().start(strategy, this.getProxyFactory().getParentProxy()) : strategy;
 		}
-		
-		return super.getInvocationStrategy(statement, method, parameters);
 	}
 
 	@Override
 	protected <R> Invoker<Z, D, S, R, SQLException> getInvoker(S statement, final Method method, final Object... parameters) throws SQLException
 	{
-		if (this.isSetParameterMethod(method) && (parameters.length > 1))
+		if ((this.methodTypes.get(method) == PreparedStatementMethodType.SET_PARAMETER) && (parameters.length > 1))
 		{
 			return this.getInvoker(method.getParameterTypes()[1], 1, statement, method, parameters);
 		}
@@ -123,18 +173,23 @@ public abstract class AbstractPreparedStatementInvocationHandler<Z, D extends Da
 	@Override
 	protected boolean isBatchMethod(Method method)
 	{
-		return method.equals(addBatchMethod) || method.equals(clearParametersMethod) || this.isSetParameterMethod(method) || super.isBatchMethod(method);
-	}
-
-	private boolean isSetParameterMethod(Method method)
-	{
-		Class<?>[] types = method.getParameterTypes();
-		
-		return this.setMethods.contains(method) && (types.length > 0) && this.isIndexType(types[0]);
+		switch (this.methodTypes.get(method))
+		{
+			case ADD_BATCH:
+			case CLEAR_PARAMETERS:
+			case SET_PARAMETER:
+			{
+				return true;
+			}
+			default:
+			{
+				return super.isBatchMethod(method);
+			}
+		}
 	}
 	
-	protected boolean isIndexType(Class<?> type)
+	protected enum PreparedStatementMethodType
 	{
-		return type.equals(Integer.TYPE);
+		DATABASE_READ, SET, SET_PARAMETER, CLEAR_PARAMETERS, ADD_BATCH, EXECUTE, EXECUTE_QUERY, OTHER
 	}
 }
@@ -44,7 +44,7 @@ public abstract class AbstractProxyFactory<Z, D extends Database<Z>, TE extends
 	protected Logger logger = LoggerFactory.getLogger(this.getClass());
 	
 	private final DatabaseCluster<Z, D> cluster;
-	private final Map<D, T> map;
+	private final DatabaseObjectArray<D, T> objects;
 	private final Set<ChildProxyFactory<Z, D, T, E, ?, ? extends Exception>> children = Collections.newSetFromMap(new WeakHashMap<ChildProxyFactory<Z, D, T, E, ?, ? extends Exception>, Boolean>());
 	private final Set<Invoker<Z, D, T, ?, E>> invokers = new HashSet<>();
 	private final ExceptionFactory<E> exceptionFactory;
@@ -57,7 +57,7 @@ public abstract class AbstractProxyFactory<Z, D extends Database<Z>, TE extends
 	protected AbstractProxyFactory(DatabaseCluster<Z, D> cluster, Map<D, T> map, Class<E> exceptionClass)
 	{
 		this.cluster = cluster;
-		this.map = map;
+		this.objects = new DatabaseObjectArray<>(map);
 		this.exceptionFactory = ExceptionType.valueOf(exceptionClass).getExceptionFactory();
 	}
 
@@ -69,13 +69,13 @@ public abstract class AbstractProxyFactory<Z, D extends Database<Z>, TE extends
 
 	protected T remove(D database)
 	{
-		return this.map.remove(database);
+		return this.objects.remove(database);
 	}
 
 	@Override
 	public Set<Map.Entry<D, T>> entries()
 	{
-		return this.map.entrySet();
+		return this.objects.entrySet();
 	}
 
 	protected synchronized Iterable<ChildProxyFactory<Z, D, T, E, ?, ? extends Exception>> children()
@@ -111,9 +111,13 @@ public abstract class AbstractProxyFactory<Z, D extends Database<Z>, TE extends
 	@Override
 	public T get(D database)
 	{
-		synchronized (this.map)
+		T object = this.objects.get(database);
+		
+		if (object != null) return object;
+		
+		synchronized (this.objects)
 		{
-			T object = this.map.get(database);
+			object = this.objects.get(database);
 			
 			if (object == null)
 			{
@@ -123,11 +127,11 @@ public abstract class AbstractProxyFactory<Z, D extends Database<Z>, TE extends
 					
 					this.replay(database, object);
 					
-					this.map.put(database, object);
+					this.objects.set(database, object);
 				}
 				catch (Throwable e)
 				{
-					if (!this.map.isEmpty() && this.cluster.deactivate(database, this.cluster.getStateManager()))
+					if (!this.objects.isEmpty() && this.cluster.deactivate(database, this.cluster.getStateManager()))
 					{
 						this.logger.log(Level.WARN, e, this.messages.proxyCreationFailed(this.cluster, database, this.getClass()));
 					}
@@ -30,10 +30,7 @@ import java.util.concurrent.locks.Lock;
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
 import io.github.hajdbc.DatabaseProperties;
-import io.github.hajdbc.IdentityColumnSupport;
-import io.github.hajdbc.SequenceSupport;
 import io.github.hajdbc.TableProperties;
-import io.github.hajdbc.dialect.Dialect;
 import io.github.hajdbc.invocation.Invoker;
 import io.github.hajdbc.lock.LockManager;
 
@@ -49,36 +46,15 @@ public abstract class AbstractSQLProxyFactory<Z, D extends Database<Z>, P, T> ex
 	}
 
 	@Override
-	public String evaluate(final String rawSQL)
+	public String evaluate(final String rawSQL) throws SQLException
 	{
-		String sql = rawSQL;
-		
-		long now = System.currentTimeMillis();
-		
 		DatabaseCluster<Z, D> cluster = this.getDatabaseCluster();
-		Dialect dialect = cluster.getDialect();
 		
-		if (cluster.isCurrentTimestampEvaluationEnabled())
-		{
-			sql = dialect.evaluateCurrentTimestamp(sql, new java.sql.Timestamp(now));
-		}
+		SQLAnalysis analysis = cluster.getSQLAnalysisCache().analyze(rawSQL);
 		
-		if (cluster.isCurrentDateEvaluationEnabled())
-		{
-			sql = dialect.evaluateCurrentDate(sql, new java.sql.Date(now));
-		}
+		if (!analysis.isEvaluationRequired()) return rawSQL;
 		
-		if (cluster.isCurrentTimeEvaluationEnabled())
-		{
-			sql = dialect.evaluateCurrentTime(sql, new java.sql.Time(now));
-		}
-		
-		if (cluster.isRandEvaluationEnabled())
-		{
-			sql = dialect.evaluateRand(sql);
-		}
-		
-		return sql;
+		return cluster.getDialect().evaluate(analysis.getScan(), analysis.getEvaluatedFunctions(), System.currentTimeMillis());
 	}
 	
 	@Override
@@ -94,43 +70,29 @@ public abstract class AbstractSQLProxyFactory<Z, D extends Database<Z>, P, T> ex
 		
 		for (String sql: statements)
 		{
-			if (cluster.isSequenceDetectionEnabled())
+			SQLAnalysis analysis = cluster.getSQLAnalysisCache().analyze(sql);
+			
+			String sequence = analysis.getSequence();
+			
+			if (sequence != null)
 			{
-				SequenceSupport support = cluster.getDialect().getSequenceSupport();
-				
-				if (support != null)
-				{
-					String sequence = support.parseSequence(sql);
-					
-					if (sequence != null)
-					{
-						identifierSet.add(sequence);
-					}
-				}
+				identifierSet.add(sequence);
 			}
 			
-			if (cluster.isIdentityColumnDetectionEnabled())
+			String table = analysis.getInsertTable();
+			
+			if (table != null)
 			{
-				IdentityColumnSupport support = cluster.getDialect().getIdentityColumnSupport();
+				TableProperties tableProperties = this.getDatabaseProperties().findTable(table);
+				
+				if (tableProperties == null)
+				{
+					throw new SQLException(this.messages.schemaLookupFailed(cluster, table));
+				}
 				
-				if (support != null)
+				if (!tableProperties.getIdentityColumns().isEmpty())
 				{
-					String table = support.parseInsertTable(sql);
-					
-					if (table != null)
-					{
-						TableProperties tableProperties = this.getDatabaseProperties().findTable(table);
-						
-						if (tableProperties == null)
-						{
-							throw new SQLException(this.messages.schemaLookupFailed(cluster, table));
-						}
-						
-						if (!tableProperties.getIdentityColumns().isEmpty())
-						{
-							identifierSet.add(tableProperties.getName().getDMLName());
-						}
-					}
+					identifierSet.add(tableProperties.getName().getDMLName());
 				}
 			}
 		}
@@ -160,7 +122,7 @@ public abstract class AbstractSQLProxyFactory<Z, D extends Database<Z>, P, T> ex
 	@Override
 	public boolean isSelectForUpdate(String sql) throws SQLException
 	{
-		return this.getDatabaseProperties().supportsSelectForUpdate() ? this.getDatabaseCluster().getDialect().isSelectForUpdate(sql) : false;
+		return this.getDatabaseProperties().supportsSelectForUpdate() ? this.getDatabaseCluster().getSQLAnalysisCache().analyze(sql).isSelectForUpdate() : false;
 	}
 
 	@Override
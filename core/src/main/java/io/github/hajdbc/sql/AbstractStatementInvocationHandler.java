@@ -33,6 +33,8 @@ import io.github.hajdbc.invocation.InvocationStrategy;
 import io.github.hajdbc.invocation.Invoker;
 import io.github.hajdbc.invocation.LockingInvocationStrategy;
 import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.util.StaticRegistry;
+import io.github.hajdbc.util.reflect.MethodRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -56,6 +58,8 @@ public abstract class AbstractStatementInvocationHandler<Z, D extends Database<Z
 	private static final Method addBatchMethod = Methods.getMethod(Statement.class, "addBatch", String.class);
 	private static final Method closeMethod = Methods.getMethod(Statement.class, "close");
 	
+	private static final StaticRegistry<Method, MethodType> methodTypes = new MethodRegistry<>(AbstractStatementInvocationHandler::methodType);
+	
 	public AbstractStatementInvocationHandler(Class<S> statementClass, F proxyFactory)
 	{
 		super(statementClass, proxyFactory, getConnectionMethod);
@@ -64,90 +68,107 @@ public abstract class AbstractStatementInvocationHandler<Z, D extends Database<Z
 	@Override
 	protected ProxyFactoryFactory<Z, D, S, SQLException, ?, ? extends Exception> getProxyFactoryFactory(S object, Method method, Object... parameters) throws SQLException
 	{
-		if (method.equals(executeQueryMethod) || method.equals(getResultSetMethod))
+		switch (methodTypes.get(method))
 		{
-			return new ResultSetProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().getInputSinkRegistry());
+			case EXECUTE_QUERY:
+			case GET_RESULT_SET:
+			{
+				return new ResultSetProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().getInputSinkRegistry());
+			}
+			default:
+			{
+				return super.getProxyFactoryFactory(object, method, parameters);
+			}
 		}
-		
-		return super.getProxyFactoryFactory(object, method, parameters);
 	}
 
 	@Override
 	protected InvocationStrategy getInvocationStrategy(S statement, Method method, Object... parameters) throws SQLException
 	{
-		if (driverReadMethodSet.contains(method))
-		{
-			return InvocationStrategies.INVOKE_ON_ANY;
-		}
-		
-		if (driverWriteMethodSet.contains(method) || method.equals(closeMethod))
-		{
-			return InvocationStrategies.INVOKE_ON_EXISTING;
-		}
-		
-		if (executeMethodSet.contains(method))
-		{
-			List<Lock> locks = this.getProxyFactory().extractLocks((String) parameters[0]);
-			
-			return this.getProxyFactory().getTransactionContext().start(new LockingInvocationStrategy(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, locks), this.getProxyFactory().getParentProxy());
-		}
-		
-		if (method.equals(executeQueryMethod))
+		switch (methodTypes.get(method))
 		{
-			String sql = (String) parameters[0];
-			
-			List<Lock> locks = this.getProxyFactory().extractLocks(sql);
-			int concurrency = statement.getResultSetConcurrency();
-			boolean selectForUpdate = this.getProxyFactory().isSelectForUpdate(sql);
-			
-			if (locks.isEmpty() && (concurrency == ResultSet.CONCUR_READ_ONLY) && !selectForUpdate)
+			case DRIVER_READ:
 			{
-				boolean repeatableReadSelect = (statement.getConnection().getTransactionIsolation() >= Connection.TRANSACTION_REPEATABLE_READ);
+				return InvocationStrategies.INVOKE_ON_ANY;
+			}
+			case DRIVER_WRITE:
+			case CLOSE:
+			{
+				return InvocationStrategies.INVOKE_ON_EXISTING;
+			}
+			case EXECUTE:
+			{
+				List<Lock> locks = this.getProxyFactory().extractLocks((String) parameters[0]);
 				
-				return repeatableReadSelect ? InvocationStrategies.INVOKE_ON_PRIMARY : InvocationStrategies.INVOKE_ON_NEXT;
+				return this.getProxyFactory().getTransactionContext().start(new LockingInvocationStrategy(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, locks), this.getProxyFactory().getParentProxy());
 			}
-			
-			InvocationStrategy strategy = InvocationStrategies.TRANSACTION_INVOKE_ON_ALL;
-			if (!locks.isEmpty())
+			case EXECUTE_QUERY:
 			{
-				strategy = new LockingInvocationStrategy(strategy, locks);
+				String sql = (String) parameters[0];
+				
+				List<Lock> locks = this.getProxyFactory().extractLocks(sql);
+				int concurrency = statement.getResultSetConcurrency();
+				boolean selectForUpdate = this.getProxyFactory().isSelectForUpdate(sql);
+				
+				if (locks.isEmpty() && (concurrency == ResultSet.CONCUR_READ_ONLY) && !selectForUpdate)
+				{
+					boolean repeatableReadSelect = (statement.getConnection().getTransactionIsolation() >= Connection.TRANSACTION_REPEATABLE_READ);
+					
+					return repeatableReadSelect ? InvocationStrategies.INVOKE_ON_PRIMARY : InvocationStrategies.INVOKE_ON_NEXT;
+				}
+				
+				InvocationStrategy strategy = InvocationStrategies.TRANSACTION_INVOKE_ON_ALL;
+				if (!locks.isEmpty())
+				{
+					strategy = new LockingInvocationStrategy(strategy, locks);
+				}
+				
+				return selectForUpdate ? this.getProxyFactory().getTransactionContext().start(strategy, this.getProxyFactory().getParentProxy()) : strategy;
 			}
-			
-			return selectForUpdate ? this.getProxyFactory().getTransactionContext().start(strategy, this.getProxyFactory().getParentProxy()) : strategy;
-		}
-		
-		if (method.equals(executeBatchMethod))
-		{
-			return this.getProxyFactory().getTransactionContext().start(new LockingInvocationStrategy(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, this.getProxyFactory().getBatchLocks()), this.getProxyFactory().getParentProxy());
-		}
-		
-		if (method.equals(getMoreResultsMethod))
-		{
-			if (parameters[0].equals(Statement.KEEP_CURRENT_RESULT))
+			case EXECUTE_BATCH:
 			{
-				return InvocationStrategies.INVOKE_ON_EXISTING;
+				return this.getProxyFactory().getTransactionContext().start(new LockingInvocationStrategy(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, this.getProxyFactory().getBatchLocks()), this.getProxyFactory().getParentProxy());
 			}
-		}
-		
-		if (method.equals(getResultSetMethod))
-		{
-			if (statement.getResultSetConcurrency() == ResultSet.CONCUR_READ_ONLY)
+			case GET_MORE_RESULTS:
 			{
-				return InvocationStrategies.INVOKE_ON_EXISTING;
+				if (parameters[0].equals(Statement.KEEP_CURRENT_RESULT))
+				{
+					return InvocationStrategies.INVOKE_ON_EXISTING;
+				}
+				return super.getInvocationStrategy(statement, method, parameters);
+			}
+			case GET_RESULT_SET:
+			{
+				if (statement.getResultSetConcurrency() == ResultSet.CONCUR_READ_ONLY)
+				{
+					return InvocationStrategies.INVOKE_ON_EXISTING;
+				}
+				
+				return InvocationStrategies.INVOKE_ON_ALL;
+			}
+			default:
+			{
+				return super.getInvocationStrategy(statement, method, parameters);
 			}
-
-			return InvocationStrategies.INVOKE_ON_ALL;
 		}
-		
-		return super.getInvocationStrategy(statement, method, parameters);
 	}
 
 	@Override
 	protected <R> Invoker<Z, D, S, R, SQLException> getInvoker(S proxy, Method method, Object... parameters) throws SQLException
 	{
-		if (method.equals(addBatchMethod) || method.equals(executeQueryMethod) || executeMethodSet.contains(method))
+		switch (methodTypes.get(method))
 		{
-			parameters[0] = this.getProxyFactory().evaluate((String) parameters[0]);
+			case ADD_BATCH:
+			case EXECUTE_QUERY:
+			case EXECUTE:
+			{
+				parameters[0] = this.getProxyFactory().evaluate((String) parameters[0]);
+				break;
+			}
+			default:
+			{
+				// Do nothing
+			}
 		}
 		
 		return super.getInvoker(proxy, method, parameters);
@@ -156,27 +177,39 @@ public abstract class AbstractStatementInvocationHandler<Z, D extends Database<Z
 	@Override
 	protected <R> void postInvoke(Invoker<Z, D, S, R, SQLException> invoker, S proxy, Method method, Object... parameters)
 	{
-		if (method.equals(addBatchMethod))
+		MethodType type = methodTypes.get(method);
+		switch (type)
 		{
-			this.getProxyFactory().addBatchSQL((String) parameters[0]);
-		}
-		else if (method.equals(clearBatchMethod) || method.equals(executeBatchMethod))
-		{
-			this.getProxyFactory().clearBatch();
-			this.logger.log(Level.TRACE, "Clearing recorded batch methods");
-			this.getProxyFactory().clearBatchInvokers();
-		}
-		else if (method.equals(closeMethod))
-		{
-			try
+			case ADD_BATCH:
+			{
+				this.getProxyFactory().addBatchSQL((String) parameters[0]);
+				break;
+			}
+			case CLEAR_BATCH:
+			case EXECUTE_BATCH:
 			{
-				this.getProxyFactory().getInputSinkRegistry().close();
+				this.getProxyFactory().clearBatch();
+				this.logger.log(Level.TRACE, "Clearing recorded batch methods");
+				this.getProxyFactory().clearBatchInvokers();
+				break;
 			}
-			catch (IOException e)
+			case CLOSE:
 			{
-				this.logger.log(Level.WARN, e);
+				try
+				{
+					this.getProxyFactory().getInputSinkRegistry().close();
+				}
+				catch (IOException e)
+				{
+					this.logger.log(Level.WARN, e);
+				}
+				this.getProxyFactory().remove();
+				break;
+			}
+			default:
+			{
+				// Do nothing
 			}
-			this.getProxyFactory().remove();
 		}
 		
 		if (this.isBatchMethod(method))
@@ -184,7 +217,7 @@ public abstract class AbstractStatementInvocationHandler<Z, D extends Database<Z
 			this.logger.log(Level.TRACE, "Recording batch method: {0}", invoker);
 			this.getProxyFactory().addBatchInvoker(invoker);
 		}
-		else if (driverWriteMethodSet.contains(method))
+		else if (type == MethodType.DRIVER_WRITE)
 		{
 			this.getProxyFactory().record(invoker);
 		}
@@ -192,6 +225,59 @@ public abstract class AbstractStatementInvocationHandler<Z, D extends Database<Z
 
 	protected boolean isBatchMethod(Method method)
 	{
-		return method.equals(addBatchMethod);
+		return methodTypes.get(method) == MethodType.ADD_BATCH;
+	}
+	
+	/**
+	 * Classifies the specified method.  Computed only once per method.
+	 */
+	private static MethodType methodType(Method method)
+	{
+		if (driverReadMethodSet.contains(method))
+		{
+			return MethodType.DRIVER_READ;
+		}
+		if (driverWriteMethodSet.contains(method))
+		{
+			return MethodType.DRIVER_WRITE;
+		}
+		if (method.equals(closeMethod))
+		{
+			return MethodType.CLOSE;
+		}
+		if (executeMethodSet.contains(method))
+		{
+			return MethodType.EXECUTE;
+		}
+		if (method.equals(executeQueryMethod))
+		{
+			return MethodType.EXECUTE_QUERY;
+		}
+		if (method.equals(executeBatchMethod))
+		{
+			return MethodType.EXECUTE_BATCH;
+		}
+		if (method.equals(getMoreResultsMethod))
+		{
+			return MethodType.GET_MORE_RESULTS;
+		}
+		if (method.equals(getResultSetMethod))
+		{
+			return MethodType.GET_RESULT_SET;
+		}
+		if (method.equals(addBatchMethod))
+		{
+			return MethodType.ADD_BATCH;
+		}
+		if (method.equals(clearBatchMethod))
+		{
+			return MethodType.CLEAR_BATCH;
+		}
+		return MethodType.OTHER;
+	}
+	
+	private enum MethodType
+	{
+		DRIVER_READ, DRIVER_WRITE, CLOSE, EXECUTE, EXECUTE_QUERY, EXECUTE_BATCH, GET_MORE_RESULTS, GET_RESULT_SET, ADD_BATCH, CLEAR_BATCH, OTHER
 	}
 }
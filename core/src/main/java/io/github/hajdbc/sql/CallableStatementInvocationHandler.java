@@ -26,6 +26,8 @@ import java.util.Set;
 import io.github.hajdbc.Database;
 import io.github.hajdbc.invocation.InvocationStrategies;
 import io.github.hajdbc.invocation.InvocationStrategy;
+import io.github.hajdbc.util.StaticRegistry;
+import io.github.hajdbc.util.reflect.MethodRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -38,40 +40,62 @@ public class CallableStatementInvocationHandler<Z, D extends Database<Z>> extend
 	private static final Set<Method> registerOutParameterMethods = Methods.findMethods(CallableStatement.class, "registerOutParameter");
 	private static final Set<Method> setMethods = Methods.findMethods(CallableStatement.class, "set\\w+");
 	private static final Set<Method> driverReadMethods = Methods.findMethods(CallableStatement.class, "get\\w+", "wasNull");
+	static
 	{
 		driverReadMethods.removeAll(Methods.findMethods(PreparedStatement.class, "get\\w+"));
 	}
+	private static final StaticRegistry<Method, PreparedStatementMethodType> preparedStatementMethodTypes = createMethodTypeRegistry(setMethods, Integer.TYPE, String.class);
+	private static final StaticRegistry<Method, MethodType> methodTypes = new MethodRegistry<>(CallableStatementInvocationHandler::methodType);
 	
 	public CallableStatementInvocationHandler(CallableStatementProxyFactory<Z, D> proxyFactory)
 	{
-		super(CallableStatement.class, proxyFactory, setMethods);
+		super(CallableStatement.class, proxyFactory, preparedStatementMethodTypes);
 	}
 
 	@Override
 	protected InvocationStrategy getInvocationStrategy(CallableStatement statement, Method method, Object... parameters) throws SQLException
 	{
-		if (registerOutParameterMethods.contains(method))
-		{
-			return InvocationStrategies.INVOKE_ON_EXISTING;
-		}
-		
-		if (driverReadMethods.contains(method))
+		switch (methodTypes.get(method))
 		{
-			return InvocationStrategies.INVOKE_ON_ANY;
+			case REGISTER_OUT_PARAMETER:
+			{
+				return InvocationStrategies.INVOKE_ON_EXISTING;
+			}
+			case DRIVER_READ:
+			{
+				return InvocationStrategies.INVOKE_ON_ANY;
+			}
+			default:
+			{
+				return super.getInvocationStrategy(statement, method, parameters);
+			}
 		}
-		
-		return super.getInvocationStrategy(statement, method, parameters);
 	}
 
 	@Override
 	protected boolean isBatchMethod(Method method)
 	{
-		return registerOutParameterMethods.contains(method) || super.isBatchMethod(method);
+		return (methodTypes.get(method) == MethodType.REGISTER_OUT_PARAMETER) || super.isBatchMethod(method);
 	}
-
-	@Override
-	protected boolean isIndexType(Class<?> type)
+	
+	/**
+	 * Classifies the specified method.  Computed only once per method.
+	 */
+	private static MethodType methodType(Method method)
+	{
+		if (registerOutParameterMethods.contains(method))
+		{
+			return MethodType.REGISTER_OUT_PARAMETER;
+		}
+		if (driverReadMethods.contains(method))
+		{
+			return MethodType.DRIVER_READ;
+		}
+		return MethodType.OTHER;
+	}
+	
+	private enum MethodType
 	{
-		return super.isIndexType(type) || type.equals(String.class);
+		REGISTER_OUT_PARAMETER, DRIVER_READ, OTHER
 	}
 }
@@ -24,8 +24,6 @@ import java.sql.Connection;
 import java.sql.NClob;
 import java.sql.SQLException;
 import java.sql.Savepoint;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
 
 import io.github.hajdbc.Database;
@@ -35,6 +33,7 @@ import io.github.hajdbc.invocation.InvocationStrategies;
 import io.github.hajdbc.invocation.InvocationStrategy;
 import io.github.hajdbc.invocation.Invoker;
 import io.github.hajdbc.util.StaticRegistry;
+import io.github.hajdbc.util.reflect.MethodRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -65,10 +64,10 @@ public class ConnectionInvocationHandler<Z, D extends Database<Z>, P> extends Ch
 	private static final Method createNClobMethod = Methods.getMethod(Connection.class, "createNClob");
 	private static final Method createSQLXMLMethod = Methods.getMethod(Connection.class, "createSQLXML");
 	
-	private static final Set<Method> createLocatorMethodSet = new HashSet<>(Arrays.asList(createBlobMethod, createClobMethod, createNClobMethod, createSQLXMLMethod));
-	
 	private static final StaticRegistry<Method, Durability.Phase> phaseRegistry = new DurabilityPhaseRegistryBuilder().phase(Durability.Phase.COMMIT, commitMethod, setAutoCommitMethod).phase(Durability.Phase.ROLLBACK, rollbackMethod).build();
 	
+	private static final StaticRegistry<Method, MethodType> methodTypes = new MethodRegistry<>(ConnectionInvocationHandler::methodType);
+	
 	/**
 	 * Constructs a new ConnectionInvocationHandler
 	 * @param proxyFactory a factory for creating connection proxies
@@ -81,138 +80,255 @@ public class ConnectionInvocationHandler<Z, D extends Database<Z>, P> extends Ch
 	@Override
 	protected ProxyFactoryFactory<Z, D, Connection, SQLException, ?, ? extends Exception> getProxyFactoryFactory(Connection connection, Method method, Object... parameters) throws SQLException
 	{
-		if (createStatementMethodSet.contains(method))
+		switch (methodTypes.get(method))
 		{
-			return new StatementProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext());
+			case CREATE_STATEMENT:
+			{
+				return new StatementProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext());
+			}
+			case PREPARE_STATEMENT:
+			{
+				String sql = (String) parameters[0];
+				return new PreparedStatementProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().extractLocks(sql), this.getProxyFactory().isSelectForUpdate(sql));
+			}
+			case PREPARE_CALL:
+			{
+				String sql = (String) parameters[0];
+				return new CallableStatementProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().extractLocks(sql));
+			}
+			case SET_SAVEPOINT:
+			{
+				return new SavepointProxyFactoryFactory<>();
+			}
+			case GET_META_DATA:
+			{
+				return new DatabaseMetaDataProxyFactoryFactory<>();
+			}
+			case CREATE_ARRAY:
+			{
+				return new ArrayProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case CREATE_BLOB:
+			{
+				return new BlobProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case CREATE_CLOB:
+			{
+				return new ClobProxyFactoryFactory<>(Clob.class, this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case CREATE_NCLOB:
+			{
+				return new ClobProxyFactoryFactory<>(NClob.class, this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case CREATE_SQLXML:
+			{
+				return new SQLXMLProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			default:
+			{
+				return super.getProxyFactoryFactory(connection, method, parameters);
+			}
 		}
-		if (prepareStatementMethodSet.contains(method))
+	}
+
+	@Override
+	protected InvocationStrategy getInvocationStrategy(Connection connection, Method method, Object... parameters) throws SQLException
+	{
+		switch (methodTypes.get(method))
 		{
-			String sql = (String) parameters[0];
-			return new PreparedStatementProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().extractLocks(sql), this.getProxyFactory().isSelectForUpdate(sql));
+			case DRIVER_READ:
+			{
+				return InvocationStrategies.INVOKE_ON_ANY;
+			}
+			case DATABASE_READ:
+			case GET_META_DATA:
+			{
+				return InvocationStrategies.INVOKE_ON_NEXT;
+			}
+			case DRIVER_WRITE:
+			case CLOSE:
+			case CREATE_STATEMENT:
+			{
+				return InvocationStrategies.INVOKE_ON_EXISTING;
+			}
+			case PREPARE_STATEMENT:
+			case PREPARE_CALL:
+			case CREATE_BLOB:
+			case CREATE_CLOB:
+			case CREATE_NCLOB:
+			case CREATE_SQLXML:
+			{
+				return InvocationStrategies.INVOKE_ON_ALL;
+			}
+			case SET_AUTO_COMMIT:
+			case COMMIT:
+			case ROLLBACK:
+			{
+				return this.getProxyFactory().getTransactionContext().end(InvocationStrategies.END_TRANSACTION_INVOKE_ON_ALL, phaseRegistry.get(method));
+			}
+			case ROLLBACK_SAVEPOINT:
+			case RELEASE_SAVEPOINT:
+			{
+				return InvocationStrategies.END_TRANSACTION_INVOKE_ON_ALL;
+			}
+			case SET_SAVEPOINT:
+			{
+				return InvocationStrategies.TRANSACTION_INVOKE_ON_ALL;
+			}
+			default:
+			{
+				return super.getInvocationStrategy(connection, method, parameters);
+			}
 		}
-		if (prepareCallMethodSet.contains(method))
+	}
+
+	@Override
+	protected <R> Invoker<Z, D, Connection, R, SQLException> getInvoker(Connection connection, Method method, Object... parameters) throws SQLException
+	{
+		switch (methodTypes.get(method))
 		{
-			String sql = (String) parameters[0];
-			return new CallableStatementProxyFactoryFactory<>(this.getProxyFactory().getTransactionContext(), this.getProxyFactory().extractLocks(sql));
+			case RELEASE_SAVEPOINT:
+			case ROLLBACK_SAVEPOINT:
+			{
+				return this.getInvoker(Savepoint.class, 0, connection, method, parameters);
+			}
+			case PREPARE_STATEMENT:
+			case PREPARE_CALL:
+			{
+				parameters[0] = this.getProxyFactory().evaluate((String) parameters[0]);
+				return super.getInvoker(connection, method, parameters);
+			}
+			case SET_AUTO_COMMIT:
+			case COMMIT:
+			case ROLLBACK:
+			{
+				Invoker<Z, D, Connection, R, SQLException> invoker = super.getInvoker(connection, method, parameters);
+				return this.getProxyFactory().getTransactionContext().end(invoker, phaseRegistry.get(method));
+			}
+			default:
+			{
+				return super.getInvoker(connection, method, parameters);
+			}
 		}
-		
-		if (setSavepointMethodSet.contains(method))
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <R> void postInvoke(Invoker<Z, D, Connection, R, SQLException> invoker, Connection proxy, Method method, Object... parameters)
+	{
+		switch (methodTypes.get(method))
 		{
-			return new SavepointProxyFactoryFactory<>();
+			case DRIVER_WRITE:
+			case SET_AUTO_COMMIT:
+			{
+				this.getProxyFactory().record(invoker);
+				break;
+			}
+			case CLOSE:
+			{
+				this.getProxyFactory().getTransactionContext().close();
+				this.getProxyFactory().remove();
+				break;
+			}
+			case RELEASE_SAVEPOINT:
+			{
+				SavepointInvocationHandler<Z, D> handler = (SavepointInvocationHandler<Z, D>) Proxy.getInvocationHandler(parameters[0]);
+				this.getProxyFactory().removeChild(handler.getProxyFactory());
+				break;
+			}
+			default:
+			{
+				// Do nothing
+			}
 		}
-		
-		if (method.equals(getMetaDataMethod))
+	}
+	
+	/**
+	 * Classifies the specified method.  Computed only once per method.
+	 */
+	private static MethodType methodType(Method method)
+	{
+		if (driverReadMethodSet.contains(method))
 		{
-			return new DatabaseMetaDataProxyFactoryFactory<>();
+			return MethodType.DRIVER_READ;
 		}
-		
-		if (method.equals(createArrayMethod))
+		if (databaseReadMethodSet.contains(method))
 		{
-			return new ArrayProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			return MethodType.DATABASE_READ;
 		}
-		if (method.equals(createBlobMethod))
+		if (method.equals(getMetaDataMethod))
 		{
-			return new BlobProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			return MethodType.GET_META_DATA;
 		}
-		if (method.equals(createClobMethod))
+		if (driverWriterMethodSet.contains(method))
 		{
-			return new ClobProxyFactoryFactory<>(Clob.class, this.getProxyFactory().locatorsUpdateCopy());
+			return MethodType.DRIVER_WRITE;
 		}
-		if (method.equals(createNClobMethod))
+		if (method.equals(closeMethod))
 		{
-			return new ClobProxyFactoryFactory<>(NClob.class, this.getProxyFactory().locatorsUpdateCopy());
+			return MethodType.CLOSE;
 		}
-		if (method.equals(createSQLXMLMethod))
+		if (createStatementMethodSet.contains(method))
 		{
-			return new SQLXMLProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			return MethodType.CREATE_STATEMENT;
 		}
-		
-		return super.getProxyFactoryFactory(connection, method, parameters);
-	}
-
-	@Override
-	protected InvocationStrategy getInvocationStrategy(Connection connection, Method method, Object... parameters) throws SQLException
-	{
-		if (driverReadMethodSet.contains(method))
+		if (prepareStatementMethodSet.contains(method))
 		{
-			return InvocationStrategies.INVOKE_ON_ANY;
+			return MethodType.PREPARE_STATEMENT;
 		}
-		
-		if (databaseReadMethodSet.contains(method) || method.equals(getMetaDataMethod))
+		if (prepareCallMethodSet.contains(method))
 		{
-			return InvocationStrategies.INVOKE_ON_NEXT;
+			return MethodType.PREPARE_CALL;
 		}
-		
-		if (driverWriterMethodSet.contains(method) || method.equals(closeMethod) || createStatementMethodSet.contains(method))
+		if (method.equals(createArrayMethod))
 		{
-			return InvocationStrategies.INVOKE_ON_EXISTING;
+			return MethodType.CREATE_ARRAY;
 		}
-		
-		if (prepareStatementMethodSet.contains(method) || prepareCallMethodSet.contains(method) || createLocatorMethodSet.contains(method))
+		if (method.equals(createBlobMethod))
 		{
-			return InvocationStrategies.INVOKE_ON_ALL;
+			return MethodType.CREATE_BLOB;
 		}
-		
-		Durability.Phase phase = phaseRegistry.get(method);
-		if (phase != null)
+		if (method.equals(createClobMethod))
 		{
-			return this.getProxyFactory().getTransactionContext().end(InvocationStrategies.END_TRANSACTION_INVOKE_ON_ALL, phase);
+			return MethodType.CREATE_CLOB;
 		}
-		
-		if (method.equals(rollbackSavepointMethod) || method.equals(releaseSavepointMethod))
+		if (method.equals(createNClobMethod))
 		{
-			return InvocationStrategies.END_TRANSACTION_INVOKE_ON_ALL;
+			return MethodType.CREATE_NCLOB;
 		}
-		
-		if (setSavepointMethodSet.contains(method))
+		if (method.equals(createSQLXMLMethod))
 		{
-			return InvocationStrategies.TRANSACTION_INVOKE_ON_ALL;
+			return MethodType.CREATE_SQLXML;
 		}
-		
-		return super.getInvocationStrategy(connection, method, parameters);
-	}
-
-	@Override
-	protected <R> Invoker<Z, D, Connection, R, SQLException> getInvoker(Connection connection, Method method, Object... parameters) throws SQLException
-	{
-		if (method.equals(releaseSavepointMethod) || method.equals(rollbackSavepointMethod))
+		if (method.equals(setAutoCommitMethod))
 		{
-			return this.getInvoker(Savepoint.class, 0, connection, method, parameters);
+			return MethodType.SET_AUTO_COMMIT;
 		}
-		
-		if (prepareStatementMethodSet.contains(method) || prepareCallMethodSet.contains(method))
+		if (method.equals(commitMethod))
 		{
-			parameters[0] = this.getProxyFactory().evaluate((String) parameters[0]);
+			return MethodType.COMMIT;
 		}
-
-		Invoker<Z, D, Connection, R, SQLException> invoker = super.getInvoker(connection, method, parameters);
-		
-		Durability.Phase phase = phaseRegistry.get(method);
-		if (phase != null)
+		if (method.equals(rollbackMethod))
 		{
-			return this.getProxyFactory().getTransactionContext().end(invoker, phase);
+			return MethodType.ROLLBACK;
 		}
-		
-		return invoker;
-	}
-
-	@SuppressWarnings("unchecked")
-	@Override
-	protected <R> void postInvoke(Invoker<Z, D, Connection, R, SQLException> invoker, Connection proxy, Method method, Object... parameters)
-	{
-		if (driverWriterMethodSet.contains(method) || method.equals(setAutoCommitMethod))
+		if (method.equals(rollbackSavepointMethod))
 		{
-			this.getProxyFactory().record(invoker);
+			return MethodType.ROLLBACK_SAVEPOINT;
 		}
-		else if (method.equals(closeMethod))
+		if (method.equals(releaseSavepointMethod))
 		{
-			this.getProxyFactory().getTransactionContext().close();
-			this.getProxyFactory().remove();
+			return MethodType.RELEASE_SAVEPOINT;
 		}
-		else if (method.equals(releaseSavepointMethod))
+		if (setSavepointMethodSet.contains(method))
 		{
-			SavepointInvocationHandler<Z, D> handler = (SavepointInvocationHandler<Z, D>) Proxy.getInvocationHandler(parameters[0]);
-			this.getProxyFactory().removeChild(handler.getProxyFactory());
+			return MethodType.SET_SAVEPOINT;
 		}
+		return MethodType.OTHER;
+	}
+	
+	private enum MethodType
+	{
+		DRIVER_READ, DATABASE_READ, GET_META_DATA, DRIVER_WRITE, CLOSE, CREATE_STATEMENT, PREPARE_STATEMENT, PREPARE_CALL, CREATE_ARRAY, CREATE_BLOB, CREATE_CLOB, CREATE_NCLOB, CREATE_SQLXML, SET_AUTO_COMMIT, COMMIT, ROLLBACK, ROLLBACK_SAVEPOINT, RELEASE_SAVEPOINT, SET_SAVEPOINT, OTHER
 	}
 }
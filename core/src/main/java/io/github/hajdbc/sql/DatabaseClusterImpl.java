@@ -20,8 +20,8 @@ package io.github.hajdbc.sql;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -47,9 +47,9 @@ import io.github.hajdbc.codec.Decoder;
 import io.github.hajdbc.dialect.Dialect;
 import io.github.hajdbc.distributed.CommandDispatcherFactory;
 import io.github.hajdbc.durability.Durability;
-import io.github.hajdbc.durability.InvocationEvent;
-import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.DurabilityRecovery;
 import io.github.hajdbc.io.InputSinkStrategy;
+import io.github.hajdbc.lock.InstrumentedLockManager;
 import io.github.hajdbc.lock.LockManager;
 import io.github.hajdbc.lock.distributed.DistributedLockManager;
 import io.github.hajdbc.logging.Level;
@@ -90,14 +90,17 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 	private Dialect dialect;
 	private Durability<Z, D> durability;
 	private DatabaseMetaDataCache<Z, D> databaseMetaDataCache;
+	private SQLAnalysisCache sqlAnalysisCache;
 	private ExecutorService executor;
 	private Decoder decoder;
 	private CronThreadPoolExecutor cronExecutor;
 	private LockManager lockManager;
+	private InstrumentedLockManager instrumentedLockManager;
 	private StateManager stateManager;
 	private InputSinkStrategy<? extends Object> sinkSourceFactory;
 	private TransactionIdentifierFactory<? extends Object> txIdentifierFactory;
 	private MBeanRegistrar<Z, D> registrar;
+	private DurabilityRecovery<Z, D> recovery;
 	
 	private boolean active = false;
 	
@@ -354,6 +357,86 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 		}
 	}
 
+	/**
+	 * Flushes this cluster's cache of SQL analysis results.
+	 */
+	@ManagedOperation
+	@Description("Flushes this cluster's cache of SQL analysis results")
+	public void flushSQLAnalysisCache()
+	{
+		this.sqlAnalysisCache.clear();
+	}
+
+	/**
+	 * Returns the number of SQL statements whose analysis was found in this cluster's SQL analysis cache.
+	 * @return the number of cache hits
+	 */
+	@ManagedAttribute
+	@Description("Number of SQL analysis cache hits")
+	public long getSQLAnalysisCacheHits()
+	{
+		return (this.sqlAnalysisCache != null) ? this.sqlAnalysisCache.getHits() : 0;
+	}
+
+	/**
+	 * Returns the number of SQL statements that required analysis.
+	 * @return the number of cache misses
+	 */
+	@ManagedAttribute
+	@Description("Number of SQL analysis cache misses")
+	public long getSQLAnalysisCacheMisses()
+	{
+		return (this.sqlAnalysisCache != null) ? this.sqlAnalysisCache.getMisses() : 0;
+	}
+
+	/**
+	 * Returns the number of named locks (e.g. sequences, identity column tables) currently held or awaited.
+	 * @return the number of live locks
+	 */
+	@ManagedAttribute
+	@Description("Number of named locks currently held or awaited")
+	public int getLockCount()
+	{
+		return (this.lockManager != null) ? this.lockManager.getLockCount() : 0;
+	}
+
+	/**
+	 * Returns wait time statistics for the locks with the greatest total wait time.
+	 * Only recorded if lock instrumentation is enabled.
+	 * @return a list of lock descriptions
+	 */
+	@ManagedAttribute
+	@Description("Wait time statistics of the most contended locks")
+	public List<String> getLockWaitTimes()
+	{
+		return (this.instrumentedLockManager != null) ? this.instrumentedLockManager.getWaitTimes() : Collections.<String>emptyList();
+	}
+
+	/**
+	 * Returns hold time statistics for the locks with the greatest total hold time.
+	 * Only recorded if lock instrumentation is enabled.
+	 * @return a list of lock descriptions
+	 */
+	@ManagedAttribute
+	@Description("Hold time statistics of the longest held locks")
+	public List<String> getLockHoldTimes()
+	{
+		return (this.instrumentedLockManager != null) ? this.instrumentedLockManager.getHoldTimes() : Collections.<String>emptyList();
+	}
+
+	/**
+	 * Discards lock wait and hold time statistics.
+	 */
+	@ManagedOperation
+	@Description("Resets lock wait and hold time statistics")
+	public void resetLockStatistics()
+	{
+		if (this.instrumentedLockManager != null)
+		{
+			this.instrumentedLockManager.reset();
+		}
+	}
+
 	@ManagedOperation
 	@Override
 	public void addConfigurationListener(DatabaseClusterConfigurationListener<Z, D> listener)
@@ -471,6 +554,12 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 		return this.databaseMetaDataCache;
 	}
 
+	@Override
+	public SQLAnalysisCache getSQLAnalysisCache()
+	{
+		return this.sqlAnalysisCache;
+	}
+
 	@Override
 	public Dialect getDialect()
 	{
@@ -582,8 +671,8 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 		{
 			try
 			{
-				this.lockManager = new DistributedLockManager(this, dispatcherFactory);
-				this.stateManager = new DistributedStateManager<>(this, dispatcherFactory);
+				this.lockManager = new DistributedLockManager(this, dispatcherFactory, this.configuration.isLockLeasingEnabled());
+				this.stateManager = new DistributedStateManager<>(this, dispatcherFactory, this.configuration.isStatePipeliningEnabled());
 			}
 			catch (Exception e)
 			{
@@ -591,8 +680,15 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 			}
 		}
 		
+		if (this.configuration.isLockInstrumentationEnabled())
+		{
+			this.instrumentedLockManager = new InstrumentedLockManager(this.lockManager);
+			this.lockManager = this.instrumentedLockManager;
+		}
+		
 		this.balancer = this.configuration.getBalancerFactory().createBalancer(new TreeSet<D>());
 		this.dialect = this.configuration.getDialectFactory().createDialect();
+		this.sqlAnalysisCache = new SQLAnalysisCache(this);
 		this.durability = this.configuration.getDurabilityFactory().createDurability(this);
 		this.executor = this.configuration.getExecutorProvider().getExecutor(this.configuration.getThreadFactory());
 		this.sinkSourceFactory = this.configuration.getInputSinkProvider().createInputSinkStrategy();
@@ -600,6 +696,7 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 
 		this.lockManager.start();
 		this.stateManager.start();
+		this.durability.start();
 		
 		Set<String> databases = this.stateManager.getActiveDatabases();
 		
@@ -628,12 +725,20 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 			}
 		}
 
-		Map<InvocationEvent, Map<String, InvokerEvent>> invokers = this.stateManager.recover();
-		if (!invokers.isEmpty())
+		this.registrar = this.configuration.getMBeanRegistrarFactory().createMBeanRegistrar();
+		this.recovery = new DurabilityRecovery<>(this);
+		
+		try
+		{
+			this.registrar.register(this, this.recovery);
+		}
+		catch (JMException e)
 		{
-			this.durability.recover(invokers);
+			throw new SQLException(e);
 		}
 		
+		this.recovery.recover(this.stateManager);
+		
 		this.databaseMetaDataCache = this.configuration.getDatabaseMetaDataCacheFactory().createCache(this);
 		
 		try
@@ -664,8 +769,6 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 			}
 		}
 		
-		this.registrar = this.configuration.getMBeanRegistrarFactory().createMBeanRegistrar();
-
 		try
 		{
 			this.registrar.register(this);
@@ -712,6 +815,7 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 		if (this.registrar != null)
 		{
 			this.registrar.unregister(this);
+			this.registrar.unregister(this, this.recovery);
 			
 			for (D database: this.configuration.getDatabaseMap().values())
 			{
@@ -724,6 +828,11 @@ public class DatabaseClusterImpl<Z, D extends Database<Z>> implements DatabaseCl
 			this.cronExecutor.shutdownNow();
 		}
 		
+		if (this.durability != null)
+		{
+			this.durability.stop();
+		}
+		
 		if (this.stateManager != null)
 		{
 			this.stateManager.stop();
@@ -0,0 +1,201 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Storage for the per-database objects of a proxy factory, indexed by database ordinal.
+ * The ordinal of a database is its position within the sorted array of databases known to this object.
+ * Reads are lock-free; writes are synchronized, and only reallocate storage when a previously unknown database is added.
+ * @author Paul Ferraro
+ * @param <D> the database descriptor type
+ * @param <T> the per-database object type
+ */
+class DatabaseObjectArray<D, T>
+{
+	private volatile Slots<T> slots;
+	
+	DatabaseObjectArray(Map<D, T> map)
+	{
+		Object[] databases = map.keySet().toArray();
+		Arrays.sort(databases);
+		AtomicReferenceArray<T> objects = new AtomicReferenceArray<>(databases.length);
+		for (int i = 0; i < databases.length; ++i)
+		{
+			objects.set(i, map.get(databases[i]));
+		}
+		this.slots = new Slots<>(databases, objects);
+	}
+	
+	/**
+	 * Returns the object for the specified database, or null if none exists.
+	 * @param database a database descriptor
+	 * @return an object, or null
+	 */
+	T get(D database)
+	{
+		Slots<T> slots = this.slots;
+		int ordinal = slots.ordinal(database);
+		return (ordinal >= 0) ? slots.objects.get(ordinal) : null;
+	}
+	
+	/**
+	 * Associates the specified object with the specified database.
+	 * @param database a database descriptor
+	 * @param object an object
+	 */
+	synchronized void set(D database, T object)
+	{
+		Slots<T> slots = this.slots;
+		int ordinal = slots.ordinal(database);
+		if (ordinal >= 0)
+		{
+			slots.objects.set(ordinal, object);
+		}
+		else
+		{
+			int index = -(ordinal + 1);
+			int length = slots.databases.length;
+			Object[] databases = new Object[length + 1];
+			AtomicReferenceArray<T> objects = new AtomicReferenceArray<>(length + 1);
+			System.arraycopy(slots.databases, 0, databases, 0, index);
+			System.arraycopy(slots.databases, index, databases, index + 1, length - index);
+			databases[index] = database;
+			for (int i = 0; i < length; ++i)
+			{
+				objects.set((i < index) ? i : i + 1, slots.objects.get(i));
+			}
+			objects.set(index, object);
+			this.slots = new Slots<>(databases, objects);
+		}
+	}
+	
+	/**
+	 * Removes the object associated with the specified database.
+	 * The ordinal of the database is retained, since the database may later be reactivated.
+	 * @param database a database descriptor
+	 * @return the removed object, or null if none existed
+	 */
+	synchronized T remove(D database)
+	{
+		Slots<T> slots = this.slots;
+		int ordinal = slots.ordinal(database);
+		return (ordinal >= 0) ? slots.objects.getAndSet(ordinal, null) : null;
+	}
+	
+	boolean isEmpty()
+	{
+		Slots<T> slots = this.slots;
+		for (int i = 0; i < slots.databases.length; ++i)
+		{
+			if (slots.objects.get(i) != null) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns a sorted view of the database/object pairs of this array, excluding databases without an object.
+	 * @return a set of map entries
+	 */
+	Set<Map.Entry<D, T>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<D, T>>()
+		{
+			@Override
+			public Iterator<Map.Entry<D, T>> iterator()
+			{
+				return new SlotIterator<>(DatabaseObjectArray.this.slots);
+			}
+
+			@Override
+			public int size()
+			{
+				Slots<T> slots = DatabaseObjectArray.this.slots;
+				int size = 0;
+				for (int i = 0; i < slots.databases.length; ++i)
+				{
+					if (slots.objects.get(i) != null) size += 1;
+				}
+				return size;
+			}
+		};
+	}
+	
+	private static class Slots<T>
+	{
+		final Object[] databases;
+		final AtomicReferenceArray<T> objects;
+		
+		Slots(Object[] databases, AtomicReferenceArray<T> objects)
+		{
+			this.databases = databases;
+			this.objects = objects;
+		}
+		
+		int ordinal(Object database)
+		{
+			return Arrays.binarySearch(this.databases, database);
+		}
+	}
+	
+	private static class SlotIterator<D, T> implements Iterator<Map.Entry<D, T>>
+	{
+		private final Slots<T> slots;
+		private int index = -1;
+		private T next;
+		
+		SlotIterator(Slots<T> slots)
+		{
+			this.slots = slots;
+			this.advance();
+		}
+		
+		private void advance()
+		{
+			this.next = null;
+			while ((this.next == null) && (++this.index < this.slots.databases.length))
+			{
+				this.next = this.slots.objects.get(this.index);
+			}
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return this.next != null;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Map.Entry<D, T> next()
+		{
+			if (this.next == null) throw new NoSuchElementException();
+			Map.Entry<D, T> entry = new AbstractMap.SimpleImmutableEntry<>((D) this.slots.databases[this.index], this.next);
+			this.advance();
+			return entry;
+		}
+	}
+}
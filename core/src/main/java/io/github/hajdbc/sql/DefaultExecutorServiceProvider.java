@@ -25,13 +25,19 @@ import java.util.concurrent.ThreadFactory;
 import io.github.hajdbc.ExecutorServiceProvider;
 
 /**
+ * Executor service provider that creates an unbounded, cached pool of platform threads.
  * @author paul
- *
  */
 public class DefaultExecutorServiceProvider implements ExecutorServiceProvider, Serializable
 {
 	private static final long serialVersionUID = 5781743869682086889L;
 
+	@Override
+	public String getId()
+	{
+		return "default";
+	}
+
 	@Override
 	public ExecutorService getExecutor(ThreadFactory threadFactory)
 	{
@@ -20,15 +20,12 @@ package io.github.hajdbc.sql;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.ExceptionFactory;
 import io.github.hajdbc.invocation.Invoker;
 import io.github.hajdbc.io.InputSinkChannel;
-import io.github.hajdbc.util.reflect.Methods;
+import io.github.hajdbc.util.reflect.MethodDispatcher;
 
 /**
  * 
@@ -58,19 +55,20 @@ public class InputSinkRegistryInvocationHandler<Z, D extends Database<Z>, P, T,
 					try
 					{
 						final Object sink = channel.write(parameter);
+						final MethodDispatcher dispatcher = MethodDispatcher.forMethod(method);
 						
 						return new Invoker<Z, D, T, R, SQLException>()
 						{
 							@Override
 							public R invoke(D database, T object) throws SQLException
 							{
-								List<Object> parameterList = new ArrayList<>(Arrays.asList(parameters));
+								Object[] databaseParameters = parameters.clone();
 								
 								try
 								{
-									parameterList.set(parameterIndex, channel.read(sink));
+									databaseParameters[parameterIndex] = channel.read(sink);
 									
-									return Methods.<R, SQLException>invoke(method, exceptionFactory, object, parameterList.toArray());
+									return dispatcher.<R, SQLException>invoke(exceptionFactory, object, databaseParameters);
 								}
 								catch (IOException e)
 								{
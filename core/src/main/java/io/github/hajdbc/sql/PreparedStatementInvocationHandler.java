@@ -22,6 +22,7 @@ import java.sql.PreparedStatement;
 import java.util.Set;
 
 import io.github.hajdbc.Database;
+import io.github.hajdbc.util.StaticRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -31,9 +32,10 @@ import io.github.hajdbc.util.reflect.Methods;
 public class PreparedStatementInvocationHandler<Z, D extends Database<Z>> extends AbstractPreparedStatementInvocationHandler<Z, D, PreparedStatement, PreparedStatementProxyFactory<Z, D>>
 {
 	private static final Set<Method> setMethods = Methods.findMethods(PreparedStatement.class, "set\\w+");
+	private static final StaticRegistry<Method, PreparedStatementMethodType> methodTypes = createMethodTypeRegistry(setMethods, Integer.TYPE);
 	
 	public PreparedStatementInvocationHandler(PreparedStatementProxyFactory<Z, D> proxyFactory)
 	{
-		super(PreparedStatement.class, proxyFactory, setMethods);
+		super(PreparedStatement.class, proxyFactory, methodTypes);
 	}
 }
@@ -29,6 +29,8 @@ import io.github.hajdbc.Database;
 import io.github.hajdbc.invocation.InvocationStrategies;
 import io.github.hajdbc.invocation.InvocationStrategy;
 import io.github.hajdbc.invocation.Invoker;
+import io.github.hajdbc.util.StaticRegistry;
+import io.github.hajdbc.util.reflect.MethodRegistry;
 import io.github.hajdbc.util.reflect.Methods;
 
 /**
@@ -52,6 +54,8 @@ public class ResultSetInvocationHandler<Z, D extends Database<Z>, S extends Stat
 	private static final Method closeMethod = Methods.getMethod(ResultSet.class, "close");
 	private static final Method getStatementMethod = Methods.getMethod(ResultSet.class, "getStatement");
 	
+	private static final StaticRegistry<Method, MethodType> methodTypes = new MethodRegistry<>(ResultSetInvocationHandler::methodType);
+	
 	/**
 	 * @param factory a factory for creating result set proxies
 	 */
@@ -63,69 +67,76 @@ public class ResultSetInvocationHandler<Z, D extends Database<Z>, S extends Stat
 	@Override
 	protected ProxyFactoryFactory<Z, D, ResultSet, SQLException, ?, ? extends Exception> getProxyFactoryFactory(ResultSet object, Method method, Object... parameters) throws SQLException
 	{
-		if (getArrayMethodSet.contains(method))
-		{
-			return new ArrayProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
-		}
-		if (getBlobMethodSet.contains(method))
+		switch (methodTypes.get(method))
 		{
-			return new BlobProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			case GET_ARRAY:
+			{
+				return new ArrayProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case GET_BLOB:
+			{
+				return new BlobProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case GET_CLOB:
+			{
+				return new ClobProxyFactoryFactory<>(Clob.class, this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case GET_NCLOB:
+			{
+				return new ClobProxyFactoryFactory<>(NClob.class, this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case GET_REF:
+			{
+				return new RefProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			case GET_SQLXML:
+			{
+				return new SQLXMLProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
+			}
+			default:
+			{
+				return super.getProxyFactoryFactory(object, method, parameters);
+			}
 		}
-		if (getClobMethodSet.contains(method))
-		{
-			return new ClobProxyFactoryFactory<>(Clob.class, this.getProxyFactory().locatorsUpdateCopy());
-		}
-		if (getNClobMethodSet.contains(method))
-		{
-			return new ClobProxyFactoryFactory<>(NClob.class, this.getProxyFactory().locatorsUpdateCopy());
-		}
-		if (getRefMethodSet.contains(method))
-		{
-			return new RefProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
-		}
-		if (getSQLXMLMethodSet.contains(method))
-		{
-			return new SQLXMLProxyFactoryFactory<>(this.getProxyFactory().locatorsUpdateCopy());
-		}
-		
-		return super.getProxyFactoryFactory(object, method, parameters);
 	}
 
 	@Override
 	protected InvocationStrategy getInvocationStrategy(ResultSet resultSet, Method method, Object... parameters) throws SQLException
 	{
-		if (driverReadMethodSet.contains(method))
+		switch (methodTypes.get(method))
 		{
-			return InvocationStrategies.INVOKE_ON_ANY;
+			case DRIVER_READ:
+			case GET:
+			case GET_ARRAY:
+			case GET_BLOB:
+			case GET_CLOB:
+			case GET_NCLOB:
+			case GET_REF:
+			case GET_SQLXML:
+			{
+				return InvocationStrategies.INVOKE_ON_ANY;
+			}
+			case DRIVER_WRITE:
+			case CLOSE:
+			case UPDATE:
+			{
+				return InvocationStrategies.INVOKE_ON_EXISTING;
+			}
+			case TRANSACTIONAL_WRITE:
+			{
+				return this.getProxyFactory().getTransactionContext().start(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, this.getProxyFactory().getParentProxy().getConnection());
+			}
+			default:
+			{
+				return super.getInvocationStrategy(resultSet, method, parameters);
+			}
 		}
-		
-		if (driverWriteMethodSet.contains(method) || method.equals(closeMethod))
-		{
-			return InvocationStrategies.INVOKE_ON_EXISTING;
-		}
-		
-		if (transactionalWriteMethodSet.contains(method))
-		{
-			return this.getProxyFactory().getTransactionContext().start(InvocationStrategies.TRANSACTION_INVOKE_ON_ALL, this.getProxyFactory().getParentProxy().getConnection());
-		}
-		
-		if (isGetMethod(method))
-		{
-			return InvocationStrategies.INVOKE_ON_ANY;
-		}
-		
-		if (isUpdateMethod(method))
-		{
-			return InvocationStrategies.INVOKE_ON_EXISTING;
-		}
-		
-		return super.getInvocationStrategy(resultSet, method, parameters);
 	}
 
 	@Override
 	protected <R> Invoker<Z, D, ResultSet, R, SQLException> getInvoker(ResultSet results, final Method method, final Object... parameters) throws SQLException
 	{
-		if (isUpdateMethod(method) && (parameters.length > 1))
+		if ((methodTypes.get(method) == MethodType.UPDATE) && (parameters.length > 1))
 		{
 			return this.getInvoker(method.getParameterTypes()[1], 1, results, method, parameters);
 		}
@@ -136,15 +147,80 @@ public class ResultSetInvocationHandler<Z, D extends Database<Z>, S extends Stat
 	@Override
 	protected <R> void postInvoke(Invoker<Z, D, ResultSet, R, SQLException> invoker, ResultSet results, Method method, Object... parameters)
 	{
+		switch (methodTypes.get(method))
+		{
+			case CLOSE:
+			{
+				this.getProxyFactory().remove();
+				break;
+			}
+			case DRIVER_WRITE:
+			case UPDATE:
+			{
+				this.getProxyFactory().addInvoker(invoker);
+				break;
+			}
+			default:
+			{
+				// Do nothing
+			}
+		}
+	}
+	
+	/**
+	 * Classifies the specified method.  Computed only once per method.
+	 */
+	private static MethodType methodType(Method method)
+	{
+		if (driverReadMethodSet.contains(method))
+		{
+			return MethodType.DRIVER_READ;
+		}
+		if (driverWriteMethodSet.contains(method))
+		{
+			return MethodType.DRIVER_WRITE;
+		}
 		if (method.equals(closeMethod))
 		{
-			this.getProxyFactory().remove();
+			return MethodType.CLOSE;
 		}
-		
-		if (driverWriteMethodSet.contains(method) || isUpdateMethod(method))
+		if (transactionalWriteMethodSet.contains(method))
+		{
+			return MethodType.TRANSACTIONAL_WRITE;
+		}
+		if (getArrayMethodSet.contains(method))
+		{
+			return MethodType.GET_ARRAY;
+		}
+		if (getBlobMethodSet.contains(method))
+		{
+			return MethodType.GET_BLOB;
+		}
+		if (getClobMethodSet.contains(method))
+		{
+			return MethodType.GET_CLOB;
+		}
+		if (getNClobMethodSet.contains(method))
+		{
+			return MethodType.GET_NCLOB;
+		}
+		if (getRefMethodSet.contains(method))
+		{
+			return MethodType.GET_REF;
+		}
+		if (getSQLXMLMethodSet.contains(method))
 		{
-			this.getProxyFactory().addInvoker(invoker);
+			return MethodType.GET_SQLXML;
 		}
+		if (isGetMethod(method))
+		{
+			return MethodType.GET;
+		}
+		if (isUpdateMethod(method))
+		{
+			return MethodType.UPDATE;
+		}
+		return MethodType.OTHER;
 	}
 	
 	private static boolean isGetMethod(Method method)
@@ -160,4 +236,9 @@ public class ResultSetInvocationHandler<Z, D extends Database<Z>, S extends Stat
 		
 		return method.getName().startsWith("update") && (types != null) && (types.length > 0) && (types[0].equals(String.class) || types[0].equals(Integer.TYPE));
 	}
+	
+	private enum MethodType
+	{
+		DRIVER_READ, DRIVER_WRITE, CLOSE, TRANSACTIONAL_WRITE, GET, GET_ARRAY, GET_BLOB, GET_CLOB, GET_NCLOB, GET_REF, GET_SQLXML, UPDATE, OTHER
+	}
 }
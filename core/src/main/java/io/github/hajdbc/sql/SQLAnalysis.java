@@ -0,0 +1,97 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import java.util.Set;
+
+import io.github.hajdbc.dialect.SQLFunction;
+import io.github.hajdbc.dialect.SQLScan;
+
+/**
+ * The result of analyzing a SQL statement, independent of the time of its execution.
+ * @author Paul Ferraro
+ */
+public class SQLAnalysis
+{
+	private final SQLScan scan;
+	private final Set<SQLFunction> evaluatedFunctions;
+	private final String sequence;
+	private final String insertTable;
+	
+	public SQLAnalysis(SQLScan scan, Set<SQLFunction> evaluatedFunctions, String sequence, String insertTable)
+	{
+		this.scan = scan;
+		this.evaluatedFunctions = evaluatedFunctions;
+		this.sequence = sequence;
+		this.insertTable = insertTable;
+	}
+	
+	/**
+	 * Returns the dialect specific scan of this statement.
+	 * @return a SQL scan
+	 */
+	public SQLScan getScan()
+	{
+		return this.scan;
+	}
+	
+	/**
+	 * Returns the non-deterministic functions that must be evaluated prior to execution.
+	 * @return a set of functions, empty if evaluation is not required
+	 */
+	public Set<SQLFunction> getEvaluatedFunctions()
+	{
+		return this.evaluatedFunctions;
+	}
+	
+	/**
+	 * Indicates whether this statement contains non-deterministic functions that must be evaluated prior to execution.
+	 * @return true, if evaluation is required, false otherwise
+	 */
+	public boolean isEvaluationRequired()
+	{
+		return !this.evaluatedFunctions.isEmpty();
+	}
+	
+	/**
+	 * Returns the sequence referenced by this statement, if sequence detection is enabled.
+	 * @return a sequence name, or null
+	 */
+	public String getSequence()
+	{
+		return this.sequence;
+	}
+	
+	/**
+	 * Returns the target table of this insert statement, if identity column detection is enabled.
+	 * @return a table name, or null
+	 */
+	public String getInsertTable()
+	{
+		return this.insertTable;
+	}
+	
+	/**
+	 * Indicates whether this statement is a SELECT...FOR UPDATE statement.
+	 * @return true, if this statement selects for update, false otherwise
+	 */
+	public boolean isSelectForUpdate()
+	{
+		return this.scan.isSelectForUpdate();
+	}
+}
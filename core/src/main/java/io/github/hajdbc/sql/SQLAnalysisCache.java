@@ -0,0 +1,164 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.IdentityColumnSupport;
+import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.Dialect;
+import io.github.hajdbc.dialect.SQLFunction;
+import io.github.hajdbc.dialect.SQLScan;
+
+/**
+ * Bounded, concurrent cache of SQL analysis results, keyed by raw SQL.
+ * Once the cache reaches its capacity, an arbitrary entry is evicted for each new entry.
+ * @author Paul Ferraro
+ */
+public class SQLAnalysisCache
+{
+	public static final int DEFAULT_CAPACITY = 1000;
+	
+	private final DatabaseCluster<?, ?> cluster;
+	private final int capacity;
+	private final ConcurrentMap<String, SQLAnalysis> analyses = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	
+	public SQLAnalysisCache(DatabaseCluster<?, ?> cluster)
+	{
+		this(cluster, DEFAULT_CAPACITY);
+	}
+	
+	public SQLAnalysisCache(DatabaseCluster<?, ?> cluster, int capacity)
+	{
+		this.cluster = cluster;
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Returns the analysis of the specified SQL statement, analyzing it if necessary.
+	 * @param sql a SQL statement
+	 * @return a SQL analysis
+	 * @throws SQLException if the statement could not be analyzed
+	 */
+	public SQLAnalysis analyze(String sql) throws SQLException
+	{
+		SQLAnalysis analysis = this.analyses.get(sql);
+		
+		if (analysis != null)
+		{
+			this.hits.increment();
+			return analysis;
+		}
+		
+		this.misses.increment();
+		
+		analysis = this.createAnalysis(sql);
+		
+		if (this.analyses.size() >= this.capacity)
+		{
+			Iterator<String> keys = this.analyses.keySet().iterator();
+			if (keys.hasNext())
+			{
+				keys.next();
+				keys.remove();
+			}
+		}
+		
+		SQLAnalysis existing = this.analyses.putIfAbsent(sql, analysis);
+		
+		return (existing != null) ? existing : analysis;
+	}
+	
+	private SQLAnalysis createAnalysis(String sql) throws SQLException
+	{
+		Dialect dialect = this.cluster.getDialect();
+		SQLScan scan = dialect.scan(sql);
+		
+		// Parse via the dialect's support objects, which may be customized independently of the scan
+		// The standard dialect reuses the above scan, rather than tokenizing the statement again
+		SequenceSupport sequenceSupport = this.cluster.isSequenceDetectionEnabled() ? dialect.getSequenceSupport() : null;
+		IdentityColumnSupport identityColumnSupport = this.cluster.isIdentityColumnDetectionEnabled() ? dialect.getIdentityColumnSupport() : null;
+		String sequence = (sequenceSupport != null) ? sequenceSupport.parseSequence(sql) : null;
+		String insertTable = (identityColumnSupport != null) ? identityColumnSupport.parseInsertTable(sql) : null;
+		
+		Set<SQLFunction> functions = EnumSet.noneOf(SQLFunction.class);
+		if (this.cluster.isCurrentTimestampEvaluationEnabled())
+		{
+			functions.add(SQLFunction.CURRENT_TIMESTAMP);
+		}
+		if (this.cluster.isCurrentDateEvaluationEnabled())
+		{
+			functions.add(SQLFunction.CURRENT_DATE);
+		}
+		if (this.cluster.isCurrentTimeEvaluationEnabled())
+		{
+			functions.add(SQLFunction.CURRENT_TIME);
+		}
+		if (this.cluster.isRandEvaluationEnabled())
+		{
+			functions.add(SQLFunction.RAND);
+		}
+		
+		return new SQLAnalysis(scan, scan.invokes(functions) ? functions : Collections.<SQLFunction>emptySet(), sequence, insertTable);
+	}
+	
+	/**
+	 * Removes all cached analyses.
+	 */
+	public void clear()
+	{
+		this.analyses.clear();
+	}
+	
+	/**
+	 * Returns the number of cached analyses.
+	 * @return the cache size
+	 */
+	public int size()
+	{
+		return this.analyses.size();
+	}
+	
+	/**
+	 * Returns the number of analyses returned from this cache.
+	 * @return the number of cache hits
+	 */
+	public long getHits()
+	{
+		return this.hits.sum();
+	}
+	
+	/**
+	 * Returns the number of analyses not found in this cache.
+	 * @return the number of cache misses
+	 */
+	public long getMisses()
+	{
+		return this.misses.sum();
+	}
+}
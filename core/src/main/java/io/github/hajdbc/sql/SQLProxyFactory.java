@@ -30,7 +30,7 @@ import io.github.hajdbc.Database;
  */
 public interface SQLProxyFactory<Z, D extends Database<Z>, P, T> extends TransactionalProxyFactory<Z, D, P, T>
 {
-	String evaluate(final String sql);
+	String evaluate(final String sql) throws SQLException;
 	
 	List<Lock> extractLocks(String sql) throws SQLException;
 	
@@ -35,6 +35,12 @@ public class SimpleExecutorServiceProvider implements ExecutorServiceProvider
 		this.executor = executor;
 	}
 	
+	@Override
+	public String getId()
+	{
+		return "simple";
+	}
+
 	@Override
 	public ExecutorService getExecutor(ThreadFactory threadFactory)
 	{
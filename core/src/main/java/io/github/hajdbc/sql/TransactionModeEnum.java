@@ -21,6 +21,7 @@ import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 
 import io.github.hajdbc.TransactionMode;
+import io.github.hajdbc.util.concurrent.CallerRunsExecutor;
 import io.github.hajdbc.util.concurrent.SynchronousExecutor;
 
 /**
@@ -28,21 +29,40 @@ import io.github.hajdbc.util.concurrent.SynchronousExecutor;
  */
 public enum TransactionModeEnum implements TransactionMode
 {
-	PARALLEL(false),
-	SERIAL(true),
-	;
-	private final boolean synchronous;
-	
-	private TransactionModeEnum(boolean synchronous)
+	PARALLEL
 	{
-		this.synchronous = synchronous;
-	}
-	
-	@Override
-	public ExecutorService getTransactionExecutor(ExecutorService executor, boolean end)
+		@Override
+		public ExecutorService getTransactionExecutor(ExecutorService executor, boolean end)
+		{
+			return executor;
+		}
+	},
+	SERIAL
 	{
-		return this.synchronous ? new SynchronousExecutor(executor, end) : executor;
-	}
+		@Override
+		public ExecutorService getTransactionExecutor(ExecutorService executor, boolean end)
+		{
+			return new SynchronousExecutor(executor, end);
+		}
+	},
+	/**
+	 * Like {@link #PARALLEL}, but executes the first invocation of every fan-out in the calling thread.
+	 */
+	HYBRID
+	{
+		@Override
+		public ExecutorService getTransactionExecutor(ExecutorService executor, boolean end)
+		{
+			return new CallerRunsExecutor(executor);
+		}
+
+		@Override
+		public ExecutorService getExecutor(ExecutorService executor)
+		{
+			return new CallerRunsExecutor(executor);
+		}
+	},
+	;
 
 	@Override
 	public String toString()
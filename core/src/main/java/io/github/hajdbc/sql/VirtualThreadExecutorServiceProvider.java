@@ -0,0 +1,119 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import io.github.hajdbc.ExecutorServiceProvider;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+
+/**
+ * Executor service provider that runs each task on a new virtual thread, if supported by the runtime (i.e. Java 21+).
+ * Since invocations against each database are blocking I/O, they need not occupy a platform thread while waiting.
+ * Otherwise, behaves like {@link DefaultExecutorServiceProvider}.
+ * @author Paul Ferraro
+ */
+public class VirtualThreadExecutorServiceProvider implements ExecutorServiceProvider, Serializable
+{
+	private static final long serialVersionUID = -1805036683316225736L;
+	
+	static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutorServiceProvider.class);
+	
+	// Resolved reflectively, since this module targets Java 8
+	private static final MethodHandle virtualThreadFactory = findVirtualThreadFactory();
+	private static final MethodHandle threadPerTaskExecutor = findThreadPerTaskExecutor();
+
+	private static MethodHandle findVirtualThreadFactory()
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualBuilderClass));
+			MethodHandle name = lookup.findVirtual(virtualBuilderClass, "name", MethodType.methodType(virtualBuilderClass, String.class, Long.TYPE));
+			MethodHandle factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+			// (String, long) -> ThreadFactory, i.e. Thread.ofVirtual().name(prefix, start).factory()
+			return MethodHandles.filterReturnValue(MethodHandles.foldArguments(name, MethodHandles.dropArguments(ofVirtual, 0, String.class, Long.TYPE)), factory.asType(MethodType.methodType(ThreadFactory.class, virtualBuilderClass)));
+		}
+		catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e)
+		{
+			return null;
+		}
+	}
+
+	private static MethodHandle findThreadPerTaskExecutor()
+	{
+		try
+		{
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Indicates whether the current runtime supports virtual threads.
+	 * @return true, if virtual threads are supported, false otherwise.
+	 */
+	public static boolean isSupported()
+	{
+		return (virtualThreadFactory != null) && (threadPerTaskExecutor != null);
+	}
+
+	@Override
+	public String getId()
+	{
+		return "virtual";
+	}
+
+	@Override
+	public ExecutorService getExecutor(ThreadFactory threadFactory)
+	{
+		if (isSupported())
+		{
+			try
+			{
+				ThreadFactory factory = (ThreadFactory) virtualThreadFactory.invokeExact("ha-jdbc-", 0L);
+				return (ExecutorService) threadPerTaskExecutor.invokeExact(factory);
+			}
+			catch (Throwable e)
+			{
+				logger.log(Level.WARN, e);
+			}
+		}
+		logger.log(Level.INFO, "Virtual threads are not supported by this runtime, using platform threads instead");
+		return Executors.newCachedThreadPool(threadFactory);
+	}
+
+	@Override
+	public void release(ExecutorService executor)
+	{
+		executor.shutdown();
+	}
+}
@@ -17,8 +17,8 @@
  */
 package io.github.hajdbc.state;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import io.github.hajdbc.ExceptionType;
 import io.github.hajdbc.durability.Durability;
@@ -27,20 +27,20 @@ import io.github.hajdbc.durability.DurabilityEventFactory;
 import io.github.hajdbc.durability.DurabilityListener;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerResult;
+import io.github.hajdbc.durability.InvokerResults;
 import io.github.hajdbc.tx.TransactionIdentifierFactory;
-import io.github.hajdbc.util.Objects;
 
 /**
  * @author Paul Ferraro
  */
 public class DurabilityListenerAdapter implements DurabilityListener, SerializedDurabilityEventFactory
 {
-	// TODO prevent memory leak
-	// Cache serialized transaction identifiers
-	private final ConcurrentMap<Object, byte[]> transactionIdentifiers = new ConcurrentHashMap<>();
 	private final SerializedDurabilityListener listener;
 	private final TransactionIdentifierFactory<Object> txIdFactory;
 	private final DurabilityEventFactory eventFactory;
+	// Serialized transaction ids of recovered invocations that were persisted at a different size, i.e. by an earlier version
+	private final Map<DurabilityEvent, byte[]> recoveredTransactionIds = new ConcurrentHashMap<>();
 
 	@SuppressWarnings("unchecked")
 	public DurabilityListenerAdapter(SerializedDurabilityListener listener, TransactionIdentifierFactory<? extends Object> txIdFactory, DurabilityEventFactory eventFactory)
@@ -53,35 +53,39 @@ public class DurabilityListenerAdapter implements DurabilityListener, Serialized
 	@Override
 	public void beforeInvocation(InvocationEvent event)
 	{
-		Object transactionId = event.getTransactionId();
-		byte[] txId = this.txIdFactory.serialize(transactionId);
-		
-		this.transactionIdentifiers.put(transactionId, txId);
-		this.listener.beforeInvocation(txId, (byte) event.getPhase().ordinal(), (byte) event.getExceptionType().ordinal());
+		this.listener.beforeInvocation(this.txIdFactory.serialize(event.getTransactionId()), (byte) event.getPhase().ordinal(), (byte) event.getExceptionType().ordinal());
 	}
 
 	@Override
 	public void afterInvocation(InvocationEvent event)
 	{
-		this.listener.afterInvocation(this.transactionIdentifiers.remove(event.getTransactionId()), (byte) event.getPhase().ordinal());
+		// Remove recovered invocations using the key under which they were stored
+		byte[] transactionId = this.recoveredTransactionIds.remove(event);
+		this.listener.afterInvocation((transactionId != null) ? transactionId : this.txIdFactory.serialize(event.getTransactionId()), (byte) event.getPhase().ordinal());
 	}
 
 	@Override
 	public void beforeInvoker(InvokerEvent event)
 	{
-		this.listener.beforeInvoker(this.transactionIdentifiers.get(event.getTransactionId()), (byte) event.getPhase().ordinal(), event.getDatabaseId());
+		this.listener.beforeInvoker(this.txIdFactory.serialize(event.getTransactionId()), (byte) event.getPhase().ordinal(), event.getDatabaseId());
 	}
 
 	@Override
 	public void afterInvoker(InvokerEvent event)
 	{
-		this.listener.afterInvoker(this.transactionIdentifiers.get(event.getTransactionId()), (byte) event.getPhase().ordinal(), event.getDatabaseId(), Objects.serialize(event.getResult()));
+		this.listener.afterInvoker(this.txIdFactory.serialize(event.getTransactionId()), (byte) event.getPhase().ordinal(), event.getDatabaseId(), InvokerResults.serialize(event.getResult()));
 	}
 
 	@Override
 	public InvocationEvent createInvocationEvent(byte[] transactionId, byte phase, byte exceptionType)
 	{
-		return this.eventFactory.createInvocationEvent(this.txIdFactory.deserialize(transactionId), Durability.Phase.values()[phase], ExceptionType.values()[exceptionType]);
+		InvocationEvent event = this.eventFactory.createInvocationEvent(this.txIdFactory.deserialize(transactionId), Durability.Phase.values()[phase], ExceptionType.values()[exceptionType]);
+		if (transactionId.length != this.txIdFactory.size())
+		{
+			// Padded to a larger size by an earlier version, so the id no longer serializes to its stored key
+			this.recoveredTransactionIds.put(event, transactionId);
+		}
+		return event;
 	}
 
 	@Override
@@ -89,4 +93,10 @@ public class DurabilityListenerAdapter implements DurabilityListener, Serialized
 	{
 		return this.eventFactory.createEvent(this.txIdFactory.deserialize(transactionId), Durability.Phase.values()[phase]);
 	}
+
+	@Override
+	public InvokerResult createInvokerResult(byte[] result)
+	{
+		return InvokerResults.deserialize(result);
+	}
 }
\ No newline at end of file
@@ -19,10 +19,13 @@ package io.github.hajdbc.state;
 
 import io.github.hajdbc.durability.DurabilityEvent;
 import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvokerResult;
 
 public interface SerializedDurabilityEventFactory
 {
 	DurabilityEvent createEvent(byte[] transactionId, byte phase);
 
 	InvocationEvent createInvocationEvent(byte[] transactionId, byte phase, byte exceptionType);
+
+	InvokerResult createInvokerResult(byte[] result);
 }
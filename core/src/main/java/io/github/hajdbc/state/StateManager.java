@@ -19,6 +19,7 @@ package io.github.hajdbc.state;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import io.github.hajdbc.DatabaseClusterListener;
 import io.github.hajdbc.Lifecycle;
@@ -39,6 +40,20 @@ public interface StateManager extends DatabaseClusterListener, DurabilityListene
 	void setActiveDatabases(Set<String> databases);
 	
 	Map<InvocationEvent, Map<String, InvokerEvent>> recover();
+
+	/**
+	 * Streams the invocations to recover to the specified consumer, one invocation at a time.
+	 * The default implementation iterates over the result of {@link #recover()}.
+	 * Implementations are encouraged to override this method to avoid materializing their entire state.
+	 * @param consumer a consumer of an invocation and its invokers, mapped by database identifier
+	 */
+	default void recover(BiConsumer<InvocationEvent, Map<String, InvokerEvent>> consumer)
+	{
+		for (Map.Entry<InvocationEvent, Map<String, InvokerEvent>> entry: this.recover().entrySet())
+		{
+			consumer.accept(entry.getKey(), entry.getValue());
+		}
+	}
 	
 	boolean isEnabled();
 }
@@ -26,8 +26,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
@@ -39,6 +41,8 @@ import io.github.hajdbc.distributed.Member;
 import io.github.hajdbc.distributed.MembershipListener;
 import io.github.hajdbc.distributed.Remote;
 import io.github.hajdbc.distributed.Stateful;
+import io.github.hajdbc.durability.DurabilityEvent;
+import io.github.hajdbc.durability.DurabilityEventImpl;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
 import io.github.hajdbc.logging.Level;
@@ -50,6 +54,9 @@ import io.github.hajdbc.state.DatabaseEvent;
 import io.github.hajdbc.state.StateManager;
 
 /**
+ * State manager that replicates state and durability events to the other members of the cluster.
+ * When pipelined, invoker events are replicated asynchronously, in order, per invocation;
+ * only the invocation boundaries wait for the acknowledgement of the cluster.
  * @author Paul Ferraro
  */
 public class DistributedStateManager<Z, D extends Database<Z>> implements StateManager, StateCommandContext<Z, D>, MembershipListener, Stateful, Remote
@@ -61,10 +68,18 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 	private final StateManager stateManager;
 	private final CommandDispatcher<StateCommandContext<Z, D>> dispatcher;
 	private final ConcurrentMap<Member, Map<InvocationEvent, Map<String, InvokerEvent>>> remoteInvokerMap = new ConcurrentHashMap<>();
+	private final ConcurrentMap<DurabilityEvent, CompletableFuture<Void>> pipelines = new ConcurrentHashMap<>();
+	private final boolean pipelined;
 	
 	public DistributedStateManager(DatabaseCluster<Z, D> cluster, CommandDispatcherFactory dispatcherFactory) throws Exception
+	{
+		this(cluster, dispatcherFactory, false);
+	}
+
+	public DistributedStateManager(DatabaseCluster<Z, D> cluster, CommandDispatcherFactory dispatcherFactory, boolean pipelined) throws Exception
 	{
 		this.cluster = cluster;
+		this.pipelined = pipelined;
 		this.stateManager = cluster.getStateManager();
 		StateCommandContext<Z, D> context = this;
 		this.dispatcher = dispatcherFactory.createCommandDispatcher(cluster.getId() + ".state", context, this, this);
@@ -106,6 +121,15 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 	public void afterInvocation(InvocationEvent event)
 	{
 		this.stateManager.afterInvocation(event);
+		if (this.pipelined)
+		{
+			// Ensure all invoker events of this invocation were replicated before completing it
+			CompletableFuture<Void> pipeline = this.pipelines.remove(createPipelineKey(event));
+			if (pipeline != null)
+			{
+				pipeline.join();
+			}
+		}
 		this.execute(new PostInvocationCommand<Z, D>(this.getRemoteDescriptor(event)));
 	}
 
@@ -113,7 +137,7 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 	public void afterInvoker(InvokerEvent event)
 	{
 		this.stateManager.afterInvoker(event);
-		this.execute(new InvokerCommand<Z, D>(this.getRemoteDescriptor(event)));
+		this.replicate(event, new InvokerCommand<Z, D>(this.getRemoteDescriptor(event)));
 	}
 
 	@Override
@@ -127,27 +151,47 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 	public void beforeInvoker(InvokerEvent event)
 	{
 		this.stateManager.beforeInvoker(event);
-		this.execute(new InvokerCommand<Z, D>(this.getRemoteDescriptor(event)));
+		this.replicate(event, new InvokerCommand<Z, D>(this.getRemoteDescriptor(event)));
 	}
 
-	private <R> void execute(Command<R, StateCommandContext<Z, D>> command)
+	/**
+	 * Replicates the specified invoker command, asynchronously if pipelined.
+	 * Invoker commands are delivered in the order they were sent, so pipelined commands of the same invocation need not wait for each other.
+	 */
+	private void replicate(InvokerEvent event, Command<Void, StateCommandContext<Z, D>> command)
 	{
-		try
+		if (!this.pipelined)
 		{
-			Map<Member, CommandResponse<R>> responses = this.dispatcher.executeAll(command, this.dispatcher.getLocal());
-			
-			for (Map.Entry<Member, CommandResponse<R>> entry: responses.entrySet())
+			this.execute(command);
+			return;
+		}
+
+		CompletableFuture<Void> future = this.dispatcher.executeAllAsync(command, this.dispatcher.getLocal()).handle((responses, e) ->
+		{
+			if (e != null)
+			{
+				this.logger.log(Level.WARN, e, "Failed to send {0} to cluster", command);
+			}
+			else
 			{
-				Member member = entry.getKey();
-				try
-				{
-					entry.getValue().get();
-				}
-				catch (Exception e)
-				{
-					this.logger.log(Level.WARN, e, "Failed to execute {0} on {1}", command, member);
-				}
+				this.verify(command, responses);
 			}
+			return null;
+		});
+
+		this.pipelines.merge(createPipelineKey(event), future, (pipeline, next) -> CompletableFuture.allOf(pipeline, next));
+	}
+
+	private static DurabilityEvent createPipelineKey(DurabilityEvent event)
+	{
+		return new DurabilityEventImpl(event.getTransactionId(), event.getPhase());
+	}
+
+	private <R> void execute(Command<R, StateCommandContext<Z, D>> command)
+	{
+		try
+		{
+			this.verify(command, this.dispatcher.executeAll(command, this.dispatcher.getLocal()));
 		}
 		catch (Exception e)
 		{
@@ -155,6 +199,22 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 		}
 	}
 
+	private <R> void verify(Command<R, StateCommandContext<Z, D>> command, Map<Member, CommandResponse<R>> responses)
+	{
+		for (Map.Entry<Member, CommandResponse<R>> entry: responses.entrySet())
+		{
+			Member member = entry.getKey();
+			try
+			{
+				entry.getValue().get();
+			}
+			catch (Exception e)
+			{
+				this.logger.log(Level.WARN, e, "Failed to execute {0} on {1}", command, member);
+			}
+		}
+	}
+
 	private RemoteInvocationDescriptor getRemoteDescriptor(InvocationEvent event)
 	{
 		return new RemoteInvocationDescriptorImpl(event, this.dispatcher.getLocal());
@@ -175,6 +235,11 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 	@Override
 	public void stop()
 	{
+		for (CompletableFuture<Void> pipeline: this.pipelines.values())
+		{
+			pipeline.join();
+		}
+		this.pipelines.clear();
 		this.dispatcher.stop();
 		this.stateManager.stop();
 	}
@@ -261,7 +326,13 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 		return this.stateManager.recover();
 	}
 
-	private static class RemoteDescriptor implements Remote, Serializable
+	@Override
+	public void recover(BiConsumer<InvocationEvent, Map<String, InvokerEvent>> consumer)
+	{
+		this.stateManager.recover(consumer);
+	}
+
+	static class RemoteDescriptor implements Remote, Serializable
 	{
 		private static final long serialVersionUID = 3717630867671175936L;
 		
@@ -279,7 +350,7 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 		}
 	}
 	
-	private static class RemoteInvocationDescriptorImpl extends RemoteDescriptor implements RemoteInvocationDescriptor
+	static class RemoteInvocationDescriptorImpl extends RemoteDescriptor implements RemoteInvocationDescriptor
 	{
 		private static final long serialVersionUID = 7782082258670023082L;
 		
@@ -305,7 +376,7 @@ public class DistributedStateManager<Z, D extends Database<Z>> implements StateM
 		}
 	}
 	
-	private static class RemoteInvokerDescriptorImpl extends RemoteDescriptor implements RemoteInvokerDescriptor
+	static class RemoteInvokerDescriptorImpl extends RemoteDescriptor implements RemoteInvokerDescriptor
 	{
 		private static final long serialVersionUID = 6991831573393882786L;
 		
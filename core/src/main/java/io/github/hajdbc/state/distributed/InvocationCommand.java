@@ -21,6 +21,7 @@ import java.util.Map;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.DeliveryOptions;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
 
@@ -51,6 +52,20 @@ public abstract class InvocationCommand<Z, D extends Database<Z>> implements Com
 		return null;
 	}
 
+	/**
+	 * Durability events are high volume, and must be executed in the order they were sent.
+	 */
+	@Override
+	public DeliveryOptions getDeliveryOptions()
+	{
+		return DeliveryOptions.BUNDLED;
+	}
+
+	RemoteInvocationDescriptor getDescriptor()
+	{
+		return this.descriptor;
+	}
+
 	protected abstract void execute(Map<InvocationEvent, Map<String, InvokerEvent>> invokers, InvocationEvent event);
 
 	@Override
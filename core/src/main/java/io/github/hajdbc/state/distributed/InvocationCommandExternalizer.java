@@ -0,0 +1,135 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.distributed;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.distributed.CommandExternalizer;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * Base externalizer for invocation commands, written as <code>[transaction id][phase][exception type]</code>.
+ * @author Paul Ferraro
+ * @param <C> the command type
+ */
+public abstract class InvocationCommandExternalizer<C extends InvocationCommand<?, ?>> implements CommandExternalizer<C>
+{
+	// Transaction identifier types
+	private static final byte UUID_TRANSACTION_ID = 0;
+	private static final byte LONG_TRANSACTION_ID = 1;
+	private static final byte SERIALIZED_TRANSACTION_ID = 2;
+
+	private final byte id;
+	private final Class<C> targetClass;
+
+	@SuppressWarnings("unchecked")
+	protected InvocationCommandExternalizer(byte id, Class<?> targetClass)
+	{
+		this.id = id;
+		this.targetClass = (Class<C>) targetClass;
+	}
+
+	protected abstract C createCommand(RemoteInvocationDescriptor descriptor);
+
+	@Override
+	public byte getId()
+	{
+		return this.id;
+	}
+
+	@Override
+	public Class<C> getTargetClass()
+	{
+		return this.targetClass;
+	}
+
+	@Override
+	public void writeObject(DataOutput output, C command) throws IOException
+	{
+		InvocationEvent event = command.getDescriptor().getEvent();
+		writeTransactionId(output, event.getTransactionId());
+		output.writeByte(event.getPhase().ordinal());
+		output.writeByte(event.getExceptionType().ordinal());
+	}
+
+	@Override
+	public C readObject(DataInput input, Member source) throws IOException
+	{
+		Object txId = readTransactionId(input);
+		Durability.Phase phase = Durability.Phase.values()[input.readByte()];
+		ExceptionType exceptionType = ExceptionType.values()[input.readByte()];
+		return this.createCommand(new DistributedStateManager.RemoteInvocationDescriptorImpl(new InvocationEventImpl(txId, phase, exceptionType), source));
+	}
+
+	static void writeTransactionId(DataOutput output, Object txId) throws IOException
+	{
+		if (txId instanceof UUID)
+		{
+			UUID uuid = (UUID) txId;
+			output.writeByte(UUID_TRANSACTION_ID);
+			output.writeLong(uuid.getMostSignificantBits());
+			output.writeLong(uuid.getLeastSignificantBits());
+		}
+		else if (txId instanceof Long)
+		{
+			output.writeByte(LONG_TRANSACTION_ID);
+			output.writeLong(((Long) txId).longValue());
+		}
+		else
+		{
+			byte[] bytes = Objects.serialize(txId);
+			output.writeByte(SERIALIZED_TRANSACTION_ID);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	static Object readTransactionId(DataInput input) throws IOException
+	{
+		byte type = input.readByte();
+		switch (type)
+		{
+			case UUID_TRANSACTION_ID:
+			{
+				return new UUID(input.readLong(), input.readLong());
+			}
+			case LONG_TRANSACTION_ID:
+			{
+				return Long.valueOf(input.readLong());
+			}
+			case SERIALIZED_TRANSACTION_ID:
+			{
+				byte[] bytes = new byte[input.readInt()];
+				input.readFully(bytes);
+				return Objects.deserialize(bytes, Object.class);
+			}
+			default:
+			{
+				throw new IOException(String.format("Unexpected transaction identifier type: %d", type));
+			}
+		}
+	}
+}
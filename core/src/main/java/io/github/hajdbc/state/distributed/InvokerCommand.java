@@ -21,6 +21,7 @@ import java.util.Map;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.DeliveryOptions;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvocationEventAdapter;
 import io.github.hajdbc.durability.InvokerEvent;
@@ -57,6 +58,20 @@ public class InvokerCommand<Z, D extends Database<Z>> implements Command<Void, S
 		return null;
 	}
 
+	/**
+	 * Durability events are high volume, and must be executed in the order they were sent.
+	 */
+	@Override
+	public DeliveryOptions getDeliveryOptions()
+	{
+		return DeliveryOptions.BUNDLED;
+	}
+
+	RemoteInvokerDescriptor getDescriptor()
+	{
+		return this.descriptor;
+	}
+
 	@Override
 	public String toString()
 	{
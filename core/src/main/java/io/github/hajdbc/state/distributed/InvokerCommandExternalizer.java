@@ -0,0 +1,85 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.distributed;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import io.github.hajdbc.distributed.CommandExternalizer;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+import io.github.hajdbc.durability.InvokerResults;
+
+/**
+ * Externalizer for {@link InvokerCommand}, written as <code>[transaction id][phase][database id][result length][result]</code>,
+ * where the result is encoded via {@link InvokerResults}, and a length of -1 indicates no result.
+ * @author Paul Ferraro
+ */
+public class InvokerCommandExternalizer implements CommandExternalizer<InvokerCommand<?, ?>>
+{
+	@Override
+	public byte getId()
+	{
+		return 3;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Class<InvokerCommand<?, ?>> getTargetClass()
+	{
+		return (Class<InvokerCommand<?, ?>>) (Class<?>) InvokerCommand.class;
+	}
+
+	@Override
+	public void writeObject(DataOutput output, InvokerCommand<?, ?> command) throws IOException
+	{
+		InvokerEvent event = command.getDescriptor().getEvent();
+		InvocationCommandExternalizer.writeTransactionId(output, event.getTransactionId());
+		output.writeByte(event.getPhase().ordinal());
+		output.writeUTF(event.getDatabaseId());
+		byte[] result = InvokerResults.serialize(event.getResult());
+		if (result != null)
+		{
+			output.writeInt(result.length);
+			output.write(result);
+		}
+		else
+		{
+			output.writeInt(-1);
+		}
+	}
+
+	@Override
+	public InvokerCommand<?, ?> readObject(DataInput input, Member source) throws IOException
+	{
+		Object txId = InvocationCommandExternalizer.readTransactionId(input);
+		Durability.Phase phase = Durability.Phase.values()[input.readByte()];
+		InvokerEvent event = new InvokerEventImpl(txId, phase, input.readUTF());
+		int length = input.readInt();
+		if (length >= 0)
+		{
+			byte[] result = new byte[length];
+			input.readFully(result);
+			event.setResult(InvokerResults.deserialize(result));
+		}
+		return new InvokerCommand<>(new DistributedStateManager.RemoteInvokerDescriptorImpl(event, source));
+	}
+}
@@ -20,15 +20,21 @@ package io.github.hajdbc.state.sql;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.text.MessageFormat;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseBuilder;
@@ -44,7 +50,6 @@ import io.github.hajdbc.durability.DurabilityEvent;
 import io.github.hajdbc.durability.DurabilityEventFactory;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
-import io.github.hajdbc.durability.InvokerResult;
 import io.github.hajdbc.logging.Level;
 import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
@@ -57,7 +62,6 @@ import io.github.hajdbc.state.DatabaseEvent;
 import io.github.hajdbc.state.DurabilityListenerAdapter;
 import io.github.hajdbc.state.SerializedDurabilityListener;
 import io.github.hajdbc.state.StateManager;
-import io.github.hajdbc.util.Objects;
 import io.github.hajdbc.util.ServiceLoaders;
 
 /**
@@ -88,10 +92,15 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 	static final String INSERT_INVOKER_SQL = MessageFormat.format("INSERT INTO {0} ({1}, {2}, {3}) VALUES (?, ?, ?)", INVOKER_TABLE, TRANSACTION_COLUMN, PHASE_COLUMN, DATABASE_COLUMN);
 	static final String UPDATE_INVOKER_SQL = MessageFormat.format("UPDATE {0} SET {4} = ? WHERE {1} = ? AND {2} = ? AND {3} = ?", INVOKER_TABLE, TRANSACTION_COLUMN, PHASE_COLUMN, DATABASE_COLUMN, RESULT_COLUMN);
 	static final String DELETE_INVOKER_SQL = MessageFormat.format("DELETE FROM {0} WHERE {1} = ? AND {2} = ?", INVOKER_TABLE, TRANSACTION_COLUMN, PHASE_COLUMN);
+	static final String SELECT_TRANSACTION_ID_SQL = MessageFormat.format("SELECT {1} FROM {0} WHERE 1 = 0", INVOCATION_TABLE, TRANSACTION_COLUMN);
+	static final String SELECT_RECOVERY_SQL = MessageFormat.format("SELECT i.{2}, i.{3}, i.{4}, v.{5}, v.{6} FROM {0} i LEFT OUTER JOIN {1} v ON (i.{2} = v.{2} AND i.{3} = v.{3}) ORDER BY i.{2}, i.{3}", INVOCATION_TABLE, INVOKER_TABLE, TRANSACTION_COLUMN, PHASE_COLUMN, EXCEPTION_COLUMN, DATABASE_COLUMN, RESULT_COLUMN);
+	static final String SELECT_RECOVERY_AFTER_SQL = MessageFormat.format("SELECT i.{2}, i.{3}, i.{4}, v.{5}, v.{6} FROM {0} i LEFT OUTER JOIN {1} v ON (i.{2} = v.{2} AND i.{3} = v.{3}) WHERE i.{2} > ? OR (i.{2} = ? AND i.{3} > ?) ORDER BY i.{2}, i.{3}", INVOCATION_TABLE, INVOKER_TABLE, TRANSACTION_COLUMN, PHASE_COLUMN, EXCEPTION_COLUMN, DATABASE_COLUMN, RESULT_COLUMN);
 
 	private static final String CREATE_INVOCATION_SQL = MessageFormat.format("CREATE TABLE {0} ({1} {2} NOT NULL, {3} {4} NOT NULL, {5} {6} NOT NULL, PRIMARY KEY ({1}, {3}))", INVOCATION_TABLE, TRANSACTION_COLUMN, "{0}", PHASE_COLUMN, "{1}", EXCEPTION_COLUMN, "{2}");
 	private static final String CREATE_INVOKER_SQL = MessageFormat.format("CREATE TABLE {0} ({1} {2} NOT NULL, {3} {4} NOT NULL, {5} {6} NOT NULL, {7} {8}, PRIMARY KEY ({1}, {3}, {5}))", INVOKER_TABLE, TRANSACTION_COLUMN, "{0}", PHASE_COLUMN, "{1}", DATABASE_COLUMN, "{2}", RESULT_COLUMN, "{3}");
 	private static final String CREATE_STATE_SQL = MessageFormat.format("CREATE TABLE {0} ({1} {2} NOT NULL, PRIMARY KEY ({1}))", STATE_TABLE, DATABASE_COLUMN, "{0}");
+	// Maximum number of invocations read per recovery cursor
+	static final int RECOVERY_BATCH_SIZE = 100;
 	
 	private static Logger logger = LoggerFactory.getLogger(SQLStateManager.class);
 	
@@ -101,7 +110,13 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 	private final PoolFactory poolFactory;
 	private final DriverDatabase database;
 	
-	private Pool<Connection, SQLException> pool;
+	// Entries awaiting group commit - also guards the commit state
+	private final List<DurabilityEntry> durabilityQueue = new ArrayList<>();
+	private boolean committing = false;
+	// Width of the transaction id column, if fixed, otherwise 0
+	private volatile int transactionIdSize = 0;
+	
+	Pool<Connection, SQLException> pool;
 	
 	public SQLStateManager(DatabaseCluster<Z, D> cluster, DriverDatabase database, PoolFactory poolFactory)
 	{
@@ -246,25 +261,53 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 	@Override
 	public void beforeInvocation(final byte[] transactionId, final byte phase, final byte exceptionType)
 	{
-		Transaction transaction = new Transaction()
+		this.persist(new DurabilityOperation(DurabilityStatement.INSERT_INVOCATION, statement ->
 		{
-			@Override
-			public void execute(Connection connection) throws SQLException
-			{
-				try (PreparedStatement statement = connection.prepareStatement(INSERT_INVOCATION_SQL))
-				{
-					statement.setBytes(1, transactionId);
-					statement.setByte(2, phase);
-					statement.setByte(3, exceptionType);
-					
-					statement.executeUpdate();
-				}
-			}
+			SQLStateManager.this.setTransactionId(statement, 1, transactionId);
+			statement.setByte(2, phase);
+			statement.setByte(3, exceptionType);
+		}));
+	}
+
+	@Override
+	public void afterInvocation(final byte[] transactionId, final byte phase)
+	{
+		DurabilityParameters parameters = statement ->
+		{
+			SQLStateManager.this.setTransactionId(statement, 1, transactionId);
+			statement.setByte(2, phase);
 		};
-		
+		this.persist(new DurabilityOperation(DurabilityStatement.DELETE_INVOKER, parameters), new DurabilityOperation(DurabilityStatement.DELETE_INVOCATION, parameters));
+	}
+
+	@Override
+	public void beforeInvoker(final byte[] transactionId, final byte phase, final String databaseId)
+	{
+		this.persist(new DurabilityOperation(DurabilityStatement.INSERT_INVOKER, statement ->
+		{
+			SQLStateManager.this.setTransactionId(statement, 1, transactionId);
+			statement.setByte(2, phase);
+			statement.setString(3, databaseId);
+		}));
+	}
+
+	@Override
+	public void afterInvoker(final byte[] transactionId, final byte phase, final String databaseId, final byte[] result)
+	{
+		this.persist(new DurabilityOperation(DurabilityStatement.UPDATE_INVOKER, statement ->
+		{
+			statement.setBytes(1, result);
+			SQLStateManager.this.setTransactionId(statement, 2, transactionId);
+			statement.setByte(3, phase);
+			statement.setString(4, databaseId);
+		}));
+	}
+
+	private void persist(DurabilityOperation... operations)
+	{
 		try
 		{
-			this.execute(transaction);
+			this.groupCommit(new DurabilityEntry(operations));
 		}
 		catch (SQLException e)
 		{
@@ -272,85 +315,144 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 		}
 	}
 
-	@Override
-	public void afterInvocation(final byte[] transactionId, final byte phase)
+	/**
+	 * Persists the specified entry via group commit.
+	 * Entries of concurrent callers are queued while a commit is in progress, and are subsequently committed together in a single transaction by one of the waiting callers.
+	 * Returns only after the entry was committed.
+	 * @throws SQLException if the entry could not be committed
+	 */
+	void groupCommit(DurabilityEntry entry) throws SQLException
 	{
-		Transaction transaction = new Transaction()
+		List<DurabilityEntry> entries = null;
+		boolean interrupted = false;
+		
+		synchronized (this.durabilityQueue)
 		{
-			@Override
-			public void execute(Connection connection) throws SQLException
+			this.durabilityQueue.add(entry);
+			
+			while (this.committing && !entry.isDone())
+			{
+				try
+				{
+					this.durabilityQueue.wait();
+				}
+				catch (InterruptedException e)
+				{
+					interrupted = true;
+				}
+			}
+			
+			// Our entry may have been committed by another caller
+			if (!entry.isDone())
 			{
-				SQLStateManager.this.execute(connection, DELETE_INVOKER_SQL, transactionId, phase);
-				SQLStateManager.this.execute(connection, DELETE_INVOCATION_SQL, transactionId, phase);
+				this.committing = true;
+				entries = new ArrayList<>(this.durabilityQueue);
+				this.durabilityQueue.clear();
 			}
-		};
+		}
 		
-		try
+		if (interrupted)
 		{
-			this.execute(transaction);
+			Thread.currentThread().interrupt();
 		}
-		catch (SQLException e)
+		
+		if (entries != null)
 		{
-			logger.log(Level.ERROR, e, e.getMessage());
+			try
+			{
+				this.commit(entries);
+			}
+			finally
+			{
+				synchronized (this.durabilityQueue)
+				{
+					for (DurabilityEntry committed: entries)
+					{
+						committed.done();
+					}
+					this.committing = false;
+					this.durabilityQueue.notifyAll();
+				}
+			}
+		}
+		
+		// Only the caller of a failed entry sees its exception
+		SQLException failure = entry.getFailure();
+		if (failure != null)
+		{
+			throw failure;
 		}
 	}
 
-	@Override
-	public void beforeInvoker(final byte[] transactionId, final byte phase, final String databaseId)
+	private void commit(final List<DurabilityEntry> entries)
 	{
-		Transaction transaction = new Transaction()
+		try
 		{
-			@Override
-			public void execute(Connection connection) throws SQLException
+			Transaction transaction = new Transaction()
 			{
-				try (PreparedStatement statement = connection.prepareStatement(INSERT_INVOKER_SQL))
+				@Override
+				public void execute(Connection connection) throws SQLException
 				{
-					statement.setBytes(1, transactionId);
-					statement.setByte(2, phase);
-					statement.setString(3, databaseId);
-					
-					statement.executeUpdate();
+					executeBatch(connection, entries);
 				}
-			}
-		};
-		
-		try
-		{
+			};
 			this.execute(transaction);
 		}
 		catch (SQLException e)
 		{
-			logger.log(Level.ERROR, e, e.getMessage());
+			if (entries.size() == 1)
+			{
+				entries.get(0).fail(e);
+			}
+			else
+			{
+				// Retry individually so that one bad entry does not discard the others
+				for (DurabilityEntry entry: entries)
+				{
+					this.commit(Collections.singletonList(entry));
+				}
+			}
 		}
 	}
 
-	@Override
-	public void afterInvoker(final byte[] transactionId, final byte phase, final String databaseId, final byte[] result)
+	/**
+	 * Executes the operations of the specified entries, using one JDBC batch per statement.
+	 * Statements are executed in lifecycle order, which yields the same result as executing the operations in the order they occurred.
+	 */
+	static void executeBatch(Connection connection, List<DurabilityEntry> entries) throws SQLException
 	{
-		Transaction transaction = new Transaction()
+		for (DurabilityStatement type: DurabilityStatement.values())
 		{
-			@Override
-			public void execute(Connection connection) throws SQLException
+			PreparedStatement statement = null;
+			try
 			{
-				try (PreparedStatement statement = connection.prepareStatement(UPDATE_INVOKER_SQL))
+				for (DurabilityEntry entry: entries)
 				{
-					statement.setBytes(1, result);
-					statement.setBytes(2, transactionId);
-					statement.setByte(3, phase);
-					statement.setString(4, databaseId);
-					
-					statement.executeUpdate();
+					for (DurabilityOperation operation: entry.getOperations())
+					{
+						if (operation.getStatement() == type)
+						{
+							if (statement == null)
+							{
+								statement = connection.prepareStatement(type.getSQL());
+							}
+							operation.getParameters().setParameters(statement);
+							statement.addBatch();
+						}
+					}
+				}
+				if (statement != null)
+				{
+					statement.executeBatch();
+				}
+			}
+			finally
+			{
+				if (statement != null)
+				{
+					statement.close();
 				}
 			}
-		};
-		
-		try
-		{
-			this.execute(transaction);
-		}
-		catch (SQLException e)
-		{
-			logger.log(Level.ERROR, e, e.getMessage());
 		}
 	}
 
@@ -366,17 +468,6 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 		this.listener.afterInvocation(event);
 	}
 	
-	void execute(Connection connection, String sql, byte[] transactionId, byte phase) throws SQLException 
-	{
-		try (PreparedStatement statement = connection.prepareStatement(sql))
-		{
-			statement.setBytes(1, transactionId);
-			statement.setByte(2, phase);
-			
-			statement.executeUpdate();
-		}
-	}
-
 	@Override
 	public Map<InvocationEvent, Map<String, InvokerEvent>> recover()
 	{
@@ -421,7 +512,7 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 								
 								if (!resultSet.wasNull())
 								{
-									invokerEvent.setResult(Objects.deserialize(bytes, InvokerResult.class));
+									invokerEvent.setResult(SQLStateManager.this.listener.createInvokerResult(bytes));
 								}
 								
 								invokers.put(databaseId, invokerEvent);
@@ -443,6 +534,111 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 			throw new IllegalStateException(e);
 		}
 	}
+
+	/**
+	 * Streams recovered invocations, in batches of up to {@value #RECOVERY_BATCH_SIZE}, via an ordered cursor over the invocation and invoker tables.
+	 * Each batch resumes after the last invocation of the previous batch.
+	 * The cursor is closed, and its transaction ended, before a batch is passed to the consumer,
+	 * since the consumer deletes recovered invocations via other connections, which would otherwise block on the read locks of the cursor in databases such as Derby and HSQLDB.
+	 * Supports the embedded databases of the default URL patterns, i.e. H2, HSQLDB and Derby, as well as any database that can compare binary values.
+	 */
+	@Override
+	public void recover(final BiConsumer<InvocationEvent, Map<String, InvokerEvent>> consumer)
+	{
+		final DurabilityEventFactory factory = this.cluster.getDurability();
+		final List<Map.Entry<InvocationEvent, Map<String, InvokerEvent>>> batch = new ArrayList<>(RECOVERY_BATCH_SIZE);
+
+		Query<Boolean> query = new Query<Boolean>()
+		{
+			// Key of the last invocation read, as stored
+			private byte[] lastTxId = null;
+			private byte lastPhase = 0;
+			
+			@Override
+			public Boolean execute(Connection connection) throws SQLException
+			{
+				boolean complete = true;
+				
+				try (PreparedStatement statement = connection.prepareStatement((this.lastTxId != null) ? SELECT_RECOVERY_AFTER_SQL : SELECT_RECOVERY_SQL))
+				{
+					if (this.lastTxId != null)
+					{
+						statement.setBytes(1, this.lastTxId);
+						statement.setBytes(2, this.lastTxId);
+						statement.setByte(3, this.lastPhase);
+					}
+					
+					try (ResultSet resultSet = statement.executeQuery())
+					{
+						InvocationEvent invocation = null;
+						Map<String, InvokerEvent> invokers = null;
+						
+						while (resultSet.next())
+						{
+							byte[] txId = resultSet.getBytes(1);
+							byte phase = resultSet.getByte(2);
+							
+							if ((invocation == null) || (phase != this.lastPhase) || !Arrays.equals(txId, this.lastTxId))
+							{
+								if (batch.size() == RECOVERY_BATCH_SIZE)
+								{
+									// The last invocation of this batch is complete, resume from here in the next batch
+									complete = false;
+									break;
+								}
+								this.lastTxId = txId;
+								this.lastPhase = phase;
+								invocation = SQLStateManager.this.listener.createInvocationEvent(txId, phase, resultSet.getByte(3));
+								invokers = new HashMap<>();
+								batch.add(new AbstractMap.SimpleImmutableEntry<>(invocation, invokers));
+							}
+							
+							String databaseId = resultSet.getString(4);
+							
+							if (databaseId != null)
+							{
+								byte[] bytes = resultSet.getBytes(5);
+								
+								InvokerEvent invokerEvent = factory.createInvokerEvent(invocation.getTransactionId(), invocation.getPhase(), databaseId);
+								
+								if (bytes != null)
+								{
+									invokerEvent.setResult(SQLStateManager.this.listener.createInvokerResult(bytes));
+								}
+								
+								invokers.put(databaseId, invokerEvent);
+							}
+						}
+					}
+				}
+				
+				// Release any read locks before the consumer deletes the invocations of this batch
+				connection.commit();
+				
+				return complete;
+			}
+		};
+		
+		try
+		{
+			boolean complete = false;
+			
+			while (!complete)
+			{
+				complete = this.execute(query);
+				
+				for (Map.Entry<InvocationEvent, Map<String, InvokerEvent>> entry: batch)
+				{
+					consumer.accept(entry.getKey(), entry.getValue());
+				}
+				batch.clear();
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
 	
 	@Override
 	public void beforeInvoker(InvokerEvent event)
@@ -494,6 +690,8 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 				createTableIfNotExists(statement, properties, STATE_TABLE, CREATE_STATE_SQL, stringType);
 				createTableIfNotExists(statement, properties, INVOCATION_TABLE, CREATE_INVOCATION_SQL, binaryType, enumType, enumType);
 				createTableIfNotExists(statement, properties, INVOKER_TABLE, CREATE_INVOKER_SQL, binaryType, enumType, stringType, varBinaryType);
+				
+				this.transactionIdSize = findTransactionIdSize(statement);
 
 				if (Boolean.getBoolean(StateManager.CLEAR_LOCAL_STATE))
 				{
@@ -507,6 +705,28 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 		}
 	}
 
+	/**
+	 * Returns the width of the transaction id column, if it has a fixed width, or 0 otherwise.
+	 * Tables created by earlier versions declare a wider column than the current size of a serialized transaction id.
+	 */
+	private static int findTransactionIdSize(Statement statement) throws SQLException
+	{
+		try (ResultSet resultSet = statement.executeQuery(SELECT_TRANSACTION_ID_SQL))
+		{
+			ResultSetMetaData metaData = resultSet.getMetaData();
+			
+			return (metaData.getColumnType(1) == Types.BINARY) ? metaData.getPrecision(1) : 0;
+		}
+	}
+
+	void setTransactionId(PreparedStatement statement, int index, byte[] transactionId) throws SQLException
+	{
+		int size = this.transactionIdSize;
+		
+		// Pad shorter ids to the full width of a fixed-width column, so that they match the stored values, however the database pads them
+		statement.setBytes(index, (transactionId.length < size) ? Arrays.copyOf(transactionId, size) : transactionId);
+	}
+
 	private static void createTableIfNotExists(Statement statement, DatabaseProperties properties, String table, String pattern, String... types) throws SQLException
 	{
 		if (properties.findTable(table) == null)
@@ -587,4 +807,97 @@ public class SQLStateManager<Z, D extends Database<Z>> implements StateManager,
 	{
 		void execute(Connection connection) throws SQLException;
 	}
+
+	/**
+	 * Durability statements, in lifecycle order.
+	 */
+	enum DurabilityStatement
+	{
+		INSERT_INVOCATION(INSERT_INVOCATION_SQL),
+		INSERT_INVOKER(INSERT_INVOKER_SQL),
+		UPDATE_INVOKER(UPDATE_INVOKER_SQL),
+		DELETE_INVOKER(DELETE_INVOKER_SQL),
+		DELETE_INVOCATION(DELETE_INVOCATION_SQL),
+		;
+		private final String sql;
+
+		DurabilityStatement(String sql)
+		{
+			this.sql = sql;
+		}
+
+		String getSQL()
+		{
+			return this.sql;
+		}
+	}
+
+	interface DurabilityParameters
+	{
+		void setParameters(PreparedStatement statement) throws SQLException;
+	}
+
+	static class DurabilityOperation
+	{
+		private final DurabilityStatement statement;
+		private final DurabilityParameters parameters;
+
+		DurabilityOperation(DurabilityStatement statement, DurabilityParameters parameters)
+		{
+			this.statement = statement;
+			this.parameters = parameters;
+		}
+
+		DurabilityStatement getStatement()
+		{
+			return this.statement;
+		}
+
+		DurabilityParameters getParameters()
+		{
+			return this.parameters;
+		}
+	}
+
+	/**
+	 * The operations of a single durability event, queued for group commit.
+	 */
+	static class DurabilityEntry
+	{
+		private final DurabilityOperation[] operations;
+		// Guarded by the durability queue
+		private boolean done = false;
+		// Published to the caller via the durability queue
+		private SQLException failure;
+
+		DurabilityEntry(DurabilityOperation... operations)
+		{
+			this.operations = operations;
+		}
+
+		DurabilityOperation[] getOperations()
+		{
+			return this.operations;
+		}
+
+		boolean isDone()
+		{
+			return this.done;
+		}
+
+		void done()
+		{
+			this.done = true;
+		}
+
+		SQLException getFailure()
+		{
+			return this.failure;
+		}
+
+		void fail(SQLException failure)
+		{
+			this.failure = failure;
+		}
+	}
 }
@@ -78,7 +78,7 @@ public class DifferentialSynchronizationStrategy implements SynchronizationStrat
 	static Messages messages = MessagesFactory.getMessages();
 	static Logger logger = LoggerFactory.getLogger(DifferentialSynchronizationStrategy.class);
 
-	private final SynchronizationStrategy strategy = new PerTableSynchronizationStrategy(this);
+	private final PerTableSynchronizationStrategy strategy = new PerTableSynchronizationStrategy(this);
 	private int fetchSize = 0;
 	private int maxBatchSize = 100;
 	private Pattern versionPattern = null;
@@ -123,6 +123,12 @@ public class DifferentialSynchronizationStrategy implements SynchronizationStrat
 		support.restoreForeignKeys();
 	}
 
+	@Override
+	public boolean dropsForeignKeys()
+	{
+		return true;
+	}
+
 	@Override
 	public <Z, D extends Database<Z>> void synchronize(SynchronizationContext<Z, D> context, TableProperties table) throws SQLException
 	{
@@ -535,6 +541,22 @@ public class DifferentialSynchronizationStrategy implements SynchronizationStrat
 		this.maxBatchSize = maxBatchSize;
 	}
 
+	/**
+	 * @return the number of tables to synchronize concurrently.
+	 */
+	public int getParallelism()
+	{
+		return this.strategy.getParallelism();
+	}
+
+	/**
+	 * @param parallelism the number of tables to synchronize concurrently.
+	 */
+	public void setParallelism(int parallelism)
+	{
+		this.strategy.setParallelism(parallelism);
+	}
+
 	/**
 	 * @return the versionPattern
 	 */
@@ -69,7 +69,7 @@ public class FullSynchronizationStrategy implements SynchronizationStrategy, Tab
 	static Messages messages = MessagesFactory.getMessages();
 	static Logger logger = LoggerFactory.getLogger(FullSynchronizationStrategy.class);
 
-	private SynchronizationStrategy strategy = new PerTableSynchronizationStrategy(this);
+	private PerTableSynchronizationStrategy strategy = new PerTableSynchronizationStrategy(this);
 	private int maxBatchSize = 100;
 	private int fetchSize = 0;
 
@@ -210,6 +210,12 @@ public class FullSynchronizationStrategy implements SynchronizationStrategy, Tab
 		context.getSynchronizationSupport().restoreForeignKeys();
 	}
 
+	@Override
+	public boolean dropsForeignKeys()
+	{
+		return true;
+	}
+
 	/**
 	 * @return the fetchSize.
 	 */
@@ -241,4 +247,20 @@ public class FullSynchronizationStrategy implements SynchronizationStrategy, Tab
 	{
 		this.maxBatchSize = maxBatchSize;
 	}
+
+	/**
+	 * @return the number of tables to synchronize concurrently.
+	 */
+	public int getParallelism()
+	{
+		return this.strategy.getParallelism();
+	}
+
+	/**
+	 * @param parallelism the number of tables to synchronize concurrently.
+	 */
+	public void setParallelism(int parallelism)
+	{
+		this.strategy.setParallelism(parallelism);
+	}
 }
@@ -18,18 +18,55 @@
 package io.github.hajdbc.sync;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.DatabaseProperties;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.ForeignKeyConstraint;
+import io.github.hajdbc.QualifiedName;
 import io.github.hajdbc.SynchronizationStrategy;
 import io.github.hajdbc.TableProperties;
+import io.github.hajdbc.codec.Decoder;
+import io.github.hajdbc.dialect.Dialect;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
 
+/**
+ * Synchronizes each table of the source database using a {@link TableSynchronizationStrategy}.
+ * By default, tables are synchronized sequentially, using the connections of the synchronization context.
+ * If the parallelism exceeds 1, tables are synchronized concurrently, using a separate pair of source and target connections per worker.
+ * Tables are then scheduled largest first, per the row count estimates of the source database.
+ * Unless the table synchronization strategy drops the foreign keys of the target database, a table is only scheduled once the tables it references were synchronized.
+ * @author Paul Ferraro
+ */
 public class PerTableSynchronizationStrategy implements SynchronizationStrategy
 {
 	private static final long serialVersionUID = 7952995443041830678L;
 	
+	static final Logger logger = LoggerFactory.getLogger(PerTableSynchronizationStrategy.class);
+	
 	private final TableSynchronizationStrategy strategy;
+	private int parallelism = 1;
 	
 	@Override
 	public String getId()
@@ -67,18 +104,25 @@ public class PerTableSynchronizationStrategy implements SynchronizationStrategy
 		sourceConnection.setAutoCommit(false);
 		targetConnection.setAutoCommit(false);
 		
-		for (TableProperties table: context.getSourceDatabaseProperties().getTables())
+		if (this.parallelism > 1)
 		{
-			try
-			{
-				this.strategy.synchronize(context, table);
-				
-				targetConnection.commit();
-			}
-			catch (SQLException e)
+			this.synchronizeConcurrently(context);
+		}
+		else
+		{
+			for (TableProperties table: context.getSourceDatabaseProperties().getTables())
 			{
-				support.rollback(targetConnection);
-				throw e;
+				try
+				{
+					this.strategy.synchronize(context, table);
+					
+					targetConnection.commit();
+				}
+				catch (SQLException e)
+				{
+					support.rollback(targetConnection);
+					throw e;
+				}
 			}
 		}
 		
@@ -87,4 +131,381 @@ public class PerTableSynchronizationStrategy implements SynchronizationStrategy
 		support.synchronizeIdentityColumns();
 		support.synchronizeSequences();
 	}
+
+	private <Z, D extends Database<Z>> void synchronizeConcurrently(final SynchronizationContext<Z, D> context) throws SQLException
+	{
+		final TableSchedule schedule = this.createSchedule(context);
+		int workers = Math.min(this.parallelism, schedule.size());
+		final ExecutorService executor = Executors.newCachedThreadPool(context.getThreadFactory());
+		
+		try
+		{
+			List<Future<Void>> futures = new ArrayList<>(workers);
+			
+			for (int i = 0; i < workers; ++i)
+			{
+				futures.add(executor.submit(() ->
+				{
+					try (SynchronizationContext<Z, D> workerContext = new WorkerSynchronizationContext<>(context, executor))
+					{
+						this.synchronize(workerContext, schedule);
+					}
+					catch (SQLException | RuntimeException e)
+					{
+						// Abandon the remaining tables
+						schedule.cancel();
+						throw e;
+					}
+					return null;
+				}));
+			}
+			
+			SQLException exception = null;
+			
+			// Await all workers, so that their connections are closed before restoring constraints
+			for (Future<Void> future: futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					if (exception == null)
+					{
+						exception = ExceptionType.SQL.<SQLException>getExceptionFactory().createException(e.getCause());
+					}
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					schedule.cancel();
+					throw new SQLException(e);
+				}
+			}
+			
+			if (exception != null)
+			{
+				throw exception;
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private <Z, D extends Database<Z>> void synchronize(SynchronizationContext<Z, D> context, TableSchedule schedule) throws SQLException
+	{
+		Connection sourceConnection = context.getConnection(context.getSourceDatabase());
+		Connection targetConnection = context.getConnection(context.getTargetDatabase());
+		
+		SynchronizationSupport support = context.getSynchronizationSupport();
+		
+		sourceConnection.setAutoCommit(false);
+		targetConnection.setAutoCommit(false);
+		
+		try
+		{
+			TableProperties table = schedule.next();
+			
+			while (table != null)
+			{
+				try
+				{
+					this.strategy.synchronize(context, table);
+					
+					targetConnection.commit();
+				}
+				catch (SQLException e)
+				{
+					support.rollback(targetConnection);
+					throw e;
+				}
+				
+				schedule.completed(table);
+				
+				table = schedule.next();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SQLException(e);
+		}
+	}
+
+	private <Z, D extends Database<Z>> TableSchedule createSchedule(SynchronizationContext<Z, D> context) throws SQLException
+	{
+		List<TableProperties> tables = new ArrayList<>(context.getSourceDatabaseProperties().getTables());
+		DatabaseMetaData metaData = context.getConnection(context.getSourceDatabase()).getMetaData();
+		
+		Map<TableProperties, Long> rows = new HashMap<>();
+		for (TableProperties table: tables)
+		{
+			rows.put(table, estimateRowCount(metaData, table.getName()));
+			// Resolve meta data needed by worker threads, since lazily cached meta data is only accessible via the connection of this thread
+			table.getColumns();
+			table.getPrimaryKey();
+		}
+		// Largest first, so that the longest running tables do not delay completion
+		Collections.sort(tables, Comparator.comparing(rows::get, Comparator.reverseOrder()));
+		
+		Map<TableProperties, Set<TableProperties>> dependencies = new HashMap<>();
+		
+		if (!this.strategy.dropsForeignKeys())
+		{
+			Map<String, TableProperties> tableMap = new HashMap<>();
+			for (TableProperties table: tables)
+			{
+				tableMap.put(table.getName().getDMLName(), table);
+			}
+			
+			for (TableProperties table: tables)
+			{
+				TableProperties targetTable = context.getTargetDatabaseProperties().findTable(table.getName().getDMLName());
+				
+				if (targetTable != null)
+				{
+					Set<TableProperties> references = new HashSet<>();
+					for (ForeignKeyConstraint constraint: targetTable.getForeignKeyConstraints())
+					{
+						TableProperties reference = tableMap.get(constraint.getForeignTable().getDMLName());
+						// Ignore self-references
+						if ((reference != null) && (reference != table))
+						{
+							references.add(reference);
+						}
+					}
+					dependencies.put(table, references);
+				}
+			}
+		}
+		
+		return new TableSchedule(tables, dependencies);
+	}
+
+	/**
+	 * Returns the approximate number of rows of the specified table, per the table statistic of its index info, or 0, if unavailable.
+	 */
+	private static long estimateRowCount(DatabaseMetaData metaData, QualifiedName table)
+	{
+		try (ResultSet resultSet = metaData.getIndexInfo(metaData.getConnection().getCatalog(), table.getSchema(), table.getName(), false, true))
+		{
+			while (resultSet.next())
+			{
+				if (resultSet.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic)
+				{
+					return resultSet.getLong("CARDINALITY");
+				}
+			}
+		}
+		catch (SQLException e)
+		{
+			logger.log(Level.DEBUG, e);
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the number of tables to synchronize concurrently.
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * @param parallelism the number of tables to synchronize concurrently, each using a separate pair of source and target connections.
+	 */
+	public void setParallelism(int parallelism)
+	{
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Schedules tables for concurrent synchronization, in priority order, such that a table is only scheduled once the tables on which it depends have completed.
+	 * Circular dependencies are broken in favor of the table with the highest priority.
+	 */
+	static class TableSchedule
+	{
+		private final List<TableProperties> pending;
+		private final Map<TableProperties, Set<TableProperties>> dependencies;
+		private int running = 0;
+		private boolean cancelled = false;
+		
+		TableSchedule(List<TableProperties> tables, Map<TableProperties, Set<TableProperties>> dependencies)
+		{
+			this.pending = new ArrayList<>(tables);
+			this.dependencies = dependencies;
+		}
+		
+		synchronized int size()
+		{
+			return this.pending.size();
+		}
+		
+		/**
+		 * Returns the next table to synchronize, waiting for the completion of any tables on which the pending tables depend.
+		 * @return a table, or null if no tables remain, or if this schedule was cancelled
+		 * @throws InterruptedException if interrupted while waiting
+		 */
+		synchronized TableProperties next() throws InterruptedException
+		{
+			while (!this.cancelled && !this.pending.isEmpty())
+			{
+				Iterator<TableProperties> tables = this.pending.iterator();
+				while (tables.hasNext())
+				{
+					TableProperties table = tables.next();
+					Collection<TableProperties> dependencies = this.dependencies.get(table);
+					if ((dependencies == null) || dependencies.isEmpty())
+					{
+						tables.remove();
+						this.running += 1;
+						return table;
+					}
+				}
+				
+				if (this.running == 0)
+				{
+					this.running += 1;
+					return this.pending.remove(0);
+				}
+				
+				this.wait();
+			}
+			return null;
+		}
+		
+		synchronized void completed(TableProperties table)
+		{
+			this.running -= 1;
+			for (Set<TableProperties> dependencies: this.dependencies.values())
+			{
+				dependencies.remove(table);
+			}
+			this.notifyAll();
+		}
+		
+		synchronized void cancel()
+		{
+			this.cancelled = true;
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Synchronization context of a single worker, with its own source and target connections.
+	 */
+	private static class WorkerSynchronizationContext<Z, D extends Database<Z>> implements SynchronizationContext<Z, D>
+	{
+		private final SynchronizationContext<Z, D> context;
+		private final ExecutorService executor;
+		private final Map<D, Connection> connectionMap = new HashMap<>();
+		
+		WorkerSynchronizationContext(SynchronizationContext<Z, D> context, ExecutorService executor)
+		{
+			this.context = context;
+			this.executor = executor;
+		}
+		
+		@Override
+		public Connection getConnection(D database) throws SQLException
+		{
+			if (!database.equals(this.context.getSourceDatabase()) && !database.equals(this.context.getTargetDatabase()))
+			{
+				return this.context.getConnection(database);
+			}
+			
+			Connection connection = this.connectionMap.get(database);
+			
+			if (connection == null)
+			{
+				connection = database.connect(this.context.getDecoder());
+				
+				this.connectionMap.put(database, connection);
+			}
+			
+			return connection;
+		}
+
+		@Override
+		public D getSourceDatabase()
+		{
+			return this.context.getSourceDatabase();
+		}
+
+		@Override
+		public D getTargetDatabase()
+		{
+			return this.context.getTargetDatabase();
+		}
+
+		@Override
+		public Set<D> getActiveDatabaseSet()
+		{
+			return this.context.getActiveDatabaseSet();
+		}
+
+		@Override
+		public DatabaseProperties getSourceDatabaseProperties()
+		{
+			return this.context.getSourceDatabaseProperties();
+		}
+
+		@Override
+		public DatabaseProperties getTargetDatabaseProperties()
+		{
+			return this.context.getTargetDatabaseProperties();
+		}
+
+		@Override
+		public Dialect getDialect()
+		{
+			return this.context.getDialect();
+		}
+
+		@Override
+		public ExecutorService getExecutor()
+		{
+			return this.executor;
+		}
+
+		@Override
+		public ThreadFactory getThreadFactory()
+		{
+			return this.context.getThreadFactory();
+		}
+
+		@Override
+		public SynchronizationSupport getSynchronizationSupport()
+		{
+			return new SynchronizationSupportImpl<>(this);
+		}
+
+		@Override
+		public Decoder getDecoder()
+		{
+			return this.context.getDecoder();
+		}
+
+		@Override
+		public void close()
+		{
+			for (Connection connection: this.connectionMap.values())
+			{
+				try
+				{
+					// Complete any open transaction
+					connection.setAutoCommit(true);
+					connection.close();
+				}
+				catch (SQLException e)
+				{
+					logger.log(Level.WARN, e);
+				}
+			}
+		}
+	}
 }
@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseProperties;
@@ -85,6 +86,12 @@ public interface SynchronizationContext<Z, D extends Database<Z>> extends AutoCl
 	 */
 	ExecutorService getExecutor();
 	
+	/**
+	 * Returns a factory for creating any additional threads used for synchronization.
+	 * @return a thread factory
+	 */
+	ThreadFactory getThreadFactory();
+	
 	SynchronizationSupport getSynchronizationSupport();
 	
 	Decoder getDecoder();
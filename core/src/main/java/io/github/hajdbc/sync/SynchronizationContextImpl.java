@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
@@ -141,6 +142,12 @@ public class SynchronizationContextImpl<Z, D extends Database<Z>> implements Syn
 		return this.executor;
 	}
 
+	@Override
+	public ThreadFactory getThreadFactory()
+	{
+		return this.cluster.getThreadFactory();
+	}
+
 	@Override
 	public SynchronizationSupport getSynchronizationSupport()
 	{
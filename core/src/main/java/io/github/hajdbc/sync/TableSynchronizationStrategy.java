@@ -30,4 +30,14 @@ public interface TableSynchronizationStrategy extends Serializable
 	<Z, D extends Database<Z>> void dropConstraints(SynchronizationContext<Z, D> context) throws SQLException;
 	
 	<Z, D extends Database<Z>> void restoreConstraints(SynchronizationContext<Z, D> context) throws SQLException;
+
+	/**
+	 * Indicates whether {@link #dropConstraints(SynchronizationContext)} drops the foreign keys of the target database.
+	 * If not, tables synchronized concurrently must be scheduled in an order consistent with the remaining foreign keys.
+	 * @return true, if foreign keys are dropped, false otherwise
+	 */
+	default boolean dropsForeignKeys()
+	{
+		return false;
+	}
 }
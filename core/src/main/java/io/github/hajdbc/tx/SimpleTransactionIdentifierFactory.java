@@ -50,6 +50,6 @@ public class SimpleTransactionIdentifierFactory implements TransactionIdentifier
 	@Override
 	public int size()
 	{
-		return Long.SIZE;
+		return Long.BYTES;
 	}
 }
\ No newline at end of file
@@ -103,6 +103,6 @@ public class XidTransactionIdentifierFactory implements TransactionIdentifierFac
 	@Override
 	public int size()
 	{
-		return Integer.SIZE + Xid.MAXGTRIDSIZE + Xid.MAXBQUALSIZE;
+		return Integer.BYTES + Xid.MAXGTRIDSIZE + Xid.MAXBQUALSIZE;
 	}
 }
@@ -0,0 +1,134 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A low-overhead, thread-safe histogram of durations, using power-of-two buckets.
+ * Each bucket is striped, so that concurrent recording does not contend on a shared counter.
+ * Percentiles are approximate, i.e. reported as the upper bound of their bucket.
+ * @author Paul Ferraro
+ */
+public class Histogram
+{
+	// Bucket i holds values in the range [2^(i-1), 2^i), bucket 0 holds 0
+	private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	public Histogram()
+	{
+		for (int i = 0; i < this.buckets.length; ++i)
+		{
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records the specified duration.
+	 * @param nanos a duration in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		long value = Math.max(nanos, 0L);
+		this.buckets[Math.min(Long.SIZE - Long.numberOfLeadingZeros(value), Long.SIZE - 1)].increment();
+		this.sum.add(value);
+		this.max.accumulate(value);
+	}
+
+	public long getCount()
+	{
+		long count = 0;
+		for (LongAdder bucket: this.buckets)
+		{
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the sum of all recorded durations.
+	 * @return a duration in nanoseconds
+	 */
+	public long getTotal()
+	{
+		return this.sum.sum();
+	}
+
+	/**
+	 * Returns the maximum recorded duration.
+	 * @return a duration in nanoseconds
+	 */
+	public long getMax()
+	{
+		return this.max.get();
+	}
+
+	/**
+	 * Returns the approximate duration below which the specified fraction of recorded durations fall.
+	 * @param fraction a value between 0 and 1
+	 * @return a duration in nanoseconds
+	 */
+	public long getPercentile(double fraction)
+	{
+		long[] counts = new long[this.buckets.length];
+		long count = 0;
+		for (int i = 0; i < counts.length; ++i)
+		{
+			counts[i] = this.buckets[i].sum();
+			count += counts[i];
+		}
+		long threshold = (long) Math.ceil(count * fraction);
+		long cumulative = 0;
+		for (int i = 0; i < counts.length; ++i)
+		{
+			cumulative += counts[i];
+			if ((cumulative > 0) && (cumulative >= threshold))
+			{
+				return Math.min((i < Long.SIZE - 1) ? (1L << i) - 1 : Long.MAX_VALUE, this.getMax());
+			}
+		}
+		return 0;
+	}
+
+	public void reset()
+	{
+		for (LongAdder bucket: this.buckets)
+		{
+			bucket.reset();
+		}
+		this.sum.reset();
+		this.max.reset();
+	}
+
+	@Override
+	public String toString()
+	{
+		long count = this.getCount();
+		long mean = (count > 0) ? this.getTotal() / count : 0;
+		return String.format("count=%d, mean=%dus, p50=%dus, p99=%dus, max=%dus", count, micros(mean), micros(this.getPercentile(0.5)), micros(this.getPercentile(0.99)), micros(this.getMax()));
+	}
+
+	private static long micros(long nanos)
+	{
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executor service that executes the first of a set of tasks in the caller thread, while the remaining tasks execute concurrently via the executor with which this executor was created.
+ * This avoids a thread hand-off for one of the tasks, since the caller would otherwise block anyway.
+ * 
+ * @author Paul Ferraro
+ */
+public class CallerRunsExecutor extends AbstractExecutorService
+{
+	private final ExecutorService executor;
+	
+	public CallerRunsExecutor(ExecutorService executor)
+	{
+		this.executor = executor;
+	}
+	
+	@Override
+	public boolean awaitTermination(long time, TimeUnit unit) throws InterruptedException
+	{
+		return this.executor.awaitTermination(time, unit);
+	}
+
+	@Override
+	public boolean isShutdown()
+	{
+		return this.executor.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated()
+	{
+		return this.executor.isTerminated();
+	}
+
+	@Override
+	public void shutdown()
+	{
+		this.executor.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow()
+	{
+		return this.executor.shutdownNow();
+	}
+
+	@Override
+	public void execute(Runnable task)
+	{
+		this.executor.execute(task);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException
+	{
+		return this.invokeAll(tasks, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Submits all but the first of the specified tasks to the executor with which this executor was created, then executes the first task in the caller thread.
+	 */
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException
+	{
+		if (tasks.isEmpty()) return Collections.emptyList();
+
+		long end = (timeout == Long.MAX_VALUE) ? 0 : System.currentTimeMillis() + unit.toMillis(timeout);
+		Iterator<? extends Callable<T>> iterator = tasks.iterator();
+		Callable<T> first = iterator.next();
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		// Reserve position of first task
+		futures.add(null);
+		
+		try
+		{
+			while (iterator.hasNext())
+			{
+				futures.add(this.executor.submit(iterator.next()));
+			}
+			
+			futures.set(0, new EagerFuture<>(first));
+			
+			// Wait until all remaining tasks have finished
+			for (Future<T> future: futures)
+			{
+				if (!future.isDone())
+				{
+					try
+					{
+						if (end == 0)
+						{
+							future.get();
+						}
+						else
+						{
+							long now = System.currentTimeMillis();
+							if (now < end)
+							{
+								future.get(end - now, TimeUnit.MILLISECONDS);
+							}
+						}
+					}
+					catch (ExecutionException e)
+					{
+						// Ignore
+					}
+					catch (CancellationException e)
+					{
+						// Ignore
+					}
+				}
+			}
+		}
+		catch (TimeoutException e)
+		{
+			// Ignore
+		}
+		finally
+		{
+			// If interrupted, rejected, or timed out, cancel any unfinished tasks
+			for (Future<T> future: futures)
+			{
+				if ((future != null) && !future.isDone())
+				{
+					future.cancel(true);
+				}
+			}
+		}
+		
+		return futures;
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Light-weight future implementation that executes its task on construction, i.e. in the caller thread.
+ * @author Paul Ferraro
+ * @param <T>
+ */
+class EagerFuture<T> implements Future<T>
+{
+	private T result;
+	private ExecutionException exception;
+	
+	EagerFuture(Callable<T> task)
+	{
+		try
+		{
+			this.result = task.call();
+		}
+		catch (Throwable e)
+		{
+			this.exception = new ExecutionException(e);
+		}
+	}
+	
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning)
+	{
+		return false;
+	}
+
+	@Override
+	public T get() throws ExecutionException
+	{
+		if (this.exception != null) throw this.exception;
+		
+		return this.result;
+	}
+
+	@Override
+	public T get(long time, TimeUnit unit) throws ExecutionException
+	{
+		return this.get();
+	}
+
+	@Override
+	public boolean isCancelled()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isDone()
+	{
+		return true;
+	}
+}
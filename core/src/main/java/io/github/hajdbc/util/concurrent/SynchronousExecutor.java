@@ -325,58 +325,4 @@ public class SynchronousExecutor extends AbstractExecutorService
 			return this.state.get() == State.DONE;
 		}
 	}
-
-	/**
-	 * Light-weight future implementation that executes its task on construction.
-	 * @param <T>
-	 */
-	private static class EagerFuture<T> implements Future<T>
-	{
-		private T result;
-		private ExecutionException exception;
-		
-		EagerFuture(Callable<T> task)
-		{
-			try
-			{
-				this.result = task.call();
-			}
-			catch (Throwable e)
-			{
-				this.exception = new ExecutionException(e);
-			}
-		}
-		
-		@Override
-		public boolean cancel(boolean mayInterruptIfRunning)
-		{
-			return false;
-		}
-
-		@Override
-		public T get() throws ExecutionException
-		{
-			if (this.exception != null) throw this.exception;
-			
-			return this.result;
-		}
-
-		@Override
-		public T get(long time, TimeUnit unit) throws ExecutionException
-		{
-			return this.get();
-		}
-
-		@Override
-		public boolean isCancelled()
-		{
-			return false;
-		}
-
-		@Override
-		public boolean isDone()
-		{
-			return true;
-		}
-	}
 }
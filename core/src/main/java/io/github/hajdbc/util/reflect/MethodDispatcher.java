@@ -0,0 +1,108 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.github.hajdbc.ExceptionFactory;
+
+/**
+ * Dispatches invocations of a given method via a {@link MethodHandle} that is linked once per method.
+ * Avoids the access checks and exception wrapping of {@link Method#invoke(Object, Object...)} on each invocation.
+ * Methods that cannot be unreflected via the public lookup fall back to reflective invocation.
+ * @author Paul Ferraro
+ */
+public final class MethodDispatcher
+{
+	private static final ConcurrentMap<Method, MethodDispatcher> dispatchers = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the dispatcher for the specified method, linking it on first use.
+	 * @param method a public method
+	 * @return a method dispatcher
+	 */
+	public static MethodDispatcher forMethod(Method method)
+	{
+		MethodDispatcher dispatcher = dispatchers.get(method);
+		return (dispatcher != null) ? dispatcher : dispatchers.computeIfAbsent(method, MethodDispatcher::new);
+	}
+
+	private final Method method;
+	private final MethodHandle handle;
+
+	private MethodDispatcher(Method method)
+	{
+		this.method = method;
+		this.handle = link(method);
+	}
+
+	private static MethodHandle link(Method method)
+	{
+		int parameters = method.getParameterCount();
+		try
+		{
+			// Normalize to (Object, Object[])Object so that all methods share a single invokeExact call site
+			return MethodHandles.publicLookup().unreflect(method).asType(MethodType.genericMethodType(parameters + 1)).asSpreader(Object[].class, parameters);
+		}
+		catch (IllegalAccessException e)
+		{
+			return null;
+		}
+	}
+
+	public Method getMethod()
+	{
+		return this.method;
+	}
+
+	/**
+	 * Invokes this dispatcher's method against the specified object.
+	 * @param factory converts exceptions thrown by the target method
+	 * @param object the object on which to invoke the method
+	 * @param parameters the method parameters
+	 * @return the return value of the method invocation
+	 * @throws E the exception thrown by the method invocation
+	 */
+	@SuppressWarnings("unchecked")
+	public <R, E extends Exception> R invoke(ExceptionFactory<E> factory, Object object, Object... parameters) throws E
+	{
+		if (this.handle == null)
+		{
+			return Methods.<R, E>invoke(this.method, factory, object, parameters);
+		}
+		try
+		{
+			return (R) this.handle.invokeExact(object, parameters);
+		}
+		catch (Throwable e)
+		{
+			throw factory.createException(e);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.method.toString();
+	}
+}
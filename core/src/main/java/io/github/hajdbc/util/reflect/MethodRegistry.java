@@ -0,0 +1,68 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.reflect;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.github.hajdbc.util.StaticRegistry;
+
+/**
+ * Registry that classifies each method exactly once, and thereafter resolves its classification via a single identity lookup.
+ * Since the {@link Method} instances passed to a proxy's invocation handler are constant per proxy class, the underlying table stabilizes after first use.
+ * The table is immutable and is replaced via copy-on-write when a previously unseen method is classified, so lookups never lock.
+ * @author Paul Ferraro
+ * @param <V> the classification type
+ */
+public class MethodRegistry<V> implements StaticRegistry<Method, V>
+{
+	private final Function<Method, V> classifier;
+	private volatile Map<Method, V> table = new IdentityHashMap<>();
+
+	/**
+	 * Creates a new method registry
+	 * @param classifier returns a non-null classification of a given method
+	 */
+	public MethodRegistry(Function<Method, V> classifier)
+	{
+		this.classifier = classifier;
+	}
+
+	@Override
+	public V get(Method method)
+	{
+		V value = this.table.get(method);
+		return (value != null) ? value : this.classify(method);
+	}
+
+	private synchronized V classify(Method method)
+	{
+		Map<Method, V> table = this.table;
+		V value = table.get(method);
+		if (value == null)
+		{
+			value = this.classifier.apply(method);
+			Map<Method, V> newTable = new IdentityHashMap<>(table);
+			newTable.put(method, value);
+			this.table = newTable;
+		}
+		return value;
+	}
+}
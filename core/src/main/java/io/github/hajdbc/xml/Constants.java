@@ -37,6 +37,7 @@ public interface Constants
 	final String DIALECT = "dialect";
 	final String DISTRIBUTABLE = "distributable";
 	final String DURABILITY = "durability";
+	final String EXECUTOR = "executor";
 	final String EVAL_CURRENT_DATE = "eval-current-date";
 	final String EVAL_CURRENT_TIME = "eval-current-time";
 	final String EVAL_CURRENT_TIMESTAMP = "eval-current-timestamp";
@@ -44,6 +45,8 @@ public interface Constants
 	final String FAILURE_DETECT_SCHEDULE = "failure-detect-schedule";
 	final String ID = "id";
 	final String INPUT_SINK = "input-sink";
+	final String INSTRUMENT_LOCKS = "instrument-locks";
+	final String LEASE_LOCKS = "lease-locks";
 	@Deprecated final String LOCAL = "local";
 	final String LOCALITY = "locality";
 	final String LOCATION = "location";
@@ -51,6 +54,7 @@ public interface Constants
 	final String META_DATA_CACHE = "meta-data-cache";
 	final String NAME = "name";
 	final String PASSWORD = "password";
+	final String PIPELINE_STATE = "pipeline-state";
 	final String PROPERTY = "property";
 	final String STATE = "state";
 	final String SYNC = "sync";
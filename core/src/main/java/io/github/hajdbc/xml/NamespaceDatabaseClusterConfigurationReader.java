@@ -187,6 +187,38 @@ public class NamespaceDatabaseClusterConfigurationReader<Z, D extends Database<Z
 					builder.allowEmptyCluster(Boolean.parseBoolean(value));
 					break;
 				}
+				case LEASE_LOCKS:
+				{
+					if (this.namespace.since(Namespace.VERSION_4_0))
+					{
+						builder.leaseLocks(Boolean.parseBoolean(value));
+						break;
+					}
+				}
+				case PIPELINE_STATE:
+				{
+					if (this.namespace.since(Namespace.VERSION_4_0))
+					{
+						builder.pipelineState(Boolean.parseBoolean(value));
+						break;
+					}
+				}
+				case INSTRUMENT_LOCKS:
+				{
+					if (this.namespace.since(Namespace.VERSION_4_0))
+					{
+						builder.instrumentLocks(Boolean.parseBoolean(value));
+						break;
+					}
+				}
+				case EXECUTOR:
+				{
+					if (this.namespace.since(Namespace.VERSION_4_0))
+					{
+						builder.executor(value);
+						break;
+					}
+				}
 				default:
 				{
 					throw new XMLStreamException(messages.unexpectedAttribute(reader, i));
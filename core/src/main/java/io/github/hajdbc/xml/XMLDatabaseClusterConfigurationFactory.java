@@ -44,7 +44,9 @@ import io.github.hajdbc.DatabaseBuilder;
 import io.github.hajdbc.DatabaseClusterConfiguration;
 import io.github.hajdbc.DatabaseClusterConfigurationBuilder;
 import io.github.hajdbc.DatabaseClusterConfigurationFactory;
+import io.github.hajdbc.ExecutorServiceProvider;
 import io.github.hajdbc.Identifiable;
+import io.github.hajdbc.IdentifiableMatcher;
 import io.github.hajdbc.SynchronizationStrategy;
 import io.github.hajdbc.Version;
 import io.github.hajdbc.logging.Level;
@@ -52,6 +54,8 @@ import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
 import io.github.hajdbc.messages.Messages;
 import io.github.hajdbc.messages.MessagesFactory;
+import io.github.hajdbc.sql.DefaultExecutorServiceProvider;
+import io.github.hajdbc.util.ServiceLoaders;
 import io.github.hajdbc.util.SystemProperties;
 
 /**
@@ -209,13 +213,22 @@ public class XMLDatabaseClusterConfigurationFactory<Z, D extends Database<Z>> im
 				writeAttribute(writer, DETECT_SEQUENCES, config.isSequenceDetectionEnabled());
 				writeAttribute(writer, DIALECT, config.getDialectFactory());
 				writeAttribute(writer, DURABILITY, config.getDurabilityFactory());
+				ExecutorServiceProvider executorProvider = config.getExecutorProvider();
+				// Only write registered providers, since the attribute is resolved by id; omit the default
+				if ((executorProvider != null) && !(executorProvider instanceof DefaultExecutorServiceProvider) && (ServiceLoaders.findService(ExecutorServiceProvider.class, new IdentifiableMatcher<ExecutorServiceProvider>(executorProvider.getId())) != null))
+				{
+					writeAttribute(writer, EXECUTOR, executorProvider);
+				}
 				writeAttribute(writer, EVAL_CURRENT_DATE, config.isCurrentDateEvaluationEnabled());
 				writeAttribute(writer, EVAL_CURRENT_TIME, config.isCurrentTimeEvaluationEnabled());
 				writeAttribute(writer, EVAL_CURRENT_TIMESTAMP, config.isCurrentTimestampEvaluationEnabled());
 				writeAttribute(writer, EVAL_RAND, config.isRandEvaluationEnabled());
 				writeAttribute(writer, FAILURE_DETECT_SCHEDULE, config.getFailureDetectionExpression());
 				writeAttribute(writer, INPUT_SINK, config.getInputSinkProvider());
+				writeAttribute(writer, INSTRUMENT_LOCKS, config.isLockInstrumentationEnabled());
+				writeAttribute(writer, LEASE_LOCKS, config.isLockLeasingEnabled());
 				writeAttribute(writer, META_DATA_CACHE, config.getDatabaseMetaDataCacheFactory());
+				writeAttribute(writer, PIPELINE_STATE, config.isStatePipeliningEnabled());
 				writeAttribute(writer, TRANSACTION_MODE, config.getTransactionMode());
 				for (D database: config.getDatabaseMap().values())
 				{
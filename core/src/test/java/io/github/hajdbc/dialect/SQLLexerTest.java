@@ -0,0 +1,103 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class SQLLexerTest
+{
+	@Test
+	public void tokenize()
+	{
+		List<SQLToken> tokens = SQLLexer.tokenize("SELECT t.id, 'it''s', \"Quoted \"\"name\"\"\", 1.5 FROM RDB$DATABASE t");
+		
+		assertEquals(13, tokens.size());
+		assertToken(tokens.get(0), SQLToken.Type.WORD, "SELECT");
+		assertToken(tokens.get(1), SQLToken.Type.WORD, "t");
+		assertToken(tokens.get(2), SQLToken.Type.SYMBOL, ".");
+		assertToken(tokens.get(3), SQLToken.Type.WORD, "id");
+		assertToken(tokens.get(4), SQLToken.Type.SYMBOL, ",");
+		assertToken(tokens.get(5), SQLToken.Type.LITERAL, "'it''s'");
+		assertEquals("it's", tokens.get(5).getValue());
+		assertToken(tokens.get(6), SQLToken.Type.SYMBOL, ",");
+		assertToken(tokens.get(7), SQLToken.Type.QUOTED_IDENTIFIER, "\"Quoted \"\"name\"\"\"");
+		assertToken(tokens.get(8), SQLToken.Type.SYMBOL, ",");
+		assertToken(tokens.get(9), SQLToken.Type.NUMBER, "1.5");
+		assertToken(tokens.get(10), SQLToken.Type.WORD, "FROM");
+		assertToken(tokens.get(11), SQLToken.Type.WORD, "RDB$DATABASE");
+		assertToken(tokens.get(12), SQLToken.Type.WORD, "t");
+		assertTrue(tokens.get(0).isWord("select"));
+		assertTrue(tokens.get(2).isSymbol('.'));
+	}
+	
+	@Test
+	public void comments()
+	{
+		List<SQLToken> tokens = SQLLexer.tokenize("SELECT /* CURRENT_DATE */ 1 -- CURRENT_TIME\nFROM test");
+		
+		assertEquals(4, tokens.size());
+		assertToken(tokens.get(0), SQLToken.Type.WORD, "SELECT");
+		assertToken(tokens.get(1), SQLToken.Type.NUMBER, "1");
+		assertToken(tokens.get(2), SQLToken.Type.WORD, "FROM");
+		assertToken(tokens.get(3), SQLToken.Type.WORD, "test");
+	}
+	
+	@Test
+	public void backslashEscapes()
+	{
+		String sql = "SELECT 'it\\'s', \"a\\\"b\", CURRENT_DATE";
+		List<SQLToken> tokens = SQLLexer.tokenize(sql, true);
+		
+		assertEquals(6, tokens.size());
+		assertToken(tokens.get(1), SQLToken.Type.LITERAL, "'it\\'s'");
+		assertEquals("it's", tokens.get(1).getValue());
+		assertToken(tokens.get(3), SQLToken.Type.QUOTED_IDENTIFIER, "\"a\\\"b\"");
+		assertToken(tokens.get(5), SQLToken.Type.WORD, "CURRENT_DATE");
+		
+		// Without backslash escapes, the literal ends at the escaped quote
+		tokens = SQLLexer.tokenize(sql, false);
+		assertToken(tokens.get(1), SQLToken.Type.LITERAL, "'it\\'");
+		assertToken(tokens.get(2), SQLToken.Type.WORD, "s");
+	}
+	
+	@Test
+	public void unterminated()
+	{
+		List<SQLToken> tokens = SQLLexer.tokenize("SELECT 'abc");
+		
+		assertEquals(2, tokens.size());
+		assertToken(tokens.get(1), SQLToken.Type.LITERAL, "'abc");
+		assertEquals("abc", tokens.get(1).getValue());
+		
+		assertEquals(1, SQLLexer.tokenize("SELECT /* abc").size());
+		assertEquals(1, SQLLexer.tokenize("SELECT -- abc").size());
+	}
+	
+	private static void assertToken(SQLToken token, SQLToken.Type type, String text)
+	{
+		assertSame(type, token.getType());
+		assertEquals(text, token.getText());
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.dialect;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import io.github.hajdbc.dialect.mysql.MySQLDialect;
+
+/**
+ * @author Paul Ferraro
+ */
+public class SQLScanTest
+{
+	private final Dialect dialect = new StandardDialect();
+	
+	@Test
+	public void scan() throws SQLException
+	{
+		SQLScan scan = this.dialect.scan("INSERT INTO schema.test (id, created) VALUES (NEXT VALUE FOR schema.seq, CURRENT_TIMESTAMP)");
+		
+		assertEquals("schema.test", scan.getInsertTable());
+		assertEquals("schema.seq", scan.getSequence());
+		assertFalse(scan.isSelectForUpdate());
+		assertTrue(scan.invokes(EnumSet.of(SQLFunction.CURRENT_TIMESTAMP)));
+		assertFalse(scan.invokes(EnumSet.of(SQLFunction.CURRENT_DATE, SQLFunction.CURRENT_TIME, SQLFunction.RAND)));
+		
+		scan = this.dialect.scan("SELECT * FROM test WHERE id = ? FOR UPDATE");
+		
+		assertNull(scan.getInsertTable());
+		assertNull(scan.getSequence());
+		assertTrue(scan.isSelectForUpdate());
+		assertFalse(scan.invokes(EnumSet.allOf(SQLFunction.class)));
+	}
+	
+	@Test
+	public void literals() throws SQLException
+	{
+		SQLScan scan = this.dialect.scan("SELECT 'NEXT VALUE FOR seq, CURRENT_DATE, RAND() FOR UPDATE' FROM test");
+		
+		assertNull(scan.getSequence());
+		assertFalse(scan.isSelectForUpdate());
+		assertFalse(scan.invokes(EnumSet.allOf(SQLFunction.class)));
+		assertEquals(scan.getSQL(), this.dialect.evaluate(scan, EnumSet.allOf(SQLFunction.class), 0));
+	}
+	
+	@Test
+	public void backslashEscapes() throws SQLException
+	{
+		Dialect dialect = new MySQLDialect();
+		SQLScan scan = dialect.scan("SELECT 'it\\'s CURRENT_DATE', RAND() FROM test");
+		
+		assertFalse(scan.invokes(EnumSet.of(SQLFunction.CURRENT_DATE)));
+		assertTrue(scan.invokes(EnumSet.of(SQLFunction.RAND)));
+		
+		scan = dialect.scan("SELECT 'C:\\\\' FROM test WHERE created < NOW()");
+		
+		assertTrue(scan.invokes(EnumSet.of(SQLFunction.CURRENT_TIMESTAMP)));
+	}
+	
+	@Test
+	public void comments() throws SQLException
+	{
+		SQLScan scan = this.dialect.scan("/* INSERT INTO log */ SELECT 1 -- FOR UPDATE\nFROM test");
+		
+		assertNull(scan.getInsertTable());
+		assertFalse(scan.isSelectForUpdate());
+	}
+	
+	@Test
+	public void evaluate() throws SQLException
+	{
+		long time = System.currentTimeMillis();
+		SQLScan scan = this.dialect.scan("UPDATE test SET created = CURRENT_TIMESTAMP, day = CURRENT_DATE, label = 'CURRENT_DATE' WHERE time < CURRENT_TIME(2)");
+		
+		assertEquals(String.format("UPDATE test SET created = TIMESTAMP '%s', day = DATE '%s', label = 'CURRENT_DATE' WHERE time < TIME '%s'", new java.sql.Timestamp(time), new java.sql.Date(time), new java.sql.Time(time)), this.dialect.evaluate(scan, EnumSet.allOf(SQLFunction.class), time));
+		assertEquals(String.format("UPDATE test SET created = CURRENT_TIMESTAMP, day = DATE '%s', label = 'CURRENT_DATE' WHERE time < CURRENT_TIME(2)", new java.sql.Date(time)), this.dialect.evaluate(scan, EnumSet.of(SQLFunction.CURRENT_DATE), time));
+	}
+	
+	@Test
+	public void reuse() throws SQLException
+	{
+		String sql = "INSERT INTO test (id) VALUES (NEXT VALUE FOR seq)";
+		SQLScan scan = this.dialect.scan(sql);
+		
+		// Subsequent scans of the same statement reuse the previous result
+		assertSame(scan, this.dialect.scan(new String(sql)));
+		assertNotSame(scan, this.dialect.scan("SELECT 1"));
+	}
+}
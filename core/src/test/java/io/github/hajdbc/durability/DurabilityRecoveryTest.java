@@ -0,0 +1,153 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.state.StateManager;
+
+/**
+ * @author Paul Ferraro
+ */
+public class DurabilityRecoveryTest
+{
+	private static final int INVOCATIONS = 100;
+	private static final int CONCURRENCY = 4;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+
+	@After
+	public void destroy()
+	{
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void recover()
+	{
+		Set<Object> recovered = ConcurrentHashMap.newKeySet();
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		DatabaseCluster<Void, Database<Void>> cluster = mockCluster(recovered, active, maxActive);
+
+		DurabilityRecovery<Void, Database<Void>> recovery = new DurabilityRecovery<>(cluster, this.executor, CONCURRENCY);
+
+		assertFalse(recovery.isComplete());
+
+		recovery.recover(stateManager(INVOCATIONS));
+
+		assertTrue(recovery.isComplete());
+		assertEquals(INVOCATIONS, recovery.getRecoveredCount());
+		assertEquals(1, recovery.getFailedCount());
+		assertEquals(0, recovery.getPendingCount());
+		assertEquals(INVOCATIONS - 1, recovered.size());
+		assertTrue(maxActive.get() <= CONCURRENCY);
+	}
+
+	@Test
+	public void rejected()
+	{
+		Set<Object> recovered = ConcurrentHashMap.newKeySet();
+		DatabaseCluster<Void, Database<Void>> cluster = mockCluster(recovered, new AtomicInteger(), new AtomicInteger());
+		this.executor.shutdown();
+
+		DurabilityRecovery<Void, Database<Void>> recovery = new DurabilityRecovery<>(cluster, this.executor, CONCURRENCY);
+
+		recovery.recover(stateManager(10));
+
+		// Rejected invocations are recovered by the calling thread
+		assertEquals(10, recovery.getRecoveredCount());
+		assertEquals(9, recovered.size());
+	}
+
+	private static InvocationEvent invocation(int txId)
+	{
+		return new InvocationEventImpl(txId, Durability.Phase.COMMIT, ExceptionType.SQL);
+	}
+
+	/**
+	 * Creates a state manager that streams the specified number of invocations
+	 */
+	private static StateManager stateManager(final int invocations)
+	{
+		return (StateManager) Proxy.newProxyInstance(StateManager.class.getClassLoader(), new Class<?>[] { StateManager.class }, (proxy, method, args) ->
+		{
+			if (method.getName().equals("recover") && (args != null) && (args.length == 1))
+			{
+				@SuppressWarnings("unchecked")
+				BiConsumer<InvocationEvent, Map<String, InvokerEvent>> consumer = (BiConsumer<InvocationEvent, Map<String, InvokerEvent>>) args[0];
+				for (int i = 0; i < invocations; ++i)
+				{
+					consumer.accept(invocation(i), Collections.<String, InvokerEvent>emptyMap());
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Creates a cluster whose durability records recovered invocations, failing to recover the first
+	 */
+	@SuppressWarnings("unchecked")
+	private static DatabaseCluster<Void, Database<Void>> mockCluster(final Set<Object> recovered, final AtomicInteger active, final AtomicInteger maxActive)
+	{
+		DatabaseCluster<Void, Database<Void>> cluster = mock(DatabaseCluster.class);
+		Durability<Void, Database<Void>> durability = (Durability<Void, Database<Void>>) Proxy.newProxyInstance(Durability.class.getClassLoader(), new Class<?>[] { Durability.class }, (proxy, method, args) ->
+		{
+			if (method.getName().equals("recover") && (args.length == 2))
+			{
+				InvocationEvent event = (InvocationEvent) args[0];
+				int count = active.incrementAndGet();
+				maxActive.accumulateAndGet(count, Math::max);
+				try
+				{
+					if (event.getTransactionId().equals(0))
+					{
+						throw new IllegalStateException();
+					}
+					Thread.yield();
+					recovered.add(event.getTransactionId());
+				}
+				finally
+				{
+					active.decrementAndGet();
+				}
+			}
+			return null;
+		});
+		when(cluster.getDurability()).thenReturn(durability);
+		return cluster;
+	}
+}
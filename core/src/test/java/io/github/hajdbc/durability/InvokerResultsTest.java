@@ -0,0 +1,107 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability;
+
+import static org.junit.Assert.*;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import org.junit.Test;
+
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * @author Paul Ferraro
+ */
+public class InvokerResultsTest
+{
+	@Test
+	public void values()
+	{
+		assertNull(InvokerResults.serialize(null));
+		assertNull(InvokerResults.deserialize(null));
+
+		assertValue(null, 2);
+		assertValue(Boolean.TRUE, 2);
+		assertValue(Boolean.FALSE, 2);
+		assertValue(Integer.valueOf(0), 3);
+		assertValue(Integer.valueOf(Statement.SUCCESS_NO_INFO), 3);
+		assertValue(Integer.valueOf(Integer.MAX_VALUE), 7);
+		assertValue(Integer.valueOf(Integer.MIN_VALUE), 7);
+		assertValue(Long.valueOf(Long.MIN_VALUE), 12);
+		assertValue(new int[] { 1, 1, Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED }, 7);
+		assertValue(new int[0], 3);
+		assertValue(new long[] { 1L, Long.MAX_VALUE }, 14);
+		// Falls back to Java serialization
+		assertValue("value", -1);
+	}
+
+	@Test
+	public void exceptions()
+	{
+		SQLException exception = new SQLException("reason", "08001", 1);
+		BatchUpdateException batchException = new BatchUpdateException("batch", "23505", 0, new int[] { 1, Statement.EXECUTE_FAILED });
+		exception.setNextException(batchException);
+		batchException.setNextException(new BatchUpdateException((String) null, null, 2, null));
+
+		InvokerResult result = InvokerResults.deserialize(InvokerResults.serialize(new InvokerResultImpl(exception)));
+		assertNull(result.getValue());
+		SQLException decoded = (SQLException) result.getException();
+		assertTrue(ExceptionType.SQL.getExceptionFactory().equals(exception, decoded));
+		assertEquals("reason", decoded.getMessage());
+		assertEquals("08001", decoded.getSQLState());
+		BatchUpdateException decodedBatch = (BatchUpdateException) decoded.getNextException();
+		assertArrayEquals(new int[] { 1, Statement.EXECUTE_FAILED }, decodedBatch.getUpdateCounts());
+		BatchUpdateException last = (BatchUpdateException) decodedBatch.getNextException();
+		assertNull(last.getMessage());
+		assertNull(last.getUpdateCounts());
+		assertEquals(2, last.getErrorCode());
+		assertNull(last.getNextException());
+
+		// Subclasses not captured by the binary format fall back to Java serialization
+		SQLException timeout = new SQLTimeoutException("timeout", "HYT00", 3);
+		byte[] bytes = InvokerResults.serialize(new InvokerResultImpl(timeout));
+		assertNotEquals(InvokerResults.VERSION, bytes[0]);
+		assertTrue(ExceptionType.SQL.getExceptionFactory().equals(timeout, (SQLException) InvokerResults.deserialize(bytes).getException()));
+	}
+
+	@Test
+	public void legacy()
+	{
+		// Results persisted via Java serialization remain readable
+		byte[] bytes = Objects.serialize(new InvokerResultImpl(new int[] { 1, 2 }));
+		assertArrayEquals(new int[] { 1, 2 }, (int[]) InvokerResults.deserialize(bytes).getValue());
+	}
+
+	private static void assertValue(Object value, int size)
+	{
+		byte[] bytes = InvokerResults.serialize(new InvokerResultImpl(value));
+		if (size >= 0)
+		{
+			assertEquals(InvokerResults.VERSION, bytes[0]);
+			assertEquals(size, bytes.length);
+		}
+		InvokerResult result = InvokerResults.deserialize(bytes);
+		assertNull(result.getException());
+		assertTrue(Objects.equals(value, result.getValue()));
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.durability.async;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.DurabilityListener;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+
+/**
+ * @author Paul Ferraro
+ */
+public class AsynchronousDurabilityListenerTest
+{
+	private final CountDownLatch blocker = new CountDownLatch(1);
+	private final BlockingListener listener = new BlockingListener(this.blocker);
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void destroy()
+	{
+		this.blocker.countDown();
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void coalesce()
+	{
+		AsynchronousDurabilityListener durability = new AsynchronousDurabilityListener(this.listener, Executors.defaultThreadFactory(), 16, 1, TimeUnit.MINUTES);
+		durability.start();
+		try
+		{
+			durability.beforeInvocation(invocation(0));
+			// Buffer subsequent events while the writer persists the first
+			this.listener.awaitPersisting();
+
+			durability.beforeInvocation(invocation(1));
+			durability.beforeInvoker(invoker(1, "db1"));
+			durability.afterInvoker(invoker(1, "db1"));
+			durability.afterInvocation(invocation(1));
+			durability.beforeInvocation(invocation(2));
+			durability.beforeInvoker(invoker(2, "db1"));
+			durability.afterInvocation(invocation(0));
+
+			this.blocker.countDown();
+		}
+		finally
+		{
+			durability.stop();
+		}
+
+		// Invocation 1 began and completed within the same batch
+		assertEquals(Arrays.asList("beforeInvocation(0)", "beforeInvocation(2)", "beforeInvoker(2, db1)", "afterInvocation(0)"), this.listener.events);
+
+		// Events are persisted synchronously once stopped
+		durability.afterInvocation(invocation(2));
+		assertEquals("afterInvocation(2)", this.listener.events.get(4));
+	}
+
+	@Test
+	public void capacity() throws InterruptedException, ExecutionException
+	{
+		AsynchronousDurabilityListener durability = new AsynchronousDurabilityListener(this.listener, Executors.defaultThreadFactory(), 1, 1, TimeUnit.MINUTES);
+		durability.start();
+		try
+		{
+			durability.beforeInvocation(invocation(0));
+			this.listener.awaitPersisting();
+			// Fills the buffer
+			durability.beforeInvocation(invocation(1));
+
+			Future<?> future = this.executor.submit(() -> durability.beforeInvocation(invocation(2)));
+			assertBlocked(future);
+
+			this.blocker.countDown();
+			future.get();
+		}
+		finally
+		{
+			durability.stop();
+		}
+
+		assertEquals(Arrays.asList("beforeInvocation(0)", "beforeInvocation(1)", "beforeInvocation(2)"), this.listener.events);
+	}
+
+	@Test
+	public void lag() throws InterruptedException, ExecutionException
+	{
+		AsynchronousDurabilityListener durability = new AsynchronousDurabilityListener(this.listener, Executors.defaultThreadFactory(), 16, 10, TimeUnit.MILLISECONDS);
+		durability.start();
+		try
+		{
+			durability.beforeInvocation(invocation(0));
+			this.listener.awaitPersisting();
+			Thread.sleep(20);
+
+			// The event being persisted is older than the maximum lag
+			Future<?> future = this.executor.submit(() -> durability.beforeInvocation(invocation(1)));
+			assertBlocked(future);
+
+			this.blocker.countDown();
+			future.get();
+		}
+		finally
+		{
+			durability.stop();
+		}
+
+		assertEquals(Arrays.asList("beforeInvocation(0)", "beforeInvocation(1)"), this.listener.events);
+	}
+
+	private static void assertBlocked(Future<?> future) throws InterruptedException, ExecutionException
+	{
+		try
+		{
+			future.get(100, TimeUnit.MILLISECONDS);
+			fail("Caller was not blocked");
+		}
+		catch (TimeoutException e)
+		{
+			// Expected
+		}
+	}
+
+	private static InvocationEvent invocation(int tx)
+	{
+		return new InvocationEventImpl(tx, Durability.Phase.COMMIT, ExceptionType.SQL);
+	}
+
+	private static InvokerEvent invoker(int tx, String databaseId)
+	{
+		return new InvokerEventImpl(tx, Durability.Phase.COMMIT, databaseId);
+	}
+
+	/**
+	 * Records persisted events, blocking the first until released.
+	 */
+	static class BlockingListener implements DurabilityListener
+	{
+		final List<String> events = new CopyOnWriteArrayList<>();
+		private final CountDownLatch blocker;
+		private final CountDownLatch persisting = new CountDownLatch(1);
+
+		BlockingListener(CountDownLatch blocker)
+		{
+			this.blocker = blocker;
+		}
+
+		void awaitPersisting()
+		{
+			try
+			{
+				this.persisting.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void persist(String event)
+		{
+			this.persisting.countDown();
+			try
+			{
+				this.blocker.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			this.events.add(event);
+		}
+
+		@Override
+		public void beforeInvocation(InvocationEvent event)
+		{
+			this.persist(String.format("beforeInvocation(%s)", event.getTransactionId()));
+		}
+
+		@Override
+		public void afterInvocation(InvocationEvent event)
+		{
+			this.persist(String.format("afterInvocation(%s)", event.getTransactionId()));
+		}
+
+		@Override
+		public void beforeInvoker(InvokerEvent event)
+		{
+			this.persist(String.format("beforeInvoker(%s, %s)", event.getTransactionId(), event.getDatabaseId()));
+		}
+
+		@Override
+		public void afterInvoker(InvokerEvent event)
+		{
+			this.persist(String.format("afterInvoker(%s, %s)", event.getTransactionId(), event.getDatabaseId()));
+		}
+	}
+}
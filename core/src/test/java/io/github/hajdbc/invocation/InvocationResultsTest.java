@@ -0,0 +1,94 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.invocation;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class InvocationResultsTest
+{
+	@Test
+	public void add()
+	{
+		InvocationResults<String, Integer, Exception> results = new InvocationResults<>(1);
+		
+		Assert.assertEquals(0, results.add("b"));
+		Assert.assertEquals(1, results.add("c"));
+		// Out of order database shifts existing ordinals
+		Assert.assertEquals(0, results.add("a"));
+		
+		Assert.assertEquals(3, results.size());
+		Assert.assertEquals("a", results.getDatabase(0));
+		Assert.assertEquals("b", results.getDatabase(1));
+		Assert.assertEquals("c", results.getDatabase(2));
+	}
+	
+	@Test
+	public void views()
+	{
+		Exception exception = new Exception();
+		InvocationResults<String, Integer, Exception> results = new InvocationResults<>(4);
+		for (String database: Arrays.asList("a", "b", "c", "d"))
+		{
+			results.add(database);
+		}
+		results.setResult(0, 1);
+		results.setException(1, exception);
+		results.setResult(2, null);
+		
+		SortedMap<String, Integer> resultMap = results.getResults();
+		SortedMap<String, Exception> exceptionMap = results.getExceptions();
+		
+		Assert.assertEquals(2, resultMap.size());
+		Assert.assertEquals("a", resultMap.firstKey());
+		Assert.assertEquals("c", resultMap.lastKey());
+		Assert.assertEquals(Integer.valueOf(1), resultMap.get("a"));
+		Assert.assertTrue(resultMap.containsKey("c"));
+		Assert.assertNull(resultMap.get("c"));
+		Assert.assertFalse(resultMap.containsKey("b"));
+		Assert.assertFalse(resultMap.containsKey("d"));
+		
+		Assert.assertEquals(1, exceptionMap.size());
+		Assert.assertSame(exception, exceptionMap.get("b"));
+		Assert.assertTrue(exceptionMap.headMap("b").isEmpty());
+		Assert.assertEquals(1, exceptionMap.tailMap("b").size());
+		Assert.assertEquals(1, resultMap.headMap(exceptionMap.firstKey()).size());
+		Assert.assertEquals(1, resultMap.subMap("b", "d").size());
+		
+		Assert.assertSame(exception, exceptionMap.remove("b"));
+		Assert.assertTrue(exceptionMap.isEmpty());
+		
+		Iterator<Map.Entry<String, Integer>> entries = resultMap.entrySet().iterator();
+		Assert.assertEquals("a", entries.next().getKey());
+		Map.Entry<String, Integer> entry = entries.next();
+		Assert.assertEquals("c", entry.getKey());
+		entries.remove();
+		Assert.assertFalse(entries.hasNext());
+		
+		Assert.assertEquals(1, resultMap.size());
+		Assert.assertEquals("a", resultMap.lastKey());
+	}
+}
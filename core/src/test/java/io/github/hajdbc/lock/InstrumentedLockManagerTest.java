@@ -0,0 +1,79 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class InstrumentedLockManagerTest
+{
+	@Test
+	public void statistics() throws InterruptedException
+	{
+		InstrumentedLockManager manager = new InstrumentedLockManager(new ReadWriteLockManager(() -> new StampedLock().asReadWriteLock()), 2, 10);
+		
+		assertTrue(manager.getWaitTimes().isEmpty());
+		
+		Lock lock = manager.writeLock("a");
+		lock.lock();
+		Thread.sleep(10);
+		lock.unlock();
+		
+		lock = manager.readLock(null);
+		lock.lock();
+		lock.unlock();
+		
+		// Failed acquisitions are not recorded
+		lock = manager.writeLock("b");
+		Lock otherLock = manager.writeLock("b");
+		lock.lock();
+		assertFalse(otherLock.tryLock());
+		lock.unlock();
+		
+		// Exceeds capacity
+		lock = manager.writeLock("c");
+		lock.lock();
+		lock.unlock();
+		
+		List<String> holdTimes = manager.getHoldTimes();
+		assertEquals(holdTimes.toString(), 4, holdTimes.size());
+		assertTrue(holdTimes.get(0), holdTimes.get(0).startsWith("writeLock(a): count=1,"));
+		assertTrue(holdTimes.toString(), holdTimes.stream().anyMatch(description -> description.startsWith("writeLock(*): count=1,")));
+		assertTrue(holdTimes.toString(), holdTimes.stream().anyMatch(description -> description.startsWith("writeLock(b): count=1,")));
+		
+		assertEquals(4, manager.getWaitTimes().size());
+		
+		manager.reset();
+		assertTrue(manager.getWaitTimes().isEmpty());
+		assertTrue(manager.getHoldTimes().isEmpty());
+		
+		// Capacity is available again
+		lock = manager.writeLock("c");
+		lock.lock();
+		lock.unlock();
+		assertTrue(manager.getHoldTimes().get(0).startsWith("writeLock(c): count=1,"));
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class ReadWriteLockManagerTest
+{
+	private final LockManager manager = new ReadWriteLockManager(() -> new StampedLock().asReadWriteLock());
+	
+	@Test
+	public void evict()
+	{
+		Lock writeLock = this.manager.writeLock("a");
+		Lock readLock = this.manager.readLock("b");
+		
+		assertEquals(0, this.manager.getLockCount());
+		
+		writeLock.lock();
+		readLock.lock();
+		
+		assertEquals(2, this.manager.getLockCount());
+		
+		// Failed attempts do not retain the lock
+		Lock otherLock = this.manager.writeLock("a");
+		assertFalse(otherLock.tryLock());
+		assertEquals(2, this.manager.getLockCount());
+		
+		writeLock.unlock();
+		
+		assertEquals(1, this.manager.getLockCount());
+		
+		readLock.unlock();
+		
+		assertEquals(0, this.manager.getLockCount());
+		
+		// Global lock is not a named lock
+		Lock globalLock = this.manager.writeLock(null);
+		globalLock.lock();
+		assertEquals(0, this.manager.getLockCount());
+		globalLock.unlock();
+	}
+	
+	@Test
+	public void waiter() throws InterruptedException
+	{
+		Lock lock = this.manager.writeLock("a");
+		lock.lock();
+		
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread thread = new Thread(() ->
+		{
+			Lock waiter = this.manager.writeLock("a");
+			waiter.lock();
+			acquired.countDown();
+			waiter.unlock();
+		});
+		thread.start();
+		
+		assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+		
+		// Lock must not be evicted while a waiter remains
+		lock.unlock();
+		
+		assertTrue(acquired.await(10, TimeUnit.SECONDS));
+		thread.join();
+		
+		assertEquals(0, this.manager.getLockCount());
+	}
+}
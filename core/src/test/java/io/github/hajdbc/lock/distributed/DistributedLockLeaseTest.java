@@ -0,0 +1,166 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.lock.LockManager;
+import io.github.hajdbc.lock.stamped.StampedLockManagerFactory;
+
+/**
+ * Validates lease mode of {@link DistributedLockManager}, using an in-process group.
+ * @author Paul Ferraro
+ */
+public class DistributedLockLeaseTest
+{
+	private final LocalGroup group = new LocalGroup();
+	private LockManager manager1;
+	private LockManager manager2;
+
+	@Before
+	public void init() throws Exception
+	{
+		this.manager1 = this.createLockManager("node1");
+		this.manager2 = this.createLockManager("node2");
+		this.manager1.start();
+		this.manager2.start();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.manager2.stop();
+		this.manager1.stop();
+	}
+
+	private LockManager createLockManager(String name) throws Exception
+	{
+		DatabaseCluster<?, ?> cluster = mock(DatabaseCluster.class);
+		when(cluster.getId()).thenReturn("cluster");
+		when(cluster.getLockManager()).thenReturn(new StampedLockManagerFactory().createLockManager());
+		when(cluster.getThreadFactory()).thenReturn(Executors.defaultThreadFactory());
+		return new DistributedLockManager(cluster, this.group.createCommandDispatcherFactory(name), true);
+	}
+
+	private int count(Class<?> commandClass)
+	{
+		return this.group.count(commandClass);
+	}
+
+	@Test
+	public void local()
+	{
+		Lock lock = this.manager2.writeLock("sequence");
+		
+		assertTrue(lock.tryLock());
+		lock.unlock();
+		
+		assertEquals(1, this.count(AcquireLeaseCommand.class));
+		assertEquals(1, this.count(RevokeLeaseCommand.class));
+		
+		// Subsequent acquisitions are local
+		for (int i = 0; i < 10; ++i)
+		{
+			lock = this.manager2.writeLock("sequence");
+			lock.lock();
+			lock.unlock();
+		}
+		
+		assertEquals(1, this.count(AcquireLeaseCommand.class));
+		assertEquals(1, this.count(RevokeLeaseCommand.class));
+		
+		// Global lock is never leased
+		assertEquals(0, this.count(RequestLockCommand.class));
+		assertEquals(0, this.count(AcquireLockCommand.class));
+		lock = this.manager2.writeLock(null);
+		lock.lock();
+		lock.unlock();
+		assertEquals(1, this.count(RequestLockCommand.class));
+		assertEquals(1, this.count(AcquireLockCommand.class));
+	}
+
+	@Test
+	public void revoke() throws Exception
+	{
+		Lock lock1 = this.manager1.writeLock("sequence");
+		final Lock lock2 = this.manager2.writeLock("sequence");
+		
+		lock1.lock();
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			final CountDownLatch latch = new CountDownLatch(1);
+			Future<Void> future = executor.submit(() ->
+			{
+				latch.countDown();
+				lock2.lock();
+				lock2.unlock();
+				return null;
+			});
+			
+			latch.await();
+			
+			// Revocation must wait for the local holder
+			Thread.sleep(100);
+			assertFalse(future.isDone());
+			
+			lock1.unlock();
+			
+			future.get(10, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		
+		// Node 2 now owns the lease
+		int acquisitions = this.count(AcquireLeaseCommand.class);
+		int revocations = this.count(RevokeLeaseCommand.class);
+		
+		assertTrue(lock2.tryLock());
+		lock2.unlock();
+		
+		assertEquals(acquisitions, this.count(AcquireLeaseCommand.class));
+		
+		// Node 1 must revoke it from node 2
+		assertTrue(lock1.tryLock());
+		lock1.unlock();
+		
+		assertEquals(revocations + 1, this.count(RevokeLeaseCommand.class));
+		
+		// Node 2 must request it again
+		assertTrue(lock2.tryLock());
+		lock2.unlock();
+		
+		assertEquals(acquisitions + 1, this.count(AcquireLeaseCommand.class));
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.lock.LockManager;
+import io.github.hajdbc.lock.stamped.StampedLockManagerFactory;
+
+/**
+ * Validates the queued grant protocol of {@link DistributedLockManager}, using an in-process group.
+ * @author Paul Ferraro
+ */
+public class DistributedLockQueueTest
+{
+	private final LocalGroup group = new LocalGroup();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private LockManager coordinator;
+	private LockManager manager1;
+	private LockManager manager2;
+
+	@Before
+	public void init() throws Exception
+	{
+		this.coordinator = this.createLockManager("node0");
+		this.manager1 = this.createLockManager("node1");
+		this.manager2 = this.createLockManager("node2");
+		this.coordinator.start();
+		this.manager1.start();
+		this.manager2.start();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.executor.shutdownNow();
+		this.manager2.stop();
+		this.manager1.stop();
+		this.coordinator.stop();
+	}
+
+	private LockManager createLockManager(String name) throws Exception
+	{
+		DatabaseCluster<?, ?> cluster = mock(DatabaseCluster.class);
+		when(cluster.getId()).thenReturn("cluster");
+		when(cluster.getLockManager()).thenReturn(new StampedLockManagerFactory().createLockManager());
+		when(cluster.getThreadFactory()).thenReturn(Executors.defaultThreadFactory());
+		return new DistributedLockManager(cluster, this.group.createCommandDispatcherFactory(name));
+	}
+
+	private void awaitRequests(int requests) throws InterruptedException
+	{
+		while (this.group.count(RequestLockCommand.class) < requests)
+		{
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void fifo() throws Exception
+	{
+		final List<String> order = new CopyOnWriteArrayList<>();
+		Lock lock = this.manager1.writeLock("sequence");
+		
+		lock.lock();
+		
+		assertEquals(1, this.group.count(RequestLockCommand.class));
+		
+		Future<?> future2 = this.executor.submit(() -> this.acquire(this.manager2, "node2", order));
+		this.awaitRequests(2);
+		Future<?> future1 = this.executor.submit(() -> this.acquire(this.manager1, "node1", order));
+		this.awaitRequests(3);
+		
+		Thread.sleep(100);
+		assertTrue(order.isEmpty());
+		assertEquals(0, this.group.count(GrantLockCommand.class));
+		
+		lock.unlock();
+		
+		future2.get(10, TimeUnit.SECONDS);
+		future1.get(10, TimeUnit.SECONDS);
+		
+		// Waiters were granted the lock in request order, without retries
+		assertEquals(2, order.size());
+		assertEquals("node2", order.get(0));
+		assertEquals("node1", order.get(1));
+		assertEquals(2, this.group.count(GrantLockCommand.class));
+		assertEquals(3, this.group.count(RequestLockCommand.class));
+	}
+
+	private Void acquire(LockManager manager, String name, List<String> order)
+	{
+		Lock lock = manager.writeLock("sequence");
+		lock.lock();
+		try
+		{
+			order.add(name);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return null;
+	}
+
+	@Test
+	public void timeout() throws Exception
+	{
+		Lock lock1 = this.manager1.writeLock("sequence");
+		Lock lock2 = this.manager2.writeLock("sequence");
+		
+		lock1.lock();
+		
+		try
+		{
+			assertFalse(lock2.tryLock(10, TimeUnit.MILLISECONDS));
+		}
+		finally
+		{
+			lock1.unlock();
+		}
+		
+		// Abandoned request must not retain the lock
+		assertTrue(lock1.tryLock(10, TimeUnit.SECONDS));
+		lock1.unlock();
+		assertTrue(lock2.tryLock(10, TimeUnit.SECONDS));
+		lock2.unlock();
+	}
+}
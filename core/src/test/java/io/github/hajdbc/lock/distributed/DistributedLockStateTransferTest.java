@@ -0,0 +1,182 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.lock.LockManager;
+import io.github.hajdbc.lock.stamped.StampedLockManagerFactory;
+
+/**
+ * Validates the transfer of remote locks to a joining {@link DistributedLockManager}, using an in-process group.
+ * @author Paul Ferraro
+ */
+public class DistributedLockStateTransferTest
+{
+	private final LocalGroup group = new LocalGroup();
+	private final LockManager localLockManager = new StampedLockManagerFactory().createLockManager();
+	private DistributedLockManager coordinator;
+	private DistributedLockManager manager1;
+	private DistributedLockManager manager2;
+
+	@Before
+	public void init() throws Exception
+	{
+		this.coordinator = this.createLockManager("node0", new StampedLockManagerFactory().createLockManager());
+		this.manager1 = this.createLockManager("node1", new StampedLockManagerFactory().createLockManager());
+		this.coordinator.start();
+		this.manager1.start();
+	}
+
+	@After
+	public void destroy()
+	{
+		if (this.manager2 != null)
+		{
+			this.manager2.stop();
+		}
+		this.manager1.stop();
+		this.coordinator.stop();
+	}
+
+	private DistributedLockManager createLockManager(String name, LockManager lockManager) throws Exception
+	{
+		DatabaseCluster<?, ?> cluster = mock(DatabaseCluster.class);
+		when(cluster.getId()).thenReturn("cluster");
+		when(cluster.getLockManager()).thenReturn(lockManager);
+		when(cluster.getThreadFactory()).thenReturn(Executors.defaultThreadFactory());
+		return new DistributedLockManager(cluster, this.group.createCommandDispatcherFactory(name));
+	}
+
+	@Test
+	public void join() throws Exception
+	{
+		Lock lockA = this.manager1.writeLock("a");
+		Lock lockB = this.manager1.writeLock("b");
+		Lock lockC = this.manager1.writeLock("c");
+		lockA.lock();
+		lockB.lock();
+
+		// Changes made after the state was written, but before it is read
+		this.group.enableStateTransfer(() ->
+		{
+			lockA.unlock();
+			lockC.lock();
+		});
+
+		this.manager2 = this.createLockManager("node2", this.localLockManager);
+
+		// Contend with a local holder of a transferred lock
+		Lock localB = this.localLockManager.writeLock("b");
+		localB.lock();
+
+		// Must not block on the local holder
+		this.manager2.start();
+
+		Member member = this.manager1.dispatcher.getLocal();
+
+		// Released since the snapshot
+		assertFalse(this.isHeld(member, "a"));
+		Lock localA = this.localLockManager.writeLock("a");
+		assertTrue(localA.tryLock());
+		localA.unlock();
+
+		// Acquired since the snapshot
+		assertTrue(this.isHeld(member, "c"));
+		assertFalse(this.localLockManager.writeLock("c").tryLock());
+
+		// Restored once released by the local holder
+		assertFalse(this.isHeld(member, "b"));
+		localB.unlock();
+		for (int i = 0; !this.isHeld(member, "b") && (i < 10000); ++i)
+		{
+			Thread.sleep(1);
+		}
+		assertTrue(this.isHeld(member, "b"));
+		assertFalse(localB.tryLock());
+
+		// Released locks are not retained by the joining member
+		lockB.unlock();
+		lockC.unlock();
+		assertFalse(this.isHeld(member, "b"));
+		assertFalse(this.isHeld(member, "c"));
+		assertTrue(localB.tryLock());
+		localB.unlock();
+	}
+
+	@Test
+	public void acquireReleaseDuringTransfer() throws Exception
+	{
+		Lock lockD = this.manager1.writeLock("d");
+		Lock lockE = this.manager1.writeLock("e");
+
+		this.manager2 = this.createLockManager("node2", this.localLockManager);
+
+		// Acquired after joining, but before the snapshot, thus contained in both the delta and the snapshot
+		lockD.lock();
+		lockE.lock();
+
+		// Released after the snapshot was written, but before it is read
+		this.group.enableStateTransfer(() -> lockD.unlock());
+
+		this.manager2.start();
+
+		Member member = this.manager1.dispatcher.getLocal();
+
+		// Not restored from the stale snapshot
+		assertFalse(this.isHeld(member, "d"));
+		Lock localD = this.localLockManager.writeLock("d");
+		assertTrue(localD.tryLock());
+		localD.unlock();
+
+		// Restoration waits on the delta acquisition, which is then released
+		lockE.unlock();
+
+		Lock localE = this.localLockManager.writeLock("e");
+		boolean locked = localE.tryLock();
+		for (int i = 0; !locked && (i < 10000); ++i)
+		{
+			Thread.sleep(1);
+			locked = localE.tryLock();
+		}
+		assertTrue(locked);
+		assertFalse(this.isHeld(member, "e"));
+		localE.unlock();
+	}
+
+	private boolean isHeld(Member member, String id)
+	{
+		RemoteLockDescriptor descriptor = new DistributedLockManager.RemoteLockDescriptorImpl(id, LockType.WRITE, member);
+		Map<LockDescriptor, Lock> locks = this.manager2.getRemoteLocks(descriptor);
+		synchronized (locks)
+		{
+			return locks.containsKey(descriptor);
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandDispatcher;
+import io.github.hajdbc.distributed.CommandDispatcherFactory;
+import io.github.hajdbc.distributed.CommandResponse;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.distributed.MembershipListener;
+import io.github.hajdbc.distributed.Stateful;
+
+/**
+ * In-process group of command dispatchers that executes commands synchronously on the calling thread.
+ * Asynchronous commands execute on the executor of the group, if specified.
+ * The coordinator is the member with the lowest name.
+ * A member receives commands as soon as its dispatcher is created, and, if enabled, the state of another member when its dispatcher is started.
+ * @author Paul Ferraro
+ */
+public class LocalGroup
+{
+	private final Map<Member, Object> contexts = new ConcurrentSkipListMap<>();
+	private final Map<Member, MembershipListener> listeners = new ConcurrentSkipListMap<>();
+	private final Map<Member, Stateful> states = new ConcurrentSkipListMap<>();
+	private final Map<Class<?>, AtomicInteger> commands = new ConcurrentHashMap<>();
+	private final Executor executor;
+	private volatile Runnable stateTransferTask;
+
+	public LocalGroup()
+	{
+		this(null);
+	}
+
+	public LocalGroup(Executor executor)
+	{
+		this.executor = executor;
+	}
+
+	public CommandDispatcherFactory createCommandDispatcherFactory(String name)
+	{
+		return new LocalCommandDispatcherFactory(new LocalMember(name));
+	}
+
+	/**
+	 * Returns the number of times a command of the specified type was executed.
+	 */
+	public int count(Class<?> commandClass)
+	{
+		AtomicInteger count = this.commands.get(commandClass);
+		return (count != null) ? count.get() : 0;
+	}
+
+	/**
+	 * Enables state transfer to starting members.
+	 * @param task runs after the state for a starting member is written, but before it is read
+	 */
+	public void enableStateTransfer(Runnable task)
+	{
+		this.stateTransferTask = task;
+	}
+
+	private class LocalCommandDispatcherFactory implements CommandDispatcherFactory
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Member member;
+
+		LocalCommandDispatcherFactory(Member member)
+		{
+			this.member = member;
+		}
+
+		@Override
+		public String getId()
+		{
+			return "local";
+		}
+
+		@Override
+		public <C> CommandDispatcher<C> createCommandDispatcher(String id, C context, Stateful stateful, MembershipListener membershipListener)
+		{
+			LocalGroup.this.contexts.put(this.member, context);
+			LocalGroup.this.listeners.put(this.member, membershipListener);
+			LocalGroup.this.states.put(this.member, stateful);
+			for (Map.Entry<Member, MembershipListener> entry: LocalGroup.this.listeners.entrySet())
+			{
+				entry.getValue().added(this.member);
+				if (!entry.getKey().equals(this.member))
+				{
+					membershipListener.added(entry.getKey());
+				}
+			}
+			return new LocalCommandDispatcher<>(this.member);
+		}
+	}
+
+	private class LocalCommandDispatcher<C> implements CommandDispatcher<C>
+	{
+		private final Member local;
+
+		LocalCommandDispatcher(Member local)
+		{
+			this.local = local;
+		}
+
+		@Override
+		public void start() throws SQLException
+		{
+			Runnable task = LocalGroup.this.stateTransferTask;
+			if (task == null) return;
+
+			for (Map.Entry<Member, Stateful> entry: LocalGroup.this.states.entrySet())
+			{
+				if (!entry.getKey().equals(this.local))
+				{
+					try
+					{
+						ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+						try (ObjectOutputStream output = new ObjectOutputStream(bytes))
+						{
+							entry.getValue().writeState(output);
+						}
+						task.run();
+						try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+						{
+							LocalGroup.this.states.get(this.local).readState(input);
+						}
+					}
+					catch (IOException | ClassNotFoundException e)
+					{
+						throw new SQLException(e);
+					}
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void stop()
+		{
+		}
+
+		@Override
+		public <R> Map<Member, CommandResponse<R>> executeAll(Command<R, C> command, Member... excludedMembers)
+		{
+			Map<Member, CommandResponse<R>> responses = new TreeMap<>();
+			for (Member member: LocalGroup.this.contexts.keySet())
+			{
+				if (!Arrays.asList(excludedMembers).contains(member))
+				{
+					responses.put(member, this.execute(command, member));
+				}
+			}
+			return responses;
+		}
+
+		@Override
+		public <R> CompletableFuture<Map<Member, CommandResponse<R>>> executeAllAsync(Command<R, C> command, Member... excludedMembers)
+		{
+			Executor executor = LocalGroup.this.executor;
+			return (executor != null) ? CompletableFuture.supplyAsync(() -> this.executeAll(command, excludedMembers), executor) : CommandDispatcher.super.executeAllAsync(command, excludedMembers);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <R> CommandResponse<R> execute(Command<R, C> command, Member member)
+		{
+			LocalGroup.this.commands.computeIfAbsent(command.getClass(), key -> new AtomicInteger()).incrementAndGet();
+			R result = command.execute((C) LocalGroup.this.contexts.get(member));
+			return () -> result;
+		}
+
+		@Override
+		public Member getLocal()
+		{
+			return this.local;
+		}
+
+		@Override
+		public Member getCoordinator()
+		{
+			return LocalGroup.this.contexts.keySet().iterator().next();
+		}
+	}
+
+	private static class LocalMember implements Member
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		LocalMember(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public int compareTo(Member member)
+		{
+			return this.name.compareTo(((LocalMember) member).name);
+		}
+
+		@Override
+		public boolean equals(Object object)
+		{
+			return (object instanceof LocalMember) && this.name.equals(((LocalMember) object).name);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.name.hashCode();
+		}
+
+		@Override
+		public String toString()
+		{
+			return this.name;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.distributed;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandCodec;
+import io.github.hajdbc.distributed.ExternalizingCommandCodec;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * Unit test for {@link AcquireLockCommandExternalizer} and {@link ReleaseLockCommandExternalizer}.
+ * @author Paul Ferraro
+ */
+public class LockCommandExternalizerTest
+{
+	private final CommandCodec codec = new ExternalizingCommandCodec();
+	private final Member local = new SimpleMember("local");
+	private final Member remote = new SimpleMember("remote");
+
+	@Test
+	public void acquire()
+	{
+		RemoteLockDescriptor descriptor = new DistributedLockManager.RemoteLockDescriptorImpl("sequence", LockType.WRITE, this.local);
+
+		AcquireLockCommand result = this.roundTrip(new AcquireLockCommand(descriptor, 1000L));
+
+		assertDescriptor(descriptor, result.getDescriptor());
+		assertSame(this.remote, result.getDescriptor().getMember());
+		assertEquals(1000L, result.getTimeout());
+	}
+
+	@Test
+	public void release()
+	{
+		// The global lock has no identifier
+		RemoteLockDescriptor descriptor = new DistributedLockManager.RemoteLockDescriptorImpl(null, LockType.READ, this.local);
+
+		ReleaseLockCommand result = this.roundTrip(new ReleaseLockCommand(descriptor));
+
+		assertDescriptor(descriptor, result.getDescriptor());
+		assertSame(this.remote, result.getDescriptor().getMember());
+	}
+
+	@Test
+	public void serialized()
+	{
+		CommandCodec codec = new ExternalizingCommandCodec(false);
+		RemoteLockDescriptor descriptor = new DistributedLockManager.RemoteLockDescriptorImpl("sequence", LockType.WRITE, this.local);
+		AcquireLockCommand command = new AcquireLockCommand(descriptor, 1000L);
+
+		// Members that predate externalizers must be able to decode what we encode
+		byte[] bytes = codec.encode(command);
+		assertArrayEquals(Objects.serialize(command), bytes);
+
+		Command<?, ?> result = this.codec.decode(bytes, 0, bytes.length, this.remote);
+		assertSame(AcquireLockCommand.class, result.getClass());
+		assertDescriptor(descriptor, ((AcquireLockCommand) result).getDescriptor());
+
+		// ... while still decoding the externalized commands of upgraded members
+		bytes = this.codec.encode(command);
+		result = codec.decode(bytes, 0, bytes.length, this.remote);
+		assertSame(AcquireLockCommand.class, result.getClass());
+		assertSame(this.remote, ((AcquireLockCommand) result).getDescriptor().getMember());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <C extends Command<?, ?>> C roundTrip(C command)
+	{
+		byte[] bytes = this.codec.encode(command);
+		assertTrue(bytes.length * 10 < Objects.serialize(command).length);
+
+		Command<Object, Object> result = this.codec.decode(bytes, 0, bytes.length, this.remote);
+		assertSame(command.getClass(), result.getClass());
+		return (C) result;
+	}
+
+	private static void assertDescriptor(RemoteLockDescriptor expected, RemoteLockDescriptor actual)
+	{
+		assertEquals(expected.getId(), actual.getId());
+		assertSame(expected.getType(), actual.getType());
+	}
+
+	private static class SimpleMember implements Member
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		SimpleMember(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public int compareTo(Member member)
+		{
+			return this.name.compareTo(((SimpleMember) member).name);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.lock.striped;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class StripedReadWriteLockTest
+{
+	@Test
+	public void stripes()
+	{
+		assertEquals(1, new StripedReadWriteLock(0).getStripes());
+		assertEquals(1, new StripedReadWriteLock(1).getStripes());
+		assertEquals(2, new StripedReadWriteLock(2).getStripes());
+		assertEquals(4, new StripedReadWriteLock(3).getStripes());
+		assertEquals(64, new StripedReadWriteLock(64).getStripes());
+	}
+	
+	@Test
+	public void test() throws InterruptedException
+	{
+		StripedReadWriteLock rwLock = new StripedReadWriteLock(4);
+		Lock writeLock = rwLock.writeLock();
+		
+		// Validate that a write lock blocks readers of every stripe
+		assertTrue(writeLock.tryLock());
+		try
+		{
+			for (int i = 0; i < 100; ++i)
+			{
+				assertFalse(rwLock.readLock().tryLock());
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+		
+		Lock readLock = rwLock.readLock();
+		assertTrue(readLock.tryLock());
+		try
+		{
+			// Validate that a read lock blocks writers
+			assertFalse(writeLock.tryLock());
+			assertFalse(writeLock.tryLock(1, TimeUnit.MILLISECONDS));
+			
+			// Validate multiple readers
+			Lock otherReadLock = rwLock.readLock();
+			assertTrue(otherReadLock.tryLock());
+			otherReadLock.unlock();
+		}
+		finally
+		{
+			readLock.unlock();
+		}
+		
+		// Validate that a failed write lock attempt released any acquired stripes
+		assertTrue(writeLock.tryLock());
+		writeLock.unlock();
+	}
+	
+	@Test
+	public void unlockFromOtherThread() throws InterruptedException
+	{
+		StripedReadWriteLock rwLock = new StripedReadWriteLock(2);
+		Lock readLock = rwLock.readLock();
+		
+		readLock.lock();
+		
+		Thread thread = new Thread(readLock::unlock);
+		thread.start();
+		thread.join();
+		
+		assertTrue(rwLock.writeLock().tryLock());
+		rwLock.writeLock().unlock();
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class DatabaseObjectArrayTest
+{
+	@Test
+	public void test()
+	{
+		Map<String, Integer> map = new TreeMap<>();
+		map.put("c", 3);
+		map.put("a", 1);
+		DatabaseObjectArray<String, Integer> objects = new DatabaseObjectArray<>(map);
+		
+		Assert.assertEquals(Integer.valueOf(1), objects.get("a"));
+		Assert.assertNull(objects.get("b"));
+		Assert.assertEquals(Integer.valueOf(3), objects.get("c"));
+		
+		objects.set("b", 2);
+		Assert.assertEquals(Integer.valueOf(1), objects.get("a"));
+		Assert.assertEquals(Integer.valueOf(2), objects.get("b"));
+		Assert.assertEquals(Integer.valueOf(3), objects.get("c"));
+		Assert.assertEquals(3, objects.entrySet().size());
+		
+		Assert.assertEquals(Integer.valueOf(1), objects.remove("a"));
+		Assert.assertNull(objects.remove("a"));
+		Assert.assertNull(objects.get("a"));
+		Assert.assertFalse(objects.isEmpty());
+		
+		Iterator<Map.Entry<String, Integer>> entries = objects.entrySet().iterator();
+		Assert.assertEquals("b", entries.next().getKey());
+		Assert.assertEquals("c", entries.next().getKey());
+		Assert.assertFalse(entries.hasNext());
+		
+		// Removed database retains its ordinal
+		objects.set("a", 4);
+		Assert.assertEquals(Integer.valueOf(4), objects.get("a"));
+		
+		objects.remove("a");
+		objects.remove("b");
+		objects.remove("c");
+		Assert.assertTrue(objects.isEmpty());
+		Assert.assertEquals(0, objects.entrySet().size());
+	}
+}
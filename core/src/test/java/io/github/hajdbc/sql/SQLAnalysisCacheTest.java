@@ -0,0 +1,145 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.IdentityColumnSupport;
+import io.github.hajdbc.SequenceSupport;
+import io.github.hajdbc.dialect.Dialect;
+import io.github.hajdbc.dialect.StandardDialect;
+
+/**
+ * @author Paul Ferraro
+ */
+public class SQLAnalysisCacheTest
+{
+	private final DatabaseCluster<?, ?> cluster = mock(DatabaseCluster.class);
+	private final Dialect dialect = new StandardDialect()
+	{
+		@Override
+		public SequenceSupport getSequenceSupport()
+		{
+			return this;
+		}
+
+		@Override
+		public IdentityColumnSupport getIdentityColumnSupport()
+		{
+			return this;
+		}
+	};
+	
+	public SQLAnalysisCacheTest()
+	{
+		when(this.cluster.getDialect()).thenReturn(this.dialect);
+		when(this.cluster.isSequenceDetectionEnabled()).thenReturn(true);
+		when(this.cluster.isIdentityColumnDetectionEnabled()).thenReturn(true);
+		when(this.cluster.isCurrentTimestampEvaluationEnabled()).thenReturn(true);
+	}
+	
+	@Test
+	public void analyze() throws SQLException
+	{
+		SQLAnalysisCache cache = new SQLAnalysisCache(this.cluster);
+		
+		SQLAnalysis analysis = cache.analyze("SELECT NEXT VALUE FOR success FROM dummy FOR UPDATE");
+		Assert.assertEquals("success", analysis.getSequence());
+		Assert.assertNull(analysis.getInsertTable());
+		Assert.assertTrue(analysis.isSelectForUpdate());
+		Assert.assertFalse(analysis.isEvaluationRequired());
+		
+		analysis = cache.analyze("INSERT INTO success (timestamp) VALUES (CURRENT_TIMESTAMP)");
+		Assert.assertNull(analysis.getSequence());
+		Assert.assertEquals("success", analysis.getInsertTable());
+		Assert.assertFalse(analysis.isSelectForUpdate());
+		Assert.assertTrue(analysis.isEvaluationRequired());
+		
+		Assert.assertEquals(0, cache.getHits());
+		Assert.assertEquals(2, cache.getMisses());
+		
+		Assert.assertSame(analysis, cache.analyze("INSERT INTO success (timestamp) VALUES (CURRENT_TIMESTAMP)"));
+		
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(2, cache.getMisses());
+	}
+	
+	@Test
+	public void customSupport() throws SQLException
+	{
+		DatabaseCluster<?, ?> cluster = mock(DatabaseCluster.class);
+		Dialect dialect = new StandardDialect()
+		{
+			@Override
+			public SequenceSupport getSequenceSupport()
+			{
+				return this;
+			}
+
+			@Override
+			public String parseSequence(String sql)
+			{
+				return "custom_sequence";
+			}
+
+			@Override
+			public IdentityColumnSupport getIdentityColumnSupport()
+			{
+				return this;
+			}
+
+			@Override
+			public String parseInsertTable(String sql)
+			{
+				return "custom_table";
+			}
+		};
+		when(cluster.getDialect()).thenReturn(dialect);
+		when(cluster.isSequenceDetectionEnabled()).thenReturn(true);
+		when(cluster.isIdentityColumnDetectionEnabled()).thenReturn(true);
+		
+		SQLAnalysis analysis = new SQLAnalysisCache(cluster).analyze("SELECT 1");
+		
+		Assert.assertEquals("custom_sequence", analysis.getSequence());
+		Assert.assertEquals("custom_table", analysis.getInsertTable());
+	}
+	
+	@Test
+	public void capacity() throws SQLException
+	{
+		SQLAnalysisCache cache = new SQLAnalysisCache(this.cluster, 2);
+		
+		cache.analyze("SELECT 1");
+		cache.analyze("SELECT 2");
+		cache.analyze("SELECT 3");
+		
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(3, cache.getMisses());
+		
+		cache.clear();
+		
+		Assert.assertEquals(0, cache.size());
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sql;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+import io.github.hajdbc.util.concurrent.CallerRunsExecutor;
+import io.github.hajdbc.util.concurrent.SynchronousExecutor;
+
+/**
+ * @author Paul Ferraro
+ */
+public class TransactionModeEnumTest
+{
+	private final ExecutorService executor = mock(ExecutorService.class);
+	
+	@Test
+	public void parallel()
+	{
+		assertSame(this.executor, TransactionModeEnum.PARALLEL.getTransactionExecutor(this.executor, false));
+		assertSame(this.executor, TransactionModeEnum.PARALLEL.getExecutor(this.executor));
+	}
+	
+	@Test
+	public void serial()
+	{
+		assertTrue(TransactionModeEnum.SERIAL.getTransactionExecutor(this.executor, false) instanceof SynchronousExecutor);
+		assertSame(this.executor, TransactionModeEnum.SERIAL.getExecutor(this.executor));
+	}
+	
+	@Test
+	public void hybrid()
+	{
+		assertTrue(TransactionModeEnum.HYBRID.getTransactionExecutor(this.executor, false) instanceof CallerRunsExecutor);
+		assertTrue(TransactionModeEnum.HYBRID.getExecutor(this.executor) instanceof CallerRunsExecutor);
+		assertEquals("hybrid", TransactionModeEnum.HYBRID.toString());
+	}
+}
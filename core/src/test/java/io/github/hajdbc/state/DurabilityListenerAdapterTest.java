@@ -0,0 +1,125 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.DurabilityEvent;
+import io.github.hajdbc.durability.DurabilityEventFactory;
+import io.github.hajdbc.durability.DurabilityEventImpl;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+import io.github.hajdbc.tx.SimpleTransactionIdentifierFactory;
+
+/**
+ * @author Paul Ferraro
+ */
+public class DurabilityListenerAdapterTest
+{
+	private final RecordingListener listener = new RecordingListener();
+	private final DurabilityListenerAdapter adapter = new DurabilityListenerAdapter(this.listener, new SimpleTransactionIdentifierFactory(), new DurabilityEventFactory()
+	{
+		@Override
+		public DurabilityEvent createEvent(Object transactionId, Durability.Phase phase)
+		{
+			return new DurabilityEventImpl(transactionId, phase);
+		}
+
+		@Override
+		public InvocationEvent createInvocationEvent(Object transactionId, Durability.Phase phase, ExceptionType exceptionType)
+		{
+			return new InvocationEventImpl(transactionId, phase, exceptionType);
+		}
+
+		@Override
+		public InvokerEvent createInvokerEvent(Object transactionId, Durability.Phase phase, String databaseId)
+		{
+			return new InvokerEventImpl(transactionId, phase, databaseId);
+		}
+	});
+	
+	@Test
+	public void recoverPaddedTransactionId()
+	{
+		// Ids were padded to 64 bytes by earlier versions
+		byte[] stored = ByteBuffer.allocate(64).putLong(1L).array();
+		
+		InvocationEvent event = this.adapter.createInvocationEvent(stored, (byte) Durability.Phase.COMMIT.ordinal(), (byte) ExceptionType.SQL.ordinal());
+		
+		assertEquals(Long.valueOf(1L), event.getTransactionId());
+		
+		this.adapter.afterInvocation(event);
+		
+		// Removed using the stored key
+		assertArrayEquals(stored, this.listener.transactionId);
+		
+		// Subsequent events of the same transaction use the current size
+		this.adapter.afterInvocation(event);
+		
+		assertArrayEquals(ByteBuffer.allocate(Long.BYTES).putLong(1L).array(), this.listener.transactionId);
+	}
+	
+	@Test
+	public void recoverTransactionId()
+	{
+		byte[] stored = ByteBuffer.allocate(Long.BYTES).putLong(2L).array();
+		
+		InvocationEvent event = this.adapter.createInvocationEvent(stored, (byte) Durability.Phase.COMMIT.ordinal(), (byte) ExceptionType.SQL.ordinal());
+		
+		this.adapter.afterInvocation(event);
+		
+		assertArrayEquals(stored, this.listener.transactionId);
+	}
+	
+	static class RecordingListener implements SerializedDurabilityListener
+	{
+		volatile byte[] transactionId;
+		
+		@Override
+		public void beforeInvocation(byte[] transactionId, byte phase, byte exceptionType)
+		{
+			this.transactionId = transactionId;
+		}
+
+		@Override
+		public void afterInvocation(byte[] transactionId, byte phase)
+		{
+			this.transactionId = transactionId;
+		}
+
+		@Override
+		public void beforeInvoker(byte[] transactionId, byte phase, String databaseId)
+		{
+			this.transactionId = transactionId;
+		}
+
+		@Override
+		public void afterInvoker(byte[] transactionId, byte phase, String databaseId, byte[] result)
+		{
+			this.transactionId = transactionId;
+		}
+	}
+}
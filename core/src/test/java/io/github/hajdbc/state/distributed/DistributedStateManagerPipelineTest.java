@@ -0,0 +1,146 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.distributed;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+import io.github.hajdbc.durability.InvokerResultImpl;
+import io.github.hajdbc.lock.distributed.LocalGroup;
+import io.github.hajdbc.state.StateManager;
+
+/**
+ * Unit test for the pipelined replication of {@link DistributedStateManager}.
+ * @author Paul Ferraro
+ */
+public class DistributedStateManagerPipelineTest
+{
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private final LocalGroup group = new LocalGroup(this.executor);
+	private DistributedStateManager<Void, Database<Void>> manager1;
+	private DistributedStateManager<Void, Database<Void>> manager2;
+
+	@Before
+	public void init() throws Exception
+	{
+		this.manager1 = new DistributedStateManager<>(this.createCluster(), this.group.createCommandDispatcherFactory("node1"), true);
+		this.manager2 = new DistributedStateManager<>(this.createCluster(), this.group.createCommandDispatcherFactory("node2"), true);
+		this.manager1.start();
+		this.manager2.start();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.manager1.stop();
+		this.manager2.stop();
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void invocation() throws Exception
+	{
+		InvocationEvent invocation = new InvocationEventImpl(UUID.randomUUID(), Durability.Phase.COMMIT, ExceptionType.SQL);
+		InvokerEvent invoker = new InvokerEventImpl(invocation.getTransactionId(), invocation.getPhase(), "db1");
+
+		// The invocation boundary is replicated synchronously
+		this.manager1.beforeInvocation(invocation);
+
+		Map<InvocationEvent, Map<String, InvokerEvent>> invocations = this.manager2.getRemoteInvokers(this.manager1);
+		assertTrue(invocations.get(invocation).isEmpty());
+
+		// Hold the executor so that invoker events remain in flight
+		CountDownLatch latch = new CountDownLatch(1);
+		this.executor.execute(() ->
+		{
+			try
+			{
+				latch.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		this.manager1.beforeInvoker(invoker);
+		invoker.setResult(new InvokerResultImpl(Integer.valueOf(1)));
+		this.manager1.afterInvoker(invoker);
+
+		// Invoker events do not wait for the cluster
+		assertTrue(invocations.get(invocation).isEmpty());
+		assertEquals(0, this.group.count(InvokerCommand.class));
+
+		latch.countDown();
+		this.executor.submit(() -> null).get();
+
+		// Invoker events of an invocation are replicated in order
+		assertEquals(2, this.group.count(InvokerCommand.class));
+		assertEquals(Integer.valueOf(1), invocations.get(invocation).get("db1").getResult().getValue());
+
+		this.manager1.afterInvocation(invocation);
+
+		assertTrue(invocations.isEmpty());
+	}
+
+	@Test
+	public void drain() throws Exception
+	{
+		InvocationEvent invocation = new InvocationEventImpl(UUID.randomUUID(), Durability.Phase.PREPARE, ExceptionType.XA);
+		InvokerEvent invoker1 = new InvokerEventImpl(invocation.getTransactionId(), invocation.getPhase(), "db1");
+		InvokerEvent invoker2 = new InvokerEventImpl(invocation.getTransactionId(), invocation.getPhase(), "db2");
+
+		this.manager1.beforeInvocation(invocation);
+		this.manager1.beforeInvoker(invoker1);
+		this.manager1.beforeInvoker(invoker2);
+
+		// Completing the invocation waits for its pending invoker events
+		this.manager1.afterInvocation(invocation);
+
+		assertEquals(2, this.group.count(InvokerCommand.class));
+		assertEquals(1, this.group.count(PostInvocationCommand.class));
+		assertTrue(this.manager2.getRemoteInvokers(this.manager1).isEmpty());
+	}
+
+	@SuppressWarnings("unchecked")
+	private DatabaseCluster<Void, Database<Void>> createCluster()
+	{
+		DatabaseCluster<Void, Database<Void>> cluster = mock(DatabaseCluster.class);
+		when(cluster.getId()).thenReturn("cluster");
+		when(cluster.getStateManager()).thenReturn(mock(StateManager.class));
+		return cluster;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.distributed;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandCodec;
+import io.github.hajdbc.distributed.ExternalizingCommandCodec;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+import io.github.hajdbc.durability.InvokerResultImpl;
+import io.github.hajdbc.state.DatabaseEvent;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * Unit test for the externalizers of the invocation and invoker commands.
+ * @author Paul Ferraro
+ */
+public class InvocationCommandExternalizerTest
+{
+	private final CommandCodec codec = new ExternalizingCommandCodec();
+	private final Member local = new SimpleMember("local");
+	private final Member remote = new SimpleMember("remote");
+
+	@Test
+	public void preInvocation()
+	{
+		InvocationEvent event = new InvocationEventImpl(UUID.randomUUID(), Durability.Phase.COMMIT, ExceptionType.SQL);
+		PreInvocationCommand<Void, Database<Void>> command = new PreInvocationCommand<>(new DistributedStateManager.RemoteInvocationDescriptorImpl(event, this.local));
+
+		PreInvocationCommand<?, ?> result = this.roundTrip(command, 20);
+
+		assertInvocation(event, result.getDescriptor().getEvent());
+		assertSame(this.remote, result.getDescriptor().getMember());
+	}
+
+	@Test
+	public void postInvocation()
+	{
+		InvocationEvent event = new InvocationEventImpl(Long.valueOf(Long.MAX_VALUE), Durability.Phase.ROLLBACK, ExceptionType.XA);
+		PostInvocationCommand<Void, Database<Void>> command = new PostInvocationCommand<>(new DistributedStateManager.RemoteInvocationDescriptorImpl(event, this.local));
+
+		PostInvocationCommand<?, ?> result = this.roundTrip(command, 12);
+
+		assertInvocation(event, result.getDescriptor().getEvent());
+		assertSame(this.remote, result.getDescriptor().getMember());
+	}
+
+	@Test
+	public void invoker()
+	{
+		InvokerEvent event = new InvokerEventImpl(UUID.randomUUID(), Durability.Phase.PREPARE, "db1");
+
+		InvokerCommand<?, ?> result = this.roundTrip(new InvokerCommand<Void, Database<Void>>(new DistributedStateManager.RemoteInvokerDescriptorImpl(event, this.local)), 28);
+
+		assertInvoker(event, result.getDescriptor().getEvent());
+		assertNull(result.getDescriptor().getEvent().getResult());
+		assertSame(this.remote, result.getDescriptor().getMember());
+
+		event.setResult(new InvokerResultImpl(Integer.valueOf(7)));
+
+		result = this.roundTrip(new InvokerCommand<Void, Database<Void>>(new DistributedStateManager.RemoteInvokerDescriptorImpl(event, this.local)), 31);
+
+		assertInvoker(event, result.getDescriptor().getEvent());
+		assertEquals(Integer.valueOf(7), result.getDescriptor().getEvent().getResult().getValue());
+	}
+
+	@Test
+	public void serialized()
+	{
+		@SuppressWarnings("unchecked")
+		Database<Void> database = mock(Database.class);
+		when(database.getId()).thenReturn("db1");
+		ActivationCommand<Void, Database<Void>> command = new ActivationCommand<>(new DatabaseEvent(database));
+
+		// Commands without an externalizer are Java serialized
+		byte[] bytes = this.codec.encode(command);
+		assertArrayEquals(Objects.serialize(command), bytes);
+
+		Command<Object, Object> result = this.codec.decode(bytes, 0, bytes.length, this.remote);
+		assertTrue(result instanceof ActivationCommand);
+	}
+
+	@Test
+	public void legacy()
+	{
+		InvocationEvent event = new InvocationEventImpl(UUID.randomUUID(), Durability.Phase.COMMIT, ExceptionType.SQL);
+		PreInvocationCommand<Void, Database<Void>> command = new PreInvocationCommand<>(new DistributedStateManager.RemoteInvocationDescriptorImpl(event, this.local));
+
+		// Java serialized commands, i.e. from members predating the codec, remain readable
+		byte[] bytes = Objects.serialize(command);
+		Command<Object, Object> decoded = this.codec.decode(bytes, 0, bytes.length, this.remote);
+		PreInvocationCommand<?, ?> result = (PreInvocationCommand<?, ?>) (Command<?, ?>) decoded;
+
+		assertInvocation(event, result.getDescriptor().getEvent());
+		assertEquals(this.local, result.getDescriptor().getMember());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <C extends Command<?, ?>> C roundTrip(C command, int expectedSize)
+	{
+		byte[] bytes = this.codec.encode(command);
+		assertEquals(expectedSize, bytes.length);
+		assertTrue(bytes.length * 10 < Objects.serialize(command).length);
+
+		// Decode from the middle of a larger buffer
+		byte[] buffer = new byte[bytes.length + 4];
+		System.arraycopy(bytes, 0, buffer, 2, bytes.length);
+		Command<Object, Object> result = this.codec.decode(buffer, 2, bytes.length, this.remote);
+		assertSame(command.getClass(), result.getClass());
+		return (C) result;
+	}
+
+	private static void assertInvocation(InvocationEvent expected, InvocationEvent actual)
+	{
+		assertEquals(expected.getTransactionId(), actual.getTransactionId());
+		assertSame(expected.getPhase(), actual.getPhase());
+		assertSame(expected.getExceptionType(), actual.getExceptionType());
+	}
+
+	private static void assertInvoker(InvokerEvent expected, InvokerEvent actual)
+	{
+		assertEquals(expected.getTransactionId(), actual.getTransactionId());
+		assertSame(expected.getPhase(), actual.getPhase());
+		assertEquals(expected.getDatabaseId(), actual.getDatabaseId());
+	}
+
+	private static class SimpleMember implements Member
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		SimpleMember(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public int compareTo(Member member)
+		{
+			return this.name.compareTo(((SimpleMember) member).name);
+		}
+
+		@Override
+		public boolean equals(Object object)
+		{
+			return (object instanceof SimpleMember) && this.name.equals(((SimpleMember) object).name);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.name.hashCode();
+		}
+	}
+}
@@ -0,0 +1,481 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.sql;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvocationEventImpl;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerEventImpl;
+import io.github.hajdbc.durability.none.NoDurability;
+import io.github.hajdbc.pool.Pool;
+import io.github.hajdbc.state.sql.SQLStateManager.DurabilityEntry;
+import io.github.hajdbc.state.sql.SQLStateManager.DurabilityOperation;
+import io.github.hajdbc.state.sql.SQLStateManager.DurabilityStatement;
+import io.github.hajdbc.tx.SimpleTransactionIdentifierFactory;
+import io.github.hajdbc.tx.TransactionIdentifierFactory;
+
+/**
+ * @author Paul Ferraro
+ */
+public class SQLStateManagerTest
+{
+	@Test
+	public void executeBatch() throws SQLException
+	{
+		Connection connection = mock(Connection.class);
+		PreparedStatement insertInvocation = mock(PreparedStatement.class);
+		PreparedStatement insertInvoker = mock(PreparedStatement.class);
+		PreparedStatement updateInvoker = mock(PreparedStatement.class);
+		PreparedStatement deleteInvoker = mock(PreparedStatement.class);
+		PreparedStatement deleteInvocation = mock(PreparedStatement.class);
+		byte[] tx1 = new byte[] { 1 };
+		byte[] tx2 = new byte[] { 2 };
+		byte[] result = new byte[] { 3 };
+		
+		when(connection.prepareStatement(SQLStateManager.INSERT_INVOCATION_SQL)).thenReturn(insertInvocation);
+		when(connection.prepareStatement(SQLStateManager.INSERT_INVOKER_SQL)).thenReturn(insertInvoker);
+		when(connection.prepareStatement(SQLStateManager.UPDATE_INVOKER_SQL)).thenReturn(updateInvoker);
+		when(connection.prepareStatement(SQLStateManager.DELETE_INVOKER_SQL)).thenReturn(deleteInvoker);
+		when(connection.prepareStatement(SQLStateManager.DELETE_INVOCATION_SQL)).thenReturn(deleteInvocation);
+		
+		// Events of 2 concurrent transactions, where the first completes
+		DurabilityEntry afterInvoker = new DurabilityEntry(new DurabilityOperation(DurabilityStatement.UPDATE_INVOKER, statement ->
+		{
+			statement.setBytes(1, result);
+			statement.setBytes(2, tx1);
+		}));
+		DurabilityEntry beforeInvocation = new DurabilityEntry(new DurabilityOperation(DurabilityStatement.INSERT_INVOCATION, statement -> statement.setBytes(1, tx2)));
+		DurabilityEntry afterInvocation = new DurabilityEntry(new DurabilityOperation(DurabilityStatement.DELETE_INVOKER, statement -> statement.setBytes(1, tx1)), new DurabilityOperation(DurabilityStatement.DELETE_INVOCATION, statement -> statement.setBytes(1, tx1)));
+		DurabilityEntry beforeInvoker = new DurabilityEntry(new DurabilityOperation(DurabilityStatement.INSERT_INVOKER, statement -> statement.setBytes(1, tx2)));
+		
+		SQLStateManager.executeBatch(connection, Arrays.asList(afterInvoker, beforeInvocation, afterInvocation, beforeInvoker));
+		
+		InOrder order = inOrder(connection, insertInvocation, insertInvoker, updateInvoker, deleteInvoker, deleteInvocation);
+		order.verify(connection).prepareStatement(SQLStateManager.INSERT_INVOCATION_SQL);
+		order.verify(insertInvocation).setBytes(1, tx2);
+		order.verify(insertInvocation).addBatch();
+		order.verify(insertInvocation).executeBatch();
+		order.verify(insertInvocation).close();
+		order.verify(connection).prepareStatement(SQLStateManager.INSERT_INVOKER_SQL);
+		order.verify(insertInvoker).setBytes(1, tx2);
+		order.verify(insertInvoker).addBatch();
+		order.verify(insertInvoker).executeBatch();
+		order.verify(insertInvoker).close();
+		order.verify(connection).prepareStatement(SQLStateManager.UPDATE_INVOKER_SQL);
+		order.verify(updateInvoker).setBytes(1, result);
+		order.verify(updateInvoker).setBytes(2, tx1);
+		order.verify(updateInvoker).addBatch();
+		order.verify(updateInvoker).executeBatch();
+		order.verify(updateInvoker).close();
+		order.verify(connection).prepareStatement(SQLStateManager.DELETE_INVOKER_SQL);
+		order.verify(deleteInvoker).setBytes(1, tx1);
+		order.verify(deleteInvoker).addBatch();
+		order.verify(deleteInvoker).executeBatch();
+		order.verify(deleteInvoker).close();
+		order.verify(connection).prepareStatement(SQLStateManager.DELETE_INVOCATION_SQL);
+		order.verify(deleteInvocation).setBytes(1, tx1);
+		order.verify(deleteInvocation).addBatch();
+		order.verify(deleteInvocation).executeBatch();
+		order.verify(deleteInvocation).close();
+		order.verifyNoMoreInteractions();
+	}
+	
+	@Test
+	public void groupCommit() throws Exception
+	{
+		TransactionRecorder recorder = new TransactionRecorder();
+		SQLStateManager<Void, Database<Void>> manager = createStateManager(recorder);
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		
+		// Stall the first commit until all other callers are queued
+		Caller first = new Caller(manager, new DurabilityEntry(new DurabilityOperation(DurabilityStatement.INSERT_INVOKER, statement ->
+		{
+			recorder.record("first");
+			committing.countDown();
+			try
+			{
+				proceed.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		})));
+		committing.await();
+		
+		List<Caller> callers = new ArrayList<>();
+		for (int i = 0; i < 8; ++i)
+		{
+			callers.add(new Caller(manager, recorder.createEntry(Integer.toString(i))));
+		}
+		for (Caller caller: callers)
+		{
+			caller.awaitQueued();
+		}
+		proceed.countDown();
+		
+		first.get();
+		for (Caller caller: callers)
+		{
+			caller.get();
+		}
+		
+		// All queued entries are committed together, in any order
+		List<List<String>> transactions = recorder.getTransactions();
+		assertEquals(2, transactions.size());
+		assertEquals(Arrays.asList("first"), transactions.get(0));
+		assertEquals(8, transactions.get(1).size());
+		assertEquals(new HashSet<>(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7")), new HashSet<>(transactions.get(1)));
+	}
+	
+	@Test
+	public void groupCommitFailure() throws Exception
+	{
+		TransactionRecorder recorder = new TransactionRecorder();
+		SQLStateManager<Void, Database<Void>> manager = createStateManager(recorder);
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		SQLException exception = new SQLException();
+		
+		Caller first = new Caller(manager, new DurabilityEntry(new DurabilityOperation(DurabilityStatement.INSERT_INVOKER, statement ->
+		{
+			recorder.record("first");
+			committing.countDown();
+			try
+			{
+				proceed.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		})));
+		committing.await();
+		
+		Caller good1 = new Caller(manager, recorder.createEntry("good1"));
+		good1.awaitQueued();
+		Caller bad = new Caller(manager, new DurabilityEntry(new DurabilityOperation(DurabilityStatement.INSERT_INVOKER, statement ->
+		{
+			recorder.record("bad");
+			throw exception;
+		})));
+		bad.awaitQueued();
+		Caller good2 = new Caller(manager, recorder.createEntry("good2"));
+		good2.awaitQueued();
+		proceed.countDown();
+		
+		first.get();
+		good1.get();
+		good2.get();
+		try
+		{
+			bad.get();
+			fail();
+		}
+		catch (ExecutionException e)
+		{
+			assertSame(exception, e.getCause());
+		}
+		
+		// The failed batch is retried per entry
+		assertEquals(Arrays.asList(Arrays.asList("first"), Arrays.asList("good1", "bad"), Arrays.asList("good1"), Arrays.asList("bad"), Arrays.asList("good2")), recorder.getTransactions());
+	}
+	
+	@Test
+	public void recover()
+	{
+		int invocations = SQLStateManager.RECOVERY_BATCH_SIZE * 2 + 1;
+		RecoveryDatabase database = new RecoveryDatabase(invocations);
+		SQLStateManager<Void, Database<Void>> manager = createStateManager(database);
+		List<Object> recovered = new ArrayList<>();
+		
+		manager.recover((invocation, invokers) ->
+		{
+			// The consumer deletes recovered invocations via other connections
+			assertFalse(database.isCursorOpen());
+			assertEquals(Collections.singleton("db1"), invokers.keySet());
+			recovered.add(invocation.getTransactionId());
+		});
+		
+		List<Object> expected = new ArrayList<>();
+		for (long i = 0; i < invocations; ++i)
+		{
+			expected.add(i);
+		}
+		assertEquals(expected, recovered);
+		assertEquals(3, database.getQueries());
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static SQLStateManager<Void, Database<Void>> createStateManager(Pool<Connection, SQLException> pool)
+	{
+		DatabaseCluster<Void, Database<Void>> cluster = mock(DatabaseCluster.class);
+		when(cluster.getDurability()).thenReturn(new NoDurability<Void, Database<Void>>()
+		{
+			@Override
+			public InvocationEvent createInvocationEvent(Object transactionId, Durability.Phase phase, ExceptionType exceptionType)
+			{
+				return new InvocationEventImpl(transactionId, phase, exceptionType);
+			}
+
+			@Override
+			public InvokerEvent createInvokerEvent(Object transactionId, Durability.Phase phase, String databaseId)
+			{
+				return new InvokerEventImpl(transactionId, phase, databaseId);
+			}
+		});
+		when(cluster.getTransactionIdentifierFactory()).thenReturn((TransactionIdentifierFactory) new SimpleTransactionIdentifierFactory());
+		SQLStateManager<Void, Database<Void>> manager = new SQLStateManager<>(cluster, null, null);
+		manager.pool = pool;
+		return manager;
+	}
+	
+	/**
+	 * Invokes group commit of an entry from a separate thread.
+	 */
+	static class Caller extends FutureTask<Void>
+	{
+		private final Thread thread;
+		
+		Caller(SQLStateManager<Void, Database<Void>> manager, DurabilityEntry entry)
+		{
+			super(() ->
+			{
+				manager.groupCommit(entry);
+				return null;
+			});
+			this.thread = new Thread(this);
+			this.thread.start();
+		}
+		
+		/**
+		 * Waits until this caller blocks, awaiting a commit in progress.
+		 */
+		void awaitQueued() throws InterruptedException
+		{
+			while (this.thread.getState() != Thread.State.WAITING)
+			{
+				Thread.sleep(1);
+			}
+		}
+	}
+	
+	/**
+	 * Pool that records the durability entries executed by each transaction.
+	 */
+	static class TransactionRecorder implements Pool<Connection, SQLException>
+	{
+		private final Connection connection = mock(Connection.class);
+		private final List<List<String>> transactions = new ArrayList<>();
+		
+		TransactionRecorder()
+		{
+			try
+			{
+				when(this.connection.prepareStatement(SQLStateManager.INSERT_INVOKER_SQL)).thenReturn(mock(PreparedStatement.class));
+			}
+			catch (SQLException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+		
+		DurabilityEntry createEntry(String id)
+		{
+			return new DurabilityEntry(new DurabilityOperation(DurabilityStatement.INSERT_INVOKER, statement -> this.record(id)));
+		}
+		
+		synchronized void record(String id)
+		{
+			this.transactions.get(this.transactions.size() - 1).add(id);
+		}
+		
+		synchronized List<List<String>> getTransactions()
+		{
+			return this.transactions;
+		}
+		
+		@Override
+		public synchronized Connection take()
+		{
+			this.transactions.add(new ArrayList<String>());
+			return this.connection;
+		}
+		
+		@Override
+		public void release(Connection connection)
+		{
+		}
+		
+		@Override
+		public void close()
+		{
+		}
+	}
+	
+	/**
+	 * Pool of a connection to a database of committed invocations, each with a single invoker, that tracks its open cursor.
+	 */
+	static class RecoveryDatabase implements Pool<Connection, SQLException>
+	{
+		private final int invocations;
+		private volatile boolean cursorOpen = false;
+		private volatile int queries = 0;
+		
+		RecoveryDatabase(int invocations)
+		{
+			this.invocations = invocations;
+		}
+		
+		boolean isCursorOpen()
+		{
+			return this.cursorOpen;
+		}
+		
+		int getQueries()
+		{
+			return this.queries;
+		}
+		
+		@Override
+		public Connection take()
+		{
+			return proxy(Connection.class, (method, args) ->
+			{
+				if (method.getName().equals("prepareStatement"))
+				{
+					boolean after = args[0].equals(SQLStateManager.SELECT_RECOVERY_AFTER_SQL);
+					assertTrue(after || args[0].equals(SQLStateManager.SELECT_RECOVERY_SQL));
+					return this.prepareStatement(after);
+				}
+				return null;
+			});
+		}
+		
+		private PreparedStatement prepareStatement(boolean after)
+		{
+			long[] start = new long[] { after ? -1 : 0 };
+			return proxy(PreparedStatement.class, (method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "setBytes":
+					{
+						start[0] = ByteBuffer.wrap((byte[]) args[1]).getLong() + 1;
+						return null;
+					}
+					case "executeQuery":
+					{
+						assertNotEquals(-1, start[0]);
+						this.queries += 1;
+						this.cursorOpen = true;
+						return this.executeQuery(start[0]);
+					}
+					default:
+					{
+						return null;
+					}
+				}
+			});
+		}
+		
+		private ResultSet executeQuery(long start)
+		{
+			long[] current = new long[] { start - 1 };
+			return proxy(ResultSet.class, (method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "next":
+					{
+						current[0] += 1;
+						return current[0] < this.invocations;
+					}
+					case "getBytes":
+					{
+						return (((Integer) args[0]).intValue() == 1) ? ByteBuffer.allocate(Long.BYTES).putLong(current[0]).array() : null;
+					}
+					case "getByte":
+					{
+						return (byte) ((((Integer) args[0]).intValue() == 2) ? Durability.Phase.COMMIT.ordinal() : ExceptionType.SQL.ordinal());
+					}
+					case "getString":
+					{
+						return "db1";
+					}
+					case "close":
+					{
+						this.cursorOpen = false;
+						return null;
+					}
+					default:
+					{
+						return null;
+					}
+				}
+			});
+		}
+		
+		@Override
+		public void release(Connection connection)
+		{
+		}
+		
+		@Override
+		public void close()
+		{
+		}
+	}
+	
+	interface ProxyHandler
+	{
+		Object invoke(Method method, Object[] args);
+	}
+	
+	static <T> T proxy(Class<T> targetClass, ProxyHandler handler)
+	{
+		return targetClass.cast(Proxy.newProxyInstance(SQLStateManagerTest.class.getClassLoader(), new Class<?>[] { targetClass }, (proxy, method, args) -> handler.invoke(method, args)));
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.sync;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.github.hajdbc.TableProperties;
+
+/**
+ * Unit test for {@link PerTableSynchronizationStrategy.TableSchedule}.
+ * @author Paul Ferraro
+ */
+public class TableScheduleTest
+{
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private final TableProperties large = mock(TableProperties.class);
+	private final TableProperties medium = mock(TableProperties.class);
+	private final TableProperties small = mock(TableProperties.class);
+
+	@After
+	public void destroy()
+	{
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void priority() throws Exception
+	{
+		PerTableSynchronizationStrategy.TableSchedule schedule = new PerTableSynchronizationStrategy.TableSchedule(Arrays.asList(this.large, this.medium, this.small), new HashMap<TableProperties, Set<TableProperties>>());
+
+		assertEquals(3, schedule.size());
+		// Independent tables are scheduled concurrently, in priority order
+		assertSame(this.large, schedule.next());
+		assertSame(this.medium, schedule.next());
+		assertSame(this.small, schedule.next());
+		assertNull(schedule.next());
+	}
+
+	@Test
+	public void dependencies() throws Exception
+	{
+		// The large table references the small table
+		Map<TableProperties, Set<TableProperties>> dependencies = new HashMap<>();
+		dependencies.put(this.large, new HashSet<>(Arrays.asList(this.small)));
+		PerTableSynchronizationStrategy.TableSchedule schedule = new PerTableSynchronizationStrategy.TableSchedule(Arrays.asList(this.large, this.medium, this.small), dependencies);
+
+		assertSame(this.medium, schedule.next());
+		assertSame(this.small, schedule.next());
+
+		// Waits for the completion of the referenced table
+		Future<TableProperties> future = this.executor.submit(schedule::next);
+		Thread.sleep(100);
+		assertFalse(future.isDone());
+
+		schedule.completed(this.medium);
+		Thread.sleep(100);
+		assertFalse(future.isDone());
+
+		schedule.completed(this.small);
+		assertSame(this.large, future.get(10, TimeUnit.SECONDS));
+		schedule.completed(this.large);
+		assertNull(schedule.next());
+	}
+
+	@Test
+	public void cycle() throws Exception
+	{
+		Map<TableProperties, Set<TableProperties>> dependencies = new HashMap<>();
+		dependencies.put(this.large, new HashSet<>(Arrays.asList(this.small)));
+		dependencies.put(this.small, new HashSet<>(Arrays.asList(this.large)));
+		PerTableSynchronizationStrategy.TableSchedule schedule = new PerTableSynchronizationStrategy.TableSchedule(Arrays.asList(this.large, this.small), dependencies);
+
+		// Cycle is broken in favor of the highest priority table
+		assertSame(this.large, schedule.next());
+		schedule.completed(this.large);
+		assertSame(this.small, schedule.next());
+		schedule.completed(this.small);
+		assertNull(schedule.next());
+	}
+
+	@Test
+	public void cancel() throws Exception
+	{
+		Map<TableProperties, Set<TableProperties>> dependencies = new HashMap<>();
+		dependencies.put(this.large, new HashSet<>(Arrays.asList(this.small)));
+		PerTableSynchronizationStrategy.TableSchedule schedule = new PerTableSynchronizationStrategy.TableSchedule(Arrays.asList(this.large, this.small), dependencies);
+
+		assertSame(this.small, schedule.next());
+
+		Future<TableProperties> future = this.executor.submit(schedule::next);
+		Thread.sleep(100);
+		assertFalse(future.isDone());
+
+		// Waiting workers abandon the remaining tables
+		schedule.cancel();
+		assertNull(future.get(10, TimeUnit.SECONDS));
+		assertNull(schedule.next());
+	}
+}
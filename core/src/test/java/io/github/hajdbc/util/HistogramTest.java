@@ -0,0 +1,58 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class HistogramTest
+{
+	@Test
+	public void record()
+	{
+		Histogram histogram = new Histogram();
+		
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(0.5));
+		
+		for (int i = 1; i <= 100; ++i)
+		{
+			histogram.record(i * 1000L);
+		}
+		histogram.record(-1L);
+		
+		assertEquals(101, histogram.getCount());
+		assertEquals(5050000L, histogram.getTotal());
+		assertEquals(100000L, histogram.getMax());
+		
+		// Percentiles are reported as the upper bound of their bucket
+		long median = histogram.getPercentile(0.5);
+		assertTrue(String.valueOf(median), (median >= 50000L) && (median < 2 * 50000L));
+		assertEquals(100000L, histogram.getPercentile(1));
+		
+		histogram.reset();
+		
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getTotal());
+		assertEquals(0, histogram.getMax());
+	}
+}
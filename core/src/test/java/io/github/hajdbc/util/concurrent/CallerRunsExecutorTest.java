@@ -0,0 +1,72 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2012  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Paul Ferraro
+ */
+public class CallerRunsExecutorTest
+{
+	@Test
+	public void invokeAll() throws InterruptedException, ExecutionException
+	{
+		ExecutorService service = Executors.newCachedThreadPool();
+		try
+		{
+			Thread caller = Thread.currentThread();
+			Exception exception = new Exception();
+			List<Callable<Thread>> tasks = Arrays.<Callable<Thread>>asList(Thread::currentThread, Thread::currentThread, () -> { throw exception; });
+			
+			List<Future<Thread>> futures = new CallerRunsExecutor(service).invokeAll(tasks);
+			
+			Assert.assertEquals(3, futures.size());
+			for (Future<Thread> future: futures)
+			{
+				Assert.assertTrue(future.isDone());
+			}
+			
+			// 1st task runs in caller thread, the rest via the executor
+			Assert.assertSame(caller, futures.get(0).get());
+			Assert.assertNotSame(caller, futures.get(1).get());
+			try
+			{
+				futures.get(2).get();
+				Assert.fail();
+			}
+			catch (ExecutionException e)
+			{
+				Assert.assertSame(exception, e.getCause());
+			}
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import io.github.hajdbc.ExceptionFactory;
+import io.github.hajdbc.ExceptionType;
+
+/**
+ * @author Paul Ferraro
+ */
+public class MethodDispatcherTest
+{
+	private final ExceptionFactory<SQLException> exceptionFactory = ExceptionType.SQL.getExceptionFactory();
+
+	@Test
+	public void forMethod()
+	{
+		assertSame(MethodDispatcher.forMethod(Methods.getMethod(ResultSet.class, "next")), MethodDispatcher.forMethod(Methods.getMethod(ResultSet.class, "next")));
+	}
+
+	@Test
+	public void invoke() throws SQLException
+	{
+		ResultSet results = Mockito.mock(ResultSet.class);
+		Mockito.when(results.getInt(1)).thenReturn(10);
+		Mockito.when(results.getString("name")).thenReturn("value");
+
+		Integer intResult = MethodDispatcher.forMethod(Methods.getMethod(ResultSet.class, "getInt", int.class)).invoke(this.exceptionFactory, results, 1);
+		assertEquals(10, intResult.intValue());
+
+		String stringResult = MethodDispatcher.forMethod(Methods.getMethod(ResultSet.class, "getString", String.class)).invoke(this.exceptionFactory, results, "name");
+		assertEquals("value", stringResult);
+
+		Object voidResult = MethodDispatcher.forMethod(Methods.getMethod(ResultSet.class, "close")).invoke(this.exceptionFactory, results, (Object[]) null);
+		assertNull(voidResult);
+		Mockito.verify(results).close();
+	}
+
+	@Test
+	public void invokeException() throws SQLException
+	{
+		ResultSet results = Mockito.mock(ResultSet.class);
+		SQLException expected = new SQLException();
+		Mockito.when(results.next()).thenThrow(expected);
+
+		try
+		{
+			MethodDispatcher.forMethod(Methods.getMethod(ResultSet.class, "next")).invoke(this.exceptionFactory, results);
+			fail();
+		}
+		catch (SQLException e)
+		{
+			assertSame(expected, e);
+		}
+	}
+}
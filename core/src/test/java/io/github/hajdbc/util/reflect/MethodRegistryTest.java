@@ -0,0 +1,60 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.util.reflect;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.github.hajdbc.util.StaticRegistry;
+
+/**
+ * @author Paul Ferraro
+ */
+public class MethodRegistryTest
+{
+	@Test
+	public void get()
+	{
+		AtomicInteger classifications = new AtomicInteger();
+		StaticRegistry<Method, String> registry = new MethodRegistry<>(method ->
+		{
+			classifications.incrementAndGet();
+			return method.getName();
+		});
+		
+		Method next = Methods.getMethod(ResultSet.class, "next");
+		Method close = Methods.getMethod(ResultSet.class, "close");
+		
+		assertEquals("next", registry.get(next));
+		assertEquals("next", registry.get(next));
+		assertEquals(1, classifications.get());
+		
+		assertEquals("close", registry.get(close));
+		assertEquals("next", registry.get(next));
+		assertEquals(2, classifications.get());
+		
+		// Equivalent, but not identical, method is classified independently
+		assertEquals("next", registry.get(Methods.getMethod(ResultSet.class, "next")));
+		assertEquals(3, classifications.get());
+	}
+}
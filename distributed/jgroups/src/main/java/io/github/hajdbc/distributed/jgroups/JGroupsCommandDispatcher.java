@@ -22,9 +22,11 @@ import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
@@ -38,11 +40,16 @@ import org.jgroups.blocks.MessageDispatcher;
 import org.jgroups.blocks.RequestHandler;
 import org.jgroups.blocks.RequestOptions;
 import org.jgroups.blocks.ResponseMode;
+import org.jgroups.util.NotifyingFuture;
 import org.jgroups.util.Rsp;
+import org.jgroups.util.RspList;
 
 import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandCodec;
 import io.github.hajdbc.distributed.CommandDispatcher;
 import io.github.hajdbc.distributed.CommandResponse;
+import io.github.hajdbc.distributed.DeliveryOptions;
+import io.github.hajdbc.distributed.ExternalizingCommandCodec;
 import io.github.hajdbc.distributed.Member;
 import io.github.hajdbc.distributed.MembershipListener;
 import io.github.hajdbc.distributed.Stateful;
@@ -50,10 +57,10 @@ import io.github.hajdbc.logging.Level;
 import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
 import io.github.hajdbc.util.ObjectInputStream;
-import io.github.hajdbc.util.Objects;
 
 /**
  * A JGroups-based command dispatcher.
+ * Commands are sent using the {@link DeliveryOptions} of their type, e.g. bundled commands omit the {@link Message.Flag#DONT_BUNDLE} flag, and ordered commands omit the {@link Message.Flag#OOB} flag.
  * 
  * @author Paul Ferraro
  * @see org.jgroups.blocks.MessageDispatcher
@@ -70,9 +77,10 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	private final AtomicReference<View> viewReference = new AtomicReference<>();
 	private final MembershipListener membershipListener;
 	private final Stateful stateful;
+	private final CommandCodec codec;
 	
 	/**
-	 * Constructs a new ChannelCommandDispatcher.
+	 * Constructs a new ChannelCommandDispatcher that Java serializes commands, but decodes externalized commands.
 	 * @param id the channel name
 	 * @param channel a JGroups channel
 	 * @param timeout the command timeout
@@ -82,8 +90,25 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	 * @throws Exception if channel cannot be created
 	 */
 	public JGroupsCommandDispatcher(String id, Channel channel, long timeout, C context, Stateful stateful, MembershipListener membershipListener) throws Exception
+	{
+		this(id, channel, timeout, context, stateful, membershipListener, new ExternalizingCommandCodec(false));
+	}
+
+	/**
+	 * Constructs a new ChannelCommandDispatcher.
+	 * @param id the channel name
+	 * @param channel a JGroups channel
+	 * @param timeout the command timeout
+	 * @param context the execution context
+	 * @param stateful the state transfer handler
+	 * @param membershipListener notified of membership changes
+	 * @param codec encodes and decodes command messages
+	 * @throws Exception if channel cannot be created
+	 */
+	public JGroupsCommandDispatcher(String id, Channel channel, long timeout, C context, Stateful stateful, MembershipListener membershipListener, CommandCodec codec) throws Exception
 	{
 		this.id = id;
+		this.codec = codec;
 		this.context = context;
 		this.stateful = stateful;
 		this.membershipListener = membershipListener;
@@ -134,20 +159,49 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	public <R> Map<Member, CommandResponse<R>> executeAll(Command<R, C> command, Member... excludedMembers) throws Exception
 	{
 		Message message = this.createMessage(null, command);
-		RequestOptions options = this.createRequestOptions();
+		RequestOptions options = this.createRequestOptions(command.getDeliveryOptions(), excludedMembers);
+
+		RspList<R> responses = this.dispatcher.castMessage(null, message, options);
 		
-		if ((excludedMembers != null) && (excludedMembers.length > 0))
+		return createResponses(responses);
+	}
+
+	@Override
+	public <R> CompletableFuture<Map<Member, CommandResponse<R>>> executeAllAsync(Command<R, C> command, Member... excludedMembers)
+	{
+		CompletableFuture<Map<Member, CommandResponse<R>>> result = new CompletableFuture<>();
+		try
 		{
-			Address[] exclusions = new Address[excludedMembers.length];
-			for (int i = 0; i < excludedMembers.length; ++i)
+			Message message = this.createMessage(null, command);
+			RequestOptions options = this.createRequestOptions(command.getDeliveryOptions(), excludedMembers);
+
+			NotifyingFuture<RspList<R>> future = this.dispatcher.castMessageWithFuture(null, message, options);
+			future.setListener(responses ->
 			{
-				exclusions[i] = ((AddressMember) excludedMembers[i]).getAddress();
-			}
-			options.setExclusionList(exclusions);
+				try
+				{
+					result.complete(createResponses(responses.get()));
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					result.completeExceptionally(e);
+				}
+				catch (ExecutionException e)
+				{
+					result.completeExceptionally(e.getCause());
+				}
+			});
 		}
+		catch (Exception e)
+		{
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
 
-		Map<Address, Rsp<R>> responses = this.dispatcher.castMessage(null, message, options);
-		
+	private static <R> Map<Member, CommandResponse<R>> createResponses(Map<Address, Rsp<R>> responses)
+	{
 		Map<Member, CommandResponse<R>> results = new TreeMap<>();
 		
 		for (Map.Entry<Address, Rsp<R>> entry: responses.entrySet())
@@ -167,7 +221,7 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	{
 		Message message = this.createMessage(((AddressMember) member).getAddress(), command);
 		// Use sendMessageWithFuture(...) instead of sendMessage(...) since we want to differentiate between sender exceptions and receiver exceptions
-		Future<R> future = this.dispatcher.sendMessageWithFuture(message, this.createRequestOptions());
+		Future<R> future = this.dispatcher.sendMessageWithFuture(message, this.createRequestOptions(command.getDeliveryOptions()));
 		try
 		{
 			return new SimpleCommandResponse<>(future.get());
@@ -184,12 +238,33 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	
 	private <R> Message createMessage(Address destination, Command<R, C> command)
 	{
-		return new Message(destination, this.getLocalAddress(), Objects.serialize(command));
+		return new Message(destination, this.getLocalAddress(), this.codec.encode(command));
 	}
 	
-	private RequestOptions createRequestOptions()
+	private RequestOptions createRequestOptions(DeliveryOptions delivery, Member... excludedMembers)
 	{
-		return new RequestOptions(ResponseMode.GET_ALL, this.timeout, false, null, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+		List<Message.Flag> flags = new ArrayList<>(2);
+		if (!delivery.isBundled())
+		{
+			flags.add(Message.Flag.DONT_BUNDLE);
+		}
+		if (!delivery.isOrdered())
+		{
+			flags.add(Message.Flag.OOB);
+		}
+		ResponseMode mode = delivery.isSynchronous() ? ResponseMode.GET_ALL : ResponseMode.GET_NONE;
+		RequestOptions options = new RequestOptions(mode, this.timeout, false, null, flags.toArray(new Message.Flag[flags.size()]));
+		
+		if ((excludedMembers != null) && (excludedMembers.length > 0))
+		{
+			Address[] exclusions = new Address[excludedMembers.length];
+			for (int i = 0; i < excludedMembers.length; ++i)
+			{
+				exclusions[i] = ((AddressMember) excludedMembers[i]).getAddress();
+			}
+			options.setExclusionList(exclusions);
+		}
+		return options;
 	}
 	
 	@Override
@@ -219,7 +294,7 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	@Override
 	public Object handle(Message message)
 	{
-		Command<Object, C> command = Objects.deserialize(message.getRawBuffer(), Command.class);
+		Command<Object, C> command = this.codec.decode(message.getRawBuffer(), message.getOffset(), message.getLength(), new AddressMember(message.getSrc()));
 
 		this.logger.log(Level.DEBUG, "{0} received from {1}", command, message.getSrc());
 		
@@ -288,7 +363,7 @@ public class JGroupsCommandDispatcher<C> implements RequestHandler, CommandDispa
 	{
 	}
 
-	private class RspCommandResponse<R> implements CommandResponse<R>
+	private static class RspCommandResponse<R> implements CommandResponse<R>
 	{
 		private final Rsp<R> response;
 		
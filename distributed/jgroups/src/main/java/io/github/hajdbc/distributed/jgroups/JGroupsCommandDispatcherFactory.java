@@ -22,6 +22,7 @@ import org.jgroups.JChannel;
 
 import io.github.hajdbc.distributed.CommandDispatcher;
 import io.github.hajdbc.distributed.CommandDispatcherFactory;
+import io.github.hajdbc.distributed.ExternalizingCommandCodec;
 import io.github.hajdbc.distributed.MembershipListener;
 import io.github.hajdbc.distributed.Stateful;
 
@@ -40,6 +41,7 @@ public class JGroupsCommandDispatcherFactory implements CommandDispatcherFactory
 	private String stack = DEFAULT_STACK;
 	private long timeout = DEFAULT_TIMEOUT;
 	private String name;
+	private boolean externalize = false;
 
 	@Override
 	public String getId()
@@ -55,7 +57,7 @@ public class JGroupsCommandDispatcherFactory implements CommandDispatcherFactory
 		{
 			channel.setName(this.name);
 		}
-		return new JGroupsCommandDispatcher<>(id, channel, this.timeout, context, stateful, membershipListener);
+		return new JGroupsCommandDispatcher<>(id, channel, this.timeout, context, stateful, membershipListener, new ExternalizingCommandCodec(this.externalize));
 	}
 
 	public String getName()
@@ -87,4 +89,19 @@ public class JGroupsCommandDispatcherFactory implements CommandDispatcherFactory
 	{
 		this.timeout = timeout;
 	}
+
+	public boolean isExternalize()
+	{
+		return this.externalize;
+	}
+
+	/**
+	 * Indicates whether commands should be encoded using their compact externalized form.
+	 * Enable only once all members of the cluster are able to decode them.
+	 * @param externalize true, to encode externalizable commands compactly, false to Java serialize all commands
+	 */
+	public void setExternalize(boolean externalize)
+	{
+		this.externalize = externalize;
+	}
 }
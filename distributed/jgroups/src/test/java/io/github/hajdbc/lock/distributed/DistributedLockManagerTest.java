@@ -63,6 +63,8 @@ public class DistributedLockManagerTest
 		when(cluster1.getLockManager()).thenReturn(lockManager1);
 		when(cluster2.getId()).thenReturn(id);
 		when(cluster2.getLockManager()).thenReturn(lockManager2);
+		when(cluster1.getThreadFactory()).thenReturn(Executors.defaultThreadFactory());
+		when(cluster2.getThreadFactory()).thenReturn(Executors.defaultThreadFactory());
 
 		this.manager1 = new DistributedLockManager(cluster1, dispatcherFactory1);
 		this.manager1.start();
@@ -0,0 +1,149 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed.loopback;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import io.github.hajdbc.distributed.Member;
+
+/**
+ * An in-process group of command dispatchers, identified by name.
+ * The view of the channel is ordered by join time, such that the oldest member is the coordinator.
+ * @author Paul Ferraro
+ */
+public class LoopbackChannel
+{
+	private static final ConcurrentMap<String, LoopbackChannel> channels = new ConcurrentHashMap<>();
+
+	// Shared by all channels, so use daemon threads
+	private static final ThreadFactory threadFactory = task ->
+	{
+		Thread thread = new Thread(task, LoopbackChannel.class.getSimpleName());
+		thread.setDaemon(true);
+		return thread;
+	};
+	static final ExecutorService executor = Executors.newCachedThreadPool(threadFactory);
+	// A single thread preserves the order in which commands with the same latency are delivered
+	static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+	/**
+	 * Returns the channel with the specified name, creating it if necessary.
+	 * @param name a channel name
+	 * @return a loopback channel
+	 */
+	public static LoopbackChannel getChannel(String name)
+	{
+		return channels.computeIfAbsent(name, LoopbackChannel::new);
+	}
+
+	private final String name;
+	private volatile Map<Member, LoopbackCommandDispatcher<?>> view = Collections.emptyMap();
+
+	private LoopbackChannel(String name)
+	{
+		this.name = name;
+	}
+
+	public String getName()
+	{
+		return this.name;
+	}
+
+	/**
+	 * Returns the current members of this channel, ordered by join time.
+	 * @return a map of member to dispatcher
+	 */
+	Map<Member, LoopbackCommandDispatcher<?>> getView()
+	{
+		return this.view;
+	}
+
+	/**
+	 * Adds the specified dispatcher to this channel, notifies all members of the new view, then transfers state from the coordinator.
+	 * Like a JGroups channel, the joining member receives commands sent after the view change while it applies the transferred state.
+	 */
+	synchronized void connect(LoopbackCommandDispatcher<?> dispatcher) throws Exception
+	{
+		Map<Member, LoopbackCommandDispatcher<?>> oldView = this.view;
+		Member local = dispatcher.getLocal();
+
+		if (oldView.containsKey(local))
+		{
+			throw new IllegalStateException(String.format("%s is already a member of %s", local, this.name));
+		}
+
+		Map<Member, LoopbackCommandDispatcher<?>> view = new LinkedHashMap<>(oldView);
+		view.put(local, dispatcher);
+		this.view = Collections.unmodifiableMap(view);
+
+		for (LoopbackCommandDispatcher<?> member: oldView.values())
+		{
+			member.added(local);
+		}
+		for (Member member: view.keySet())
+		{
+			dispatcher.added(member);
+		}
+
+		if (!oldView.isEmpty())
+		{
+			try
+			{
+				dispatcher.transferState(oldView.values().iterator().next());
+			}
+			catch (Exception e)
+			{
+				this.disconnect(dispatcher);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Removes the specified dispatcher from this channel, and notifies the remaining members of the new view.
+	 */
+	synchronized void disconnect(LoopbackCommandDispatcher<?> dispatcher)
+	{
+		Member local = dispatcher.getLocal();
+
+		if (this.view.get(local) != dispatcher) return;
+
+		Map<Member, LoopbackCommandDispatcher<?>> view = new LinkedHashMap<>(this.view);
+		view.remove(local);
+		this.view = Collections.unmodifiableMap(view);
+
+		for (LoopbackCommandDispatcher<?> member: view.values())
+		{
+			member.removed(local);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.name;
+	}
+}
@@ -0,0 +1,390 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed.loopback;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandCodec;
+import io.github.hajdbc.distributed.CommandDispatcher;
+import io.github.hajdbc.distributed.CommandResponse;
+import io.github.hajdbc.distributed.DeliveryOptions;
+import io.github.hajdbc.distributed.ExternalizingCommandCodec;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.distributed.MembershipListener;
+import io.github.hajdbc.distributed.Stateful;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+import io.github.hajdbc.util.ObjectInputStream;
+
+/**
+ * A command dispatcher that delivers commands to other dispatchers of the same {@link LoopbackChannel}.
+ * Commands are marshalled via a {@link CommandCodec}, as they would be over a network, and are delayed by the configured latency in each direction.
+ * Ordered commands from the same sender are executed by the receiver in the order they were sent; unordered commands execute concurrently.
+ * @author Paul Ferraro
+ * @param <C> the execution context type
+ */
+public class LoopbackCommandDispatcher<C> implements CommandDispatcher<C>
+{
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private final LoopbackChannel channel;
+	private final LoopbackMember local;
+	private final long timeout;
+	private final long latency;
+	private final C context;
+	private final Stateful stateful;
+	private final MembershipListener membershipListener;
+	private final CommandCodec codec;
+	private final ConcurrentMap<Member, Executor> orderedExecutors = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new LoopbackCommandDispatcher.
+	 * @param channel the channel to join
+	 * @param local the local member
+	 * @param timeout the command timeout, in milliseconds
+	 * @param latency the one-way latency, in microseconds
+	 * @param context the execution context
+	 * @param stateful the state transfer handler
+	 * @param membershipListener notified of membership changes
+	 */
+	public LoopbackCommandDispatcher(LoopbackChannel channel, LoopbackMember local, long timeout, long latency, C context, Stateful stateful, MembershipListener membershipListener)
+	{
+		this(channel, local, timeout, latency, context, stateful, membershipListener, new ExternalizingCommandCodec());
+	}
+
+	/**
+	 * Constructs a new LoopbackCommandDispatcher.
+	 * @param channel the channel to join
+	 * @param local the local member
+	 * @param timeout the command timeout, in milliseconds
+	 * @param latency the one-way latency, in microseconds
+	 * @param context the execution context
+	 * @param stateful the state transfer handler
+	 * @param membershipListener notified of membership changes
+	 * @param codec encodes and decodes commands
+	 */
+	public LoopbackCommandDispatcher(LoopbackChannel channel, LoopbackMember local, long timeout, long latency, C context, Stateful stateful, MembershipListener membershipListener, CommandCodec codec)
+	{
+		this.channel = channel;
+		this.local = local;
+		this.timeout = timeout;
+		this.latency = latency;
+		this.context = context;
+		this.stateful = stateful;
+		this.membershipListener = membershipListener;
+		this.codec = codec;
+	}
+
+	@Override
+	public void start() throws SQLException
+	{
+		try
+		{
+			this.channel.connect(this);
+		}
+		catch (Exception e)
+		{
+			throw new SQLException(e);
+		}
+	}
+
+	@Override
+	public void stop()
+	{
+		this.channel.disconnect(this);
+	}
+
+	@Override
+	public <R> Map<Member, CommandResponse<R>> executeAll(Command<R, C> command, Member... excludedMembers)
+	{
+		Map<Member, CompletableFuture<R>> futures = this.send(command, excludedMembers);
+		Map<Member, CommandResponse<R>> responses = new TreeMap<>();
+
+		if (command.getDeliveryOptions().isSynchronous())
+		{
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeout);
+			for (Map.Entry<Member, CompletableFuture<R>> entry: futures.entrySet())
+			{
+				responses.put(entry.getKey(), createResponse(entry.getValue(), deadline - System.nanoTime()));
+			}
+		}
+		return responses;
+	}
+
+	@Override
+	public <R> CompletableFuture<Map<Member, CommandResponse<R>>> executeAllAsync(Command<R, C> command, Member... excludedMembers)
+	{
+		Map<Member, CompletableFuture<R>> futures = this.send(command, excludedMembers);
+
+		if (!command.getDeliveryOptions().isSynchronous())
+		{
+			return CompletableFuture.completedFuture(new TreeMap<Member, CommandResponse<R>>());
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).handle((result, exception) ->
+		{
+			Map<Member, CommandResponse<R>> responses = new TreeMap<>();
+			for (Map.Entry<Member, CompletableFuture<R>> entry: futures.entrySet())
+			{
+				responses.put(entry.getKey(), createResponse(entry.getValue(), 0));
+			}
+			return responses;
+		});
+	}
+
+	@Override
+	public <R> CommandResponse<R> execute(Command<R, C> command, Member member)
+	{
+		LoopbackCommandDispatcher<C> dispatcher = this.getDispatcher(member);
+		if (dispatcher == null)
+		{
+			ExecutionException exception = new ExecutionException(new IllegalArgumentException(String.format("%s is not a member of %s", member, this.channel)));
+			return () ->
+			{
+				throw exception;
+			};
+		}
+		return createResponse(this.send(command, dispatcher), TimeUnit.MILLISECONDS.toNanos(this.timeout));
+	}
+
+	@Override
+	public LoopbackMember getLocal()
+	{
+		return this.local;
+	}
+
+	@Override
+	public Member getCoordinator()
+	{
+		Map<Member, LoopbackCommandDispatcher<?>> view = this.channel.getView();
+		return view.isEmpty() ? null : view.keySet().iterator().next();
+	}
+
+	private <R> Map<Member, CompletableFuture<R>> send(Command<R, C> command, Member... excludedMembers)
+	{
+		Map<Member, CompletableFuture<R>> futures = new TreeMap<>();
+		for (Member member: this.channel.getView().keySet())
+		{
+			if ((excludedMembers == null) || !Arrays.asList(excludedMembers).contains(member))
+			{
+				LoopbackCommandDispatcher<C> dispatcher = this.getDispatcher(member);
+				if (dispatcher != null)
+				{
+					futures.put(member, this.send(command, dispatcher));
+				}
+			}
+		}
+		return futures;
+	}
+
+	private <R> CompletableFuture<R> send(Command<R, C> command, LoopbackCommandDispatcher<C> receiver)
+	{
+		byte[] message = this.codec.encode(command);
+		CompletableFuture<R> future = new CompletableFuture<>();
+		DeliveryOptions options = command.getDeliveryOptions();
+		Executor executor = options.isOrdered() ? receiver.getOrderedExecutor(this.local) : LoopbackChannel.executor;
+
+		Runnable task = () ->
+		{
+			try
+			{
+				R result = receiver.handle(message, this.local);
+				this.reply(() -> future.complete(result));
+			}
+			catch (Throwable e)
+			{
+				this.reply(() -> future.completeExceptionally(e));
+			}
+		};
+		this.deliver(() -> executor.execute(task));
+		return future;
+	}
+
+	private <R> R handle(byte[] message, Member source)
+	{
+		Command<R, C> command = this.codec.decode(message, 0, message.length, source);
+
+		this.logger.log(Level.DEBUG, "{0} received from {1}", command, source);
+
+		return command.execute(this.context);
+	}
+
+	/**
+	 * Hands the specified task to the receiver after the configured latency.
+	 * Tasks run on the scheduler thread, in the order they were scheduled, so they must not block.
+	 */
+	private void deliver(Runnable task)
+	{
+		if (this.latency > 0)
+		{
+			LoopbackChannel.scheduler.schedule(task, this.latency, TimeUnit.MICROSECONDS);
+		}
+		else
+		{
+			task.run();
+		}
+	}
+
+	/**
+	 * Completes a response after the configured latency.
+	 * Since dependent stages of the response run on the completing thread, the completion is handed off to the executor.
+	 */
+	private void reply(Runnable completion)
+	{
+		this.deliver((this.latency > 0) ? () -> LoopbackChannel.executor.execute(completion) : completion);
+	}
+
+	@SuppressWarnings("unchecked")
+	private LoopbackCommandDispatcher<C> getDispatcher(Member member)
+	{
+		return (LoopbackCommandDispatcher<C>) this.channel.getView().get(member);
+	}
+
+	Executor getOrderedExecutor(Member sender)
+	{
+		return this.orderedExecutors.computeIfAbsent(sender, member -> new SerialExecutor(LoopbackChannel.executor));
+	}
+
+	void transferState(LoopbackCommandDispatcher<?> coordinator) throws Exception
+	{
+		if ((this.stateful == null) || (coordinator.stateful == null)) return;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutput output = new ObjectOutputStream(bytes))
+		{
+			coordinator.stateful.writeState(output);
+		}
+		try (ObjectInput input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()), Stateful.class.getClassLoader()))
+		{
+			this.stateful.readState(input);
+		}
+	}
+
+	void added(Member member)
+	{
+		if (this.membershipListener != null)
+		{
+			this.membershipListener.added(member);
+		}
+	}
+
+	void removed(Member member)
+	{
+		this.orderedExecutors.remove(member);
+		if (this.membershipListener != null)
+		{
+			this.membershipListener.removed(member);
+		}
+	}
+
+	private static <R> CommandResponse<R> createResponse(CompletableFuture<R> future, long timeout)
+	{
+		try
+		{
+			R result = future.get(Math.max(timeout, 0), TimeUnit.NANOSECONDS);
+			return () -> result;
+		}
+		catch (ExecutionException e)
+		{
+			return () ->
+			{
+				throw e;
+			};
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			ExecutionException exception = new ExecutionException(e);
+			return () ->
+			{
+				throw exception;
+			};
+		}
+		catch (TimeoutException e)
+		{
+			ExecutionException exception = new ExecutionException(e);
+			return () ->
+			{
+				throw exception;
+			};
+		}
+	}
+
+	/**
+	 * Executes tasks one at a time, in the order they were submitted.
+	 */
+	private static class SerialExecutor implements Executor
+	{
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+		private final Executor executor;
+		private Runnable active;
+
+		SerialExecutor(Executor executor)
+		{
+			this.executor = executor;
+		}
+
+		@Override
+		public synchronized void execute(final Runnable task)
+		{
+			this.tasks.add(() ->
+			{
+				try
+				{
+					task.run();
+				}
+				finally
+				{
+					this.next();
+				}
+			});
+			if (this.active == null)
+			{
+				this.next();
+			}
+		}
+
+		private synchronized void next()
+		{
+			this.active = this.tasks.poll();
+			if (this.active != null)
+			{
+				this.executor.execute(this.active);
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed.loopback;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.hajdbc.distributed.CommandDispatcher;
+import io.github.hajdbc.distributed.CommandDispatcherFactory;
+import io.github.hajdbc.distributed.MembershipListener;
+import io.github.hajdbc.distributed.Stateful;
+
+/**
+ * Factory for creating a command dispatcher whose members all reside within the current JVM.
+ * Intended for testing and benchmarking multiple cluster members without a network stack.
+ * @author Paul Ferraro
+ */
+public class LoopbackCommandDispatcherFactory implements CommandDispatcherFactory
+{
+	private static final long serialVersionUID = -2465212475208436163L;
+
+	public static final long DEFAULT_TIMEOUT = 60000;
+	public static final long DEFAULT_LATENCY = 0;
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private String name;
+	private long timeout = DEFAULT_TIMEOUT;
+	private long latency = DEFAULT_LATENCY;
+
+	@Override
+	public String getId()
+	{
+		return "loopback";
+	}
+
+	@Override
+	public <C> CommandDispatcher<C> createCommandDispatcher(String id, C context, Stateful stateful, MembershipListener membershipListener) throws Exception
+	{
+		String name = (this.name != null) ? this.name : "member" + counter.incrementAndGet();
+		return new LoopbackCommandDispatcher<>(LoopbackChannel.getChannel(id), new LoopbackMember(name), this.timeout, this.latency, context, stateful, membershipListener);
+	}
+
+	public String getName()
+	{
+		return this.name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
+	public long getTimeout()
+	{
+		return this.timeout;
+	}
+
+	public void setTimeout(long timeout)
+	{
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Returns the one-way latency, in microseconds, injected into each command and response.
+	 * @return a latency in microseconds
+	 */
+	public long getLatency()
+	{
+		return this.latency;
+	}
+
+	public void setLatency(long latency)
+	{
+		this.latency = latency;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed.loopback;
+
+import io.github.hajdbc.distributed.Member;
+
+/**
+ * Identifies a member of a loopback channel by name.
+ * @author Paul Ferraro
+ */
+public class LoopbackMember implements Member
+{
+	private static final long serialVersionUID = -2916207284858618366L;
+
+	private final String name;
+
+	/**
+	 * Constructs a new LoopbackMember
+	 * @param name the name of the member
+	 */
+	public LoopbackMember(String name)
+	{
+		this.name = name;
+	}
+
+	public String getName()
+	{
+		return this.name;
+	}
+
+	@Override
+	public boolean equals(Object object)
+	{
+		if (!(object instanceof LoopbackMember)) return false;
+
+		return this.name.equals(((LoopbackMember) object).name);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.name.hashCode();
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.name;
+	}
+
+	@Override
+	public int compareTo(Member member)
+	{
+		return this.name.compareTo(((LoopbackMember) member).name);
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.distributed.loopback;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import io.github.hajdbc.distributed.Command;
+import io.github.hajdbc.distributed.CommandDispatcher;
+import io.github.hajdbc.distributed.CommandResponse;
+import io.github.hajdbc.distributed.DeliveryOptions;
+import io.github.hajdbc.distributed.Member;
+import io.github.hajdbc.distributed.MembershipListener;
+import io.github.hajdbc.distributed.Stateful;
+
+/**
+ * Unit test for {@link LoopbackCommandDispatcher}.
+ * @author Paul Ferraro
+ */
+public class LoopbackCommandDispatcherTest
+{
+	@Test
+	public void membership() throws Exception
+	{
+		Node node1 = new Node("state1");
+		Node node2 = new Node("state2");
+		CommandDispatcher<Node> dispatcher1 = createDispatcher("membership", "node1", 0, node1);
+		CommandDispatcher<Node> dispatcher2 = createDispatcher("membership", "node2", 0, node2);
+
+		dispatcher1.start();
+
+		assertEquals(dispatcher1.getLocal(), dispatcher1.getCoordinator());
+		assertEquals(Collections.singletonList(dispatcher1.getLocal()), node1.added);
+		// The first member receives no state
+		assertNull(node1.transferred);
+
+		dispatcher2.start();
+
+		// The new member receives the state of the coordinator
+		assertEquals("state1", node2.transferred);
+		assertEquals(dispatcher1.getLocal(), dispatcher2.getCoordinator());
+		assertEquals(Arrays.asList(dispatcher1.getLocal(), dispatcher2.getLocal()), node1.added);
+		assertEquals(Arrays.asList(dispatcher1.getLocal(), dispatcher2.getLocal()), node2.added);
+
+		dispatcher1.stop();
+
+		assertEquals(dispatcher2.getLocal(), dispatcher2.getCoordinator());
+		assertEquals(Collections.singletonList(dispatcher1.getLocal()), node2.removed);
+		assertTrue(node1.removed.isEmpty());
+
+		dispatcher2.stop();
+	}
+
+	@Test
+	public void execute() throws Exception
+	{
+		CommandDispatcher<Node> dispatcher1 = createDispatcher("execute", "node1", 100, new Node("state1"));
+		CommandDispatcher<Node> dispatcher2 = createDispatcher("execute", "node2", 100, new Node("state2"));
+		dispatcher1.start();
+		dispatcher2.start();
+		try
+		{
+			Map<Member, CommandResponse<String>> responses = dispatcher1.executeAll(new StateCommand());
+			assertEquals(2, responses.size());
+			assertEquals("state1", responses.get(dispatcher1.getLocal()).get());
+			assertEquals("state2", responses.get(dispatcher2.getLocal()).get());
+
+			responses = dispatcher1.executeAll(new StateCommand(), dispatcher1.getLocal());
+			assertEquals(Collections.singleton(dispatcher2.getLocal()), responses.keySet());
+
+			CompletableFuture<Map<Member, CommandResponse<String>>> future = dispatcher2.executeAllAsync(new StateCommand(), dispatcher2.getLocal());
+			assertEquals("state1", future.get().get(dispatcher1.getLocal()).get());
+
+			assertEquals("state2", dispatcher1.execute(new StateCommand(), dispatcher2.getLocal()).get());
+
+			try
+			{
+				dispatcher1.execute(new FailCommand(), dispatcher2.getLocal()).get();
+				fail();
+			}
+			catch (ExecutionException e)
+			{
+				assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+		}
+		finally
+		{
+			dispatcher2.stop();
+			dispatcher1.stop();
+		}
+	}
+
+	@Test
+	public void ordered() throws Exception
+	{
+		Node node2 = new Node("state2");
+		CommandDispatcher<Node> dispatcher1 = createDispatcher("ordered", "node1", 50, new Node("state1"));
+		CommandDispatcher<Node> dispatcher2 = createDispatcher("ordered", "node2", 50, node2);
+		dispatcher1.start();
+		dispatcher2.start();
+		try
+		{
+			List<CompletableFuture<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 100; ++i)
+			{
+				futures.add(dispatcher1.executeAllAsync(new AppendCommand(i), dispatcher1.getLocal()));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).get();
+
+			assertEquals(100, node2.values.size());
+			for (int i = 0; i < 100; ++i)
+			{
+				assertEquals(Integer.valueOf(i), node2.values.get(i));
+			}
+		}
+		finally
+		{
+			dispatcher2.stop();
+			dispatcher1.stop();
+		}
+	}
+
+	private static CommandDispatcher<Node> createDispatcher(String channel, String name, long latency, Node node) throws Exception
+	{
+		LoopbackCommandDispatcherFactory factory = new LoopbackCommandDispatcherFactory();
+		factory.setName(name);
+		factory.setLatency(latency);
+		return factory.createCommandDispatcher(LoopbackCommandDispatcherTest.class.getName() + "." + channel, node, node, node);
+	}
+
+	static class Node implements Stateful, MembershipListener
+	{
+		final List<Member> added = new ArrayList<>();
+		final List<Member> removed = new ArrayList<>();
+		final List<Integer> values = Collections.synchronizedList(new ArrayList<Integer>());
+		final String state;
+		volatile String transferred;
+
+		Node(String state)
+		{
+			this.state = state;
+		}
+
+		@Override
+		public void writeState(ObjectOutput output) throws IOException
+		{
+			output.writeUTF(this.state);
+		}
+
+		@Override
+		public void readState(ObjectInput input) throws IOException
+		{
+			this.transferred = input.readUTF();
+		}
+
+		@Override
+		public void added(Member member)
+		{
+			this.added.add(member);
+		}
+
+		@Override
+		public void removed(Member member)
+		{
+			this.removed.add(member);
+		}
+	}
+
+	static class StateCommand implements Command<String, Node>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String execute(Node node)
+		{
+			return node.state;
+		}
+	}
+
+	static class FailCommand implements Command<Void, Node>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Void execute(Node node)
+		{
+			throw new IllegalStateException();
+		}
+	}
+
+	static class AppendCommand implements Command<Void, Node>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int value;
+
+		AppendCommand(int value)
+		{
+			this.value = value;
+		}
+
+		@Override
+		public Void execute(Node node)
+		{
+			node.values.add(this.value);
+			return null;
+		}
+
+		@Override
+		public DeliveryOptions getDeliveryOptions()
+		{
+			return DeliveryOptions.BUNDLED;
+		}
+	}
+}
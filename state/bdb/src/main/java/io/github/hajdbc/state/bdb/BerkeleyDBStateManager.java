@@ -44,7 +44,6 @@ import io.github.hajdbc.durability.DurabilityEvent;
 import io.github.hajdbc.durability.DurabilityEventFactory;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
-import io.github.hajdbc.durability.InvokerResult;
 import io.github.hajdbc.pool.CloseablePoolProvider;
 import io.github.hajdbc.pool.Pool;
 import io.github.hajdbc.pool.PoolFactory;
@@ -308,7 +307,7 @@ public class BerkeleyDBStateManager extends CloseablePoolProvider<Environment, D
 						byte[] value = entry.getValue();
 						if (value.length > 0)
 						{
-							invokerEvent.setResult(Objects.deserialize(value, InvokerResult.class));
+							invokerEvent.setResult(BerkeleyDBStateManager.this.listener.createInvokerResult(value));
 						}
 						invokers.put(databaseId, invokerEvent);
 					}
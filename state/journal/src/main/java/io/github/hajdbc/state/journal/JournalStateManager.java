@@ -0,0 +1,728 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.durability.DurabilityEventFactory;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+import io.github.hajdbc.state.DatabaseEvent;
+import io.github.hajdbc.state.DurabilityListenerAdapter;
+import io.github.hajdbc.state.SerializedDurabilityListener;
+import io.github.hajdbc.state.StateManager;
+
+/**
+ * State manager that appends state changes and durability events to a journal of memory-mapped segments.
+ * Writers append under a short critical section, and then share the cost of forcing the journal to disk,
+ * i.e. a single {@link java.nio.MappedByteBuffer#force()} covers every record appended before it started.
+ * Completed invocations are marked via tombstones, and obsolete segments are compacted in the background by writing a checkpoint of the live state.
+ * On start, the journal is replayed from its oldest remaining segment, i.e. from the last checkpoint.
+ * @author Paul Ferraro
+ */
+public class JournalStateManager implements StateManager, SerializedDurabilityListener
+{
+	private static final Logger logger = LoggerFactory.getLogger(JournalStateManager.class);
+
+	// Each record is written as: [int length][byte type][payload][int checksum], where length covers type and payload.
+	// A zero length marks the end of the records of a segment.
+	static final int RECORD_OVERHEAD = Integer.BYTES * 2;
+
+	enum RecordType
+	{
+		ACTIVATED, DEACTIVATED, ACTIVE_DATABASES, INVOCATION, INVOKER, TOMBSTONE, CHECKPOINT;
+	}
+
+	private final Path directory;
+	private final int segmentSize;
+	private final ThreadFactory threadFactory;
+	private final DurabilityEventFactory eventFactory;
+	private final DurabilityListenerAdapter listener;
+
+	// The following are guarded by segments
+	private final Deque<Segment> segments = new ArrayDeque<>();
+	private final Set<String> activeDatabases = new TreeSet<>();
+	private final Map<InvocationKey, Invocation> invocations = new HashMap<>();
+	private long appended = 0;
+
+	// The following are guarded by forceMonitor
+	private final Object forceMonitor = new Object();
+	private long forced = 0;
+	private boolean forcing = false;
+
+	private volatile ExecutorService compactor;
+
+	public JournalStateManager(DatabaseCluster<?, ?> cluster, Path directory, int segmentSize)
+	{
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.threadFactory = cluster.getThreadFactory();
+		this.eventFactory = cluster.getDurability();
+		this.listener = new DurabilityListenerAdapter(this, cluster.getTransactionIdentifierFactory(), this.eventFactory);
+	}
+
+	@Override
+	public void start() throws SQLException
+	{
+		this.compactor = Executors.newSingleThreadExecutor(this.threadFactory);
+
+		try
+		{
+			Files.createDirectories(this.directory);
+
+			List<Path> paths = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + Segment.SUFFIX))
+			{
+				for (Path path: stream)
+				{
+					paths.add(path);
+				}
+			}
+			// Segment names sort by identifier
+			paths.sort(null);
+
+			synchronized (this.segments)
+			{
+				for (Path path: paths)
+				{
+					Segment segment = new Segment(this.directory, Segment.id(path), 0);
+					this.segments.add(segment);
+					this.replay(segment);
+				}
+
+				if (this.segments.isEmpty())
+				{
+					this.segments.add(new Segment(this.directory, 0, this.segmentSize));
+				}
+				else
+				{
+					// Discard any torn record at the tail, so that it cannot be mistaken for a valid one once overwritten
+					MappedByteBuffer buffer = this.segments.getLast().getBuffer();
+					for (int i = buffer.position(); i < buffer.limit(); ++i)
+					{
+						if (buffer.get(i) != 0)
+						{
+							buffer.put(i, (byte) 0);
+						}
+					}
+				}
+			}
+
+			if (Boolean.getBoolean(StateManager.CLEAR_LOCAL_STATE))
+			{
+				this.write(new RecordWriter(RecordType.ACTIVE_DATABASES).putInt(0));
+			}
+		}
+		catch (IOException | IllegalStateException e)
+		{
+			this.stop();
+			throw new SQLException(e);
+		}
+	}
+
+	@Override
+	public void stop()
+	{
+		ExecutorService compactor = this.compactor;
+		if (compactor != null)
+		{
+			compactor.shutdown();
+			try
+			{
+				compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized (this.segments)
+		{
+			for (Segment segment: this.segments)
+			{
+				try
+				{
+					segment.close();
+				}
+				catch (IOException e)
+				{
+					logger.log(Level.WARN, e);
+				}
+			}
+			this.segments.clear();
+			this.activeDatabases.clear();
+			this.invocations.clear();
+		}
+	}
+
+	@Override
+	public boolean isEnabled()
+	{
+		return true;
+	}
+
+	@Override
+	public void activated(DatabaseEvent event)
+	{
+		this.write(new RecordWriter(RecordType.ACTIVATED).putString(event.getSource()));
+	}
+
+	@Override
+	public void deactivated(DatabaseEvent event)
+	{
+		this.write(new RecordWriter(RecordType.DEACTIVATED).putString(event.getSource()));
+	}
+
+	@Override
+	public Set<String> getActiveDatabases()
+	{
+		synchronized (this.segments)
+		{
+			return new TreeSet<>(this.activeDatabases);
+		}
+	}
+
+	@Override
+	public void setActiveDatabases(Set<String> databases)
+	{
+		RecordWriter writer = new RecordWriter(RecordType.ACTIVE_DATABASES).putInt(databases.size());
+		for (String database: databases)
+		{
+			writer.putString(database);
+		}
+		this.write(writer);
+	}
+
+	@Override
+	public void beforeInvocation(byte[] transactionId, byte phase, byte exceptionType)
+	{
+		this.write(new RecordWriter(RecordType.INVOCATION).putBytes(transactionId).put(phase).put(exceptionType));
+	}
+
+	@Override
+	public void afterInvocation(byte[] transactionId, byte phase)
+	{
+		this.write(new RecordWriter(RecordType.TOMBSTONE).putBytes(transactionId).put(phase));
+	}
+
+	@Override
+	public void beforeInvoker(byte[] transactionId, byte phase, String databaseId)
+	{
+		this.write(new RecordWriter(RecordType.INVOKER).putBytes(transactionId).put(phase).putString(databaseId).putBytes(null));
+	}
+
+	@Override
+	public void afterInvoker(byte[] transactionId, byte phase, String databaseId, byte[] result)
+	{
+		this.write(new RecordWriter(RecordType.INVOKER).putBytes(transactionId).put(phase).putString(databaseId).putBytes(result));
+	}
+
+	@Override
+	public Map<InvocationEvent, Map<String, InvokerEvent>> recover()
+	{
+		Map<InvocationEvent, Map<String, InvokerEvent>> map = new HashMap<>();
+
+		synchronized (this.segments)
+		{
+			for (Map.Entry<InvocationKey, Invocation> entry: this.invocations.entrySet())
+			{
+				InvocationKey key = entry.getKey();
+				Invocation invocation = entry.getValue();
+				InvocationEvent event = this.listener.createInvocationEvent(key.transactionId, key.phase, invocation.exceptionType);
+				Map<String, InvokerEvent> invokers = new HashMap<>();
+
+				for (Map.Entry<String, byte[]> invoker: invocation.invokers.entrySet())
+				{
+					String databaseId = invoker.getKey();
+					byte[] result = invoker.getValue();
+					InvokerEvent invokerEvent = this.eventFactory.createInvokerEvent(event.getTransactionId(), event.getPhase(), databaseId);
+
+					if (result != null)
+					{
+						invokerEvent.setResult(this.listener.createInvokerResult(result));
+					}
+
+					invokers.put(databaseId, invokerEvent);
+				}
+
+				map.put(event, invokers);
+			}
+		}
+
+		return map;
+	}
+
+	@Override
+	public void beforeInvocation(InvocationEvent event)
+	{
+		this.listener.beforeInvocation(event);
+	}
+
+	@Override
+	public void afterInvocation(InvocationEvent event)
+	{
+		this.listener.afterInvocation(event);
+	}
+
+	@Override
+	public void beforeInvoker(InvokerEvent event)
+	{
+		this.listener.beforeInvoker(event);
+	}
+
+	@Override
+	public void afterInvoker(InvokerEvent event)
+	{
+		this.listener.afterInvoker(event);
+	}
+
+	/**
+	 * Appends the specified record to the journal, and returns once it was forced to disk.
+	 * @param writer a record
+	 */
+	private void write(RecordWriter writer)
+	{
+		byte[] record = writer.toByteArray();
+		long sequence;
+		try
+		{
+			synchronized (this.segments)
+			{
+				sequence = this.append(record);
+			}
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		this.force(sequence);
+	}
+
+	/**
+	 * Appends the specified record to the current segment, rolling over to a new segment if it does not fit, and applies it to the in-memory state.
+	 * Must be called while holding the monitor of {@link #segments}.
+	 * @param record a record, i.e. its type and payload
+	 * @return the sequence of this record, i.e. the number of bytes appended to the journal, including this record
+	 * @throws IOException if a new segment could not be created
+	 */
+	private long append(byte[] record) throws IOException
+	{
+		int size = record.length + RECORD_OVERHEAD;
+		Segment segment = this.segments.getLast();
+		MappedByteBuffer buffer = segment.getBuffer();
+
+		if (buffer.remaining() < size)
+		{
+			// Seal the current segment - records appended to subsequent segments are never forced along with it
+			segment.force();
+			segment = new Segment(this.directory, segment.getId() + 1, Math.max(this.segmentSize, size));
+			this.segments.add(segment);
+			buffer = segment.getBuffer();
+			try
+			{
+				this.compactor.execute(this::compact);
+			}
+			catch (RejectedExecutionException e)
+			{
+				// Stopping - compaction will resume on the next start
+			}
+		}
+
+		CRC32 checksum = new CRC32();
+		checksum.update(record, 0, record.length);
+		buffer.putInt(record.length).put(record).putInt((int) checksum.getValue());
+
+		this.apply(ByteBuffer.wrap(record));
+		this.appended += size;
+		return this.appended;
+	}
+
+	/**
+	 * Blocks until all records up to the specified sequence were forced to disk.
+	 * If no force is in progress, the caller forces all records appended so far, on behalf of any concurrent writers.
+	 * @param sequence a sequence returned by {@link #append(byte[])}
+	 */
+	private void force(long sequence)
+	{
+		synchronized (this.forceMonitor)
+		{
+			boolean interrupted = false;
+			while ((this.forced < sequence) && this.forcing)
+			{
+				try
+				{
+					this.forceMonitor.wait();
+				}
+				catch (InterruptedException e)
+				{
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+			}
+			if (this.forced >= sequence) return;
+
+			this.forcing = true;
+		}
+
+		try
+		{
+			long target;
+			Segment segment;
+			synchronized (this.segments)
+			{
+				target = this.appended;
+				segment = this.segments.getLast();
+			}
+			// Any records in previous segments were already forced when sealed
+			segment.force();
+
+			synchronized (this.forceMonitor)
+			{
+				this.forced = Math.max(this.forced, target);
+			}
+		}
+		finally
+		{
+			synchronized (this.forceMonitor)
+			{
+				this.forcing = false;
+				this.forceMonitor.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Writes a checkpoint of the current state, and removes all segments preceding it.
+	 */
+	void compact()
+	{
+		try
+		{
+			long sequence;
+			Segment checkpoint;
+			synchronized (this.segments)
+			{
+				if (this.segments.size() < 2) return;
+
+				sequence = this.append(this.checkpoint());
+				checkpoint = this.segments.getLast();
+			}
+
+			this.force(sequence);
+
+			List<Segment> obsolete = new ArrayList<>();
+			synchronized (this.segments)
+			{
+				while (this.segments.getFirst() != checkpoint)
+				{
+					obsolete.add(this.segments.removeFirst());
+				}
+			}
+
+			for (Segment segment: obsolete)
+			{
+				logger.log(Level.DEBUG, "Removing obsolete journal segment {0}", segment);
+				segment.delete();
+			}
+		}
+		catch (IOException e)
+		{
+			logger.log(Level.WARN, e);
+		}
+	}
+
+	/**
+	 * Creates a checkpoint record, i.e. a snapshot of the current state, which supersedes all preceding records.
+	 * Must be called while holding the monitor of {@link #segments}.
+	 * @return a record
+	 */
+	private byte[] checkpoint()
+	{
+		RecordWriter writer = new RecordWriter(RecordType.CHECKPOINT).putInt(this.activeDatabases.size());
+		for (String database: this.activeDatabases)
+		{
+			writer.putString(database);
+		}
+		writer.putInt(this.invocations.size());
+		for (Map.Entry<InvocationKey, Invocation> entry: this.invocations.entrySet())
+		{
+			InvocationKey key = entry.getKey();
+			Invocation invocation = entry.getValue();
+			writer.putBytes(key.transactionId).put(key.phase).put(invocation.exceptionType).putInt(invocation.invokers.size());
+			for (Map.Entry<String, byte[]> invoker: invocation.invokers.entrySet())
+			{
+				writer.putString(invoker.getKey()).putBytes(invoker.getValue());
+			}
+		}
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Applies the records of the specified segment to the in-memory state, leaving its buffer positioned after the last valid record.
+	 * Must be called while holding the monitor of {@link #segments}.
+	 * @param segment a journal segment
+	 */
+	private void replay(Segment segment)
+	{
+		MappedByteBuffer buffer = segment.getBuffer();
+		CRC32 checksum = new CRC32();
+
+		while (buffer.remaining() >= RECORD_OVERHEAD)
+		{
+			int start = buffer.position();
+			int length = buffer.getInt();
+			if ((length <= 0) || (length > buffer.remaining() - Integer.BYTES))
+			{
+				buffer.position(start);
+				return;
+			}
+			byte[] record = new byte[length];
+			buffer.get(record);
+			checksum.reset();
+			checksum.update(record, 0, length);
+			if (buffer.getInt() != (int) checksum.getValue())
+			{
+				logger.log(Level.WARN, "Discarding torn record at offset {1} of journal segment {0}", segment, start);
+				buffer.position(start);
+				return;
+			}
+			this.apply(ByteBuffer.wrap(record));
+		}
+	}
+
+	/**
+	 * Applies the specified record to the in-memory state.
+	 * Must be called while holding the monitor of {@link #segments}.
+	 * @param record a record, i.e. its type and payload
+	 */
+	private void apply(ByteBuffer record)
+	{
+		RecordType type = RecordType.values()[record.get()];
+		switch (type)
+		{
+			case ACTIVATED:
+			{
+				this.activeDatabases.add(getString(record));
+				break;
+			}
+			case DEACTIVATED:
+			{
+				this.activeDatabases.remove(getString(record));
+				break;
+			}
+			case ACTIVE_DATABASES:
+			{
+				this.activeDatabases.clear();
+				readDatabases(record, this.activeDatabases);
+				break;
+			}
+			case INVOCATION:
+			{
+				InvocationKey key = new InvocationKey(getBytes(record), record.get());
+				this.invocations.put(key, new Invocation(record.get()));
+				break;
+			}
+			case INVOKER:
+			{
+				InvocationKey key = new InvocationKey(getBytes(record), record.get());
+				String databaseId = getString(record);
+				byte[] result = getBytes(record);
+				Invocation invocation = this.invocations.get(key);
+				if (invocation != null)
+				{
+					invocation.invokers.put(databaseId, result);
+				}
+				break;
+			}
+			case TOMBSTONE:
+			{
+				this.invocations.remove(new InvocationKey(getBytes(record), record.get()));
+				break;
+			}
+			case CHECKPOINT:
+			{
+				this.activeDatabases.clear();
+				readDatabases(record, this.activeDatabases);
+				this.invocations.clear();
+				int invocations = record.getInt();
+				for (int i = 0; i < invocations; ++i)
+				{
+					InvocationKey key = new InvocationKey(getBytes(record), record.get());
+					Invocation invocation = new Invocation(record.get());
+					int invokers = record.getInt();
+					for (int j = 0; j < invokers; ++j)
+					{
+						invocation.invokers.put(getString(record), getBytes(record));
+					}
+					this.invocations.put(key, invocation);
+				}
+				break;
+			}
+			default:
+			{
+				throw new IllegalStateException(type.name());
+			}
+		}
+	}
+
+	private static void readDatabases(ByteBuffer record, Set<String> databases)
+	{
+		int size = record.getInt();
+		for (int i = 0; i < size; ++i)
+		{
+			databases.add(getString(record));
+		}
+	}
+
+	private static byte[] getBytes(ByteBuffer buffer)
+	{
+		int length = buffer.getInt();
+		if (length < 0) return null;
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	private static String getString(ByteBuffer buffer)
+	{
+		return new String(getBytes(buffer), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Builds the type and payload of a journal record.
+	 */
+	static class RecordWriter
+	{
+		private ByteBuffer buffer = ByteBuffer.allocate(64);
+
+		RecordWriter(RecordType type)
+		{
+			this.put((byte) type.ordinal());
+		}
+
+		RecordWriter put(byte value)
+		{
+			this.reserve(Byte.BYTES).put(value);
+			return this;
+		}
+
+		RecordWriter putInt(int value)
+		{
+			this.reserve(Integer.BYTES).putInt(value);
+			return this;
+		}
+
+		RecordWriter putBytes(byte[] value)
+		{
+			if (value == null)
+			{
+				return this.putInt(-1);
+			}
+			this.reserve(Integer.BYTES + value.length).putInt(value.length).put(value);
+			return this;
+		}
+
+		RecordWriter putString(String value)
+		{
+			return this.putBytes(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		byte[] toByteArray()
+		{
+			return Arrays.copyOf(this.buffer.array(), this.buffer.position());
+		}
+
+		private ByteBuffer reserve(int bytes)
+		{
+			if (this.buffer.remaining() < bytes)
+			{
+				ByteBuffer buffer = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2, this.buffer.position() + bytes));
+				this.buffer.flip();
+				this.buffer = buffer.put(this.buffer);
+			}
+			return this.buffer;
+		}
+	}
+
+	private static class InvocationKey
+	{
+		final byte[] transactionId;
+		final byte phase;
+
+		InvocationKey(byte[] transactionId, byte phase)
+		{
+			this.transactionId = transactionId;
+			this.phase = phase;
+		}
+
+		@Override
+		public boolean equals(Object object)
+		{
+			if (!(object instanceof InvocationKey)) return false;
+			InvocationKey key = (InvocationKey) object;
+			return (this.phase == key.phase) && Arrays.equals(this.transactionId, key.transactionId);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * Arrays.hashCode(this.transactionId) + this.phase;
+		}
+	}
+
+	private static class Invocation
+	{
+		final byte exceptionType;
+		final Map<String, byte[]> invokers = new HashMap<>();
+
+		Invocation(byte exceptionType)
+		{
+			this.exceptionType = exceptionType;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.journal;
+
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+import io.github.hajdbc.messages.Messages;
+import io.github.hajdbc.messages.MessagesFactory;
+import io.github.hajdbc.state.StateManager;
+import io.github.hajdbc.state.StateManagerFactory;
+import io.github.hajdbc.util.Strings;
+
+/**
+ * @author Paul Ferraro
+ */
+public class JournalStateManagerFactory implements StateManagerFactory
+{
+	private static final long serialVersionUID = 3570462377165282317L;
+
+	private static final Messages messages = MessagesFactory.getMessages();
+	private static final Logger logger = LoggerFactory.getLogger(JournalStateManagerFactory.class);
+
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private String locationPattern = "{1}/{0}";
+	private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+	@Override
+	public String getId()
+	{
+		return "journal";
+	}
+
+	@Override
+	public <Z, D extends Database<Z>> StateManager createStateManager(DatabaseCluster<Z, D> cluster)
+	{
+		String location = MessageFormat.format(this.locationPattern, cluster.getId(), Strings.HA_JDBC_HOME);
+
+		logger.log(Level.INFO, messages.clusterStatePersistence(cluster, location));
+
+		return new JournalStateManager(cluster, Paths.get(location), this.segmentSize);
+	}
+
+	public String getLocationPattern()
+	{
+		return this.locationPattern;
+	}
+
+	public void setLocationPattern(String pattern)
+	{
+		this.locationPattern = pattern;
+	}
+
+	public int getSegmentSize()
+	{
+		return this.segmentSize;
+	}
+
+	public void setSegmentSize(int size)
+	{
+		this.segmentSize = size;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A journal segment, i.e. a fixed size file mapped into memory in its entirety.
+ * The file is sized when created, so that appending to a segment never needs to grow it.
+ * @author Paul Ferraro
+ */
+class Segment implements AutoCloseable
+{
+	static final String SUFFIX = ".journal";
+
+	static Path path(Path directory, long id)
+	{
+		return directory.resolve(String.format("%016x%s", id, SUFFIX));
+	}
+
+	static long id(Path path)
+	{
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()), 16);
+	}
+
+	private final long id;
+	private final Path path;
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Opens the segment with the specified identifier, creating it if necessary.
+	 * @param directory the journal directory
+	 * @param id the segment identifier
+	 * @param size the minimum size of the segment, in bytes
+	 * @throws IOException if the segment could not be opened
+	 */
+	Segment(Path directory, long id, long size) throws IOException
+	{
+		this.id = id;
+		this.path = path(directory, id);
+		this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try
+		{
+			this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(this.channel.size(), size));
+		}
+		catch (IOException e)
+		{
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	long getId()
+	{
+		return this.id;
+	}
+
+	/**
+	 * Returns the mapped content of this segment, positioned at the next write.
+	 * @return a mapped buffer
+	 */
+	MappedByteBuffer getBuffer()
+	{
+		return this.buffer;
+	}
+
+	/**
+	 * Flushes any appended content of this segment to disk.
+	 */
+	void force()
+	{
+		this.buffer.force();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		this.channel.close();
+	}
+
+	/**
+	 * Closes and removes this segment.
+	 * @throws IOException if the segment could not be removed
+	 */
+	void delete() throws IOException
+	{
+		this.close();
+		Files.deleteIfExists(this.path);
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.path.toString();
+	}
+}
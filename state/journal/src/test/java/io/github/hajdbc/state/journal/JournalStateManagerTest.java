@@ -0,0 +1,194 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.journal;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerResultImpl;
+import io.github.hajdbc.durability.fine.FineDurability;
+import io.github.hajdbc.tx.TransactionIdentifierFactory;
+import io.github.hajdbc.tx.UUIDTransactionIdentifierFactory;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * @author Paul Ferraro
+ */
+public class JournalStateManagerTest
+{
+	private final UUIDTransactionIdentifierFactory txIdFactory = new UUIDTransactionIdentifierFactory();
+	private DatabaseCluster<Void, Database<Void>> cluster;
+	private Path directory;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Before
+	public void init() throws IOException
+	{
+		this.directory = Files.createTempDirectory("journal");
+		this.cluster = mock(DatabaseCluster.class);
+		Durability<Void, Database<Void>> durability = new FineDurability<>(this.cluster);
+		when(this.cluster.getDurability()).thenReturn(durability);
+		when(this.cluster.getTransactionIdentifierFactory()).thenReturn((TransactionIdentifierFactory) this.txIdFactory);
+		when(this.cluster.getThreadFactory()).thenReturn(Executors.defaultThreadFactory());
+	}
+
+	@After
+	public void destroy() throws IOException
+	{
+		for (Path path: this.segments())
+		{
+			Files.delete(path);
+		}
+		Files.delete(this.directory);
+	}
+
+	@Test
+	public void recover() throws SQLException
+	{
+		byte[] completed = this.txIdFactory.serialize(UUID.randomUUID());
+		UUID pendingId = UUID.randomUUID();
+		byte[] pending = this.txIdFactory.serialize(pendingId);
+		byte phase = (byte) Durability.Phase.COMMIT.ordinal();
+		byte exceptionType = (byte) ExceptionType.SQL.ordinal();
+		byte[] result = Objects.serialize(new InvokerResultImpl(Integer.valueOf(1)));
+
+		JournalStateManager manager = new JournalStateManager(this.cluster, this.directory, 1024);
+		manager.start();
+		try
+		{
+			manager.setActiveDatabases(new HashSet<>(Arrays.asList("db1", "db2")));
+			manager.beforeInvocation(completed, phase, exceptionType);
+			manager.beforeInvoker(completed, phase, "db1");
+			manager.afterInvoker(completed, phase, "db1", result);
+			manager.beforeInvocation(pending, phase, exceptionType);
+			manager.beforeInvoker(pending, phase, "db1");
+			manager.afterInvoker(pending, phase, "db1", result);
+			manager.beforeInvoker(pending, phase, "db2");
+			manager.afterInvocation(completed, phase);
+		}
+		finally
+		{
+			manager.stop();
+		}
+
+		manager = new JournalStateManager(this.cluster, this.directory, 1024);
+		manager.start();
+		try
+		{
+			assertEquals(new HashSet<>(Arrays.asList("db1", "db2")), manager.getActiveDatabases());
+
+			Map<InvocationEvent, Map<String, InvokerEvent>> invocations = manager.recover();
+			assertEquals(1, invocations.size());
+			Map.Entry<InvocationEvent, Map<String, InvokerEvent>> entry = invocations.entrySet().iterator().next();
+			assertEquals(pendingId, entry.getKey().getTransactionId());
+			assertSame(Durability.Phase.COMMIT, entry.getKey().getPhase());
+			assertSame(ExceptionType.SQL, entry.getKey().getExceptionType());
+			Map<String, InvokerEvent> invokers = entry.getValue();
+			assertEquals(2, invokers.size());
+			assertEquals(Integer.valueOf(1), invokers.get("db1").getResult().getValue());
+			assertNull(invokers.get("db2").getResult());
+		}
+		finally
+		{
+			manager.stop();
+		}
+	}
+
+	@Test
+	public void compact() throws SQLException, IOException
+	{
+		byte phase = (byte) Durability.Phase.PREPARE.ordinal();
+		byte exceptionType = (byte) ExceptionType.SQL.ordinal();
+		UUID pendingId = UUID.randomUUID();
+		byte[] pending = this.txIdFactory.serialize(pendingId);
+
+		// Use tiny segments, so that completed invocations roll over many segments
+		JournalStateManager manager = new JournalStateManager(this.cluster, this.directory, 256);
+		manager.start();
+		try
+		{
+			manager.setActiveDatabases(Collections.singleton("db1"));
+			manager.beforeInvocation(pending, phase, exceptionType);
+			for (int i = 0; i < 100; ++i)
+			{
+				byte[] txId = this.txIdFactory.serialize(UUID.randomUUID());
+				manager.beforeInvocation(txId, phase, exceptionType);
+				manager.beforeInvoker(txId, phase, "db1");
+				manager.afterInvocation(txId, phase);
+			}
+		}
+		finally
+		{
+			// Completes any pending compaction
+			manager.stop();
+		}
+
+		assertTrue(this.segments().size() <= 2);
+
+		manager = new JournalStateManager(this.cluster, this.directory, 256);
+		manager.start();
+		try
+		{
+			assertEquals(Collections.singleton("db1"), manager.getActiveDatabases());
+			Map<InvocationEvent, Map<String, InvokerEvent>> invocations = manager.recover();
+			assertEquals(1, invocations.size());
+			assertEquals(pendingId, invocations.keySet().iterator().next().getTransactionId());
+		}
+		finally
+		{
+			manager.stop();
+		}
+	}
+
+	private List<Path> segments() throws IOException
+	{
+		List<Path> segments = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory))
+		{
+			for (Path path: stream)
+			{
+				segments.add(path);
+			}
+		}
+		return segments;
+	}
+}
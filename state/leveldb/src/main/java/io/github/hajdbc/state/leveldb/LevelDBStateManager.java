@@ -9,19 +9,19 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 
 import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBFactory;
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.WriteOptions;
 
 import io.github.hajdbc.DatabaseCluster;
-import io.github.hajdbc.durability.DurabilityEvent;
 import io.github.hajdbc.durability.DurabilityEventFactory;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
-import io.github.hajdbc.durability.InvokerResult;
 import io.github.hajdbc.logging.Level;
 import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
@@ -29,26 +29,43 @@ import io.github.hajdbc.state.DatabaseEvent;
 import io.github.hajdbc.state.DurabilityListenerAdapter;
 import io.github.hajdbc.state.SerializedDurabilityListener;
 import io.github.hajdbc.state.StateManager;
-import io.github.hajdbc.util.Objects;
 
+/**
+ * State manager backed by a single LevelDB database.
+ * Each record type occupies its own key space, distinguished by a leading prefix byte:
+ * <dl>
+ * <dt>state</dt><dd><code>[prefix][database id]</code> &rarr; empty</dd>
+ * <dt>invocation</dt><dd><code>[prefix][tx id length][tx id][phase]</code> &rarr; <code>[exception type]</code></dd>
+ * <dt>invoker</dt><dd><code>[prefix][tx id length][tx id][phase][database id]</code> &rarr; result, or empty if none</dd>
+ * </dl>
+ * Since keys are ordered, the invokers of an invocation form a contiguous range that is deleted, along with its invocation, in a single write batch.
+ * @author Paul Ferraro
+ */
 public class LevelDBStateManager implements StateManager, SerializedDurabilityListener
 {
 	private static final Logger logger = LoggerFactory.getLogger(LevelDBStateManager.class);
-	
+
+	private static final byte STATE_PREFIX = 0;
+	private static final byte INVOCATION_PREFIX = 1;
+	private static final byte INVOKER_PREFIX = 2;
+	private static final byte[] EMPTY = new byte[0];
+
 	private final DBFactory factory;
 	private final File file;
 	private final Options options;
+	private final WriteOptions stateOptions;
+	private final WriteOptions durabilityOptions;
 	private final DurabilityEventFactory eventFactory;
 	private final DurabilityListenerAdapter listener;
-	private volatile DB stateDatabase;
-	private volatile DB invokerDatabase;
-	private volatile DB invocationDatabase;
-	
-	public LevelDBStateManager(DatabaseCluster<?, ?> cluster, DBFactory factory, File file, Options options)
+	private volatile DB database;
+
+	public LevelDBStateManager(DatabaseCluster<?, ?> cluster, DBFactory factory, File file, Options options, SyncPolicy policy)
 	{
 		this.factory = factory;
 		this.file = file;
 		this.options = options;
+		this.stateOptions = new WriteOptions().sync(policy.syncState());
+		this.durabilityOptions = new WriteOptions().sync(policy.syncDurability());
 		this.eventFactory = cluster.getDurability();
 		this.listener = new DurabilityListenerAdapter(this, cluster.getTransactionIdentifierFactory(), this.eventFactory);
 	}
@@ -58,28 +75,34 @@ public class LevelDBStateManager implements StateManager, SerializedDurabilityLi
 	{
 		try
 		{
-			this.stateDatabase = this.factory.open(this.file, this.options);
-			this.invokerDatabase = this.factory.open(this.file, this.options);
-			this.invocationDatabase = this.factory.open(this.file, this.options);
+			this.file.mkdirs();
+			this.database = this.factory.open(this.file, this.options);
 		}
 		catch (IOException e)
 		{
 			throw new SQLException(e);
 		}
+
+		if (Boolean.getBoolean(StateManager.CLEAR_LOCAL_STATE))
+		{
+			this.setActiveDatabases(new TreeSet<String>());
+		}
 	}
 
 	@Override
 	public void stop()
 	{
-		try
-		{
-			this.stateDatabase.close();
-			this.invokerDatabase.close();
-			this.invocationDatabase.close();
-		}
-		catch (IOException e)
+		DB database = this.database;
+		if (database != null)
 		{
-			logger.log(Level.WARN, e);
+			try
+			{
+				database.close();
+			}
+			catch (IOException e)
+			{
+				logger.log(Level.WARN, e);
+			}
 		}
 	}
 
@@ -88,51 +111,55 @@ public class LevelDBStateManager implements StateManager, SerializedDurabilityLi
 	{
 		return true;
 	}
-	
+
 	@Override
 	public void activated(DatabaseEvent event)
 	{
-		this.stateDatabase.put(event.getSource().getBytes(StandardCharsets.UTF_8), null);
+		this.database.put(createStateKey(event.getSource()), EMPTY, this.stateOptions);
 	}
 
 	@Override
 	public void deactivated(DatabaseEvent event)
 	{
-		this.stateDatabase.delete(event.getSource().getBytes(StandardCharsets.UTF_8));
+		this.database.delete(createStateKey(event.getSource()), this.stateOptions);
 	}
 
 	@Override
 	public Set<String> getActiveDatabases()
 	{
-		try (DBIterator entries = this.stateDatabase.iterator())
+		byte[] prefix = new byte[] { STATE_PREFIX };
+		Set<String> databases = new TreeSet<>();
+
+		try (DBIterator entries = this.database.iterator())
 		{
-			Set<String> databases = new TreeSet<>();
+			entries.seek(prefix);
 			while (entries.hasNext())
 			{
-				databases.add(new String(entries.next().getKey(), StandardCharsets.UTF_8));
+				byte[] key = entries.next().getKey();
+				if (!startsWith(key, prefix)) break;
+				databases.add(new String(key, 1, key.length - 1, StandardCharsets.UTF_8));
 			}
-			return databases;
 		}
 		catch (IOException e)
 		{
 			throw new IllegalStateException(e);
 		}
+		return databases;
 	}
 
 	@Override
 	public void setActiveDatabases(Set<String> databases)
 	{
-		try (WriteBatch batch = this.stateDatabase.createWriteBatch())
+		byte[] prefix = new byte[] { STATE_PREFIX };
+
+		try (WriteBatch batch = this.database.createWriteBatch())
 		{
-			for (Map.Entry<byte[], byte[]> entry: this.stateDatabase)
-			{
-				batch.delete(entry.getKey());
-			}
+			deleteRange(this.database, batch, prefix);
 			for (String database: databases)
 			{
-				batch.put(database.getBytes(StandardCharsets.UTF_8), null);
+				batch.put(createStateKey(database), EMPTY);
 			}
-			this.stateDatabase.write(batch);
+			this.database.write(batch, this.stateOptions);
 		}
 		catch (IOException e)
 		{
@@ -143,19 +170,17 @@ public class LevelDBStateManager implements StateManager, SerializedDurabilityLi
 	@Override
 	public void beforeInvocation(byte[] transactionId, byte phase, byte exceptionType)
 	{
-		this.invocationDatabase.put(createKey(transactionId, phase), new byte[] { exceptionType });
+		this.database.put(createKey(INVOCATION_PREFIX, transactionId, phase, 0), new byte[] { exceptionType }, this.durabilityOptions);
 	}
 
 	@Override
 	public void afterInvocation(byte[] transactionId, byte phase)
 	{
-		try (WriteBatch batch = this.invokerDatabase.createWriteBatch())
+		try (WriteBatch batch = this.database.createWriteBatch())
 		{
-			for (String database: new String[] { })
-			{
-				batch.delete(createKey(transactionId, phase, database));
-			}
-			this.invocationDatabase.delete(createKey(transactionId, phase));
+			deleteRange(this.database, batch, createKey(INVOKER_PREFIX, transactionId, phase, 0));
+			batch.delete(createKey(INVOCATION_PREFIX, transactionId, phase, 0));
+			this.database.write(batch, this.durabilityOptions);
 		}
 		catch (IOException e)
 		{
@@ -163,85 +188,79 @@ public class LevelDBStateManager implements StateManager, SerializedDurabilityLi
 		}
 	}
 
-	private static byte[] createKey(byte[] transactionId, byte phase) {
-		byte[] key = Arrays.copyOf(transactionId, transactionId.length + 1);
-		key[transactionId.length] = phase;
-		return key;
-	}
-
 	@Override
 	public void beforeInvoker(byte[] transactionId, byte phase, String databaseId)
 	{
-		this.invokerDatabase.put(createKey(transactionId, phase, databaseId), null);
+		this.database.put(createInvokerKey(transactionId, phase, databaseId), EMPTY, this.durabilityOptions);
 	}
 
 	@Override
 	public void afterInvoker(byte[] transactionId, byte phase, String databaseId, byte[] result)
 	{
-		this.invokerDatabase.put(createKey(transactionId, phase, databaseId), result);
-	}
-
-	private static byte[] createKey(byte[] transactionId, byte phase, String database) {
-		byte[] databaseBytes = database.getBytes(StandardCharsets.UTF_8);
-		byte[] key = new byte[transactionId.length + 2 + databaseBytes.length];
-		key[0] = (byte) transactionId.length;
-		for (int i = 0; i < transactionId.length; ++i)
-		{
-			key[1 + i] = databaseBytes[i];
-		}
-		key[transactionId.length + 1] = phase;
-		for (int i = 0; i < databaseBytes.length; ++i)
-		{
-			key[transactionId.length + 2 + i] = databaseBytes[i];
-		}
-		return key;
+		this.database.put(createInvokerKey(transactionId, phase, databaseId), (result != null) ? result : EMPTY, this.durabilityOptions);
 	}
 
 	@Override
 	public Map<InvocationEvent, Map<String, InvokerEvent>> recover()
 	{
-		Map<InvocationEvent, Map<String, InvokerEvent>> map = new HashMap<>();
-		
-		try (DBIterator entries = this.invocationDatabase.iterator())
+		final Map<InvocationEvent, Map<String, InvokerEvent>> map = new HashMap<>();
+		this.recover(new BiConsumer<InvocationEvent, Map<String, InvokerEvent>>()
 		{
-			while (entries.hasNext())
+			@Override
+			public void accept(InvocationEvent invocation, Map<String, InvokerEvent> invokers)
 			{
-				Map.Entry<byte[], byte[]> entry = entries.next();
-				byte[] key = entry.getKey();
-				byte[] txId = Arrays.copyOf(key, key.length - 1);
-				byte phase = key[key.length - 1];
-				byte exceptionType = entry.getValue()[0];
-				map.put(this.listener.createInvocationEvent(txId, phase, exceptionType), new HashMap<String, InvokerEvent>());
+				map.put(invocation, invokers);
 			}
-		}
-		catch (IOException e)
-		{
-			throw new IllegalStateException(e);
-		}
+		});
+		return map;
+	}
 
-		try (DBIterator entries = this.invokerDatabase.iterator())
+	/**
+	 * Streams each invocation record, along with the range of its invoker records.
+	 */
+	@Override
+	public void recover(BiConsumer<InvocationEvent, Map<String, InvokerEvent>> consumer)
+	{
+		byte[] prefix = new byte[] { INVOCATION_PREFIX };
+
+		try (DBIterator invocations = this.database.iterator())
 		{
-			while (entries.hasNext())
+			try (DBIterator invokers = this.database.iterator())
 			{
-				Map.Entry<byte[], byte[]> entry = entries.next();
-				byte[] key = entry.getKey();
-				byte[] txId = Arrays.copyOfRange(key, 1, key[0] + 1);
-				byte phase = key[txId.length + 1];
-				String databaseId = new String(Arrays.copyOfRange(key, txId.length + 2, key.length), StandardCharsets.UTF_8);
-				
-				DurabilityEvent event = this.listener.createEvent(txId, phase);
-				Map<String, InvokerEvent> invokers = map.get(event);
-				if (invokers != null)
+				invocations.seek(prefix);
+				while (invocations.hasNext())
 				{
-					InvokerEvent invokerEvent = this.eventFactory.createInvokerEvent(event.getTransactionId(), event.getPhase(), databaseId);
-					byte[] value = entry.getValue();
-					
-					if (value != null)
+					Map.Entry<byte[], byte[]> entry = invocations.next();
+					byte[] key = entry.getKey();
+					if (!startsWith(key, prefix)) break;
+
+					int length = key[1] & 0xFF;
+					byte[] txId = Arrays.copyOfRange(key, 2, 2 + length);
+					byte phase = key[2 + length];
+					InvocationEvent invocation = this.listener.createInvocationEvent(txId, phase, entry.getValue()[0]);
+					Map<String, InvokerEvent> invocationInvokers = new HashMap<>();
+
+					byte[] invokerPrefix = createKey(INVOKER_PREFIX, txId, phase, 0);
+					invokers.seek(invokerPrefix);
+					while (invokers.hasNext())
 					{
-						invokerEvent.setResult(Objects.deserialize(value, InvokerResult.class));
+						Map.Entry<byte[], byte[]> invokerEntry = invokers.next();
+						byte[] invokerKey = invokerEntry.getKey();
+						if (!startsWith(invokerKey, invokerPrefix)) break;
+
+						String databaseId = new String(invokerKey, invokerPrefix.length, invokerKey.length - invokerPrefix.length, StandardCharsets.UTF_8);
+						InvokerEvent invoker = this.eventFactory.createInvokerEvent(invocation.getTransactionId(), invocation.getPhase(), databaseId);
+						byte[] value = invokerEntry.getValue();
+
+						if (value.length > 0)
+						{
+							invoker.setResult(this.listener.createInvokerResult(value));
+						}
+
+						invocationInvokers.put(databaseId, invoker);
 					}
-					
-					invokers.put(databaseId, invokerEvent);
+
+					consumer.accept(invocation, invocationInvokers);
 				}
 			}
 		}
@@ -249,8 +268,6 @@ public class LevelDBStateManager implements StateManager, SerializedDurabilityLi
 		{
 			throw new IllegalStateException(e);
 		}
-
-		return map;
 	}
 
 	@Override
@@ -276,4 +293,61 @@ public class LevelDBStateManager implements StateManager, SerializedDurabilityLi
 	{
 		this.listener.afterInvoker(event);
 	}
+
+	/**
+	 * Adds a delete of every key starting with the specified prefix to the specified batch.
+	 */
+	private static void deleteRange(DB database, WriteBatch batch, byte[] prefix) throws IOException
+	{
+		try (DBIterator entries = database.iterator())
+		{
+			entries.seek(prefix);
+			while (entries.hasNext())
+			{
+				byte[] key = entries.next().getKey();
+				if (!startsWith(key, prefix)) break;
+				batch.delete(key);
+			}
+		}
+	}
+
+	private static boolean startsWith(byte[] key, byte[] prefix)
+	{
+		if (key.length < prefix.length) return false;
+		for (int i = 0; i < prefix.length; ++i)
+		{
+			if (key[i] != prefix[i]) return false;
+		}
+		return true;
+	}
+
+	private static byte[] createStateKey(String databaseId)
+	{
+		byte[] database = databaseId.getBytes(StandardCharsets.UTF_8);
+		byte[] key = new byte[database.length + 1];
+		key[0] = STATE_PREFIX;
+		System.arraycopy(database, 0, key, 1, database.length);
+		return key;
+	}
+
+	/**
+	 * Creates a key for the specified transaction and phase, reserving the specified number of trailing bytes.
+	 */
+	private static byte[] createKey(byte prefix, byte[] transactionId, byte phase, int reserve)
+	{
+		byte[] key = new byte[transactionId.length + 3 + reserve];
+		key[0] = prefix;
+		key[1] = (byte) transactionId.length;
+		System.arraycopy(transactionId, 0, key, 2, transactionId.length);
+		key[transactionId.length + 2] = phase;
+		return key;
+	}
+
+	private static byte[] createInvokerKey(byte[] transactionId, byte phase, String databaseId)
+	{
+		byte[] database = databaseId.getBytes(StandardCharsets.UTF_8);
+		byte[] key = createKey(INVOKER_PREFIX, transactionId, phase, database.length);
+		System.arraycopy(database, 0, key, key.length - database.length, database.length);
+		return key;
+	}
 }
@@ -17,12 +17,23 @@
  */
 package io.github.hajdbc.state.leveldb;
 
+import java.io.File;
 import java.sql.SQLException;
+import java.text.MessageFormat;
+
+import org.iq80.leveldb.DBFactory;
+import org.iq80.leveldb.Options;
 
 import io.github.hajdbc.Database;
 import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.logging.Level;
+import io.github.hajdbc.logging.Logger;
+import io.github.hajdbc.logging.LoggerFactory;
+import io.github.hajdbc.messages.Messages;
+import io.github.hajdbc.messages.MessagesFactory;
 import io.github.hajdbc.state.StateManager;
 import io.github.hajdbc.state.StateManagerFactory;
+import io.github.hajdbc.util.Strings;
 
 /**
  * @author Paul Ferraro
@@ -32,6 +43,15 @@ public class LevelDBStateManagerFactory implements StateManagerFactory
 {
 	private static final long serialVersionUID = -5690771163802500837L;
 
+	private static final Messages messages = MessagesFactory.getMessages();
+	private static final Logger logger = LoggerFactory.getLogger(LevelDBStateManagerFactory.class);
+
+	// LevelDB implementations, in order of preference, each exposing a static "factory" field
+	private static final String[] DB_FACTORY_CLASSES = new String[] { "org.fusesource.leveldbjni.JniDBFactory", "org.iq80.leveldb.impl.Iq80DBFactory" };
+
+	private String locationPattern = "{1}/{0}";
+	private SyncPolicy syncPolicy = SyncPolicy.ALWAYS;
+
 	@Override
 	public String getId()
 	{
@@ -41,11 +61,48 @@ public class LevelDBStateManagerFactory implements StateManagerFactory
 	@Override
 	public <Z, D extends Database<Z>> StateManager createStateManager(DatabaseCluster<Z, D> cluster) throws SQLException
 	{
-		return null;
+		String location = MessageFormat.format(this.locationPattern, cluster.getId(), Strings.HA_JDBC_HOME);
+		Options options = new Options().createIfMissing(true);
+
+		logger.log(Level.INFO, messages.clusterStatePersistence(cluster, location));
+
+		return new LevelDBStateManager(cluster, findDBFactory(), new File(location), options, this.syncPolicy);
+	}
+
+	private static DBFactory findDBFactory() throws SQLException
+	{
+		ClassLoader loader = LevelDBStateManagerFactory.class.getClassLoader();
+		for (String className: DB_FACTORY_CLASSES)
+		{
+			try
+			{
+				return (DBFactory) loader.loadClass(className).getField("factory").get(null);
+			}
+			catch (ReflectiveOperationException | LinkageError e)
+			{
+				logger.log(Level.DEBUG, "{0} is not available: {1}", className, e);
+			}
+		}
+		throw new SQLException(MessageFormat.format("No LevelDB implementation found, expected one of {0}", String.join(", ", DB_FACTORY_CLASSES)));
+	}
+
+	public String getLocationPattern()
+	{
+		return this.locationPattern;
 	}
 
 	public void setLocationPattern(String pattern)
 	{
-		
+		this.locationPattern = pattern;
+	}
+
+	public SyncPolicy getSyncPolicy()
+	{
+		return this.syncPolicy;
+	}
+
+	public void setSyncPolicy(SyncPolicy policy)
+	{
+		this.syncPolicy = policy;
 	}
 }
@@ -0,0 +1,65 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.leveldb;
+
+/**
+ * Determines which writes to the LevelDB state store are synchronized to disk before returning.
+ * @author Paul Ferraro
+ */
+public enum SyncPolicy
+{
+	/**
+	 * Every write is synchronized.  Survives process and operating system failure.
+	 */
+	ALWAYS(true, true),
+	/**
+	 * Only cluster state changes are synchronized.  Durability events survive process failure, but not operating system failure.
+	 */
+	STATE(true, false),
+	/**
+	 * No write is synchronized.
+	 */
+	NEVER(false, false),
+	;
+	private final boolean state;
+	private final boolean durability;
+
+	private SyncPolicy(boolean state, boolean durability)
+	{
+		this.state = state;
+		this.durability = durability;
+	}
+
+	/**
+	 * Indicates whether changes to the set of active databases are synchronized.
+	 * @return true, if cluster state writes are synchronized, false otherwise
+	 */
+	public boolean syncState()
+	{
+		return this.state;
+	}
+
+	/**
+	 * Indicates whether durability events are synchronized.
+	 * @return true, if durability writes are synchronized, false otherwise
+	 */
+	public boolean syncDurability()
+	{
+		return this.durability;
+	}
+}
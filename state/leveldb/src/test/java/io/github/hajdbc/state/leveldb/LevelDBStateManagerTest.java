@@ -0,0 +1,173 @@
+/*
+ * HA-JDBC: High-Availability JDBC
+ * Copyright (C) 2016  Paul Ferraro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.hajdbc.state.leveldb;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hajdbc.Database;
+import io.github.hajdbc.DatabaseCluster;
+import io.github.hajdbc.ExceptionType;
+import io.github.hajdbc.durability.Durability;
+import io.github.hajdbc.durability.InvocationEvent;
+import io.github.hajdbc.durability.InvokerEvent;
+import io.github.hajdbc.durability.InvokerResultImpl;
+import io.github.hajdbc.durability.fine.FineDurability;
+import io.github.hajdbc.state.DatabaseEvent;
+import io.github.hajdbc.tx.TransactionIdentifierFactory;
+import io.github.hajdbc.tx.UUIDTransactionIdentifierFactory;
+import io.github.hajdbc.util.Objects;
+
+/**
+ * @author Paul Ferraro
+ */
+public class LevelDBStateManagerTest
+{
+	private final UUIDTransactionIdentifierFactory txIdFactory = new UUIDTransactionIdentifierFactory();
+	private final Options options = new Options().createIfMissing(true);
+	private DatabaseCluster<Void, Database<Void>> cluster;
+	private Database<Void> database2;
+	private Path directory;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Before
+	public void init() throws IOException
+	{
+		this.directory = Files.createTempDirectory("leveldb");
+		this.cluster = mock(DatabaseCluster.class);
+		Durability<Void, Database<Void>> durability = new FineDurability<>(this.cluster);
+		when(this.cluster.getDurability()).thenReturn(durability);
+		when(this.cluster.getTransactionIdentifierFactory()).thenReturn((TransactionIdentifierFactory) this.txIdFactory);
+		this.database2 = mock(Database.class);
+		when(this.database2.getId()).thenReturn("db2");
+	}
+
+	@After
+	public void destroy() throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(this.directory))
+		{
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Test
+	public void recover() throws SQLException, IOException
+	{
+		byte[] completed = this.txIdFactory.serialize(UUID.randomUUID());
+		UUID pendingId = UUID.randomUUID();
+		byte[] pending = this.txIdFactory.serialize(pendingId);
+		byte phase = (byte) Durability.Phase.COMMIT.ordinal();
+		byte exceptionType = (byte) ExceptionType.SQL.ordinal();
+		byte[] result = Objects.serialize(new InvokerResultImpl(Integer.valueOf(1)));
+
+		LevelDBStateManager manager = this.createStateManager();
+		manager.start();
+		try
+		{
+			manager.setActiveDatabases(new HashSet<>(Arrays.asList("db1", "db2")));
+			manager.deactivated(new DatabaseEvent(this.database2));
+			manager.beforeInvocation(completed, phase, exceptionType);
+			manager.beforeInvoker(completed, phase, "db1");
+			manager.afterInvoker(completed, phase, "db1", result);
+			manager.beforeInvoker(completed, phase, "db2");
+			manager.beforeInvocation(pending, phase, exceptionType);
+			manager.beforeInvoker(pending, phase, "db1");
+			manager.afterInvoker(pending, phase, "db1", result);
+			manager.beforeInvoker(pending, phase, "db2");
+			manager.afterInvocation(completed, phase);
+		}
+		finally
+		{
+			manager.stop();
+		}
+
+		// 1 state record + 1 invocation + 2 invokers; completed invocation leaves nothing behind
+		assertEquals(4, this.countRecords());
+
+		manager = this.createStateManager();
+		manager.start();
+		try
+		{
+			assertEquals(new HashSet<>(Arrays.asList("db1")), manager.getActiveDatabases());
+
+			Map<InvocationEvent, Map<String, InvokerEvent>> invocations = manager.recover();
+			assertEquals(1, invocations.size());
+			Map.Entry<InvocationEvent, Map<String, InvokerEvent>> entry = invocations.entrySet().iterator().next();
+			assertEquals(pendingId, entry.getKey().getTransactionId());
+			assertSame(Durability.Phase.COMMIT, entry.getKey().getPhase());
+			assertSame(ExceptionType.SQL, entry.getKey().getExceptionType());
+			Map<String, InvokerEvent> invokers = entry.getValue();
+			assertEquals(2, invokers.size());
+			assertEquals(Integer.valueOf(1), invokers.get("db1").getResult().getValue());
+			assertNull(invokers.get("db2").getResult());
+
+			manager.afterInvocation(pending, phase);
+			assertTrue(manager.recover().isEmpty());
+		}
+		finally
+		{
+			manager.stop();
+		}
+
+		assertEquals(1, this.countRecords());
+	}
+
+	private LevelDBStateManager createStateManager()
+	{
+		return new LevelDBStateManager(this.cluster, Iq80DBFactory.factory, this.directory.toFile(), this.options, SyncPolicy.NEVER);
+	}
+
+	private int countRecords() throws IOException
+	{
+		int count = 0;
+		try (DB database = Iq80DBFactory.factory.open(this.directory.toFile(), this.options))
+		{
+			try (DBIterator entries = database.iterator())
+			{
+				entries.seekToFirst();
+				while (entries.hasNext())
+				{
+					entries.next();
+					count += 1;
+				}
+			}
+		}
+		return count;
+	}
+}
@@ -43,7 +43,6 @@ import io.github.hajdbc.durability.DurabilityEvent;
 import io.github.hajdbc.durability.DurabilityEventFactory;
 import io.github.hajdbc.durability.InvocationEvent;
 import io.github.hajdbc.durability.InvokerEvent;
-import io.github.hajdbc.durability.InvokerResult;
 import io.github.hajdbc.logging.Level;
 import io.github.hajdbc.logging.Logger;
 import io.github.hajdbc.logging.LoggerFactory;
@@ -53,7 +52,6 @@ import io.github.hajdbc.state.DatabaseEvent;
 import io.github.hajdbc.state.DurabilityListenerAdapter;
 import io.github.hajdbc.state.SerializedDurabilityListener;
 import io.github.hajdbc.state.StateManager;
-import io.github.hajdbc.util.Objects;
 
 /**
  * @author Paul Ferraro
@@ -360,7 +358,7 @@ public class SQLiteStateManager<Z, D extends Database<Z>> implements StateManage
 								if (!cursor.isNull(RESULT_COLUMN))
 								{
 									byte[] result = cursor.getBlobAsArray(RESULT_COLUMN);
-									invokerEvent.setResult(Objects.deserialize(result, InvokerResult.class));
+									invokerEvent.setResult(SQLiteStateManager.this.listener.createInvokerResult(result));
 								}
 								
 								invokers.put(databaseId, invokerEvent);